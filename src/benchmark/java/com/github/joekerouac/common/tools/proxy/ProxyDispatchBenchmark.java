@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.proxy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 代理方法调用开销基准测试，拦截器直接调用原方法，测试结果就是代理本身的调用开销；
+ * 
+ * proxy参数格式为：客户端类型[_CLASS]，带_CLASS后缀的代理父类{@link Impl}，否则代理接口{@link Service}并将调用转发到{@link Impl}实例，
+ * {@link ProxyClient.ClientType#JAVA}只支持代理接口；
+ * 
+ * 只使用了{@link ProxyClient}的公开API，可以在不同版本上运行对比，需要分配数据时附带gc profiler运行：
+ * 
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="ProxyDispatchBenchmark -prof gc"
+ * </pre>
+ * 
+ * 注意，JDK9及以上版本运行CGLIB需要添加--add-opens java.base/java.lang=ALL-UNNAMED
+ *
+ * @author JoeKerouac
+ * @date 2026-10-18 11:30:00
+ * @since 2.1.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dtest.log.level=WARN")
+public class ProxyDispatchBenchmark {
+
+    @Param({"JAVA", "CGLIB", "CGLIB_CLASS", "BYTE_BUDDY", "BYTE_BUDDY_CLASS"})
+    private String proxy;
+
+    private Service service;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        Interception interception = (target, params, method, invoker) -> invoker.call();
+
+        boolean classProxy = proxy.endsWith("_CLASS");
+        ProxyClient client = ProxyClient.getInstance(
+            ProxyClient.ClientType.valueOf(classProxy ? proxy.substring(0, proxy.length() - 6) : proxy));
+        service = classProxy ? client.create(Impl.class, interception)
+            : client.create(Service.class, new Impl(), interception);
+    }
+
+    /**
+     * 通过代理调用
+     */
+    @Benchmark
+    public int proxy() {
+        return service.add(value++, 1);
+    }
+
+    public interface Service {
+
+        int add(int a, int b);
+    }
+
+    public static class Impl implements Service {
+
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+}
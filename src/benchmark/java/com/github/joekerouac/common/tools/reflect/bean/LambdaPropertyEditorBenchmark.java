@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.reflect.bean;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 字段编辑器读写性能基准测试，对比反射实现{@link BeanUtils.SimplePropertyEditor}与{@link LambdaPropertyEditor}；
+ * 
+ * 每次调用通过get、set方法写入并读取一次int字段，lambda实现分别测试装箱接口和原生类型接口
+ *
+ * @author JoeKerouac
+ * @date 2026-10-18 11:00:00
+ * @since 2.1.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dtest.log.level=WARN")
+public class LambdaPropertyEditorBenchmark {
+
+    private PropertyEditor reflect;
+
+    private PropertyEditor lambda;
+
+    private Bean bean;
+
+    private int value;
+
+    @Setup
+    public void setup() throws Exception {
+        Field field = Bean.class.getDeclaredField("age");
+        Method readMethod = Bean.class.getMethod("getAge");
+        Method writeMethod = Bean.class.getMethod("setAge", int.class);
+        reflect = new BeanUtils.SimplePropertyEditor(field, Bean.class, readMethod, writeMethod);
+        lambda = new LambdaPropertyEditor(field, Bean.class, readMethod, writeMethod);
+        bean = new Bean();
+    }
+
+    /**
+     * 反射读写
+     */
+    @Benchmark
+    public int reflect() {
+        reflect.write(bean, value++);
+        return (int)reflect.read(bean);
+    }
+
+    /**
+     * lambda读写，使用装箱接口
+     */
+    @Benchmark
+    public int lambdaBoxed() {
+        lambda.write(bean, value++);
+        return (int)lambda.read(bean);
+    }
+
+    /**
+     * lambda读写，使用原生类型接口
+     */
+    @Benchmark
+    public int lambdaPrimitive() {
+        lambda.writeInt(bean, value++);
+        return lambda.readInt(bean);
+    }
+
+    public static class Bean {
+
+        private int age;
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+
+}
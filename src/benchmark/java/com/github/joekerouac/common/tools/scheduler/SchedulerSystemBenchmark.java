@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.scheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.joekerouac.common.tools.thread.ThreadUtil;
+
+/**
+ * 大量任务注册、执行的基准测试，任务注册是O(1)的，调度线程只会处理到期任务；
+ * 
+ * 一半任务在100~199ms内到期，一半任务在测试期间不会到期，每次调用都会使用一个新的调度系统
+ *
+ * @author JoeKerouac
+ * @date 2026-10-18 10:00:00
+ * @since 2.1.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dtest.log.level=WARN")
+public class SchedulerSystemBenchmark {
+
+    @Param({"100000"})
+    private int taskCount;
+
+    private ExecutorService executorService;
+
+    private SchedulerSystem schedulerSystem;
+
+    private AtomicLong counter;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        executorService = Executors.newFixedThreadPool(4);
+        schedulerSystem = new SchedulerSystemImpl("large-benchmark", executorService, true);
+        schedulerSystem.start();
+        counter = new AtomicLong();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        schedulerSystem.stop();
+        executorService.shutdownNow();
+    }
+
+    /**
+     * 只注册任务
+     */
+    @Benchmark
+    public void register() {
+        registerTasks();
+    }
+
+    /**
+     * 注册任务并等待所有很快到期的任务都执行过
+     */
+    @Benchmark
+    public void registerAndExecute() {
+        registerTasks();
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (counter.get() < taskCount / 2) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("到期任务没有在10s内执行完毕，已执行： " + counter.get());
+            }
+            ThreadUtil.sleep(1, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void registerTasks() {
+        for (int i = 0; i < taskCount; i++) {
+            long interval = (i & 1) == 0 ? 100 + (i % 100) : 1000 * 60 * 10;
+            schedulerSystem.registerTask(new TaskDescriptor("task-" + i, interval, counter::incrementAndGet));
+        }
+    }
+
+}
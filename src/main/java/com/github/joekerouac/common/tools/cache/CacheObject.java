@@ -28,6 +28,16 @@ public interface CacheObject<T> {
      */
     boolean expire();
 
+    /**
+     * 该缓存对象是否需要提前刷新，只有{@link com.github.joekerouac.common.tools.cache.impl.AbstractCache}指定了后台刷新线程池
+     * 时才会使用，需要提前刷新时会在后台刷新，刷新完成前仍然返回当前缓存对象
+     *
+     * @return true表示需要提前刷新，默认与{@link #expire()}一致
+     */
+    default boolean needRefresh() {
+        return expire();
+    }
+
     /**
      * 缓存的对象
      * 
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.cache;
+
+/**
+ * 按key缓存的缓存接口，缓存不存在时会自动通过加载器加载
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 10:20:00
+ * @since 2.1.6
+ */
+public interface LoadingCache<K, V> {
+
+    /**
+     * 获取指定key对应的缓存，如果缓存不存在或者已经失效将会调用加载器加载，同一个key同时只会有一个线程加载
+     *
+     * @param key
+     *            key，不能为null
+     * @return 缓存值，如果加载器返回null则返回null，此时不会缓存
+     */
+    V get(K key);
+
+    /**
+     * 获取指定key对应的缓存，缓存不存在或者已经失效时不会加载
+     *
+     * @param key
+     *            key，不能为null
+     * @return 缓存值，缓存不存在时返回null
+     */
+    V getIfPresent(K key);
+
+    /**
+     * 主动放入缓存，如果key已经存在则覆盖
+     *
+     * @param key
+     *            key，不能为null
+     * @param value
+     *            value，不能为null
+     */
+    void put(K key, V value);
+
+    /**
+     * 删除指定key的缓存
+     *
+     * @param key
+     *            key，不能为null
+     */
+    void invalidate(K key);
+
+    /**
+     * 删除所有缓存
+     */
+    void invalidateAll();
+
+    /**
+     * 当前缓存的数量（近似值，可能包含已经失效但是还未清理的缓存）
+     *
+     * @return 当前缓存的数量
+     */
+    long size();
+
+    /**
+     * 执行待处理的维护工作，例如淘汰超出容量的缓存、清理已经失效的缓存等，正常情况下维护工作会在读写时自动执行，无需手动调用
+     */
+    void cleanUp();
+
+}
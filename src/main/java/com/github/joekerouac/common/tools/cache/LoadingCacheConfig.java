@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import lombok.Data;
+
+/**
+ * {@link LoadingCache}配置
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 10:20:00
+ * @since 2.1.6
+ */
+@Data
+public class LoadingCacheConfig<K, V> {
+
+    /**
+     * 缓存最大权重，未指定{@link #weigher}时每个缓存的权重都是1，此时该值就是缓存的最大数量
+     */
+    @Min(1)
+    private long maximumWeight = 10000;
+
+    /**
+     * 权重计算器，允许为空，为空时每个缓存的权重都是1，计算出的权重不能小于0
+     */
+    private BiFunction<K, V, Integer> weigher;
+
+    /**
+     * 缓存写入后多久失效，小于等于0表示不会因为写入时间失效
+     */
+    private long expireAfterWrite;
+
+    /**
+     * 缓存最后一次访问后多久失效，小于等于0表示不会因为访问时间失效
+     */
+    private long expireAfterAccess;
+
+    /**
+     * {@link #expireAfterWrite}和{@link #expireAfterAccess}的时间单位
+     */
+    @NotNull
+    private TimeUnit timeUnit = TimeUnit.MILLISECONDS;
+
+    /**
+     * 缓存加载器，不能为空，加载器返回null时不会缓存
+     */
+    @NotNull
+    private Function<K, V> loader;
+
+}
@@ -12,18 +12,28 @@
  */
 package com.github.joekerouac.common.tools.cache.impl;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
 import com.github.joekerouac.common.tools.cache.CacheObject;
 import com.github.joekerouac.common.tools.cache.RefreshableCache;
+import com.github.joekerouac.common.tools.lock.LockTaskUtil;
+
+import lombok.CustomLog;
 
 /**
- * 通用的cache接口，cache会懒加载，第一次获取时才会真正的加载，非线程安全
+ * 通用的cache接口，cache会懒加载，第一次获取时才会真正的加载，线程安全，同一时间只会有一个线程在加载缓存；
+ * 
+ * 如果指定了后台刷新线程池，那么当缓存对象需要提前刷新（{@link CacheObject#needRefresh()}）或者已经失效时，会在后台线程池中刷新缓存， 刷新完成前仍然返回旧的缓存对象，只有缓存还未加载过时才会阻塞加载；
  * 
  * @since 1.0.0
  * @author JoeKerouac
  * @date 2022-10-14 14:37:00
  */
+@CustomLog
 public abstract class AbstractCache<T> implements RefreshableCache<T> {
 
     /**
@@ -31,27 +41,115 @@ public abstract class AbstractCache<T> implements RefreshableCache<T> {
      */
     private final Supplier<CacheObject<T>> supplier;
 
+    /**
+     * 加载锁，保证同一时间只有一个线程在加载缓存
+     */
+    private final Lock lock;
+
+    /**
+     * 后台刷新线程池，允许为null，为null时不会后台刷新
+     */
+    private final Executor refreshExecutor;
+
+    /**
+     * 当前是否有后台刷新任务
+     */
+    private final AtomicBoolean refreshing;
+
     /**
      * 缓存对象
      */
     private volatile CacheObject<T> cacheObj;
 
     public AbstractCache(Supplier<CacheObject<T>> supplier) {
+        this(supplier, null);
+    }
+
+    /**
+     * 构造器
+     * 
+     * @param supplier
+     *            缓存提供者
+     * @param refreshExecutor
+     *            后台刷新线程池，允许为null，为null时缓存失效后同步刷新
+     */
+    public AbstractCache(Supplier<CacheObject<T>> supplier, Executor refreshExecutor) {
         this.supplier = supplier;
+        this.refreshExecutor = refreshExecutor;
+        this.lock = new ReentrantLock();
+        this.refreshing = new AtomicBoolean(false);
     }
 
     @Override
     public T refresh() {
-        this.cacheObj = supplier.get();
-        return cacheObj.getTarget();
+        return LockTaskUtil.runWithLock(lock, this::doRefresh);
     }
 
     @Override
     public T getTarget() {
-        if (cacheObj == null || cacheObj.expire() || cacheObj.getTarget() == null) {
-            refresh();
+        CacheObject<T> current = cacheObj;
+
+        if (current != null && current.getTarget() != null) {
+            if (refreshExecutor != null) {
+                if (current.needRefresh() || current.expire()) {
+                    refreshAsync(current);
+                }
+                return current.getTarget();
+            } else if (!current.expire()) {
+                return current.getTarget();
+            }
+        }
+
+        return LockTaskUtil.runWithLock(lock, () -> {
+            // 加锁后再次检查，如果等待锁的过程中其他线程已经加载完毕，则直接使用
+            CacheObject<T> obj = cacheObj;
+            if (obj != current && obj != null && !obj.expire() && obj.getTarget() != null) {
+                return obj.getTarget();
+            }
+
+            return doRefresh();
+        });
+    }
+
+    /**
+     * 在后台线程池中刷新缓存，如果当前已经有后台刷新任务则忽略
+     * 
+     * @param expected
+     *            触发刷新时的缓存对象，如果刷新任务执行时缓存对象已经被其他线程更新，则不再刷新
+     */
+    private void refreshAsync(CacheObject<T> expected) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
         }
 
-        return cacheObj.getTarget();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    LockTaskUtil.runWithLock(lock, () -> {
+                        if (cacheObj == expected) {
+                            doRefresh();
+                        }
+                    });
+                } catch (Throwable throwable) {
+                    LOGGER.warn(throwable, "缓存后台刷新失败，将在下次获取时重试");
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (Throwable throwable) {
+            refreshing.set(false);
+            LOGGER.warn(throwable, "缓存后台刷新任务提交失败，将在下次获取时重试");
+        }
+    }
+
+    /**
+     * 实际刷新缓存，调用方需要持有{@link #lock}
+     * 
+     * @return 刷新后的缓存
+     */
+    private T doRefresh() {
+        CacheObject<T> obj = supplier.get();
+        this.cacheObj = obj;
+        return obj.getTarget();
     }
 }
@@ -0,0 +1,962 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.cache.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.github.joekerouac.common.tools.cache.LoadingCache;
+import com.github.joekerouac.common.tools.cache.LoadingCacheConfig;
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
+import com.github.joekerouac.common.tools.util.Assert;
+
+/**
+ * 有容量上限的{@link LoadingCache}实现，使用W-TinyLFU淘汰策略：
+ *
+ * <ul>
+ * <li>新写入的缓存先进入window区（LRU，占总容量的1%），被挤出window区后进入main区的probation段；</li>
+ * <li>main区是分段LRU，probation段中的缓存再次被访问后晋升到protected段（占main区的80%）；</li>
+ * <li>需要淘汰时，使用{@link FrequencySketch}估算从window区挤出的候选者和probation段头部的受害者的访问频率，淘汰频率低的那个；</li>
+ * </ul>
+ *
+ * 读写操作本身只操作{@link ConcurrentHashMap}，对淘汰策略的修改先记录到读写缓冲区中，由抢到维护锁的线程批量回放，所以读写都是均摊O(1)的， 并且读操作不需要竞争全局锁；
+ *
+ * 注意：加载器中不能访问当前缓存，否则可能死锁
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 10:20:00
+ * @since 2.1.6
+ */
+public class BoundedLoadingCache<K, V> implements LoadingCache<K, V> {
+
+    /**
+     * 节点不在任何淘汰队列中
+     */
+    private static final int NONE = 0;
+
+    /**
+     * 节点在window区
+     */
+    private static final int WINDOW = 1;
+
+    /**
+     * 节点在main区的probation段
+     */
+    private static final int PROBATION = 2;
+
+    /**
+     * 节点在main区的protected段
+     */
+    private static final int PROTECTED = 3;
+
+    /**
+     * 实际的缓存数据
+     */
+    private final ConcurrentHashMap<K, Node<K, V>> data;
+
+    /**
+     * 缓存加载器
+     */
+    private final Function<K, V> loader;
+
+    /**
+     * 权重计算器，允许为null
+     */
+    private final BiFunction<K, V, Integer> weigher;
+
+    /**
+     * 写入后失效时间，单位纳秒，小于等于0表示不失效
+     */
+    private final long expireAfterWriteNanos;
+
+    /**
+     * 访问后失效时间，单位纳秒，小于等于0表示不失效
+     */
+    private final long expireAfterAccessNanos;
+
+    /**
+     * 读缓冲区
+     */
+    private final StripedReadBuffer<Node<K, V>> readBuffer;
+
+    /**
+     * 写缓冲区，写操作对淘汰策略的修改
+     */
+    private final Queue<Runnable> writeBuffer;
+
+    /**
+     * 维护锁，下边所有的淘汰策略相关的字段都需要持有该锁才能访问
+     */
+    private final ReentrantLock evictionLock;
+
+    /**
+     * 访问频率估算
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * window区，LRU
+     */
+    private final LinkedDeque<K, V> windowDeque;
+
+    /**
+     * main区的probation段
+     */
+    private final LinkedDeque<K, V> probationDeque;
+
+    /**
+     * main区的protected段
+     */
+    private final LinkedDeque<K, V> protectedDeque;
+
+    /**
+     * 写入顺序队列，只有配置了写入后失效时才使用
+     */
+    private final LinkedDeque<K, V> writeOrderDeque;
+
+    /**
+     * 最大权重
+     */
+    private final long maximum;
+
+    /**
+     * window区最大权重
+     */
+    private final long windowMaximum;
+
+    /**
+     * protected段最大权重
+     */
+    private final long protectedMaximum;
+
+    /**
+     * 当前总权重
+     */
+    private long weightedSize;
+
+    /**
+     * 当前window区权重
+     */
+    private long windowWeightedSize;
+
+    /**
+     * 当前protected段权重
+     */
+    private long protectedWeightedSize;
+
+    public BoundedLoadingCache(LoadingCacheConfig<K, V> config) {
+        Assert.argNotNull(config, "config");
+        Assert.argNotNull(config.getLoader(), "config.loader");
+        Assert.argNotNull(config.getTimeUnit(), "config.timeUnit");
+        Assert.assertTrue(config.getMaximumWeight() > 0, "maximumWeight必须大于0",
+            ExceptionProviderConst.IllegalArgumentExceptionProvider);
+
+        this.loader = config.getLoader();
+        this.weigher = config.getWeigher();
+        this.expireAfterWriteNanos =
+            config.getExpireAfterWrite() > 0 ? config.getTimeUnit().toNanos(config.getExpireAfterWrite()) : 0;
+        this.expireAfterAccessNanos =
+            config.getExpireAfterAccess() > 0 ? config.getTimeUnit().toNanos(config.getExpireAfterAccess()) : 0;
+
+        this.maximum = config.getMaximumWeight();
+        this.windowMaximum = Math.max(1, maximum / 100);
+        this.protectedMaximum = (maximum - windowMaximum) * 8 / 10;
+
+        this.data = new ConcurrentHashMap<>();
+        this.readBuffer = new StripedReadBuffer<>();
+        this.writeBuffer = new ConcurrentLinkedQueue<>();
+        this.evictionLock = new ReentrantLock();
+        this.sketch = new FrequencySketch(maximum);
+
+        this.windowDeque = new AccessOrderDeque<>();
+        this.probationDeque = new AccessOrderDeque<>();
+        this.protectedDeque = new AccessOrderDeque<>();
+        this.writeOrderDeque = new WriteOrderDeque<>();
+    }
+
+    @Override
+    public V get(K key) {
+        Assert.argNotNull(key, "key");
+
+        long now = System.nanoTime();
+        Node<K, V> node = data.get(key);
+        if (node != null && !hasExpired(node, now)) {
+            afterRead(node, now);
+            return node.value;
+        }
+
+        // 利用ConcurrentHashMap.compute保证同一个key同时只有一个线程在加载
+        Runnable[] task = new Runnable[1];
+        boolean[] loaded = new boolean[1];
+        Node<K, V> result = data.compute(key, (k, old) -> {
+            long time = System.nanoTime();
+            if (old != null && !hasExpired(old, time)) {
+                // 其他线程已经加载过了
+                return old;
+            }
+
+            loaded[0] = true;
+            V value = loader.apply(k);
+            if (value == null) {
+                if (old != null) {
+                    old.alive = false;
+                    task[0] = new RemovalTask(old);
+                }
+                return null;
+            }
+
+            return write(k, value, old, time, task);
+        });
+
+        if (task[0] != null) {
+            afterWrite(task[0]);
+        }
+
+        if (result == null) {
+            return null;
+        }
+
+        if (!loaded[0]) {
+            afterRead(result, System.nanoTime());
+        }
+        return result.value;
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        Assert.argNotNull(key, "key");
+
+        long now = System.nanoTime();
+        Node<K, V> node = data.get(key);
+        if (node == null || hasExpired(node, now)) {
+            return null;
+        }
+
+        afterRead(node, now);
+        return node.value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Assert.argNotNull(key, "key");
+        Assert.argNotNull(value, "value");
+
+        Runnable[] task = new Runnable[1];
+        data.compute(key, (k, old) -> write(k, value, old, System.nanoTime(), task));
+        afterWrite(task[0]);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        Assert.argNotNull(key, "key");
+
+        Node<K, V> node = data.remove(key);
+        if (node != null) {
+            node.alive = false;
+            afterWrite(new RemovalTask(node));
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        evictionLock.lock();
+        try {
+            drainWriteBuffer();
+            for (Node<K, V> node : data.values()) {
+                data.remove(node.key, node);
+                node.alive = false;
+                unlink(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        return data.mappingCount();
+    }
+
+    @Override
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 写入缓存，需要在{@link ConcurrentHashMap#compute}中调用
+     *
+     * @param key
+     *            key
+     * @param value
+     *            value
+     * @param old
+     *            当前节点，可能为null
+     * @param now
+     *            当前时间
+     * @param task
+     *            用于返回需要回放的淘汰策略任务
+     * @return 写入后的节点
+     */
+    private Node<K, V> write(K key, V value, Node<K, V> old, long now, Runnable[] task) {
+        int weight = weigh(key, value);
+        if (old == null) {
+            Node<K, V> node = new Node<>(key, value, weight, now);
+            task[0] = new AddTask(node, weight);
+            return node;
+        }
+
+        // 原地更新，避免节点在淘汰队列中的位置丢失
+        int weightDiff = weight - old.weight;
+        old.value = value;
+        old.weight = weight;
+        old.writeTime = now;
+        old.accessTime = now;
+        task[0] = new UpdateTask(old, weightDiff);
+        return old;
+    }
+
+    /**
+     * 计算权重
+     *
+     * @param key
+     *            key
+     * @param value
+     *            value
+     * @return 权重
+     */
+    private int weigh(K key, V value) {
+        if (weigher == null) {
+            return 1;
+        }
+
+        Integer weight = weigher.apply(key, value);
+        Assert.assertTrue(weight != null && weight >= 0, "权重不能为null且不能小于0",
+            ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        return weight;
+    }
+
+    /**
+     * 判断节点是否已经失效
+     *
+     * @param node
+     *            节点
+     * @param now
+     *            当前时间
+     * @return true表示已经失效
+     */
+    private boolean hasExpired(Node<K, V> node, long now) {
+        return (expireAfterWriteNanos > 0 && (now - node.writeTime) >= expireAfterWriteNanos)
+            || (expireAfterAccessNanos > 0 && (now - node.accessTime) >= expireAfterAccessNanos);
+    }
+
+    /**
+     * 读取后记录访问事件
+     *
+     * @param node
+     *            被访问的节点
+     * @param now
+     *            当前时间
+     */
+    private void afterRead(Node<K, V> node, long now) {
+        if (expireAfterAccessNanos > 0) {
+            node.accessTime = now;
+        }
+
+        if (readBuffer.offer(node)) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * 写入后记录写事件
+     *
+     * @param task
+     *            写事件
+     */
+    private void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        scheduleDrain();
+    }
+
+    /**
+     * 尝试执行维护工作，如果其他线程正在执行则直接返回
+     */
+    private void scheduleDrain() {
+        do {
+            if (!evictionLock.tryLock()) {
+                // 其他线程正在维护，该线程在释放锁后会检查写缓冲区，不会遗漏
+                return;
+            }
+
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        } while (!writeBuffer.isEmpty());
+    }
+
+    /**
+     * 维护工作，需要持有{@link #evictionLock}
+     */
+    private void maintenance() {
+        readBuffer.drainTo(this::onAccess);
+        drainWriteBuffer();
+        expireEntries(System.nanoTime());
+        evictEntries();
+    }
+
+    /**
+     * 回放写缓冲区，需要持有{@link #evictionLock}
+     */
+    private void drainWriteBuffer() {
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * 节点被访问，需要持有{@link #evictionLock}
+     *
+     * @param node
+     *            被访问的节点
+     */
+    private void onAccess(Node<K, V> node) {
+        if (node.queueType == NONE) {
+            // 节点已经被删除或者还未添加
+            return;
+        }
+
+        sketch.increment(node.key);
+
+        switch (node.queueType) {
+            case WINDOW:
+                windowDeque.moveToTail(node);
+                break;
+            case PROBATION:
+                // probation段中的节点再次被访问，晋升到protected段
+                probationDeque.remove(node);
+                protectedDeque.add(node);
+                node.queueType = PROTECTED;
+                protectedWeightedSize += node.policyWeight;
+                demoteFromProtected();
+                break;
+            case PROTECTED:
+                protectedDeque.moveToTail(node);
+                break;
+            default:
+                throw new IllegalStateException("未知的队列类型：" + node.queueType);
+        }
+    }
+
+    /**
+     * protected段超出容量时将最久未访问的节点降级到probation段，需要持有{@link #evictionLock}
+     */
+    private void demoteFromProtected() {
+        while (protectedWeightedSize > protectedMaximum) {
+            Node<K, V> node = protectedDeque.peekFirst();
+            if (node == null) {
+                break;
+            }
+
+            protectedDeque.remove(node);
+            probationDeque.add(node);
+            node.queueType = PROBATION;
+            protectedWeightedSize -= node.policyWeight;
+        }
+    }
+
+    /**
+     * 清理失效的节点，需要持有{@link #evictionLock}
+     *
+     * @param now
+     *            当前时间
+     */
+    private void expireEntries(long now) {
+        if (expireAfterAccessNanos > 0) {
+            expireByAccess(windowDeque, now);
+            expireByAccess(probationDeque, now);
+            expireByAccess(protectedDeque, now);
+        }
+
+        if (expireAfterWriteNanos > 0) {
+            Node<K, V> node;
+            while ((node = writeOrderDeque.peekFirst()) != null && (now - node.writeTime) >= expireAfterWriteNanos) {
+                if (!evictExpired(node)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 从指定队列头部开始清理访问后失效的节点，需要持有{@link #evictionLock}
+     *
+     * @param deque
+     *            访问顺序队列
+     * @param now
+     *            当前时间
+     */
+    private void expireByAccess(LinkedDeque<K, V> deque, long now) {
+        Node<K, V> node;
+        while ((node = deque.peekFirst()) != null && (now - node.accessTime) >= expireAfterAccessNanos) {
+            if (!evictExpired(node)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 淘汰失效的节点，需要持有{@link #evictionLock}
+     *
+     * @param node
+     *            失效的节点
+     * @return 返回false表示节点已经被重新写入，不再失效
+     */
+    private boolean evictExpired(Node<K, V> node) {
+        boolean[] removed = new boolean[1];
+        // 需要在compute中再次判断，防止节点在此期间被重新写入
+        data.computeIfPresent(node.key, (k, n) -> {
+            if (n == node && hasExpired(n, System.nanoTime())) {
+                removed[0] = true;
+                return null;
+            }
+            return n;
+        });
+
+        if (removed[0] || data.get(node.key) != node) {
+            node.alive = false;
+            unlink(node);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * 按照容量淘汰节点，需要持有{@link #evictionLock}
+     */
+    private void evictEntries() {
+        Node<K, V> candidate = evictFromWindow();
+
+        while (weightedSize > maximum) {
+            Node<K, V> victim = probationDeque.peekFirst();
+
+            if (victim == null) {
+                // probation段为空，只能从protected段或者window区淘汰
+                Node<K, V> node = protectedDeque.peekFirst();
+                node = node == null ? windowDeque.peekFirst() : node;
+                if (node == null) {
+                    break;
+                }
+                evict(node);
+                continue;
+            }
+
+            if (candidate == null || candidate.queueType != PROBATION || candidate == victim) {
+                if (candidate == victim) {
+                    candidate = null;
+                }
+                evict(victim);
+                continue;
+            }
+
+            // 候选者与受害者比较访问频率，频率高的留下
+            Node<K, V> next = candidate.nextInAccess;
+            if (admit(candidate.key, victim.key)) {
+                evict(victim);
+            } else {
+                evict(candidate);
+                candidate = next;
+            }
+        }
+    }
+
+    /**
+     * 将window区超出容量的节点移动到probation段，需要持有{@link #evictionLock}
+     *
+     * @return 第一个被移动到probation段的节点，作为淘汰候选者，可能为null
+     */
+    private Node<K, V> evictFromWindow() {
+        Node<K, V> first = null;
+        while (windowWeightedSize > windowMaximum) {
+            Node<K, V> node = windowDeque.peekFirst();
+            if (node == null) {
+                break;
+            }
+
+            windowDeque.remove(node);
+            probationDeque.add(node);
+            node.queueType = PROBATION;
+            windowWeightedSize -= node.policyWeight;
+
+            if (first == null) {
+                first = node;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * TinyLFU准入判断
+     *
+     * @param candidateKey
+     *            候选者
+     * @param victimKey
+     *            受害者
+     * @return true表示候选者准入，淘汰受害者
+     */
+    private boolean admit(K candidateKey, K victimKey) {
+        int victimFreq = sketch.frequency(victimKey);
+        int candidateFreq = sketch.frequency(candidateKey);
+        if (candidateFreq > victimFreq) {
+            return true;
+        }
+
+        // 对于频率较高的候选者随机准入，防止攻击者利用hash碰撞使受害者一直占据缓存
+        return candidateFreq >= 6 && (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+
+    /**
+     * 淘汰指定节点，需要持有{@link #evictionLock}
+     *
+     * @param node
+     *            要淘汰的节点
+     */
+    private void evict(Node<K, V> node) {
+        data.remove(node.key, node);
+        node.alive = false;
+        unlink(node);
+    }
+
+    /**
+     * 将节点从所有淘汰队列中删除，需要持有{@link #evictionLock}
+     *
+     * @param node
+     *            节点
+     */
+    private void unlink(Node<K, V> node) {
+        switch (node.queueType) {
+            case NONE:
+                return;
+            case WINDOW:
+                windowDeque.remove(node);
+                windowWeightedSize -= node.policyWeight;
+                break;
+            case PROBATION:
+                probationDeque.remove(node);
+                break;
+            case PROTECTED:
+                protectedDeque.remove(node);
+                protectedWeightedSize -= node.policyWeight;
+                break;
+            default:
+                throw new IllegalStateException("未知的队列类型：" + node.queueType);
+        }
+
+        weightedSize -= node.policyWeight;
+        node.queueType = NONE;
+        if (expireAfterWriteNanos > 0) {
+            writeOrderDeque.remove(node);
+        }
+    }
+
+    /**
+     * 新增节点任务
+     */
+    private class AddTask implements Runnable {
+
+        private final Node<K, V> node;
+
+        private final int weight;
+
+        AddTask(Node<K, V> node, int weight) {
+            this.node = node;
+            this.weight = weight;
+        }
+
+        @Override
+        public void run() {
+            node.policyWeight += weight;
+            // 节点可能在回放前就已经被删除了
+            if (!node.alive || node.queueType != NONE) {
+                return;
+            }
+
+            weightedSize += node.policyWeight;
+            windowWeightedSize += node.policyWeight;
+            node.queueType = WINDOW;
+            windowDeque.add(node);
+            if (expireAfterWriteNanos > 0) {
+                writeOrderDeque.add(node);
+            }
+            // 计数器表随元素数量增长
+            sketch.ensureCapacity(data.size());
+            sketch.increment(node.key);
+        }
+    }
+
+    /**
+     * 更新节点任务
+     */
+    private class UpdateTask implements Runnable {
+
+        private final Node<K, V> node;
+
+        private final int weightDiff;
+
+        UpdateTask(Node<K, V> node, int weightDiff) {
+            this.node = node;
+            this.weightDiff = weightDiff;
+        }
+
+        @Override
+        public void run() {
+            node.policyWeight += weightDiff;
+            // 节点还未添加到队列中或者已经被删除，只需要记录权重变化即可
+            if (node.queueType == NONE) {
+                return;
+            }
+
+            weightedSize += weightDiff;
+            if (node.queueType == WINDOW) {
+                windowWeightedSize += weightDiff;
+            } else if (node.queueType == PROTECTED) {
+                protectedWeightedSize += weightDiff;
+            }
+
+            if (expireAfterWriteNanos > 0) {
+                writeOrderDeque.moveToTail(node);
+            }
+            onAccess(node);
+        }
+    }
+
+    /**
+     * 删除节点任务
+     */
+    private class RemovalTask implements Runnable {
+
+        private final Node<K, V> node;
+
+        RemovalTask(Node<K, V> node) {
+            this.node = node;
+        }
+
+        @Override
+        public void run() {
+            unlink(node);
+        }
+    }
+
+    /**
+     * 缓存节点
+     */
+    private static final class Node<K, V> {
+
+        /**
+         * key
+         */
+        final K key;
+
+        /**
+         * value
+         */
+        volatile V value;
+
+        /**
+         * 节点权重
+         */
+        volatile int weight;
+
+        /**
+         * 写入时间
+         */
+        volatile long writeTime;
+
+        /**
+         * 最后访问时间
+         */
+        volatile long accessTime;
+
+        /**
+         * 节点是否还在缓存中
+         */
+        volatile boolean alive;
+
+        /**
+         * 淘汰策略中记录的节点权重，需要持有维护锁
+         */
+        int policyWeight;
+
+        /**
+         * 节点所在的队列，需要持有维护锁
+         */
+        int queueType;
+
+        /**
+         * 访问顺序队列指针，需要持有维护锁
+         */
+        Node<K, V> prevInAccess;
+
+        Node<K, V> nextInAccess;
+
+        /**
+         * 写入顺序队列指针，需要持有维护锁
+         */
+        Node<K, V> prevInWrite;
+
+        Node<K, V> nextInWrite;
+
+        Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = now;
+            this.accessTime = now;
+            this.alive = true;
+            this.queueType = NONE;
+        }
+    }
+
+    /**
+     * 侵入式双向链表，节点的前后指针直接存放在{@link Node}中，避免额外的内存分配
+     */
+    private abstract static class LinkedDeque<K, V> {
+
+        private Node<K, V> head;
+
+        private Node<K, V> tail;
+
+        abstract Node<K, V> getPrev(Node<K, V> node);
+
+        abstract void setPrev(Node<K, V> node, Node<K, V> prev);
+
+        abstract Node<K, V> getNext(Node<K, V> node);
+
+        abstract void setNext(Node<K, V> node, Node<K, V> next);
+
+        Node<K, V> peekFirst() {
+            return head;
+        }
+
+        boolean contains(Node<K, V> node) {
+            return getPrev(node) != null || getNext(node) != null || head == node;
+        }
+
+        void add(Node<K, V> node) {
+            Node<K, V> last = tail;
+            tail = node;
+            if (last == null) {
+                head = node;
+            } else {
+                setNext(last, node);
+                setPrev(node, last);
+            }
+        }
+
+        void remove(Node<K, V> node) {
+            if (!contains(node)) {
+                return;
+            }
+
+            Node<K, V> prev = getPrev(node);
+            Node<K, V> next = getNext(node);
+
+            if (prev == null) {
+                head = next;
+            } else {
+                setNext(prev, next);
+                setPrev(node, null);
+            }
+
+            if (next == null) {
+                tail = prev;
+            } else {
+                setPrev(next, prev);
+                setNext(node, null);
+            }
+        }
+
+        void moveToTail(Node<K, V> node) {
+            if (node != tail && contains(node)) {
+                remove(node);
+                add(node);
+            }
+        }
+    }
+
+    /**
+     * 访问顺序队列
+     */
+    private static final class AccessOrderDeque<K, V> extends LinkedDeque<K, V> {
+
+        @Override
+        Node<K, V> getPrev(Node<K, V> node) {
+            return node.prevInAccess;
+        }
+
+        @Override
+        void setPrev(Node<K, V> node, Node<K, V> prev) {
+            node.prevInAccess = prev;
+        }
+
+        @Override
+        Node<K, V> getNext(Node<K, V> node) {
+            return node.nextInAccess;
+        }
+
+        @Override
+        void setNext(Node<K, V> node, Node<K, V> next) {
+            node.nextInAccess = next;
+        }
+    }
+
+    /**
+     * 写入顺序队列
+     */
+    private static final class WriteOrderDeque<K, V> extends LinkedDeque<K, V> {
+
+        @Override
+        Node<K, V> getPrev(Node<K, V> node) {
+            return node.prevInWrite;
+        }
+
+        @Override
+        void setPrev(Node<K, V> node, Node<K, V> prev) {
+            node.prevInWrite = prev;
+        }
+
+        @Override
+        Node<K, V> getNext(Node<K, V> node) {
+            return node.nextInWrite;
+        }
+
+        @Override
+        void setNext(Node<K, V> node, Node<K, V> next) {
+            node.nextInWrite = next;
+        }
+    }
+
+}
@@ -12,8 +12,12 @@
  */
 package com.github.joekerouac.common.tools.cache.impl;
 
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
+import com.github.joekerouac.common.tools.util.Assert;
+
 /**
  * 固定时长失效缓存
  * 
@@ -26,4 +30,37 @@ public class FixedTimeoutCache<T> extends AbstractCache<T> {
     public FixedTimeoutCache(long timeout, Supplier<T> supplier) {
         super(() -> new FixedTimeoutCacheObject<>(timeout, supplier.get()));
     }
+
+    /**
+     * 构造器，缓存存活时间超过{@code timeout * refreshFactor}后将会在后台刷新，刷新完成前（包括缓存已经失效的情况）仍然返回旧的缓存
+     * 
+     * @param timeout
+     *            缓存失效时长，单位毫秒
+     * @param supplier
+     *            缓存提供者
+     * @param refreshFactor
+     *            提前刷新因子，取值范围(0, 1]，例如0.8表示缓存存活时间超过失效时长的80%后开始后台刷新
+     * @param refreshExecutor
+     *            后台刷新线程池，不能为null
+     */
+    public FixedTimeoutCache(long timeout, Supplier<T> supplier, double refreshFactor, Executor refreshExecutor) {
+        super(() -> new FixedTimeoutCacheObject<>(timeout, (long)(timeout * refreshFactor), supplier.get()),
+            checkExecutor(refreshFactor, refreshExecutor));
+    }
+
+    /**
+     * 校验后台刷新参数
+     * 
+     * @param refreshFactor
+     *            提前刷新因子
+     * @param refreshExecutor
+     *            后台刷新线程池
+     * @return 后台刷新线程池
+     */
+    private static Executor checkExecutor(double refreshFactor, Executor refreshExecutor) {
+        Assert.assertTrue(refreshFactor > 0 && refreshFactor <= 1, "refreshFactor取值范围必须是(0, 1]",
+            ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        Assert.argNotNull(refreshExecutor, "refreshExecutor");
+        return refreshExecutor;
+    }
 }
@@ -28,6 +28,11 @@ class FixedTimeoutCacheObject<T> implements CacheObject<T> {
      */
     private final long timeout;
 
+    /**
+     * 缓存提前刷新时长，单位毫秒，缓存超过该时间需要提前刷新
+     */
+    private final long refreshTime;
+
     /**
      * 实际的缓存对象
      */
@@ -39,7 +44,12 @@ class FixedTimeoutCacheObject<T> implements CacheObject<T> {
     private final long beginTime;
 
     public FixedTimeoutCacheObject(long timeout, T cacheObj) {
+        this(timeout, timeout, cacheObj);
+    }
+
+    public FixedTimeoutCacheObject(long timeout, long refreshTime, T cacheObj) {
         this.timeout = timeout;
+        this.refreshTime = refreshTime;
         this.cacheObj = cacheObj;
         this.beginTime = System.currentTimeMillis();
     }
@@ -49,6 +59,11 @@ class FixedTimeoutCacheObject<T> implements CacheObject<T> {
         return System.currentTimeMillis() - beginTime >= timeout;
     }
 
+    @Override
+    public boolean needRefresh() {
+        return System.currentTimeMillis() - beginTime >= refreshTime;
+    }
+
     @Override
     public T getTarget() {
         return cacheObj;
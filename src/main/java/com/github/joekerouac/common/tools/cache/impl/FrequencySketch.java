@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.cache.impl;
+
+/**
+ * 访问频率估算器（Count-Min Sketch），用于TinyLFU准入策略；
+ *
+ * 每个计数器占4bit，一个long中存放16个计数器，每个元素使用4个计数器，取最小值作为估算频率；当累计增加次数达到样本大小时会将所有计数器 减半，使历史频率随时间衰减；
+ *
+ * 计数器表初始很小，随缓存中的元素数量通过{@link #ensureCapacity(long)}增长（增长时清空已有计数），最大为{@link #MAXIMUM_CAPACITY}， 防止缓存上限很大时构造时就分配巨大的数组；
+ *
+ * 注意：非线程安全，需要调用方加锁
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 10:20:00
+ * @since 2.1.6
+ */
+class FrequencySketch {
+
+    /**
+     * 4个hash函数的种子
+     */
+    private static final long[] SEED =
+        {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    /**
+     * 减半时用于清除每个计数器最高位的掩码
+     */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    /**
+     * 用于统计每个计数器最低位的掩码
+     */
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    /**
+     * 单个计数器最大值
+     */
+    private static final int MAX_FREQUENCY = 15;
+
+    /**
+     * 计数器表的最大长度（8MB）
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 20;
+
+    /**
+     * 计数器表的初始长度
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * 计数器表长度上限，不超过{@link #MAXIMUM_CAPACITY}
+     */
+    private final int maximumCapacity;
+
+    /**
+     * 计数器表
+     */
+    private long[] table;
+
+    /**
+     * 计数器表掩码
+     */
+    private int tableMask;
+
+    /**
+     * 样本大小，累计增加次数达到该值时所有计数器减半
+     */
+    private int sampleSize;
+
+    /**
+     * 当前累计增加次数
+     */
+    private int size;
+
+    /**
+     * 构造器
+     *
+     * @param maximumSize
+     *            缓存最大数量，用于限制计数器表大小
+     */
+    FrequencySketch(long maximumSize) {
+        this.maximumCapacity = (int)Math.min(Math.max(maximumSize, 1), MAXIMUM_CAPACITY);
+        ensureCapacity(Math.min(maximumCapacity, INITIAL_CAPACITY));
+    }
+
+    /**
+     * 保证计数器表能容纳指定数量的元素，需要扩容时清空已有计数
+     *
+     * @param expectedSize
+     *            元素数量
+     */
+    void ensureCapacity(long expectedSize) {
+        int maximum = (int)Math.min(Math.max(expectedSize, 1), maximumCapacity);
+        if (table != null && table.length >= maximum) {
+            return;
+        }
+
+        this.table = new long[ceilingPowerOfTwo(maximum)];
+        this.tableMask = table.length - 1;
+        this.sampleSize = 10 * table.length;
+        this.size = 0;
+    }
+
+    /**
+     * 估算指定元素的访问频率
+     *
+     * @param e
+     *            元素
+     * @return 访问频率，最大为15
+     */
+    int frequency(Object e) {
+        int hash = spread(e.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int)((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * 增加指定元素的访问频率
+     *
+     * @param e
+     *            元素
+     */
+    void increment(Object e) {
+        int hash = spread(e.hashCode());
+        int start = (hash & 3) << 2;
+
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+
+        if (added && (++size == sampleSize)) {
+            reset();
+        }
+    }
+
+    /**
+     * 将指定位置的计数器加1，如果已经达到最大值则忽略
+     *
+     * @param i
+     *            table下标
+     * @param j
+     *            计数器在long中的下标
+     * @return 是否增加成功
+     */
+    private boolean incrementAt(int i, int j) {
+        int offset = j << 2;
+        long mask = (0xfL << offset);
+        if ((table[i] & mask) != mask) {
+            table[i] += (1L << offset);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 所有计数器减半
+     */
+    private void reset() {
+        int count = 0;
+        for (int i = 0; i < table.length; i++) {
+            // 统计奇数计数器的数量，用于修正减半后的size
+            count += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (count >>> 2);
+    }
+
+    /**
+     * 计算元素第i个hash函数对应的table下标
+     *
+     * @param item
+     *            元素hash
+     * @param i
+     *            hash函数下标
+     * @return table下标
+     */
+    private int indexOf(int item, int i) {
+        long hash = (item + SEED[i]) * SEED[i];
+        hash += (hash >>> 32);
+        return ((int)hash) & tableMask;
+    }
+
+    /**
+     * 对hashCode做二次hash，防止hashCode质量较差
+     *
+     * @param x
+     *            hashCode
+     * @return 二次hash后的值
+     */
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    /**
+     * 计算大于等于指定值的最小的2的幂
+     *
+     * @param x
+     *            指定值，必须大于0
+     * @return 大于等于x的最小的2的幂
+     */
+    static int ceilingPowerOfTwo(int x) {
+        return x <= 1 ? 1 : 1 << (32 - Integer.numberOfLeadingZeros(x - 1));
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.cache.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 分段的有损读缓冲区，多生产者单消费者；
+ *
+ * 读操作只需要记录访问事件，不需要立即应用到淘汰策略上，所以这里按照线程将读事件分散到多个环形缓冲区中，避免多核下所有读线程竞争同一个锁， 缓冲区满时直接丢弃事件（丢失少量访问记录只会轻微影响命中率），然后由持有维护锁的线程统一回放；
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 10:20:00
+ * @since 2.1.6
+ */
+class StripedReadBuffer<E> {
+
+    /**
+     * 单个环形缓冲区大小，必须是2的幂
+     */
+    private static final int BUFFER_SIZE = 16;
+
+    /**
+     * 环形缓冲区掩码
+     */
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    /**
+     * 所有环形缓冲区
+     */
+    private final RingBuffer<E>[] buffers;
+
+    /**
+     * 分段掩码
+     */
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    StripedReadBuffer() {
+        int stripes = FrequencySketch.ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors() * 2);
+        this.buffers = new RingBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            buffers[i] = new RingBuffer<>();
+        }
+        this.mask = stripes - 1;
+    }
+
+    /**
+     * 记录一个读事件
+     *
+     * @param e
+     *            事件
+     * @return 返回true表示当前线程对应的缓冲区已满，调用方应该尽快触发回放
+     */
+    boolean offer(E e) {
+        long id = Thread.currentThread().getId();
+        int h = (int)(id ^ (id >>> 32)) * 0x9E3779B9;
+        return buffers[(h ^ (h >>> 16)) & mask].offer(e);
+    }
+
+    /**
+     * 回放所有缓冲区中的事件，同一时间只允许一个线程调用
+     *
+     * @param consumer
+     *            事件消费者
+     */
+    void drainTo(Consumer<E> consumer) {
+        for (RingBuffer<E> buffer : buffers) {
+            buffer.drainTo(consumer);
+        }
+    }
+
+    /**
+     * 环形缓冲区
+     */
+    private static class RingBuffer<E> {
+
+        /**
+         * 数据
+         */
+        final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+
+        /**
+         * 读指针，只有消费者修改
+         */
+        final AtomicLong readCounter = new AtomicLong();
+
+        /**
+         * 写指针
+         */
+        final AtomicLong writeCounter = new AtomicLong();
+
+        /**
+         * 写入事件
+         *
+         * @param e
+         *            事件
+         * @return 返回true表示缓冲区已满
+         */
+        boolean offer(E e) {
+            long head = readCounter.get();
+            long tail = writeCounter.get();
+            if (tail - head >= BUFFER_SIZE) {
+                return true;
+            }
+
+            // CAS失败说明有其他线程竞争，直接丢弃该事件
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int)(tail & BUFFER_MASK), e);
+            }
+            return false;
+        }
+
+        /**
+         * 回放事件
+         *
+         * @param consumer
+         *            事件消费者
+         */
+        void drainTo(Consumer<E> consumer) {
+            long head = readCounter.get();
+            long tail = writeCounter.get();
+            if (head == tail) {
+                return;
+            }
+
+            while (head != tail) {
+                int index = (int)(head & BUFFER_MASK);
+                E e = buffer.get(index);
+                if (e == null) {
+                    // 写线程已经占位但是还未写入，下次再处理
+                    break;
+                }
+                buffer.lazySet(index, null);
+                consumer.accept(e);
+                head++;
+            }
+            readCounter.lazySet(head);
+        }
+    }
+
+}
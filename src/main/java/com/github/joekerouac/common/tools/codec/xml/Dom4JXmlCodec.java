@@ -42,7 +42,15 @@ import org.dom4j.io.SAXReader;
 import org.dom4j.io.XMLWriter;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.DefaultHandler2;
 
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -52,18 +60,24 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * dom4j实现的xml解析器，目前支持类的泛型解析，但是不支持Map、List的泛型解析；
  *
  *
- * 注意：非线程安全，同时可能会有内存问题，大xml请使用流式解析；
+ * 线程安全：解析时从池中借用{@link SAXReader}，借用期间该reader只被当前线程使用，所以同一个实例可以被多个线程共享，注意{@link #setFeature(String, boolean)}、
+ * {@link #enableDTD(boolean)}、addDeserializer等配置方法应该在使用前调用；
+ *
+ * 注意：可能会有内存问题，大xml请使用流式解析；
  *
  * @since 1.0.0
  * @author JoeKerouac
@@ -74,19 +88,25 @@ public class Dom4JXmlCodec implements Codec {
 
     private static final String DEFAULT_ROOT = "root";
 
-    protected final SAXReader reader;
+    /**
+     * SAXReader池，修改feature时整体替换
+     */
+    private volatile ReaderPool readerPool;
 
     private final Map<JavaType, XmlDeserializer<?>> deserializers;
 
     private final boolean writeHeader;
 
+    private final XMLOutputFactory outputFactory;
+
     public Dom4JXmlCodec() {
         this(false);
     }
 
     public Dom4JXmlCodec(boolean writeHeader) {
         this.writeHeader = writeHeader;
-        reader = new SAXReader();
+        this.outputFactory = XMLOutputFactory.newFactory();
+        readerPool = new ReaderPool(Collections.emptyMap());
         deserializers = new ConcurrentHashMap<>();
         deserializers.putAll(Deserializers.defaultDeserializers);
         enableDTD(false);
@@ -138,12 +158,34 @@ public class Dom4JXmlCodec implements Codec {
      * @param enable
      *            是否允许，true表示允许
      */
-    public void setFeature(String k, boolean enable) {
-        try {
-            reader.setFeature(k, enable);
-        } catch (SAXException e) {
-            throw new RuntimeException("设置属性失败:[" + k + ":" + enable + "]");
-        }
+    public synchronized void setFeature(String k, boolean enable) {
+        Map<String, Boolean> features = new LinkedHashMap<>(readerPool.features);
+        features.put(k, enable);
+        // 先用新配置构建一个reader，校验配置是否支持，同时作为新池中的第一个reader
+        SAXReader reader = createReader(features);
+        ReaderPool pool = new ReaderPool(Collections.unmodifiableMap(features));
+        pool.release(reader);
+        // 直接替换整个池，旧池中的reader（包括当前正在被借用的）将被丢弃
+        readerPool = pool;
+    }
+
+    /**
+     * 根据feature创建SAXReader
+     *
+     * @param features
+     *            feature
+     * @return SAXReader
+     */
+    private static SAXReader createReader(Map<String, Boolean> features) {
+        SAXReader reader = new SAXReader();
+        features.forEach((k, enable) -> {
+            try {
+                reader.setFeature(k, enable);
+            } catch (SAXException e) {
+                throw new RuntimeException("设置属性失败:[" + k + ":" + enable + "]");
+            }
+        });
+        return reader;
     }
 
     /**
@@ -163,7 +205,13 @@ public class Dom4JXmlCodec implements Codec {
         InputSource source = new InputSource(new StringReader(text));
         source.setEncoding(encoding);
 
-        result = reader.read(source);
+        ReaderPool pool = readerPool;
+        SAXReader reader = pool.borrow();
+        try {
+            result = reader.read(source);
+        } finally {
+            pool.release(reader);
+        }
 
         // if the XML parser doesn't provide a way to retrieve the encoding,
         // specify it manually
@@ -399,6 +447,12 @@ public class Dom4JXmlCodec implements Codec {
      * @return 解析结果
      */
     public String toXml(Object source, Charset charset, String defaultRootName, boolean hasNull, boolean pretty) {
+        if (!pretty) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            toXml(source, charset, defaultRootName, hasNull, out);
+            return new String(out.toByteArray(), charset);
+        }
+
         Element root = toXmlElement(source, defaultRootName, hasNull);
 
         OutputFormat format = pretty ? OutputFormat.createPrettyPrint() : new OutputFormat();
@@ -421,6 +475,52 @@ public class Dom4JXmlCodec implements Codec {
         }
     }
 
+    /**
+     * 将Object序列化为xml并直接写出到流中，不构建中间文档，字段的序列化计划按class缓存，输出与{@link #toXmlElement(Object, String, boolean)}构建的文档一致
+     *
+     * @param source
+     *            bean，不能为空
+     * @param charset
+     *            字符集
+     * @param defaultRootName
+     *            根节点名称，如果为null则会尝试使用默认值
+     * @param hasNull
+     *            是否包含null元素（true：包含）
+     * @param outputStream
+     *            输出流，写出完毕后不会关闭
+     */
+    public void toXml(Object source, Charset charset, String defaultRootName, boolean hasNull,
+        OutputStream outputStream) {
+        if (source == null) {
+            throw new SerializeException(ErrorCodeEnum.SERIAL_EXCEPTION, "序列化异常，传入的source为null");
+        }
+
+        QName rootName = createRootName(source, defaultRootName);
+        XMLStreamWriter writer = null;
+        try {
+            writer = outputFactory.createXMLStreamWriter(outputStream, charset.name());
+            if (writeHeader) {
+                writer.writeStartDocument(charset.name(), "1.0");
+                writer.writeCharacters("\n");
+            }
+
+            new StaxXmlWriter(writer, !hasNull).writeRoot(source, rootName.getNamespacePrefix(),
+                rootName.getNamespaceURI(), rootName.getName());
+            writer.flush();
+        } catch (XMLStreamException e) {
+            throw new SerializeException(ErrorCodeEnum.SERIAL_EXCEPTION, "序列化异常", e);
+        } finally {
+            if (writer != null) {
+                try {
+                    // 不会关闭底层输出流
+                    writer.close();
+                } catch (XMLStreamException e) {
+                    LOGGER.debug(e, "关闭XMLStreamWriter异常");
+                }
+            }
+        }
+    }
+
     /**
      * 将pojo构建为文档
      *
@@ -438,6 +538,27 @@ public class Dom4JXmlCodec implements Codec {
             return null;
         }
 
+        QName rootName = createRootName(source, defaultRootName);
+
+        Long start = System.currentTimeMillis();
+        Element root = DocumentHelper.createElement(rootName);
+
+        buildDocument(root, source, source.getClass(), !hasNull);
+        Long end = System.currentTimeMillis();
+        LOGGER.debug("解析xml用时" + (end - start) + "ms");
+        return root;
+    }
+
+    /**
+     * 确定根节点名
+     *
+     * @param source
+     *            bean
+     * @param defaultRootName
+     *            根节点名称，如果为null则会尝试使用默认值
+     * @return 根节点名
+     */
+    private QName createRootName(Object source, String defaultRootName) {
         XmlNode xmlNode = getXmlNodeFromClass(source.getClass());
         String rootNameStr = defaultRootName;
         if (StringUtils.isBlank(rootNameStr) && xmlNode != null) {
@@ -454,14 +575,7 @@ public class Dom4JXmlCodec implements Codec {
         } else {
             rootName = DocumentHelper.createQName(rootNameStr);
         }
-
-        Long start = System.currentTimeMillis();
-        Element root = DocumentHelper.createElement(rootName);
-
-        buildDocument(root, source, source.getClass(), !hasNull);
-        Long end = System.currentTimeMillis();
-        LOGGER.debug("解析xml用时" + (end - start) + "ms");
-        return root;
+        return rootName;
     }
 
     /**
@@ -513,7 +627,7 @@ public class Dom4JXmlCodec implements Codec {
 
                 // 字段值
                 try {
-                    Object valueObj = pojo == null ? null : BeanUtils.getProperty(pojo, editor.name());
+                    Object valueObj = pojo == null ? null : editor.read(pojo);
                     // 判断是否忽略
                     if ((ignoreNull && valueObj == null) || (xmlNode != null && xmlNode.ignore())) {
                         LOGGER.debug("忽略空节点或者节点被注解忽略");
@@ -609,9 +723,23 @@ public class Dom4JXmlCodec implements Codec {
                         }
                         Collection<?> collection = (Collection<?>)valueObj;
                         collection.forEach(obj -> {
+                            // null元素与null字段一致：忽略null时跳过，否则输出空节点
+                            if (obj == null && ignoreNull) {
+                                return;
+                            }
+
                             Element n = DocumentHelper.createElement(arrayNodeName);
                             root.add(n);
-                            buildDocument(n, obj, null, ignoreNull);
+                            if (obj == null) {
+                                return;
+                            }
+
+                            if (StaxXmlWriter.isText(obj)) {
+                                // 集合元素是简单类型，直接作为节点文本
+                                n.setText(String.valueOf(obj));
+                            } else {
+                                buildDocument(n, obj, null, ignoreNull);
+                            }
                         });
                     }
                 } else {
@@ -626,8 +754,13 @@ public class Dom4JXmlCodec implements Codec {
             } else {
                 // 猜测字段类型（防止字段的声明是一个接口，优先采用xmlnode中申明的类型）
                 Class<?> realType = resolveRealType(type, xmlNode);
-                // pojo类型
-                buildDocument(node, valueObj, realType, ignoreNull);
+                if (valueObj != null && StaxXmlWriter.isText(valueObj)) {
+                    // 字段声明不是简单类型（例如Object、泛型），但是实际值是简单类型，直接作为节点文本
+                    node.setText(String.valueOf(valueObj));
+                } else {
+                    // pojo类型
+                    buildDocument(node, valueObj, realType, ignoreNull);
+                }
             }
         });
     }
@@ -680,21 +813,103 @@ public class Dom4JXmlCodec implements Codec {
 
     @Override
     public byte[] write(Object data, Charset charset) {
-        return toXml(data, charset).getBytes(charset == null ? StandardCharsets.UTF_8 : charset);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        write(data, charset, outputStream);
+        return outputStream.toByteArray();
     }
 
     @Override
     public void write(Object data, Charset resultCharset, OutputStream outputStream) {
         Charset charset = resultCharset == null ? StandardCharsets.UTF_8 : resultCharset;
-        byte[] xmlData = toXml(data, charset).getBytes(charset);
+        toXml(data, charset, null, false, outputStream);
         try {
-            outputStream.write(xmlData);
             outputStream.flush();
         } catch (IOException e) {
             throw new SerializeException(ErrorCodeEnum.SERIAL_EXCEPTION, e);
         }
     }
 
+    /**
+     * SAXReader池，池中的reader都是使用{@link #features}构建的
+     */
+    private static class ReaderPool {
+
+        /**
+         * 池中最多缓存的reader数量，超过后归还的reader将被丢弃
+         */
+        private static final int MAX_IDLE = Math.max(16, Runtime.getRuntime().availableProcessors() * 2);
+
+        /**
+         * 空handler，没有状态，可以共享，用于替换reader归还时XMLReader上的handler
+         */
+        private static final DefaultHandler2 EMPTY_HANDLER = new DefaultHandler2();
+
+        /**
+         * 构建reader使用的feature
+         */
+        private final Map<String, Boolean> features;
+
+        /**
+         * 空闲的reader
+         */
+        private final BlockingQueue<SAXReader> idle;
+
+        ReaderPool(Map<String, Boolean> features) {
+            this.features = features;
+            this.idle = new ArrayBlockingQueue<>(MAX_IDLE);
+        }
+
+        /**
+         * 借用一个reader，池中没有空闲reader时新建一个
+         *
+         * @return reader
+         */
+        SAXReader borrow() {
+            SAXReader reader = idle.poll();
+            return reader == null ? createReader(features) : reader;
+        }
+
+        /**
+         * 归还reader，池满时直接丢弃；注意，dom4j的SAXReader解析完毕后不会卸载它安装到XMLReader上的handler，而该handler持有最后一次解析的
+         * Document，所以归还前需要先将这些handler替换掉，否则池中每个空闲reader都会持有一个完整的文档
+         *
+         * @param reader
+         *            reader
+         */
+        void release(SAXReader reader) {
+            try {
+                XMLReader xmlReader = reader.getXMLReader();
+                xmlReader.setContentHandler(EMPTY_HANDLER);
+                xmlReader.setErrorHandler(EMPTY_HANDLER);
+                clearProperty(xmlReader, "http://xml.org/sax/properties/lexical-handler");
+                clearProperty(xmlReader, "http://xml.org/sax/properties/declaration-handler");
+            } catch (SAXException e) {
+                LOGGER.debug(e, "清理SAXReader的handler失败，丢弃该reader");
+                return;
+            }
+
+            idle.offer(reader);
+        }
+
+        /**
+         * 将XMLReader上指定的handler属性替换为空handler，XMLReader不支持该属性时忽略
+         *
+         * @param xmlReader
+         *            XMLReader
+         * @param property
+         *            handler属性名
+         * @throws SAXException
+         *             XMLReader支持该属性但是设置失败时抛出
+         */
+        private static void clearProperty(XMLReader xmlReader, String property) throws SAXException {
+            try {
+                xmlReader.setProperty(property, EMPTY_HANDLER);
+            } catch (SAXNotRecognizedException e) {
+                // 不支持该属性，dom4j也不会设置，忽略
+            }
+        }
+    }
+
     /**
      * XML节点数据
      */
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.codec.xml;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.github.joekerouac.common.tools.codec.Codec;
+import com.github.joekerouac.common.tools.codec.exception.SerializeException;
+import com.github.joekerouac.common.tools.codec.xml.deserializer.Deserializers;
+import com.github.joekerouac.common.tools.codec.xml.deserializer.StreamBeanDeserializer;
+import com.github.joekerouac.common.tools.enums.ErrorCodeEnum;
+import com.github.joekerouac.common.tools.exception.CommonException;
+import com.github.joekerouac.common.tools.reflect.AccessorUtil;
+import com.github.joekerouac.common.tools.reflect.ClassUtils;
+import com.github.joekerouac.common.tools.reflect.type.AbstractTypeReference;
+import com.github.joekerouac.common.tools.reflect.type.JavaType;
+import com.github.joekerouac.common.tools.reflect.type.JavaTypeUtil;
+import com.github.joekerouac.common.tools.string.StringUtils;
+import com.github.joekerouac.common.tools.util.Assert;
+
+import lombok.CustomLog;
+
+/**
+ * 基于StAX的流式xml解析器，解析规则与{@link Dom4JXmlCodec}一致（同样使用{@link XmlNode}描述bean，使用{@link XmlDeserializer}转换字段），
+ * 区别是解析时不会构建完整的dom4j文档，而是直接将{@link XMLStreamReader}的事件映射到bean上，内存占用只与xml的嵌套深度有关，适合解析 大xml；
+ * 
+ * 注册的{@link XmlDeserializer}如果实现了{@link XmlStreamDeserializer}将直接流式解析，否则会将对应的节点（只包含该节点及其子节点）构建为 dom4j节点后再交给其处理；
+ * 
+ * 序列化暂时委托给{@link Dom4JXmlCodec}；
+ * 
+ * 注意：{@link #addDeserializer(JavaType, XmlDeserializer)}、{@link #enableDTD(boolean)}等配置方法需要在使用前调用，配置完成后可以多线程共享
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 23:10:00
+ * @since 2.1.6
+ */
+@CustomLog
+public class StaxXmlCodec implements Codec {
+
+    private final XMLInputFactory inputFactory;
+
+    private final Map<JavaType, XmlDeserializer<?>> deserializers;
+
+    /**
+     * 序列化使用的codec
+     */
+    private final Dom4JXmlCodec writer;
+
+    public StaxXmlCodec() {
+        this(false);
+    }
+
+    public StaxXmlCodec(boolean writeHeader) {
+        this.writer = new Dom4JXmlCodec(writeHeader);
+        this.inputFactory = XMLInputFactory.newFactory();
+        this.inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        this.deserializers = new ConcurrentHashMap<>();
+        this.deserializers.putAll(Deserializers.defaultDeserializers);
+        enableDTD(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> XmlDeserializer<T> addDeserializer(Class<T> type, XmlDeserializer<T> deserializer) {
+        return (XmlDeserializer<T>)deserializers.put(JavaTypeUtil.createJavaType(type), deserializer);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> XmlDeserializer<T> addDeserializer(AbstractTypeReference<T> reference, XmlDeserializer<T> deserializer) {
+        return (XmlDeserializer<T>)deserializers.put(JavaTypeUtil.createJavaType(reference), deserializer);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> XmlDeserializer<T> addDeserializer(JavaType javaType, XmlDeserializer<T> deserializer) {
+        return (XmlDeserializer<T>)deserializers.put(javaType, deserializer);
+    }
+
+    /**
+     * 设置DTD支持
+     *
+     * @param enable
+     *            true表示支持DTD，false表示不支持
+     */
+    public void enableDTD(boolean enable) {
+        // 允许DTD会有XXE漏洞，关于XXE漏洞：https://www.owasp.org/index.php/XML_External_Entity_(XXE)_Prevention_Cheat_Sheet
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, enable);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, enable);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T read(InputStream inputStream, Charset charset, AbstractTypeReference<T> typeReference)
+        throws SerializeException {
+        Assert.argNotNull(inputStream, "inputStream");
+        Assert.argNotNull(typeReference, "typeReference");
+
+        JavaType javaType = JavaTypeUtil.createJavaType(typeReference);
+        Class<?> rawClass = javaType.getRawClass();
+        boolean isMap = Map.class.isAssignableFrom(rawClass);
+
+        if (!isMap && rawClass.getName().startsWith("java.")) {
+            // 对java内置对象不支持，其实该解析器仅支持自定义pojo类，其他对象都不支持，不过java内置对象排除成本最低，所以先排除
+            throw new CommonException(ErrorCodeEnum.CODE_ERROR, StringUtils.format("不支持的类型:[{}]", rawClass));
+        }
+
+        XMLStreamReader reader = null;
+        try {
+            reader = inputFactory.createXMLStreamReader(
+                new InputStreamReader(inputStream, charset == null ? StandardCharsets.UTF_8 : charset));
+
+            if (!XmlStreamUtils.nextStartElement(reader)) {
+                return null;
+            }
+
+            if (isMap) {
+                return (T)readMap(reader, rawClass);
+            }
+
+            XmlDeserializer<T> xmlDeserializer =
+                (XmlDeserializer<T>)deserializers.compute(javaType, (key, deserializer) -> {
+                    if (deserializer == null) {
+                        deserializer = new StreamBeanDeserializer<>(key, deserializers);
+                    }
+                    return deserializer;
+                });
+
+            if (xmlDeserializer instanceof XmlStreamDeserializer) {
+                return ((XmlStreamDeserializer<T>)xmlDeserializer).read(reader, null);
+            } else {
+                return xmlDeserializer.read(XmlStreamUtils.readElement(reader), null);
+            }
+        } catch (XMLStreamException e) {
+            throw new SerializeException(ErrorCodeEnum.SERIAL_EXCEPTION, "xml解析错误", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    LOGGER.debug(e, "xml流关闭失败");
+                }
+            }
+        }
+    }
+
+    /**
+     * 将xml解析为map，规则与{@link Dom4JXmlCodec#parseToMap(String, Class)}一致
+     *
+     * @param reader
+     *            xml流，当前事件是根节点的START_ELEMENT
+     * @param mapClass
+     *            map的class
+     * @return 解析结果
+     * @throws XMLStreamException
+     *             xml读取异常
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readMap(XMLStreamReader reader, Class<?> mapClass) throws XMLStreamException {
+        Map<String, Object> map = newMap(mapClass);
+        String rootName = reader.getLocalName();
+        Object value = readMapValue(reader);
+        if (value instanceof Map) {
+            map.putAll((Map<String, Object>)value);
+        } else {
+            map.put(rootName, value);
+        }
+        return map;
+    }
+
+    /**
+     * 读取节点的值
+     *
+     * @param reader
+     *            xml流，当前事件是节点的START_ELEMENT
+     * @return 节点没有子节点时返回节点的文本，否则返回Map&lt;String, Object&gt;，其中Map的value有可能是String类型、Map类型，也有可能是 List&lt;String&gt;类型
+     * @throws XMLStreamException
+     *             xml读取异常
+     */
+    @SuppressWarnings("unchecked")
+    private Object readMapValue(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        Map<String, Object> map = null;
+
+        while (true) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (map == null) {
+                        map = new HashMap<>();
+                    }
+                    String name = reader.getLocalName();
+                    Object result = readMapValue(reader);
+                    if (map.containsKey(name)) {
+                        // 如果map中已经包含该key，说明该key有多个，是个list
+                        Object obj = map.get(name);
+                        List<String> list;
+                        if (obj instanceof List) {
+                            list = (List<String>)obj;
+                        } else {
+                            list = new ArrayList<>();
+                            list.add(obj == null ? null : String.valueOf(obj));
+                        }
+                        list.add(result == null ? null : String.valueOf(result));
+                        map.put(name, list);
+                    } else {
+                        map.put(name, result);
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (map == null) {
+                        text.append(reader.getText());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    return map == null ? text.toString() : map;
+                default:
+                    break;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> Map<K, V> newMap(Class<?> mapClass) {
+        Class<?> realMapClass = mapClass;
+        if (Map.class.equals(mapClass)) {
+            realMapClass = HashMap.class;
+        }
+
+        if (AccessorUtil.isAbstract(realMapClass)) {
+            throw new SerializeException(ErrorCodeEnum.CODE_ERROR,
+                String.format("不支持的map类型[%s]，请传入实际的map类型", mapClass));
+        }
+
+        return (Map<K, V>)ClassUtils.getInstance(realMapClass);
+    }
+
+    @Override
+    public byte[] write(Object data, Charset charset) {
+        return writer.write(data, charset);
+    }
+
+    @Override
+    public void write(Object data, Charset resultCharset, OutputStream outputStream) {
+        writer.write(data, resultCharset, outputStream);
+    }
+
+}
@@ -0,0 +1,471 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.codec.xml;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.github.joekerouac.common.tools.codec.xml.XmlWritePlan.FieldPlan;
+import com.github.joekerouac.common.tools.codec.xml.XmlWritePlan.Kind;
+
+import lombok.CustomLog;
+
+/**
+ * 基于StAX的xml序列化器，按照{@link XmlWritePlan}直接将对象写出到流中，不构建中间文档；输出与
+ * {@link Dom4JXmlCodec#toXmlElement(Object, String, boolean)}构建的文档一致（没有子节点的节点输出为&lt;a/&gt;）；
+ *
+ * 非线程安全，每次序列化都应该新建一个实例
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 23:50:00
+ * @since 2.1.6
+ */
+@CustomLog
+final class StaxXmlWriter {
+
+    private static final String EMPTY = "";
+
+    /**
+     * 读取字段失败或者字段值为null并且需要忽略时返回该值
+     */
+    private static final Object SKIP = new Object();
+
+    private final XMLStreamWriter writer;
+
+    private final boolean ignoreNull;
+
+    /**
+     * 当前节点
+     */
+    private Frame current;
+
+    StaxXmlWriter(XMLStreamWriter writer, boolean ignoreNull) {
+        this.writer = writer;
+        this.ignoreNull = ignoreNull;
+    }
+
+    /**
+     * 写出根节点
+     *
+     * @param source
+     *            数据，不能为空
+     * @param nsPrefix
+     *            根节点namespace前缀
+     * @param namespace
+     *            根节点namespace
+     * @param rootName
+     *            根节点名
+     * @throws XMLStreamException
+     *             写出异常
+     */
+    void writeRoot(Object source, String nsPrefix, String namespace, String rootName) throws XMLStreamException {
+        start(nsPrefix, namespace, rootName);
+        writeContent(source, source.getClass());
+        end();
+    }
+
+    /**
+     * 写出节点内容，对应{@link Dom4JXmlCodec}的buildDocument
+     *
+     * @param pojo
+     *            数据，可能为空
+     * @param clazz
+     *            数据类型
+     * @throws XMLStreamException
+     *             写出异常
+     */
+    private void writeContent(Object pojo, Class<?> clazz) throws XMLStreamException {
+        if (pojo instanceof Map) {
+            writeMap((Map<?, ?>)pojo);
+        } else {
+            writeBean(pojo, XmlWritePlan.get(clazz));
+        }
+    }
+
+    private void writeMap(Map<?, ?> map) throws XMLStreamException {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object key = entry.getKey();
+            Object value = entry.getValue();
+            if (key == null) {
+                LOGGER.debug("忽略map中key为null的值");
+            } else if (ignoreNull && value == null) {
+                LOGGER.debug("当前配置为忽略空值，[{}]的值为空，忽略", key);
+            } else if (value == null) {
+                // 不知道类型，只写出一个空节点
+                start(current.nsPrefix, current.namespace, String.valueOf(key));
+                end();
+            } else {
+                Class<?> type = value.getClass();
+                writeNode(String.valueOf(key), null, null, XmlWritePlan.kindOf(type), value, type, null, false);
+            }
+        }
+    }
+
+    private void writeBean(Object pojo, XmlWritePlan plan) throws XMLStreamException {
+        FieldPlan[] fields = plan.fields;
+
+        if (plan.duplicate) {
+            // 有节点名相同的字段，需要先读取所有字段，同名字段后边的值覆盖前边的
+            FieldPlan[] slotFields = new FieldPlan[fields.length];
+            Object[] slotValues = new Object[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                Object value = read(fields[i], pojo);
+                if (value != SKIP) {
+                    slotFields[plan.slots[i]] = fields[i];
+                    slotValues[plan.slots[i]] = value;
+                }
+            }
+
+            // 当前节点的属性必须在子节点之前写出
+            for (int i = 0; i < slotFields.length; i++) {
+                if (slotFields[i] != null && slotFields[i].parentAttr) {
+                    writeAttribute(slotFields[i], slotValues[i]);
+                }
+            }
+
+            for (int i = 0; i < slotFields.length; i++) {
+                if (slotFields[i] != null && !slotFields[i].parentAttr) {
+                    writeField(slotFields[i], slotValues[i]);
+                }
+            }
+        } else {
+            // 当前节点的属性必须在子节点之前写出
+            for (FieldPlan field : fields) {
+                if (field.parentAttr) {
+                    Object value = read(field, pojo);
+                    if (value != SKIP) {
+                        writeAttribute(field, value);
+                    }
+                }
+            }
+
+            for (FieldPlan field : fields) {
+                if (!field.parentAttr) {
+                    Object value = read(field, pojo);
+                    if (value != SKIP) {
+                        writeField(field, value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取字段值
+     *
+     * @param field
+     *            字段
+     * @param pojo
+     *            pojo，可能为空
+     * @return 字段值，需要忽略时返回{@link #SKIP}
+     */
+    private Object read(FieldPlan field, Object pojo) {
+        try {
+            Object value = pojo == null ? null : field.editor.read(pojo);
+            if (ignoreNull && value == null) {
+                LOGGER.debug("忽略空节点或者节点被注解忽略");
+                return SKIP;
+            }
+            return value;
+        } catch (Exception e) {
+            LOGGER.error(e, "获取字段值时发生异常，忽略改值");
+            return SKIP;
+        }
+    }
+
+    /**
+     * 将字段写出为当前节点的属性
+     */
+    private void writeAttribute(FieldPlan field, Object value) {
+        if (field.mapAttr) {
+            // 这里要判断valueObj是否等于null，因为如果不忽略null的话这里是有可能传过来一个null值的
+            if (value != null) {
+                ((Map<?, ?>)value).forEach((k, v) -> {
+                    if (k != null && v != null) {
+                        current.attribute(String.valueOf(k), String.valueOf(v));
+                    }
+                });
+            }
+        } else {
+            // 属性值，属性值只能是简单值
+            current.attribute(field.attrName, value == null ? EMPTY : String.valueOf(value));
+        }
+    }
+
+    private void writeField(FieldPlan field, Object value) throws XMLStreamException {
+        writeNode(field.nodeName, field.nsPrefix, field.namespace, field.kind, value, field.realType, field,
+            field.cdata);
+    }
+
+    /**
+     * 写出一个子节点
+     *
+     * @param name
+     *            节点名
+     * @param nsPrefix
+     *            节点namespace前缀，为空时使用当前节点的namespace
+     * @param namespace
+     *            节点namespace，为空时使用当前节点的namespace
+     * @param kind
+     *            写出方式
+     * @param value
+     *            节点数据
+     * @param type
+     *            pojo的实际类型
+     * @param field
+     *            字段，map中的数据为空
+     * @param cdata
+     *            是否用CDATA包裹
+     * @throws XMLStreamException
+     *             写出异常
+     */
+    private void writeNode(String name, String nsPrefix, String namespace, Kind kind, Object value, Class<?> type,
+        FieldPlan field, boolean cdata) throws XMLStreamException {
+        if (kind == Kind.COLLECTION) {
+            if (value != null) {
+                writeCollection(name, field == null ? null : field.arrayRoot, (Collection<?>)value);
+            }
+            return;
+        }
+
+        if (namespace == null) {
+            start(current.nsPrefix, current.namespace, name);
+        } else {
+            start(nsPrefix, namespace, name);
+        }
+
+        switch (kind) {
+            case ATTRIBUTE:
+                writeAttribute(field, value);
+                break;
+            case MAP:
+                LOGGER.warn("当前字段[{}]是map类型", name);
+                if (value != null) {
+                    writeMap((Map<?, ?>)value);
+                }
+                break;
+            case TEXT:
+                writeText(value, cdata);
+                break;
+            default:
+                writeValue(value, type);
+        }
+
+        end();
+    }
+
+    private void writeCollection(String name, String arrayRoot, Collection<?> collection) throws XMLStreamException {
+        String itemName = name;
+        if (arrayRoot != null) {
+            itemName = arrayRoot;
+            start(EMPTY, EMPTY, name);
+        }
+
+        for (Object item : collection) {
+            if (item == null && ignoreNull) {
+                continue;
+            }
+            start(EMPTY, EMPTY, itemName);
+            writeValue(item, null);
+            end();
+        }
+
+        if (arrayRoot != null) {
+            end();
+        }
+    }
+
+    /**
+     * 写出pojo或者集合元素，实际数据是简单类型时直接写出文本
+     *
+     * @param value
+     *            数据，为空时写出空节点
+     * @param type
+     *            声明的数据类型，为空时使用数据的实际类型
+     * @throws XMLStreamException
+     *             写出异常
+     */
+    private void writeValue(Object value, Class<?> type) throws XMLStreamException {
+        if (value == null) {
+            if (type != null) {
+                writeBean(null, XmlWritePlan.get(type));
+            }
+        } else if (isText(value)) {
+            writeText(value, false);
+        } else {
+            writeContent(value, type == null ? value.getClass() : type);
+        }
+    }
+
+    private void writeText(Object value, boolean cdata) throws XMLStreamException {
+        String text = value == null ? EMPTY : String.valueOf(value);
+        flush();
+        if (cdata) {
+            LOGGER.debug("内容[{}]需要CDATA标签包裹", text);
+            // CDATA中不能包含]]>，需要拆分为多个CDATA
+            int from = 0;
+            int index;
+            while ((index = text.indexOf("]]>", from)) >= 0) {
+                writer.writeCData(text.substring(from, index + 2));
+                from = index + 2;
+            }
+            writer.writeCData(text.substring(from));
+        } else {
+            writer.writeCharacters(text);
+        }
+    }
+
+    /**
+     * 判断数据是否应该直接写出为文本
+     *
+     * @param value
+     *            数据
+     * @return true表示数据是简单类型，直接写出文本
+     */
+    static boolean isText(Object value) {
+        return XmlWritePlan.kindOf(value.getClass()) == Kind.TEXT;
+    }
+
+    /**
+     * 开始一个子节点，节点的开始标签会延迟到有内容写出时（或者节点结束时）才写出，以便写出属性以及在没有内容时写出&lt;a/&gt;
+     */
+    private void start(String nsPrefix, String namespace, String name) throws XMLStreamException {
+        if (current != null) {
+            flush();
+        }
+        current = new Frame(current, nsPrefix == null ? EMPTY : nsPrefix, namespace == null ? EMPTY : namespace, name);
+    }
+
+    /**
+     * 结束当前节点
+     */
+    private void end() throws XMLStreamException {
+        Frame frame = current;
+        if (frame.started) {
+            writer.writeEndElement();
+        } else {
+            writer.writeEmptyElement(frame.nsPrefix, frame.name, frame.namespace);
+            writeHead(frame);
+        }
+        current = frame.parent;
+    }
+
+    /**
+     * 写出当前节点的开始标签
+     */
+    private void flush() throws XMLStreamException {
+        Frame frame = current;
+        if (!frame.started) {
+            writer.writeStartElement(frame.nsPrefix, frame.name, frame.namespace);
+            writeHead(frame);
+            frame.started = true;
+        }
+    }
+
+    /**
+     * 写出节点的namespace声明以及属性
+     */
+    private void writeHead(Frame frame) throws XMLStreamException {
+        // 父节点作用域中前缀绑定的namespace与当前不一致时需要声明
+        if (!Objects.equals(frame.parent == null ? defaultBinding(frame.nsPrefix) : frame.parent.lookup(frame.nsPrefix),
+            frame.namespace)) {
+            frame.declared = true;
+            if (frame.nsPrefix.isEmpty()) {
+                writer.writeDefaultNamespace(frame.namespace);
+            } else {
+                writer.writeNamespace(frame.nsPrefix, frame.namespace);
+            }
+        }
+
+        if (frame.attributes != null) {
+            for (int i = 0; i < frame.attributes.size(); i += 2) {
+                writer.writeAttribute(frame.attributes.get(i), frame.attributes.get(i + 1));
+            }
+        }
+    }
+
+    private static String defaultBinding(String nsPrefix) {
+        return nsPrefix.isEmpty() ? EMPTY : null;
+    }
+
+    /**
+     * 节点
+     */
+    private static final class Frame {
+
+        private final Frame parent;
+
+        private final String nsPrefix;
+
+        private final String namespace;
+
+        private final String name;
+
+        /**
+         * 开始标签是否已经写出
+         */
+        private boolean started;
+
+        /**
+         * 当前节点是否声明了namespace
+         */
+        private boolean declared;
+
+        /**
+         * 属性，按照名、值的顺序存放，同名属性后写入的值覆盖前边的值
+         */
+        private List<String> attributes;
+
+        Frame(Frame parent, String nsPrefix, String namespace, String name) {
+            this.parent = parent;
+            this.nsPrefix = nsPrefix;
+            this.namespace = namespace;
+            this.name = name;
+        }
+
+        void attribute(String name, String value) {
+            if (attributes == null) {
+                attributes = new ArrayList<>(4);
+            }
+
+            for (int i = 0; i < attributes.size(); i += 2) {
+                if (attributes.get(i).equals(name)) {
+                    attributes.set(i + 1, value);
+                    return;
+                }
+            }
+
+            attributes.add(name);
+            attributes.add(value);
+        }
+
+        /**
+         * 查找当前节点作用域中前缀绑定的namespace
+         */
+        String lookup(String prefix) {
+            for (Frame frame = this; frame != null; frame = frame.parent) {
+                if (frame.declared && frame.nsPrefix.equals(prefix)) {
+                    return frame.namespace;
+                }
+            }
+            return defaultBinding(prefix);
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.codec.xml;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * 流式xml反序列化器，可以直接从{@link XMLStreamReader}读取数据，不需要先将节点构建为dom4j的{@link org.dom4j.Element}；
+ * 
+ * {@link StaxXmlCodec}解析时如果字段对应的反序列化器实现了该接口将直接使用流式解析，否则会先将字段对应的节点（只包含该节点及其子节点） 构建为dom4j节点，然后调用
+ * {@link #read(org.dom4j.Element, String)}
+ *
+ * @param <T>
+ *            要转换的类型
+ * @author JoeKerouac
+ * @date 2026-10-17 23:10:00
+ * @since 2.1.6
+ */
+public interface XmlStreamDeserializer<T> extends XmlDeserializer<T> {
+
+    /**
+     * 数据转换，将xml中的数据转换为用户需要的指定类型数据
+     *
+     * @param reader
+     *            xml流，调用时当前事件是要读取的节点的{@link javax.xml.stream.XMLStreamConstants#START_ELEMENT}，返回时当前事件必须是
+     *            该节点对应的{@link javax.xml.stream.XMLStreamConstants#END_ELEMENT}
+     * @param attrName
+     *            要获取的属性名，如果该值不为空则认为数据需要从属性中取而不是从节点数据中取
+     * @return 转换后的数据
+     * @throws XMLStreamException
+     *             xml读取异常
+     */
+    T read(XMLStreamReader reader, String attrName) throws XMLStreamException;
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.codec.xml;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.dom4j.DocumentHelper;
+import org.dom4j.Element;
+import org.dom4j.Namespace;
+import org.dom4j.QName;
+
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
+import com.github.joekerouac.common.tools.string.StringUtils;
+import com.github.joekerouac.common.tools.util.Assert;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link XMLStreamReader}工具
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 23:10:00
+ * @since 2.1.6
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class XmlStreamUtils {
+
+    /**
+     * 将当前节点（包括子节点）读取为dom4j节点，调用时当前事件必须是{@link XMLStreamConstants#START_ELEMENT}，返回时当前事件是该节点对应的
+     * {@link XMLStreamConstants#END_ELEMENT}
+     *
+     * @param reader
+     *            xml流
+     * @return 当前节点
+     * @throws XMLStreamException
+     *             xml读取异常
+     */
+    public static Element readElement(XMLStreamReader reader) throws XMLStreamException {
+        Element root = readAttributes(reader);
+        Element current = root;
+        Deque<Element> parents = new ArrayDeque<>();
+
+        while (true) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    Element child = readAttributes(reader);
+                    current.add(child);
+                    parents.push(current);
+                    current = child;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    current.addText(reader.getText());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (parents.isEmpty()) {
+                        return root;
+                    }
+                    current = parents.pop();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * 将当前节点的节点名和属性读取为dom4j节点，不包含子节点和文本，不会移动xml流，调用时当前事件必须是{@link XMLStreamConstants#START_ELEMENT}
+     *
+     * @param reader
+     *            xml流
+     * @return 只包含节点名和属性的节点
+     */
+    public static Element readAttributes(XMLStreamReader reader) {
+        Assert.assertTrue(reader.isStartElement(), "当前事件不是START_ELEMENT",
+            ExceptionProviderConst.IllegalStateExceptionProvider);
+
+        Element element =
+            DocumentHelper.createElement(qName(reader.getPrefix(), reader.getNamespaceURI(), reader.getLocalName()));
+
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            element.addAttribute(
+                qName(reader.getAttributePrefix(i), reader.getAttributeNamespace(i), reader.getAttributeLocalName(i)),
+                reader.getAttributeValue(i));
+        }
+        return element;
+    }
+
+    /**
+     * 跳过当前节点（包括子节点），调用时当前事件必须是{@link XMLStreamConstants#START_ELEMENT}，返回时当前事件是该节点对应的
+     * {@link XMLStreamConstants#END_ELEMENT}
+     *
+     * @param reader
+     *            xml流
+     * @throws XMLStreamException
+     *             xml读取异常
+     */
+    public static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * 移动到下一个{@link XMLStreamConstants#START_ELEMENT}，跳过文本、注释等，用于定位文档根节点
+     *
+     * @param reader
+     *            xml流
+     * @return 返回false表示文档已经结束
+     * @throws XMLStreamException
+     *             xml读取异常
+     */
+    public static boolean nextStartElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static QName qName(String prefix, String namespaceURI, String localName) {
+        if (StringUtils.isBlank(namespaceURI)) {
+            return DocumentHelper.createQName(localName);
+        }
+
+        return DocumentHelper.createQName(localName, Namespace.get(prefix == null ? "" : prefix, namespaceURI));
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.codec.xml;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.joekerouac.common.tools.reflect.AccessorUtil;
+import com.github.joekerouac.common.tools.reflect.bean.BeanUtils;
+import com.github.joekerouac.common.tools.reflect.bean.PropertyEditor;
+import com.github.joekerouac.common.tools.reflect.type.JavaTypeUtil;
+import com.github.joekerouac.common.tools.string.StringUtils;
+
+import lombok.CustomLog;
+
+/**
+ * xml序列化计划，按class缓存，构建后不可变；字段的筛选、节点名、属性名、字段类型等与{@link Dom4JXmlCodec#toXmlElement(Object, String, boolean)}一致
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 23:40:00
+ * @since 2.1.6
+ */
+@CustomLog
+final class XmlWritePlan {
+
+    private static final ClassValue<XmlWritePlan> CACHE = new ClassValue<XmlWritePlan>() {
+        @Override
+        protected XmlWritePlan computeValue(Class<?> type) {
+            return new XmlWritePlan(type);
+        }
+    };
+
+    /**
+     * 字段类型
+     */
+    enum Kind {
+
+        /**
+         * 属性
+         */
+        ATTRIBUTE,
+
+        /**
+         * map
+         */
+        MAP,
+
+        /**
+         * 集合
+         */
+        COLLECTION,
+
+        /**
+         * 简单类型，直接写出文本
+         */
+        TEXT,
+
+        /**
+         * pojo
+         */
+        BEAN
+
+    }
+
+    /**
+     * 所有需要序列化的字段
+     */
+    final FieldPlan[] fields;
+
+    /**
+     * 字段写出的位置，节点名相同的字段共用第一个字段的位置（后边的字段值会覆盖前边的），与{@link Dom4JXmlCodec}使用LinkedHashMap去重的语义一致
+     */
+    final int[] slots;
+
+    /**
+     * 是否有节点名相同的字段
+     */
+    final boolean duplicate;
+
+    private XmlWritePlan(Class<?> clazz) {
+        List<FieldPlan> fields = new ArrayList<>();
+        for (PropertyEditor editor : BeanUtils.getPropertyDescriptors(clazz)) {
+            XmlNode xmlNode = editor.getAnnotation(XmlNode.class);
+            // 如果没有读取方法，并且没有加注解，忽略该字段
+            if (xmlNode == null && !editor.hasReadMethod()) {
+                LOGGER.debug("字段[{}]没有XmlNode注解并且没有读取方法，忽略该字段", editor.name());
+                continue;
+            }
+
+            if (AccessorUtil.isTransient(editor.original())) {
+                LOGGER.debug("字段[{}]是transient修饰的，不进行写出序列化", editor.name());
+                continue;
+            }
+
+            if (xmlNode != null && xmlNode.ignore()) {
+                continue;
+            }
+
+            fields.add(new FieldPlan(editor, xmlNode));
+        }
+
+        this.fields = fields.toArray(new FieldPlan[0]);
+        this.slots = new int[this.fields.length];
+
+        Map<String, Integer> first = new HashMap<>();
+        boolean duplicate = false;
+        for (int i = 0; i < this.fields.length; i++) {
+            Integer slot = first.putIfAbsent(this.fields[i].nodeName, i);
+            slots[i] = slot == null ? i : slot;
+            duplicate = duplicate || slot != null;
+        }
+        this.duplicate = duplicate;
+    }
+
+    /**
+     * 获取指定class的序列化计划
+     *
+     * @param clazz
+     *            class
+     * @return 序列化计划
+     */
+    static XmlWritePlan get(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    /**
+     * 根据数据类型确定写出方式
+     *
+     * @param type
+     *            数据类型
+     * @return 写出方式，不会是{@link Kind#ATTRIBUTE}
+     */
+    static Kind kindOf(Class<?> type) {
+        if (!JavaTypeUtil.isNotPojo(type)) {
+            return Kind.BEAN;
+        } else if (Map.class.isAssignableFrom(type)) {
+            return Kind.MAP;
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return Kind.COLLECTION;
+        } else {
+            return Kind.TEXT;
+        }
+    }
+
+    /**
+     * 单个字段的序列化计划
+     */
+    static final class FieldPlan {
+
+        /**
+         * 字段编辑器
+         */
+        final PropertyEditor editor;
+
+        /**
+         * 节点名
+         */
+        final String nodeName;
+
+        /**
+         * 属性名
+         */
+        final String attrName;
+
+        /**
+         * 写出方式
+         */
+        final Kind kind;
+
+        /**
+         * 是否是当前节点（而不是同级节点）的属性，字段是属性并且未指定节点名时为true
+         */
+        final boolean parentAttr;
+
+        /**
+         * 字段是属性时，字段是否是存放所有属性的map
+         */
+        final boolean mapAttr;
+
+        /**
+         * 是否用CDATA包裹
+         */
+        final boolean cdata;
+
+        /**
+         * 字段指定的namespace前缀，未指定namespace时为空，此时使用父节点的namespace
+         */
+        final String nsPrefix;
+
+        /**
+         * 字段指定的namespace，未指定时为空，此时使用父节点的namespace
+         */
+        final String namespace;
+
+        /**
+         * 集合节点名，可能为空
+         */
+        final String arrayRoot;
+
+        /**
+         * pojo字段的实际类型（防止字段的声明是一个接口，优先采用xmlnode中申明的类型）
+         */
+        final Class<?> realType;
+
+        FieldPlan(PropertyEditor editor, XmlNode xmlNode) {
+            this.editor = editor;
+            this.nodeName = (xmlNode == null || StringUtils.isBlank(xmlNode.name())) ? editor.name() : xmlNode.name();
+            this.attrName =
+                (xmlNode == null || StringUtils.isBlank(xmlNode.attributeName())) ? nodeName : xmlNode.attributeName();
+            this.cdata = xmlNode != null && xmlNode.isCDATA();
+
+            Class<?> type = editor.type();
+            boolean isAttr = xmlNode != null && xmlNode.isAttribute();
+            this.kind = isAttr ? Kind.ATTRIBUTE : kindOf(type);
+            this.parentAttr = isAttr && StringUtils.isBlank(xmlNode.name());
+            this.mapAttr = isAttr && Map.class.isAssignableFrom(type);
+
+            if (xmlNode != null && StringUtils.isNotBlank(xmlNode.namespace())) {
+                this.nsPrefix = xmlNode.nsPrefix();
+                this.namespace = xmlNode.namespace();
+            } else {
+                this.nsPrefix = null;
+                this.namespace = null;
+            }
+
+            this.arrayRoot = (xmlNode == null || StringUtils.isBlank(xmlNode.arrayRoot())) ? null : xmlNode.arrayRoot();
+
+            // 猜测字段类型（防止字段的声明是一个接口，优先采用xmlnode中申明的类型）
+            Class<?> realType = xmlNode == null ? type : xmlNode.general();
+            this.realType = type.isAssignableFrom(realType) ? realType : type;
+        }
+    }
+
+}
@@ -0,0 +1,482 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.codec.xml.deserializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.dom4j.Attribute;
+import org.dom4j.Element;
+
+import com.github.joekerouac.common.tools.codec.xml.XmlDeserializer;
+import com.github.joekerouac.common.tools.codec.xml.XmlStreamDeserializer;
+import com.github.joekerouac.common.tools.codec.xml.XmlStreamUtils;
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
+import com.github.joekerouac.common.tools.reflect.ClassUtils;
+import com.github.joekerouac.common.tools.reflect.type.JavaType;
+import com.github.joekerouac.common.tools.string.StringUtils;
+import com.github.joekerouac.common.tools.util.Assert;
+
+import lombok.CustomLog;
+
+/**
+ * 流式xml bean解析器，直接从{@link XMLStreamReader}读取数据，不构建dom4j文档，解析结果与{@link BeanDeserializer}一致；
+ * 
+ * 子节点对应的字段是bean时递归流式解析，对应的反序列化器实现了{@link XmlStreamDeserializer}时直接流式解析，否则只将该子节点构建为
+ * dom4j节点后交给反序列化器处理，所以内存占用只与xml的嵌套深度（以及单个叶子节点的大小）有关，与文档大小无关；
+ * 
+ * 注意：如果同一个子节点同时对应多个字段（例如一个字段取节点值，另一个字段取节点属性），该子节点会被构建为dom4j节点
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 23:10:00
+ * @since 2.1.6
+ */
+@CustomLog
+public class StreamBeanDeserializer<T> implements XmlStreamDeserializer<T> {
+
+    /**
+     * 子节点名与字段名完全一致
+     */
+    private static final int EXACT = 2;
+
+    /**
+     * 子节点名与首字母大写的字段名一致，只有不存在{@link #EXACT}的节点时才使用
+     */
+    private static final int UPPER = 1;
+
+    /**
+     * 子节点是当前节点上集合字段的元素（字段是当前节点的属性并且指定了arrayRoot）
+     */
+    private static final int ITEM = 0;
+
+    private final JavaType javaType;
+
+    private final Map<JavaType, XmlDeserializer<?>> parentDeserializers;
+
+    /**
+     * 字段解析计划
+     */
+    private final XmlFieldPlan[] plans;
+
+    /**
+     * map类型的属性字段，用于存放节点的所有属性，可能为空
+     */
+    private final XmlFieldPlan mapPlan;
+
+    /**
+     * 子节点名对应的字段
+     */
+    private final Map<String, Match[]> matches;
+
+    /**
+     * 是否有字段需要从当前节点的属性取值
+     */
+    private final boolean readRoot;
+
+    /**
+     * 节点已经构建为dom4j节点时使用的解析器
+     */
+    private volatile BeanDeserializer<T> beanDeserializer;
+
+    public StreamBeanDeserializer(JavaType javaType, Map<JavaType, XmlDeserializer<?>> parentDeserializers) {
+        this.javaType = javaType;
+        this.parentDeserializers = parentDeserializers;
+        this.plans = XmlFieldPlan.compile(javaType);
+        this.mapPlan = XmlFieldPlan.findMapPlan(plans);
+
+        Map<String, List<Match>> matches = new HashMap<>();
+        boolean readRoot = false;
+        for (int i = 0; i < plans.length; i++) {
+            XmlFieldPlan plan = plans[i];
+            if (plan.fromRoot) {
+                readRoot = true;
+                if (plan.kind == XmlFieldPlan.Kind.COLLECTION && plan.arrayRoot != null) {
+                    matches.computeIfAbsent(plan.arrayRoot, key -> new ArrayList<>()).add(new Match(i, ITEM));
+                }
+            } else {
+                matches.computeIfAbsent(plan.nodeName, key -> new ArrayList<>()).add(new Match(i, EXACT));
+                if (!plan.upperNodeName.equals(plan.nodeName)) {
+                    matches.computeIfAbsent(plan.upperNodeName, key -> new ArrayList<>()).add(new Match(i, UPPER));
+                }
+            }
+        }
+
+        this.matches = new HashMap<>();
+        matches.forEach((name, list) -> this.matches.put(name, list.toArray(new Match[0])));
+        this.readRoot = readRoot;
+    }
+
+    @Override
+    public T read(Element element, String attrName) {
+        BeanDeserializer<T> deserializer = beanDeserializer;
+        if (deserializer == null) {
+            deserializer = new BeanDeserializer<>(javaType, parentDeserializers);
+            beanDeserializer = deserializer;
+        }
+        return deserializer.read(element, attrName);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T read(XMLStreamReader reader, String attrName) throws XMLStreamException {
+        Assert.isBlank(attrName,
+            StringUtils.format("不能指定属性名, attrName: [{}], element: [{}]", attrName, reader.getLocalName()),
+            ExceptionProviderConst.CodeErrorExceptionProvider);
+
+        T pojo;
+        // 获取pojo对象的实例
+        try {
+            // 没有权限访问该类或者该类（为接口、抽象类）不能实例化时将抛出异常
+            pojo = (T)ClassUtils.getInstance(javaType.getRawClass());
+        } catch (Exception e) {
+            LOGGER.error(e, "class对象生成失败，请检查代码；失败原因：");
+            throw new RuntimeException(e);
+        }
+
+        State state = new State(plans.length);
+        state.attrMap = mapPlan == null ? null : mapPlan.attrMap(pojo);
+        Element root = readRoot ? XmlStreamUtils.readAttributes(reader) : null;
+
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            Match[] nodeMatches = matches.get(reader.getLocalName());
+            if (nodeMatches == null) {
+                XmlStreamUtils.skipElement(reader);
+            } else if (nodeMatches.length == 1) {
+                apply(reader, nodeMatches[0], state);
+            } else {
+                // 多个字段对应同一个节点，只能先构建为dom4j节点
+                Element element = XmlStreamUtils.readElement(reader);
+                for (Match match : nodeMatches) {
+                    apply(element, match, state);
+                }
+            }
+        }
+
+        for (int i = 0; i < plans.length; i++) {
+            XmlFieldPlan plan = plans[i];
+            if (plan.fromRoot) {
+                applyRoot(root, i, state);
+            }
+
+            if (state.found[i] < 0 && !plan.fromRoot) {
+                continue;
+            }
+
+            switch (plan.kind) {
+                case COLLECTION:
+                    Collection<Object> collection = plan.newCollection();
+                    if (collection == null) {
+                        LOGGER.warn("无法为class[{}]构建实例", plan.collectionClass);
+                        LOGGER.warn("无法为字段[{}]赋值", plan.editor.name());
+                        continue;
+                    }
+
+                    if (state.items[i] != null) {
+                        collection.addAll(state.items[i]);
+                    }
+
+                    if (!plan.write(pojo, collection)) {
+                        LOGGER.warn("无法为字段[{}]赋值", plan.editor.name());
+                    }
+                    break;
+                case MAP:
+                    if (!plan.isAttr) {
+                        LOGGER.warn("当前暂时不支持解析map");
+                    }
+                    break;
+                default:
+                    if (!plan.write(pojo, state.values[i])) {
+                        LOGGER.debug("copy中复制{}时发生错误，属性[{}]的值将被忽略", plan.editor.name(), plan.editor.name());
+                    }
+            }
+        }
+
+        return pojo;
+    }
+
+    /**
+     * 处理当前节点上的属性字段
+     *
+     * @param root
+     *            只包含当前节点名和属性的节点
+     * @param index
+     *            字段下标
+     * @param state
+     *            解析状态
+     */
+    private void applyRoot(Element root, int index, State state) {
+        XmlFieldPlan plan = plans[index];
+        switch (plan.kind) {
+            case COLLECTION:
+                // 指定了arrayRoot时集合元素已经在遍历子节点时处理了
+                if (plan.arrayRoot == null) {
+                    state.items[index] = new ArrayList<>(1);
+                    state.items[index].add(resolve(plan).read(root, plan.attributeName));
+                }
+                break;
+            case MAP:
+                putAttributes(root, state.attrMap);
+                break;
+            default:
+                state.values[index] = resolve(plan).read(root, plan.attributeName);
+        }
+    }
+
+    /**
+     * 流式处理子节点
+     *
+     * @param reader
+     *            xml流，当前事件是子节点的START_ELEMENT
+     * @param match
+     *            子节点对应的字段
+     * @param state
+     *            解析状态
+     * @throws XMLStreamException
+     *             xml读取异常
+     */
+    private void apply(XMLStreamReader reader, Match match, State state) throws XMLStreamException {
+        int index = match.index;
+        XmlFieldPlan plan = plans[index];
+
+        switch (plan.kind) {
+            case COLLECTION:
+                if (match.rank == ITEM) {
+                    state.add(index, readValue(reader, plan));
+                } else if (plan.arrayRoot != null) {
+                    // 只使用第一个集合节点，集合节点中名字为arrayRoot的子节点才是集合元素
+                    if (!state.accept(index, match.rank, true)) {
+                        XmlStreamUtils.skipElement(reader);
+                        return;
+                    }
+
+                    while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+                        if (reader.isStartElement()) {
+                            if (plan.arrayRoot.equals(reader.getLocalName())) {
+                                state.add(index, readValue(reader, plan));
+                            } else {
+                                XmlStreamUtils.skipElement(reader);
+                            }
+                        }
+                    }
+                } else {
+                    if (!state.accept(index, match.rank, false)) {
+                        XmlStreamUtils.skipElement(reader);
+                        return;
+                    }
+                    state.add(index, readValue(reader, plan));
+                }
+                break;
+            case MAP:
+                // 只有名字与注解中的节点名完全一致的第一个节点的属性会放入map
+                if (plan.isAttr && match.rank == EXACT && state.found[index] < EXACT) {
+                    putAttributes(XmlStreamUtils.readAttributes(reader), state.attrMap);
+                }
+                state.accept(index, match.rank, true);
+                XmlStreamUtils.skipElement(reader);
+                break;
+            default:
+                if (!state.accept(index, match.rank, true)) {
+                    XmlStreamUtils.skipElement(reader);
+                    return;
+                }
+                state.values[index] = readValue(reader, plan);
+        }
+    }
+
+    /**
+     * 处理已经构建为dom4j节点的子节点，逻辑与{@link #apply(XMLStreamReader, Match, State)}一致
+     *
+     * @param element
+     *            子节点
+     * @param match
+     *            子节点对应的字段
+     * @param state
+     *            解析状态
+     */
+    private void apply(Element element, Match match, State state) {
+        int index = match.index;
+        XmlFieldPlan plan = plans[index];
+        XmlDeserializer<?> deserializer = resolve(plan);
+
+        switch (plan.kind) {
+            case COLLECTION:
+                if (match.rank == ITEM) {
+                    state.add(index, deserializer.read(element, plan.attributeName));
+                } else if (plan.arrayRoot != null) {
+                    if (state.accept(index, match.rank, true)) {
+                        List<Element> elements = element.elements(plan.arrayRoot);
+                        for (Element item : elements) {
+                            state.add(index, deserializer.read(item, plan.attributeName));
+                        }
+                    }
+                } else if (state.accept(index, match.rank, false)) {
+                    state.add(index, deserializer.read(element, plan.attributeName));
+                }
+                break;
+            case MAP:
+                if (plan.isAttr && match.rank == EXACT && state.found[index] < EXACT) {
+                    putAttributes(element, state.attrMap);
+                }
+                state.accept(index, match.rank, true);
+                break;
+            default:
+                if (state.accept(index, match.rank, true)) {
+                    state.values[index] = deserializer.read(element, plan.attributeName);
+                }
+        }
+    }
+
+    /**
+     * 读取子节点对应的字段值
+     *
+     * @param reader
+     *            xml流，当前事件是子节点的START_ELEMENT
+     * @param plan
+     *            字段解析计划
+     * @return 字段值
+     * @throws XMLStreamException
+     *             xml读取异常
+     */
+    private Object readValue(XMLStreamReader reader, XmlFieldPlan plan) throws XMLStreamException {
+        XmlDeserializer<?> deserializer = resolve(plan);
+        if (deserializer instanceof XmlStreamDeserializer) {
+            return ((XmlStreamDeserializer<?>)deserializer).read(reader, plan.attributeName);
+        }
+
+        return deserializer.read(XmlStreamUtils.readElement(reader), plan.attributeName);
+    }
+
+    private void putAttributes(Element element, Map<String, String> attrMap) {
+        List<Attribute> attributes = element.attributes();
+        for (Attribute attribute : attributes) {
+            attrMap.put(attribute.getName(), attribute.getValue());
+        }
+    }
+
+    /**
+     * 确定Deserializer，字段是bean类型时使用流式解析器
+     *
+     * @param plan
+     *            字段解析计划
+     * @return 字段对应的Deserializer
+     */
+    private XmlDeserializer<?> resolve(XmlFieldPlan plan) {
+        return plan.resolve(parentDeserializers,
+            fieldType -> new StreamBeanDeserializer<>(fieldType, parentDeserializers));
+    }
+
+    /**
+     * 子节点与字段的对应关系
+     */
+    private static final class Match {
+
+        /**
+         * 字段下标
+         */
+        private final int index;
+
+        /**
+         * 对应方式，{@link #EXACT}、{@link #UPPER}或者{@link #ITEM}
+         */
+        private final int rank;
+
+        Match(int index, int rank) {
+            this.index = index;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * 单次解析的状态
+     */
+    private static final class State {
+
+        /**
+         * 非集合字段的值
+         */
+        private final Object[] values;
+
+        /**
+         * 集合字段的元素
+         */
+        private final List<Object>[] items;
+
+        /**
+         * 字段已经使用的子节点的对应方式，-1表示还没有对应的子节点
+         */
+        private final int[] found;
+
+        /**
+         * 存放所有属性的map
+         */
+        private Map<String, String> attrMap;
+
+        @SuppressWarnings("unchecked")
+        State(int size) {
+            this.values = new Object[size];
+            this.items = new List[size];
+            this.found = new int[size];
+            Arrays.fill(found, -1);
+        }
+
+        /**
+         * 判断子节点是否应该被字段使用，名字完全一致的节点优先于首字母大写的节点
+         *
+         * @param index
+         *            字段下标
+         * @param rank
+         *            子节点的对应方式
+         * @param single
+         *            字段是否只使用一个子节点
+         * @return 返回true表示应该使用该子节点
+         */
+        boolean accept(int index, int rank, boolean single) {
+            int current = found[index];
+            if (current > rank || (single && current == rank)) {
+                return false;
+            }
+
+            if (current < rank) {
+                // 更高优先级的节点出现，之前的结果作废
+                items[index] = null;
+                found[index] = rank;
+            }
+            return true;
+        }
+
+        void add(int index, Object value) {
+            if (items[index] == null) {
+                items[index] = new ArrayList<>();
+            }
+            items[index].add(value);
+        }
+    }
+
+}
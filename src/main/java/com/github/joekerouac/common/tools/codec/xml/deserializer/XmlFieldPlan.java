@@ -0,0 +1,435 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.codec.xml.deserializer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.github.joekerouac.common.tools.codec.exception.SerializeException;
+import com.github.joekerouac.common.tools.codec.xml.XmlDeserializer;
+import com.github.joekerouac.common.tools.codec.xml.XmlNode;
+import com.github.joekerouac.common.tools.enums.ErrorCodeEnum;
+import com.github.joekerouac.common.tools.reflect.AccessorUtil;
+import com.github.joekerouac.common.tools.reflect.ClassUtils;
+import com.github.joekerouac.common.tools.reflect.bean.BeanUtils;
+import com.github.joekerouac.common.tools.reflect.bean.PropertyEditor;
+import com.github.joekerouac.common.tools.reflect.type.CustomParameterizedType;
+import com.github.joekerouac.common.tools.reflect.type.JavaType;
+import com.github.joekerouac.common.tools.reflect.type.JavaTypeUtil;
+import com.github.joekerouac.common.tools.string.StringUtils;
+
+import lombok.CustomLog;
+
+/**
+ * xml bean字段解析计划，{@link BeanDeserializer}和{@link StreamBeanDeserializer}共用，除了{@link #deserializer}外构建后不可变
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 23:10:00
+ * @since 2.1.6
+ */
+@CustomLog
+final class XmlFieldPlan {
+
+    /**
+     * 字段类型
+     */
+    enum Kind {
+
+        /**
+         * 集合
+         */
+        COLLECTION,
+
+        /**
+         * map
+         */
+        MAP,
+
+        /**
+         * 其他类型
+         */
+        VALUE
+
+    }
+
+    /**
+     * 字段编辑器
+     */
+    final PropertyEditor editor;
+
+    /**
+     * 字段上的注解，可能为空
+     */
+    final XmlNode xmlNode;
+
+    /**
+     * 字段类型
+     */
+    final JavaType fieldType;
+
+    /**
+     * 是否忽略该字段
+     */
+    final boolean ignore;
+
+    /**
+     * 字段是否是属性
+     */
+    final boolean isAttr;
+
+    /**
+     * 是否直接从当前节点（而不是子节点）取值，字段是属性并且未指定节点名时为true
+     */
+    final boolean fromRoot;
+
+    /**
+     * 是否是存放所有属性的map字段
+     */
+    final boolean mapAttr;
+
+    /**
+     * 节点名
+     */
+    final String nodeName;
+
+    /**
+     * 首字母大写的节点名
+     */
+    final String upperNodeName;
+
+    /**
+     * 属性名，不是属性时为空
+     */
+    final String attributeName;
+
+    /**
+     * 字段类型
+     */
+    final Kind kind;
+
+    /**
+     * 集合字段实际使用的集合类型，用户指定的集合类型不是字段类型的子类时为空
+     */
+    final Class<?> collectionClass;
+
+    /**
+     * 集合字段的集合实例构建器，无法构建时为空
+     */
+    private final Supplier<Collection<Object>> collectionFactory;
+
+    /**
+     * 集合字段的集合节点名，可能为空
+     */
+    final String arrayRoot;
+
+    /**
+     * 字段对应的Deserializer，第一次使用时确定
+     */
+    private volatile XmlDeserializer<?> deserializer;
+
+    private XmlFieldPlan(PropertyEditor editor, JavaType fieldType) {
+        XmlNode xmlNode = editor.getAnnotation(XmlNode.class);
+        String fieldName = editor.name();
+        Class<?> rawClass = fieldType.getRawClass();
+
+        this.editor = editor;
+        this.xmlNode = xmlNode;
+        this.fieldType = fieldType;
+        this.ignore = xmlNode != null && xmlNode.ignore();
+        this.isAttr = xmlNode != null && !ignore && xmlNode.isAttribute();
+
+        // 获取节点名称，优先使用注解，如果注解没有设置名称那么使用字段名
+        this.nodeName = xmlNode == null || StringUtils.isBlank(xmlNode.name()) ? fieldName : xmlNode.name();
+        this.upperNodeName = StringUtils.toFirstUpperCase(nodeName);
+
+        if (isAttr) {
+            // 如果节点是属性值，那么需要同时设置节点名和属性名，原则上如果是属性的话必须设置节点名，但是为了防止
+            // 用户忘记设置，在用户没有设置的时候使用字段名
+            if (StringUtils.isBlank(xmlNode.attributeName())) {
+                LOGGER.debug("字段[{}]是属性值，但是未设置属性名（attributeName字段），将采用字段名作为属性名", fieldName);
+                this.attributeName = fieldName;
+            } else {
+                this.attributeName = xmlNode.attributeName();
+            }
+            this.fromRoot = StringUtils.isBlank(xmlNode.name());
+        } else {
+            this.attributeName = null;
+            this.fromRoot = false;
+        }
+        LOGGER.debug("字段[{}]对应的节点名为：{}，属性名为：{}", fieldName, nodeName, attributeName);
+
+        if (Collection.class.isAssignableFrom(rawClass)) {
+            this.kind = Kind.COLLECTION;
+        } else if (Map.class.isAssignableFrom(rawClass)) {
+            this.kind = Kind.MAP;
+        } else {
+            this.kind = Kind.VALUE;
+        }
+        this.mapAttr = isAttr && kind == Kind.MAP;
+
+        // 字段真实类型
+        Class<?> real = editor.type();
+        if (kind != Kind.COLLECTION || xmlNode == null || Collection.class.equals(xmlNode.arrayType())) {
+            // 用户没有指定，使用字段真实类型
+            this.collectionClass = real;
+        } else {
+            this.collectionClass = real.isAssignableFrom(xmlNode.arrayType()) ? xmlNode.arrayType() : null;
+        }
+
+        this.collectionFactory =
+            kind == Kind.COLLECTION && collectionClass != null ? collectionFactory(collectionClass) : null;
+
+        this.arrayRoot = xmlNode != null && StringUtils.isNotBlank(xmlNode.arrayRoot()) ? xmlNode.arrayRoot() : null;
+    }
+
+    /**
+     * 编译指定bean类型所有字段的解析计划
+     *
+     * @param javaType
+     *            bean类型
+     * @return 所有字段的解析计划，不包含忽略的字段
+     */
+    static XmlFieldPlan[] compile(JavaType javaType) {
+        LinkedHashMap<String, JavaType> bindings = new LinkedHashMap<>();
+        if (javaType instanceof CustomParameterizedType) {
+            bindings = ((CustomParameterizedType)javaType).getBindings();
+        }
+
+        PropertyEditor[] propertyEditors = BeanUtils.getPropertyDescriptors(javaType.getRawClass());
+        List<XmlFieldPlan> plans = new ArrayList<>(propertyEditors.length);
+        XmlFieldPlan mapPlan = null;
+        for (PropertyEditor editor : propertyEditors) {
+            XmlFieldPlan plan =
+                new XmlFieldPlan(editor, JavaTypeUtil.createJavaType(editor.getGenericType(), bindings));
+            if (plan.ignore) {
+                continue;
+            }
+
+            if (plan.mapAttr) {
+                if (mapPlan != null) {
+                    throw new SerializeException(ErrorCodeEnum.SERIAL_EXCEPTION, StringUtils.format(
+                        "当前字段[{}]是map类型的属性字段，当前已经有一个map类型的属性字段[{}]了，不能出现两个", editor.name(), mapPlan.editor.name()));
+                }
+                mapPlan = plan;
+            }
+
+            plans.add(plan);
+        }
+
+        return plans.toArray(new XmlFieldPlan[0]);
+    }
+
+    /**
+     * 从解析计划中找出存放所有属性的map字段
+     *
+     * @param plans
+     *            解析计划
+     * @return map类型的属性字段，可能为空
+     */
+    static XmlFieldPlan findMapPlan(XmlFieldPlan[] plans) {
+        for (XmlFieldPlan plan : plans) {
+            if (plan.mapAttr) {
+                return plan;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 确定Deserializer，字段的Deserializer只会确定一次
+     *
+     * @param registry
+     *            已经注册的Deserializer
+     * @param beanFactory
+     *            字段是bean类型（没有注册对应的Deserializer）时使用的Deserializer构建器
+     * @return 字段对应的Deserializer
+     */
+    XmlDeserializer<?> resolve(Map<JavaType, XmlDeserializer<?>> registry,
+        Function<JavaType, XmlDeserializer<?>> beanFactory) {
+        XmlDeserializer<?> deserializer = this.deserializer;
+        if (deserializer != null) {
+            return deserializer;
+        }
+
+        // 注意，这里不能在构造器中确定，否则字段类型引用自身时将会无限递归；并发时可能会确定多次，不影响结果
+        if (xmlNode != null) {
+            Class<? extends XmlDeserializer<?>> fieldDeserializerClass = xmlNode.deserializer();
+            // 判断用户是否指定Deserializer
+            if (NullDeserializer.class.equals(fieldDeserializerClass)) {
+                // 用户没有指定Deserializer
+                deserializer = resolve(registry, beanFactory, xmlNode);
+            } else {
+                try {
+                    deserializer = fieldDeserializerClass.newInstance();
+                } catch (Exception e) {
+                    deserializer = resolve(registry, beanFactory, xmlNode);
+                    LOGGER.warn("指定的xml转换器[{}]无法实例化，请为该转换器增加公共无参数构造器，当前将使用默认转换器[{}]", fieldDeserializerClass,
+                        deserializer.getClass(), e);
+                }
+            }
+        } else {
+            deserializer = resolve(registry, beanFactory, null);
+        }
+
+        deserializer = deserializer.createContextual(editor);
+        this.deserializer = deserializer;
+        return deserializer;
+    }
+
+    /**
+     * 根据字段类型自动推断使用什么转换器
+     *
+     * @param registry
+     *            已经注册的Deserializer
+     * @param beanFactory
+     *            bean类型的Deserializer构建器
+     * @param xmlnode
+     *            字段上的注解，可能为空
+     * @return 根据字段说明推断出来的转换器
+     */
+    private XmlDeserializer<?> resolve(Map<JavaType, XmlDeserializer<?>> registry,
+        Function<JavaType, XmlDeserializer<?>> beanFactory, XmlNode xmlnode) {
+        XmlDeserializer<?> deserializer = registry.get(fieldType);
+        if (deserializer != null) {
+            return deserializer;
+        }
+
+        if (kind == Kind.COLLECTION) {
+            // 到这里的只有两种可能，一、用户没有指定Deserializer；二、用户没有加注解XmlNode
+            if (xmlnode == null) {
+                // 用户没有添加xmlnode注解，使用默认Deserializer
+                deserializer = Deserializers.DEFAULT_DESERIALIZER;
+            } else {
+                // 用户指定了xmlnode注解但是没有指定Deserializer，使用general字段确定集合中的数据类型
+                deserializer = beanFactory.apply(JavaTypeUtil.createJavaType(xmlnode.general()));
+            }
+        } else {
+            deserializer = beanFactory.apply(fieldType);
+        }
+
+        return deserializer;
+    }
+
+    /**
+     * 构建集合字段的集合实例
+     *
+     * @return 集合实例，无法构建时返回null
+     */
+    Collection<Object> newCollection() {
+        if (collectionClass == null) {
+            // 强校验
+            throw new SerializeException(ErrorCodeEnum.CODE_ERROR, StringUtils.format(
+                "字段[{}]解析错误,用户指定的集合类型[{}]不是字段的实际集合类型[{}]的子类", editor.original(), xmlNode.arrayType(), editor.type()));
+        }
+
+        return collectionFactory == null ? null : collectionFactory.get();
+    }
+
+    /**
+     * 获取pojo中存放所有属性的map，不存在时创建一个并设置到pojo中
+     *
+     * @param pojo
+     *            pojo
+     * @return 存放所有属性的map
+     */
+    Map<String, String> attrMap(Object pojo) {
+        Map<String, String> attrMap = editor.read(pojo);
+        if (attrMap == null) {
+            attrMap = newMap(editor.type());
+            editor.write(pojo, attrMap);
+        }
+        return attrMap;
+    }
+
+    /**
+     * 为字段赋值，pojo就是当前bean类型的实例，所以直接使用字段编辑器赋值，无需再按照字段名查找
+     *
+     * @param pojo
+     *            pojo
+     * @param value
+     *            字段值
+     * @return 返回true表示赋值成功，返回false表示赋值失败
+     */
+    boolean write(Object pojo, Object value) {
+        try {
+            editor.write(pojo, value);
+            return true;
+        } catch (Throwable e) {
+            LOGGER.debug(e, "字段[{}]赋值失败", editor.name());
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V> newMap(Class<?> mapClass) {
+        if (!Map.class.isAssignableFrom(mapClass)) {
+            throw new SerializeException(ErrorCodeEnum.CODE_ERROR, "请传入正确的Map的class");
+        }
+
+        Class<?> realMapClass = mapClass;
+        if (Map.class.equals(mapClass)) {
+            realMapClass = HashMap.class;
+        }
+
+        if (AccessorUtil.isAbstract(realMapClass)) {
+            throw new SerializeException(ErrorCodeEnum.CODE_ERROR,
+                String.format("不支持的map类型[%s]，请传入实际的map类型", mapClass));
+        }
+
+        return (Map<K, V>)ClassUtils.getInstance(realMapClass);
+    }
+
+    /**
+     * 根据class确定集合实例构建器，class无法实例化（例如是接口）时使用默认的集合类型
+     *
+     * @param clazz
+     *            集合的Class对象
+     * @return 集合实例构建器，未知集合类型时返回null
+     */
+    @SuppressWarnings("unchecked")
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> clazz) {
+        Supplier<Collection<Object>> defaultFactory;
+        if (List.class.isAssignableFrom(clazz)) {
+            defaultFactory = ArrayList::new;
+        } else if (Set.class.isAssignableFrom(clazz)) {
+            defaultFactory = HashSet::new;
+        } else {
+            LOGGER.warn("未知集合类型：[{}]", clazz);
+            return null;
+        }
+
+        // 先尝试实例化一次，无法实例化时直接使用默认的集合类型，避免每次解析都抛出异常
+        try {
+            clazz.newInstance();
+        } catch (Exception e) {
+            return defaultFactory;
+        }
+
+        return () -> {
+            try {
+                return (Collection<Object>)clazz.newInstance();
+            } catch (Exception e) {
+                return defaultFactory.get();
+            }
+        };
+    }
+
+}
@@ -12,9 +12,15 @@
  */
 package com.github.joekerouac.common.tools.collection;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
+import com.github.joekerouac.common.tools.util.Assert;
+
 /**
  * 多通道限速队列，控制多通道数据消费不能超过各自限速，同时总体不能超速，场景如下： <br/>
  * <br/>
@@ -45,6 +51,24 @@ public interface MultiChannelQueue<ID, T> {
      */
     boolean addChannel(ID id, int size, int maxConcurrency);
 
+    /**
+     * 添加一个通道
+     * 
+     * @param id
+     *            通道ID
+     * @param size
+     *            通道队列最大长度
+     * @param maxConcurrency
+     *            通道最大的并发量
+     * @param weight
+     *            通道权重，必须大于0，只有按照权重调度时才有用；默认实现忽略权重，直接调用{@link #addChannel(Object, int, int)}
+     * @return 返回true表示添加成功，返回false表示通道已经存在，添加失败
+     */
+    default boolean addChannel(ID id, int size, int maxConcurrency, int weight) {
+        Assert.assertTrue(weight > 0, "weight必须大于0", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        return addChannel(id, size, maxConcurrency);
+    }
+
     /**
      * 删除一个通道，并将通道内的所有数据返回
      * 
@@ -76,6 +100,67 @@ public interface MultiChannelQueue<ID, T> {
      */
     Pair<ID, T> take(long timeout, TimeUnit unit) throws InterruptedException;
 
+    /**
+     * 批量获取数据，阻塞直到至少获取到一个数据或者超时，然后一次性获取当前所有可以获取的数据（最多max个），同样会占用对应通道的令牌，每个数据使用
+     * 完毕后都需要调用{@link #consumed(Object)}或者{@link #consumed(Object, int)}释放令牌；
+     * 
+     * 默认实现基于{@link #take(long, TimeUnit)}和{@link #drainTo(Collection, int)}，实现类应该尽量提供更高效的实现；
+     * 
+     * @param max
+     *            最多获取的数据量，必须大于0
+     * @param timeout
+     *            超时时间，必须大于0
+     * @param unit
+     *            时间单位
+     * @return 获取到的数据，超时返回空集合
+     * @throws InterruptedException
+     *             如果阻塞过程中被中断将会抛出该异常
+     */
+    default List<Pair<ID, T>> takeBatch(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        Assert.assertTrue(max > 0, "max必须大于0", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+
+        Pair<ID, T> first = take(timeout, unit);
+        if (first == null) {
+            return Collections.emptyList();
+        }
+
+        List<Pair<ID, T>> result = new ArrayList<>();
+        result.add(first);
+        if (max > 1) {
+            drainTo(result, max - 1);
+        }
+        return result;
+    }
+
+    /**
+     * 非阻塞的获取当前所有可以获取的数据（最多max个）放入指定集合，同样会占用对应通道的令牌，每个数据使用完毕后都需要调用{@link #consumed(Object)}
+     * 或者{@link #consumed(Object, int)}释放令牌；
+     * 
+     * 默认实现使用最短的超时时间循环调用{@link #take(long, TimeUnit)}，线程被中断时会停止获取并保留中断标识，实现类应该尽量提供更高效的实现；
+     * 
+     * @param collection
+     *            存放数据的集合
+     * @param max
+     *            最多获取的数据量，必须大于0
+     * @return 实际获取到的数据量
+     */
+    default int drainTo(Collection<? super Pair<ID, T>> collection, int max) {
+        Assert.argNotNull(collection, "collection");
+        Assert.assertTrue(max > 0, "max必须大于0", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+
+        int count = 0;
+        try {
+            Pair<ID, T> pair;
+            while (count < max && (pair = take(1, TimeUnit.NANOSECONDS)) != null) {
+                collection.add(pair);
+                count++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return count;
+    }
+
     /**
      * 阻塞添加一个数据
      * 
@@ -123,6 +208,22 @@ public interface MultiChannelQueue<ID, T> {
      */
     void consumed(ID id);
 
+    /**
+     * 消费端调用，通知指定通道消费完n个数据，用于批量释放令牌；默认实现调用n次{@link #consumed(Object)}
+     * 
+     * @param id
+     *            通道ID
+     * @param n
+     *            消费完的数据量，必须大于0
+     */
+    default void consumed(ID id, int n) {
+        Assert.assertTrue(n > 0, "n必须大于0", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+
+        for (int i = 0; i < n; i++) {
+            consumed(id);
+        }
+    }
+
     /**
      * 清空所有通道所有数据
      */
@@ -13,7 +13,6 @@
 package com.github.joekerouac.common.tools.collection;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
@@ -27,7 +26,12 @@ import com.github.joekerouac.common.tools.util.Assert;
 /**
  * 并发安全的实现;
  * 
- * 注意：如果{@link #take()}和{@link #removeChannel(Object)}并发执行，有可能存在通道已经被删除了，但是take仍然会将对应通道的数据返回
+ * 内部维护一个就绪通道集合，只有同时满足队列中有数据、并且还有空闲令牌的通道才会在就绪集合中，就绪集合按照通道队首数据的放入顺序排序，所以
+ * 就绪集合中的第一个通道的队首数据就是所有可消费的数据中最早放入的，整个队列仍然是FIFO的，同时{@link #take()}、{@link #consumed(Object)}、
+ * {@link #add(Object, Object)}、{@link #remove(Object, Object)}的时间复杂度都是O(log n)（n为就绪通道数），与队列中的数据总量无关；
+ * 
+ * 全局FIFO在某个通道短时间内放入大量数据时会导致其他通道的数据长时间得不到消费，此时可以使用{@link SchedulingPolicy#WEIGHTED_ROUND_ROBIN}
+ * 调度策略，按照通道权重在就绪通道之间轮询（加权差额轮询，Deficit Round Robin），每一轮每个通道最多可以被获取权重个数据，相关操作的时间复杂度都是 O(1)；
  * 
  * @since 1.0.0
  * @author JoeKerouac
@@ -36,9 +40,9 @@ import com.github.joekerouac.common.tools.util.Assert;
 public class MultiChannelQueueImpl<ID, T> implements MultiChannelQueue<ID, T> {
 
     /**
-     * 存放所有通道
+     * 存放所有通道，需要持有{@link #lock}才能访问
      */
-    private final Map<ID, ChannelEntry<T>> map;
+    private final Map<ID, ChannelEntry<ID, T>> map;
 
     /**
      * 全局令牌，用于全局控速
@@ -46,56 +50,92 @@ public class MultiChannelQueueImpl<ID, T> implements MultiChannelQueue<ID, T> {
     private final Semaphore semaphore;
 
     /**
-     * 全局队列，主要为了数据消费的公平，使整个队列是FIFO的，list会经常从head删除，往tail添加，所以这里使用LinkedList
+     * 就绪通道集合，需要持有{@link #lock}才能访问
      */
-    private final LinkedList<Pair<ID, T>> list;
+    private final ReadyChannels<ID, T> ready;
 
     /**
-     * 全局锁，用于操作{@link #list}的时候加锁，同时也是为了获取下边的condition
+     * 全局锁，所有通道数据的操作都需要加锁，同时也是为了获取下边的condition
      */
     private final Lock lock;
 
     /**
-     * 条件，添加数据和释放令牌的时候会触发通知，删除数据的时候会消费通知
+     * 条件，就绪集合由空变为非空时会触发通知，获取数据的时候会消费通知
      */
     private final Condition condition;
 
+    /**
+     * 数据放入序号，用于保证FIFO，需要持有{@link #lock}才能访问
+     */
+    private long sequence;
+
     public MultiChannelQueueImpl(int maxConcurrency) {
-        this.map = new ConcurrentHashMap<>();
+        this(maxConcurrency, SchedulingPolicy.FIFO);
+    }
+
+    /**
+     * 构造器
+     * 
+     * @param maxConcurrency
+     *            全局最大并发量
+     * @param policy
+     *            调度策略
+     */
+    public MultiChannelQueueImpl(int maxConcurrency, SchedulingPolicy policy) {
+        Assert.argNotNull(policy, "policy");
+
+        this.map = new HashMap<>();
         this.semaphore = new Semaphore(maxConcurrency);
-        // 如无必要，请勿修改这个list的实现类，因为这个list会频繁随机删除（不一定是删除头部或者尾部），所以采用LinkedList
-        this.list = new LinkedList<>();
+        this.ready = policy == SchedulingPolicy.FIFO ? new FifoReadyChannels<>() : new RoundRobinReadyChannels<>();
         this.lock = new ReentrantLock();
         this.condition = lock.newCondition();
     }
 
     @Override
     public boolean addChannel(ID id, int size, int maxConcurrency) {
+        return addChannel(id, size, maxConcurrency, 1);
+    }
+
+    @Override
+    public boolean addChannel(ID id, int size, int maxConcurrency, int weight) {
         Assert.argNotNull(id, "id");
         Assert.assertTrue(size > 0, "size必须大于0", ExceptionProviderConst.IllegalArgumentExceptionProvider);
         Assert.assertTrue(maxConcurrency > 0, "maxConcurrency必须大于0",
             ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        Assert.assertTrue(weight > 0, "weight必须大于0", ExceptionProviderConst.IllegalArgumentExceptionProvider);
 
-        // 初始化通道节点
-        ChannelEntry<T> entry = new ChannelEntry<>();
-        // 通道内元素正常情况下都是从head开始删除的
-        entry.list = new LinkedList<>();
-        entry.lock = new ReentrantLock();
-        entry.condition = entry.lock.newCondition();
-        entry.size = size;
-        entry.token = new Semaphore(maxConcurrency);
-
-        return map.putIfAbsent(id, entry) == null;
+        return LockTaskUtil.runWithLock(lock, () -> {
+            if (map.containsKey(id)) {
+                return false;
+            }
+
+            // 初始化通道节点
+            ChannelEntry<ID, T> entry = new ChannelEntry<>();
+            entry.id = id;
+            entry.queue = new ChannelQueue<>();
+            entry.condition = lock.newCondition();
+            entry.size = size;
+            entry.maxConcurrency = maxConcurrency;
+            entry.weight = weight;
+            map.put(id, entry);
+            return true;
+        });
     }
 
     @Override
     public List<T> removeChannel(ID id) {
-        ChannelEntry<T> remove = map.remove(id);
-        if (remove == null) {
-            return Collections.emptyList();
-        } else {
-            return remove.list;
-        }
+        return LockTaskUtil.runWithLock(lock, () -> {
+            ChannelEntry<ID, T> remove = map.remove(id);
+            if (remove == null) {
+                return Collections.emptyList();
+            }
+
+            removeReady(remove);
+            remove.removed = true;
+            // 唤醒所有阻塞在该通道上的add
+            remove.condition.signalAll();
+            return remove.queue.toList();
+        });
     }
 
     @Override
@@ -122,71 +162,179 @@ public class MultiChannelQueueImpl<ID, T> implements MultiChannelQueue<ID, T> {
      *             中断异常
      */
     private Pair<ID, T> take0(final long timeout, final TimeUnit unit) throws InterruptedException {
+        // 结束时间
+        final long end = System.nanoTime() + unit.toNanos(timeout);
+
         // 需要先申请全局令牌，注意，申请令牌的时候不要加锁
-        semaphore.acquire();
+        if (timeout > 0) {
+            if (!semaphore.tryAcquire(timeout, unit)) {
+                return null;
+            }
+        } else {
+            semaphore.acquire();
+        }
 
-        // 结束时间
-        long end = System.currentTimeMillis() + unit.toMillis(timeout);
+        Pair<ID, T> result = null;
         try {
-            return LockTaskUtil.runInterruptedTaskWithLock(lock, () -> {
-                while (true) {
-                    Pair<ID, T> pair = null;
-
-                    Iterator<Pair<ID, T>> iterator = list.iterator();
-
-                    // 这里要有序从头到尾遍历list，确保公平
-                    while (iterator.hasNext()) {
-                        Pair<ID, T> p = iterator.next();
-
-                        ChannelEntry<T> entry = map.get(p.getKey());
-                        // 尝试申请通道的令牌，申请到就消费这个通道的这个数据
-                        if (entry.token.tryAcquire()) {
-                            pair = p;
-                            // 直接删除
-                            iterator.remove();
-                            break;
+            result = LockTaskUtil.runInterruptedTaskWithLock(lock, () -> {
+                while (ready.isEmpty()) {
+                    // timeout大于0，表示指定了超时时间，否则表示永久等待
+                    if (timeout > 0) {
+                        long waitTime = end - System.nanoTime();
+                        // 如果当前已经没有等待时间了，直接返回null
+                        if (waitTime <= 0) {
+                            return null;
                         }
-
+                        // 等待下一次通知，在就绪集合由空变为非空的时候会通知
+                        condition.awaitNanos(waitTime);
+                    } else {
+                        condition.await();
                     }
+                }
 
-                    // pair不等于null的时候说明成功获取到数据了，否则说明当前没有可获取的数据（可能是通道并发都达到上限导致虽然有数据但是无法获取），继续获取
-                    if (pair == null) {
-                        // timeout大于0，表示指定了超时时间，否则表示永久等待
-                        if (timeout > 0) {
-                            // 最长等待时间
-                            long waitTime = end - System.currentTimeMillis();
-
-                            // 如果当前已经没有等待时间了，直接返回null
-                            if (waitTime <= 0) {
-                                return null;
-                            }
-
-                            // 等待下一次通知，在队列增加数据、释放令牌的时候会通知
-                            if (!condition.await(waitTime, TimeUnit.MILLISECONDS)) {
-                                // 如果等到超时也没有等来通知，则直接返回null
-                                return null;
-                            }
-                            // 等到了通知，继续循环
-                        } else {
-                            condition.await();
-                        }
-                    } else {
-                        ChannelEntry<T> entry = map.get(pair.getKey());
-                        // 如果这个entry已经被删除了（并发调用了删除通道）
-                        if (entry != null) {
-                            // 从指定队列中移除
-                            Assert.assertTrue(entry.remove(pair.getValue()), "未预期异常，这里应该删除成功的",
-                                ExceptionProviderConst.IllegalStateExceptionProvider);
-                        }
+                Pair<ID, T> pair = poll();
+                // 如果还有其他就绪通道，继续通知其他等待的线程
+                if (!ready.isEmpty()) {
+                    condition.signal();
+                }
+                return pair;
+            });
+            return result;
+        } finally {
+            // 没有获取到数据（超时或者中断），需要归还全局令牌
+            if (result == null) {
+                semaphore.release();
+            }
+        }
+    }
+
+    /**
+     * 按照调度策略从就绪集合中选择一个通道，取出其队首数据，同时占用对应通道的令牌，调用方需要持有{@link #lock}并且确保就绪集合不为空，注意， 该方法不会通知其他等待的线程
+     * 
+     * @return 数据
+     */
+    private Pair<ID, T> poll() {
+        ChannelEntry<ID, T> entry = ready.select();
+
+        T data = entry.queue.poll();
+        entry.inFlight++;
+        // 通道队列有空位了，通知阻塞的add
+        entry.condition.signal();
+
+        ready.served(entry);
+        // 队首数据、令牌都变化了，需要刷新就绪状态
+        refreshReady(entry);
+
+        return new Pair<>(entry.id, data);
+    }
 
-                        return pair;
+    @Override
+    public List<Pair<ID, T>> takeBatch(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        Assert.assertTrue(max > 0, "max必须大于0", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        Assert.assertTrue(timeout > 0, "timeout必须大于0", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        Assert.argNotNull(unit, "unit");
+
+        final long end = System.nanoTime() + unit.toNanos(timeout);
+
+        // 先阻塞申请一个全局令牌，剩余的令牌等有数据可取时再申请，避免阻塞等待期间占用多个令牌导致其他消费者饥饿
+        if (!semaphore.tryAcquire(timeout, unit)) {
+            return Collections.emptyList();
+        }
+
+        final int[] permits = {1};
+        List<Pair<ID, T>> result = new ArrayList<>();
+        try {
+            LockTaskUtil.runInterruptedTaskWithLock(lock, () -> {
+                while (ready.isEmpty()) {
+                    long waitTime = end - System.nanoTime();
+                    if (waitTime <= 0) {
+                        return;
                     }
+                    condition.awaitNanos(waitTime);
                 }
+
+                // 剩余的令牌能申请多少申请多少，非阻塞申请，可以在锁内执行
+                permits[0] += tryAcquireGlobal(max - 1);
+                pollTo(result, permits[0]);
             });
-        } catch (InterruptedException e) {
-            semaphore.release();
-            throw e;
+        } finally {
+            // 归还没有用到的全局令牌
+            if (result.size() < permits[0]) {
+                semaphore.release(permits[0] - result.size());
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public int drainTo(Collection<? super Pair<ID, T>> collection, int max) {
+        Assert.argNotNull(collection, "collection");
+        Assert.assertTrue(max > 0, "max必须大于0", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+
+        int permits = tryAcquireGlobal(max);
+        if (permits == 0) {
+            return 0;
+        }
+
+        int count = 0;
+        try {
+            count = LockTaskUtil.runWithLock(lock, () -> pollTo(collection, permits));
+        } finally {
+            // 归还没有用到的全局令牌
+            if (count < permits) {
+                semaphore.release(permits - count);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * 从就绪集合中批量取出数据放入指定集合，调用方需要持有{@link #lock}并且已经申请了对应数量的全局令牌
+     * 
+     * @param collection
+     *            存放数据的集合
+     * @param max
+     *            最多取出的数据量
+     * @return 实际取出的数据量
+     */
+    private int pollTo(Collection<? super Pair<ID, T>> collection, int max) {
+        int count = 0;
+        while (count < max && !ready.isEmpty()) {
+            collection.add(poll());
+            count++;
         }
+
+        // 如果还有其他就绪通道，继续通知其他等待的线程，整批只需要通知一次
+        if (count > 0 && !ready.isEmpty()) {
+            condition.signal();
+        }
+
+        return count;
+    }
+
+    /**
+     * 非阻塞的申请全局令牌，能申请多少申请多少
+     * 
+     * @param max
+     *            最多申请的令牌数
+     * @return 实际申请到的令牌数
+     */
+    private int tryAcquireGlobal(int max) {
+        while (max > 0) {
+            int available = semaphore.availablePermits();
+            if (available <= 0) {
+                return 0;
+            }
+
+            int permits = Math.min(max, available);
+            if (semaphore.tryAcquire(permits)) {
+                return permits;
+            }
+        }
+
+        return 0;
     }
 
     @Override
@@ -221,143 +369,548 @@ public class MultiChannelQueueImpl<ID, T> implements MultiChannelQueue<ID, T> {
         Assert.argNotNull(data, "data");
         Assert.argNotNull(unit, "unit");
 
-        ChannelEntry<T> entry = map.get(id);
+        long end = System.nanoTime() + unit.toNanos(timeout);
 
-        if (entry == null) {
-            throw new IllegalStateException("当前ID还未初始化队列,id:" + id);
-        }
+        return LockTaskUtil.runInterruptedTaskWithLock(lock, () -> {
+            ChannelEntry<ID, T> entry = map.get(id);
 
-        // 先往通道自己的队列中添加
-        if (entry.add(data, timeout, unit)) {
-            // 全局队列添加数据，注意要加锁，因为list不是线程安全的变量，并且我们要调用condition
-            LockTaskUtil.runInterruptedTaskWithLock(lock, () -> {
-                list.add(new Pair<>(id, data));
-                // 通知数据变化
-                condition.signalAll();
-            });
+            if (entry == null) {
+                throw new IllegalStateException("当前ID还未初始化队列,id:" + id);
+            }
+
+            while (entry.queue.size() >= entry.size) {
+                if (timeout > 0) {
+                    long waitTime = end - System.nanoTime();
+                    // 如果等到了超时，直接返回false
+                    if (waitTime <= 0) {
+                        return false;
+                    }
+                    entry.condition.awaitNanos(waitTime);
+                } else {
+                    entry.condition.await();
+                }
+
+                if (entry.removed) {
+                    throw new IllegalStateException("当前通道已经被删除,id:" + id);
+                }
+            }
+
+            entry.queue.add(data, sequence++);
+            refreshReady(entry);
             return true;
-        } else {
-            return false;
-        }
+        });
     }
 
     @Override
     public boolean remove(ID id, T data) {
-        ChannelEntry<T> entry = map.get(id);
+        return LockTaskUtil.runWithLock(lock, () -> {
+            ChannelEntry<ID, T> entry = map.get(id);
 
-        if (entry == null) {
-            return false;
-        }
+            if (entry == null || !entry.queue.remove(data)) {
+                return false;
+            }
 
-        // 这里要加锁，要把两个数据一起移除
-        return LockTaskUtil.runWithLock(lock, () -> {
-            list.remove(new Pair<>(id, data));
-            return entry.remove(data);
+            entry.condition.signal();
+            // 删除的可能是队首数据，需要刷新就绪状态
+            refreshReady(entry);
+            return true;
         });
     }
 
     @Override
     public void consumed(ID id) {
+        consumed(id, 1);
+    }
+
+    @Override
+    public void consumed(ID id, int n) {
         Assert.argNotNull(id, "id");
+        Assert.assertTrue(n > 0, "n必须大于0", ExceptionProviderConst.IllegalArgumentExceptionProvider);
 
         // 无论如何，先释放全局令牌
-        semaphore.release();
+        semaphore.release(n);
 
-        ChannelEntry<T> entry = map.get(id);
-        // 如果通道节点不存在，可能是被删除了，不用管
-        if (entry != null) {
-            entry.token.release();
-            // 通知，有令牌被释放了，只有令牌真的释放才会通知，既然该通道已经不存在了，那就不通知了，因为即使通知了后边也找不到该通道的数据了
-            LockTaskUtil.runWithLock(lock, condition::signalAll);
-        }
+        LockTaskUtil.runWithLock(lock, () -> {
+            ChannelEntry<ID, T> entry = map.get(id);
+            // 如果通道节点不存在，可能是被删除了，不用管
+            if (entry != null && entry.inFlight > 0) {
+                entry.inFlight -= Math.min(n, entry.inFlight);
+                refreshReady(entry);
+            }
+        });
     }
 
     @Override
     public void clear() {
         LockTaskUtil.runWithLock(lock, () -> {
-            map.values().forEach(entry -> entry.list.clear());
+            map.values().forEach(entry -> {
+                entry.removed = true;
+                entry.queue.clear();
+                entry.condition.signalAll();
+            });
             map.clear();
-            list.clear();
+            ready.clear();
         });
     }
 
-    private static class ChannelEntry<T> {
+    /**
+     * 根据通道当前状态刷新其在就绪集合中的状态，通道的数据或者令牌发生变化后都需要调用，调用方需要持有{@link #lock}
+     * 
+     * @param entry
+     *            通道
+     */
+    private void refreshReady(ChannelEntry<ID, T> entry) {
+        boolean isReady = !entry.queue.isEmpty() && entry.inFlight < entry.maxConcurrency;
+
+        if (entry.inReady) {
+            if (isReady) {
+                ready.update(entry);
+            } else {
+                removeReady(entry);
+            }
+        } else if (isReady) {
+            boolean empty = ready.isEmpty();
+            ready.add(entry);
+            entry.inReady = true;
+
+            // 如果就绪集合由空变为非空，通知等待的take；如果之前就不为空，说明等待的take已经被通知过了
+            if (empty) {
+                condition.signal();
+            }
+        }
+    }
+
+    /**
+     * 将通道从就绪集合中移除，调用方需要持有{@link #lock}
+     * 
+     * @param entry
+     *            通道
+     */
+    private void removeReady(ChannelEntry<ID, T> entry) {
+        if (entry.inReady) {
+            ready.remove(entry);
+            entry.inReady = false;
+        }
+    }
+
+    /**
+     * 调度策略
+     */
+    public enum SchedulingPolicy {
 
         /**
-         * 通道的队列
+         * 全局FIFO，优先获取最早放入的数据
          */
-        List<T> list;
+        FIFO,
+
+        /**
+         * 加权差额轮询，按照通道权重在就绪通道之间轮询，每一轮每个通道最多可以被获取权重个数据
+         */
+        WEIGHTED_ROUND_ROBIN,
+
+        ;
+    }
+
+    /**
+     * 就绪通道集合，只有同时满足队列中有数据、并且还有空闲令牌的通道才会在集合中，所有方法调用方都需要持有{@link #lock}
+     */
+    private interface ReadyChannels<ID, T> {
 
         /**
-         * 对{@link #list}操作加的锁
+         * 通道变为就绪状态，放入集合
+         * 
+         * @param entry
+         *            通道，当前不在集合中
          */
-        Lock lock;
+        void add(ChannelEntry<ID, T> entry);
 
         /**
-         * 删除{@link #list}中的数据的时候通知，往{@link #list}中添加数据的时候消费，用于限制list长度
+         * 通道不再就绪，从集合中移除
+         * 
+         * @param entry
+         *            通道，当前在集合中
          */
-        Condition condition;
+        void remove(ChannelEntry<ID, T> entry);
 
         /**
-         * 指定{@link #list}的最大长度
+         * 仍然在集合中的通道的数据发生了变化（例如队首数据变化）
+         * 
+         * @param entry
+         *            通道，当前在集合中
          */
-        int size;
+        void update(ChannelEntry<ID, T> entry);
 
         /**
-         * 令牌
+         * 选择下一个要获取数据的通道，不会将其从集合中移除
+         * 
+         * @return 通道，调用方需要确保集合不为空
          */
-        Semaphore token;
+        ChannelEntry<ID, T> select();
 
         /**
-         * 往通道中增加数据，如果通道队列已满则阻塞等待直到可以放入或者等到超时返回false
+         * {@link #select()}选择的通道被取出了一个数据
          * 
-         * @param data
-         *            要放入的数据，不能为null
-         * @param timeout
-         *            超时时间，小于等于0的时候表示不用超时判断
-         * @param unit
-         *            时间单位
-         * @return 如果到超时时间还没有放入成功则返回false，放入成功返回true
-         * @throws InterruptedException
-         *             中断异常
+         * @param entry
+         *            通道
          */
-        boolean add(T data, long timeout, TimeUnit unit) throws InterruptedException {
-            long end = System.currentTimeMillis() + unit.toMillis(timeout);
+        void served(ChannelEntry<ID, T> entry);
 
-            return LockTaskUtil.runInterruptedTaskWithLock(lock, () -> {
-                while (true) {
-                    if (list.size() >= size) {
-                        long waitTime = end - System.currentTimeMillis();
+        /**
+         * 集合是否为空
+         * 
+         * @return true表示为空
+         */
+        boolean isEmpty();
 
-                        // 如果等到了超时，直接返回false
-                        if (waitTime <= 0 || !condition.await(waitTime, TimeUnit.MILLISECONDS)) {
-                            return false;
-                        }
-                    } else {
-                        list.add(data);
-                        return true;
-                    }
+        /**
+         * 清空集合
+         */
+        void clear();
+
+    }
+
+    /**
+     * 全局FIFO的就绪通道集合，按照通道队首数据的放入序号排序，时间复杂度O(log n)
+     */
+    private static class FifoReadyChannels<ID, T> implements ReadyChannels<ID, T> {
+
+        private final TreeSet<ChannelEntry<ID, T>> set =
+            new TreeSet<>(Comparator.comparingLong(entry -> entry.readySequence));
+
+        @Override
+        public void add(ChannelEntry<ID, T> entry) {
+            // 集合的排序依据是队首数据的放入序号，在集合中期间不能修改
+            entry.readySequence = entry.queue.headSequence();
+            set.add(entry);
+        }
+
+        @Override
+        public void remove(ChannelEntry<ID, T> entry) {
+            set.remove(entry);
+        }
+
+        @Override
+        public void update(ChannelEntry<ID, T> entry) {
+            long headSequence = entry.queue.headSequence();
+            if (headSequence != entry.readySequence) {
+                set.remove(entry);
+                add(entry);
+            }
+        }
+
+        @Override
+        public ChannelEntry<ID, T> select() {
+            return set.first();
+        }
+
+        @Override
+        public void served(ChannelEntry<ID, T> entry) {
+            // 队首数据变化后会调用update，这里什么都不用做
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return set.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            set.clear();
+        }
+    }
+
+    /**
+     * 加权差额轮询的就绪通道集合，轮到某个通道时为其增加权重大小的额度，每取出一个数据消耗一个额度，额度用完或者通道不再就绪时轮到下一个通道， 时间复杂度O(1)
+     */
+    private static class RoundRobinReadyChannels<ID, T> implements ReadyChannels<ID, T> {
+
+        /**
+         * 轮询队列，LinkedHashSet支持O(1)的删除和移动到队尾
+         */
+        private final LinkedHashSet<ChannelEntry<ID, T>> set = new LinkedHashSet<>();
+
+        @Override
+        public void add(ChannelEntry<ID, T> entry) {
+            entry.deficit = 0;
+            set.add(entry);
+        }
+
+        @Override
+        public void remove(ChannelEntry<ID, T> entry) {
+            set.remove(entry);
+            entry.deficit = 0;
+        }
+
+        @Override
+        public void update(ChannelEntry<ID, T> entry) {
+            // 轮询与数据放入顺序无关，这里什么都不用做
+        }
+
+        @Override
+        public ChannelEntry<ID, T> select() {
+            ChannelEntry<ID, T> entry = set.iterator().next();
+            if (entry.deficit <= 0) {
+                // 新的一轮，增加额度
+                entry.deficit = entry.weight;
+            }
+            return entry;
+        }
+
+        @Override
+        public void served(ChannelEntry<ID, T> entry) {
+            entry.deficit--;
+            if (entry.deficit <= 0) {
+                // 额度用完，移动到队尾
+                set.remove(entry);
+                set.add(entry);
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return set.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            set.clear();
+        }
+    }
+
+    /**
+     * 通道内的队列，数据按放入顺序消费，同时支持O(1)的删除指定数据；允许放入相同（equals）的数据，删除时删除最早放入的那个，与
+     * {@link LinkedList#remove(Object)}一致；调用方需要持有{@link #lock}
+     */
+    private static class ChannelQueue<T> {
+
+        /**
+         * 数据到最早放入的对应节点的索引，相同的数据通过{@link Node#nextSame}按放入顺序串起来
+         */
+        private final Map<T, Node<T>> index = new HashMap<>();
+
+        /**
+         * 队首
+         */
+        private Node<T> head;
+
+        /**
+         * 队尾
+         */
+        private Node<T> tail;
+
+        /**
+         * 数据量
+         */
+        private int size;
+
+        /**
+         * 放入数据
+         * 
+         * @param data
+         *            数据
+         * @param sequence
+         *            数据的放入序号
+         */
+        void add(T data, long sequence) {
+            Node<T> node = new Node<>(data, sequence);
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+                node.prev = tail;
+            }
+            tail = node;
+            size++;
+
+            Node<T> same = index.putIfAbsent(data, node);
+            if (same != null) {
+                // 存在相同的数据，挂到最后一个相同数据的后边，相同数据很少时只需要遍历很少的节点
+                while (same.nextSame != null) {
+                    same = same.nextSame;
                 }
-            });
+                same.nextSame = node;
+            }
         }
 
         /**
-         * 删除指定数据
+         * 取出队首数据，调用方需要确保队列不为空
+         * 
+         * @return 队首数据
+         */
+        T poll() {
+            Node<T> node = head;
+            // 队首一定是相同数据中最早放入的那个
+            unindex(node);
+            unlink(node);
+            return node.data;
+        }
+
+        /**
+         * 删除最早放入的指定数据
          * 
          * @param data
-         *            要删除的数据
-         * @return true表示删除成功
+         *            数据
+         * @return 数据不存在时返回false
          */
         boolean remove(T data) {
-            return LockTaskUtil.runWithLock(lock, () -> {
-                if (list.remove(data)) {
-                    condition.signalAll();
-                    return true;
-                } else {
-                    return false;
-                }
-            });
+            Node<T> node = index.get(data);
+            if (node == null) {
+                return false;
+            }
+
+            unindex(node);
+            unlink(node);
+            return true;
+        }
+
+        /**
+         * 队首数据的放入序号，调用方需要确保队列不为空
+         * 
+         * @return 放入序号
+         */
+        long headSequence() {
+            return head.sequence;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * 按放入顺序返回所有数据
+         * 
+         * @return 所有数据
+         */
+        List<T> toList() {
+            List<T> list = new ArrayList<>(size);
+            for (Node<T> node = head; node != null; node = node.next) {
+                list.add(node.data);
+            }
+            return list;
+        }
+
+        void clear() {
+            index.clear();
+            head = null;
+            tail = null;
+            size = 0;
+        }
+
+        /**
+         * 从索引中删除节点，节点必须是相同数据中最早放入的那个
+         * 
+         * @param node
+         *            节点
+         */
+        private void unindex(Node<T> node) {
+            if (node.nextSame == null) {
+                index.remove(node.data);
+            } else {
+                index.put(node.data, node.nextSame);
+            }
+        }
+
+        private void unlink(Node<T> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            size--;
+        }
+
+        private static class Node<T> {
+
+            final T data;
+
+            /**
+             * 数据的放入序号
+             */
+            final long sequence;
+
+            Node<T> prev;
+
+            Node<T> next;
+
+            /**
+             * 下一个相同的数据
+             */
+            Node<T> nextSame;
+
+            Node(T data, long sequence) {
+                this.data = data;
+                this.sequence = sequence;
+            }
         }
     }
 
+    private static class ChannelEntry<ID, T> {
+
+        /**
+         * 通道ID
+         */
+        ID id;
+
+        /**
+         * 通道的队列
+         */
+        ChannelQueue<T> queue;
+
+        /**
+         * 删除{@link #queue}中的数据的时候通知，往{@link #queue}中添加数据的时候消费，用于限制队列长度
+         */
+        Condition condition;
+
+        /**
+         * 指定{@link #queue}的最大长度
+         */
+        int size;
+
+        /**
+         * 通道最大并发
+         */
+        int maxConcurrency;
+
+        /**
+         * 通道权重，{@link SchedulingPolicy#WEIGHTED_ROUND_ROBIN}时使用
+         */
+        int weight;
+
+        /**
+         * 当前轮次剩余额度，{@link SchedulingPolicy#WEIGHTED_ROUND_ROBIN}时使用
+         */
+        int deficit;
+
+        /**
+         * 当前已经取出但是还未消费完毕的数据量
+         */
+        int inFlight;
+
+        /**
+         * 当前是否在就绪集合中
+         */
+        boolean inReady;
+
+        /**
+         * 放入就绪集合时队首数据的放入序号，{@link SchedulingPolicy#FIFO}时就绪集合按照该字段排序
+         */
+        long readySequence;
+
+        /**
+         * 通道是否已经被删除
+         */
+        boolean removed;
+
+    }
+
 }
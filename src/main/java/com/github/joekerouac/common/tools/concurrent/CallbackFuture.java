@@ -12,10 +12,14 @@
  */
 package com.github.joekerouac.common.tools.concurrent;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
- * 可以添加回调的future
+ * 可以添加回调的future，支持基于回调的非阻塞组合（map、flatMap、recover、timeout），更多组合方式参考{@link CallbackFutureUtil}
  * 
  * @author JoeKerouac
  * @date 2022-10-14 14:37:00
@@ -39,4 +43,106 @@ public interface CallbackFuture<T> extends Future<T> {
      */
     void removeCallback(FutureCallback<T> callback);
 
+    /**
+     * 结果转换，当前future成功时使用mapper转换结果，失败、取消时返回的future同样失败、取消；mapper在完成当前future的线程中执行
+     *
+     * @param mapper
+     *            结果转换器
+     * @param <U>
+     *            转换后的结果类型
+     * @return 转换后的future
+     */
+    default <U> CallbackFuture<U> map(Function<? super T, ? extends U> mapper) {
+        return CallbackFutureUtil.map(this, mapper, null);
+    }
+
+    /**
+     * 结果转换，当前future成功时使用mapper转换结果，失败、取消时返回的future同样失败、取消
+     *
+     * @param mapper
+     *            结果转换器
+     * @param executor
+     *            执行mapper的线程池，为null时在完成当前future的线程中执行
+     * @param <U>
+     *            转换后的结果类型
+     * @return 转换后的future
+     */
+    default <U> CallbackFuture<U> map(Function<? super T, ? extends U> mapper, Executor executor) {
+        return CallbackFutureUtil.map(this, mapper, executor);
+    }
+
+    /**
+     * 异步结果转换，当前future成功时使用mapper生成下一个future；mapper在完成当前future的线程中执行
+     *
+     * @param mapper
+     *            future生成器
+     * @param <U>
+     *            转换后的结果类型
+     * @return 转换后的future，结果与mapper生成的future一致
+     */
+    default <U> CallbackFuture<U> flatMap(Function<? super T, ? extends CallbackFuture<U>> mapper) {
+        return CallbackFutureUtil.flatMap(this, mapper, null);
+    }
+
+    /**
+     * 异步结果转换，当前future成功时使用mapper生成下一个future
+     *
+     * @param mapper
+     *            future生成器
+     * @param executor
+     *            执行mapper的线程池，为null时在完成当前future的线程中执行
+     * @param <U>
+     *            转换后的结果类型
+     * @return 转换后的future，结果与mapper生成的future一致
+     */
+    default <U> CallbackFuture<U> flatMap(Function<? super T, ? extends CallbackFuture<U>> mapper, Executor executor) {
+        return CallbackFutureUtil.flatMap(this, mapper, executor);
+    }
+
+    /**
+     * 异常恢复，当前future失败时使用recover根据异常生成结果；recover在完成当前future的线程中执行
+     *
+     * @param recover
+     *            异常恢复逻辑
+     * @return 恢复后的future
+     */
+    default CallbackFuture<T> recover(Function<Throwable, ? extends T> recover) {
+        return CallbackFutureUtil.recover(this, recover, null);
+    }
+
+    /**
+     * 异常恢复，当前future失败时使用recover根据异常生成结果
+     *
+     * @param recover
+     *            异常恢复逻辑
+     * @param executor
+     *            执行recover的线程池，为null时在完成当前future的线程中执行
+     * @return 恢复后的future
+     */
+    default CallbackFuture<T> recover(Function<Throwable, ? extends T> recover, Executor executor) {
+        return CallbackFutureUtil.recover(this, recover, executor);
+    }
+
+    /**
+     * 超时控制，当前future在指定时间内没有完成时返回的future以{@link java.util.concurrent.TimeoutException}失败，注意，超时不会取消当前future
+     *
+     * @param timeout
+     *            超时时间
+     * @param unit
+     *            超时时间单位
+     * @return 带超时控制的future
+     */
+    default CallbackFuture<T> timeout(long timeout, TimeUnit unit) {
+        return CallbackFutureUtil.timeout(this, timeout, unit);
+    }
+
+    /**
+     * 桥接为{@link CompletableFuture}
+     *
+     * @return CompletableFuture，CompletableFuture被取消时也会取消当前future
+     */
+    default CompletableFuture<T> toCompletableFuture() {
+        return CallbackFutureUtil.toCompletableFuture(this);
+    }
+
 }
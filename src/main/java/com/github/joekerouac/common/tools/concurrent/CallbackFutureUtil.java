@@ -0,0 +1,575 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
+import com.github.joekerouac.common.tools.scheduler.TimingWheelTimer;
+import com.github.joekerouac.common.tools.string.StringUtils;
+import com.github.joekerouac.common.tools.util.Assert;
+
+import lombok.AccessLevel;
+import lombok.CustomLog;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link CallbackFuture}组合工具，所有组合操作都是基于回调实现的，不会阻塞任何线程；
+ * 
+ * 所有接收{@link Executor}参数的方法，executor为null时后续逻辑将会直接在完成上游future的线程中执行（如果上游已经完成则在当前线程执行），此时后续逻辑 应该尽快执行完毕，不要有阻塞操作；
+ *
+ * map、flatMap、recover、timeout返回的下游future被取消时也会取消上游future，与{@link #toCompletableFuture(CallbackFuture)}一致；
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 16:00:00
+ * @since 2.1.6
+ */
+@CustomLog
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CallbackFutureUtil {
+
+    /**
+     * 创建一个已经成功的future
+     *
+     * @param result
+     *            结果
+     * @param <T>
+     *            结果类型
+     * @return 已经成功的future
+     */
+    public static <T> CallbackFuture<T> completed(T result) {
+        StateFuture<T> future = new StateFuture<>();
+        future.startRun();
+        future.done(result);
+        return future;
+    }
+
+    /**
+     * 创建一个已经失败的future
+     *
+     * @param throwable
+     *            异常
+     * @param <T>
+     *            结果类型
+     * @return 已经失败的future
+     */
+    public static <T> CallbackFuture<T> failed(Throwable throwable) {
+        Assert.argNotNull(throwable, "throwable");
+
+        StateFuture<T> future = new StateFuture<>();
+        future.exception(throwable);
+        return future;
+    }
+
+    /**
+     * 结果转换，上游成功时使用mapper转换结果，上游失败、取消时下游同样失败、取消；下游被取消时也会取消上游
+     *
+     * @param source
+     *            上游future
+     * @param mapper
+     *            结果转换器，抛出的异常将会作为下游的失败原因
+     * @param executor
+     *            执行mapper的线程池，允许为null
+     * @param <T>
+     *            上游结果类型
+     * @param <U>
+     *            下游结果类型
+     * @return 下游future
+     */
+    public static <T, U> CallbackFuture<U> map(CallbackFuture<T> source, Function<? super T, ? extends U> mapper,
+        Executor executor) {
+        Assert.argNotNull(source, "source");
+        Assert.argNotNull(mapper, "mapper");
+
+        StateFuture<U> target = newFuture();
+        source.addCallback(new FutureCallback<T>() {
+            @Override
+            public void success(T result) {
+                execute(executor, target, () -> target.done(mapper.apply(result)));
+            }
+
+            @Override
+            public void failed(Throwable ex) {
+                target.exception(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                target.cancel(false);
+            }
+        });
+        cancelUpstream(target, source);
+        return target;
+    }
+
+    /**
+     * 异步结果转换，上游成功时使用mapper生成一个新的future，下游的结果与该future一致，上游失败、取消时下游同样失败、取消；下游被取消时也会取消上游以及 mapper生成的future
+     *
+     * @param source
+     *            上游future
+     * @param mapper
+     *            future生成器，抛出的异常将会作为下游的失败原因，不能返回null
+     * @param executor
+     *            执行mapper的线程池，允许为null
+     * @param <T>
+     *            上游结果类型
+     * @param <U>
+     *            下游结果类型
+     * @return 下游future
+     */
+    public static <T, U> CallbackFuture<U> flatMap(CallbackFuture<T> source,
+        Function<? super T, ? extends CallbackFuture<U>> mapper, Executor executor) {
+        Assert.argNotNull(source, "source");
+        Assert.argNotNull(mapper, "mapper");
+
+        StateFuture<U> target = newFuture();
+        source.addCallback(new FutureCallback<T>() {
+            @Override
+            public void success(T result) {
+                execute(executor, target, () -> {
+                    CallbackFuture<U> next = mapper.apply(result);
+                    Assert.notNull(next, "flatMap的mapper返回的future不能为null",
+                        ExceptionProviderConst.IllegalStateExceptionProvider);
+                    next.addCallback(new ForwardCallback<>(target));
+                    cancelUpstream(target, next);
+                });
+            }
+
+            @Override
+            public void failed(Throwable ex) {
+                target.exception(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                target.cancel(false);
+            }
+        });
+        cancelUpstream(target, source);
+        return target;
+    }
+
+    /**
+     * 异常恢复，上游失败时使用recover根据异常生成结果，上游成功、取消时下游同样成功、取消；下游被取消时也会取消上游
+     *
+     * @param source
+     *            上游future
+     * @param recover
+     *            异常恢复逻辑，抛出的异常将会作为下游的失败原因
+     * @param executor
+     *            执行recover的线程池，允许为null
+     * @param <T>
+     *            结果类型
+     * @return 下游future
+     */
+    public static <T> CallbackFuture<T> recover(CallbackFuture<T> source, Function<Throwable, ? extends T> recover,
+        Executor executor) {
+        Assert.argNotNull(source, "source");
+        Assert.argNotNull(recover, "recover");
+
+        StateFuture<T> target = newFuture();
+        source.addCallback(new FutureCallback<T>() {
+            @Override
+            public void success(T result) {
+                target.done(result);
+            }
+
+            @Override
+            public void failed(Throwable ex) {
+                execute(executor, target, () -> target.done(recover.apply(ex)));
+            }
+
+            @Override
+            public void cancelled() {
+                target.cancel(false);
+            }
+        });
+        cancelUpstream(target, source);
+        return target;
+    }
+
+    /**
+     * 超时控制，上游在指定时间内没有完成时下游以{@link TimeoutException}失败，上游在指定时间内完成时下游结果与上游一致；注意，超时不会取消上游，但是下游被主动取消时会取消上游；
+     *
+     * @param source
+     *            上游future
+     * @param timeout
+     *            超时时间
+     * @param unit
+     *            超时时间单位
+     * @param <T>
+     *            结果类型
+     * @return 下游future
+     */
+    public static <T> CallbackFuture<T> timeout(CallbackFuture<T> source, long timeout, TimeUnit unit) {
+        Assert.argNotNull(source, "source");
+        Assert.argNotNull(unit, "unit");
+
+        if (source.isDone()) {
+            return source;
+        }
+
+        StateFuture<T> target = newFuture();
+        TimingWheelTimer.Timeout timer = TimerHolder.TIMER.schedule(
+            () -> target.exception(new TimeoutException(StringUtils.format("future在 [{}]{} 内没有完成", timeout, unit))),
+            timeout, unit);
+        source.addCallback(new ForwardCallback<T>(target) {
+            @Override
+            public void complete(T result, Throwable ex, int status) {
+                timer.cancel();
+            }
+        });
+        cancelUpstream(target, source);
+        return target;
+    }
+
+    /**
+     * 所有future都成功时下游成功，结果按照入参顺序排列；任意一个future失败、取消时下游立即失败、取消
+     *
+     * @param futures
+     *            future集合
+     * @param <T>
+     *            结果类型
+     * @return 下游future
+     */
+    public static <T> CallbackFuture<List<T>> allOf(Collection<? extends CallbackFuture<? extends T>> futures) {
+        Assert.argNotNull(futures, "futures");
+
+        StateFuture<List<T>> target = newFuture();
+        int size = futures.size();
+        if (size == 0) {
+            target.done(new ArrayList<>());
+            return target;
+        }
+
+        Object[] results = new Object[size];
+        AtomicInteger remain = new AtomicInteger(size);
+        int index = 0;
+        for (CallbackFuture<? extends T> future : futures) {
+            int i = index++;
+            addCallback(future, new FutureCallback<T>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public void success(T result) {
+                    results[i] = result;
+                    if (remain.decrementAndGet() == 0) {
+                        target.done((List<T>)Arrays.asList(results));
+                    }
+                }
+
+                @Override
+                public void failed(Throwable ex) {
+                    target.exception(ex);
+                }
+
+                @Override
+                public void cancelled() {
+                    target.cancel(false);
+                }
+            });
+        }
+        return target;
+    }
+
+    /**
+     * 任意一个future完成（成功、失败、取消）时下游以相同的结果完成
+     *
+     * @param futures
+     *            future集合，不能为空
+     * @param <T>
+     *            结果类型
+     * @return 下游future
+     */
+    public static <T> CallbackFuture<T> anyOf(Collection<? extends CallbackFuture<? extends T>> futures) {
+        Assert.argNotNull(futures, "futures");
+        Assert.assertTrue(!futures.isEmpty(), "futures不能为空", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+
+        StateFuture<T> target = newFuture();
+        for (CallbackFuture<? extends T> future : futures) {
+            addCallback(future, new ForwardCallback<>(target));
+        }
+        return target;
+    }
+
+    /**
+     * 将{@link CallbackFuture}桥接为{@link CompletableFuture}，CompletableFuture被取消时也会取消原future
+     *
+     * @param source
+     *            原future
+     * @param <T>
+     *            结果类型
+     * @return CompletableFuture
+     */
+    public static <T> CompletableFuture<T> toCompletableFuture(CallbackFuture<T> source) {
+        Assert.argNotNull(source, "source");
+
+        CompletableFuture<T> target = new CompletableFuture<>();
+        source.addCallback(new FutureCallback<T>() {
+            @Override
+            public void success(T result) {
+                target.complete(result);
+            }
+
+            @Override
+            public void failed(Throwable ex) {
+                target.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                target.cancel(false);
+            }
+        });
+
+        target.whenComplete((r, ex) -> {
+            if (target.isCancelled()) {
+                source.cancel(false);
+            }
+        });
+        return target;
+    }
+
+    /**
+     * 将{@link CompletableFuture}桥接为{@link CallbackFuture}，CallbackFuture被取消时也会取消原future
+     *
+     * @param source
+     *            原future
+     * @param <T>
+     *            结果类型
+     * @return CallbackFuture
+     */
+    public static <T> CallbackFuture<T> fromCompletableFuture(CompletableFuture<T> source) {
+        Assert.argNotNull(source, "source");
+
+        StateFuture<T> target = newFuture();
+        source.whenComplete((result, ex) -> {
+            if (ex == null) {
+                target.done(result);
+                return;
+            }
+
+            // 依赖阶段的异常会被包装为CompletionException
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof CancellationException) {
+                target.cancel(false);
+            } else {
+                target.exception(cause);
+            }
+        });
+
+        target.addCallback(new FutureCallback<T>() {
+            @Override
+            public void cancelled() {
+                source.cancel(false);
+            }
+        });
+        return target;
+    }
+
+    /**
+     * 创建一个httpclient5的回调，该回调会完成指定的future，用于将httpclient5的异步调用桥接为{@link CallbackFuture}
+     *
+     * @param target
+     *            要完成的future
+     * @param <T>
+     *            结果类型
+     * @return httpclient5回调
+     */
+    public static <T> org.apache.hc.core5.concurrent.FutureCallback<T> toHttpFutureCallback(StateFuture<T> target) {
+        Assert.argNotNull(target, "target");
+
+        target.startRun();
+        return new org.apache.hc.core5.concurrent.FutureCallback<T>() {
+            @Override
+            public void completed(T result) {
+                target.done(result);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                target.exception(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                target.cancel(false);
+            }
+        };
+    }
+
+    /**
+     * 将httpclient5的回调转换为{@link FutureCallback}，用于将{@link CallbackFuture}的结果通知给httpclient5的回调
+     *
+     * @param callback
+     *            httpclient5回调
+     * @param <T>
+     *            结果类型
+     * @return FutureCallback
+     */
+    public static <T> FutureCallback<T>
+        fromHttpFutureCallback(org.apache.hc.core5.concurrent.FutureCallback<T> callback) {
+        Assert.argNotNull(callback, "callback");
+
+        return new FutureCallback<T>() {
+            @Override
+            public void success(T result) {
+                callback.completed(result);
+            }
+
+            @Override
+            public void failed(Throwable ex) {
+                callback.failed(ex instanceof Exception ? (Exception)ex : new RuntimeException(ex));
+            }
+
+            @Override
+            public void cancelled() {
+                callback.cancelled();
+            }
+        };
+    }
+
+    /**
+     * 创建一个执行中的future
+     *
+     * @param <T>
+     *            结果类型
+     * @return 执行中的future
+     */
+    private static <T> StateFuture<T> newFuture() {
+        StateFuture<T> future = new StateFuture<>();
+        future.startRun();
+        return future;
+    }
+
+    /**
+     * 给future添加回调，主要用于处理泛型通配符
+     *
+     * @param future
+     *            future
+     * @param callback
+     *            回调
+     * @param <T>
+     *            结果类型
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void addCallback(CallbackFuture<? extends T> future, FutureCallback<T> callback) {
+        ((CallbackFuture<T>)future).addCallback(callback);
+    }
+
+    /**
+     * 下游被取消时取消上游
+     *
+     * @param target
+     *            下游future
+     * @param upstream
+     *            上游future
+     * @param <T>
+     *            下游结果类型
+     */
+    private static <T> void cancelUpstream(StateFuture<T> target, Future<?> upstream) {
+        target.addCallback(new FutureCallback<T>() {
+            @Override
+            public void cancelled() {
+                upstream.cancel(false);
+            }
+        });
+    }
+
+    /**
+     * 在指定线程池中执行任务，执行失败时将异常设置到future中
+     *
+     * @param executor
+     *            线程池，为null时直接在当前线程执行
+     * @param target
+     *            future
+     * @param task
+     *            任务
+     */
+    private static void execute(Executor executor, StateFuture<?> target, Runnable task) {
+        Runnable run = () -> {
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                target.exception(throwable);
+            }
+        };
+
+        if (executor == null) {
+            run.run();
+            return;
+        }
+
+        try {
+            executor.execute(run);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn(e, "future后续任务提交到线程池失败");
+            target.exception(e);
+        }
+    }
+
+    /**
+     * 将结果原样转发到目标future的回调
+     *
+     * @param <T>
+     *            结果类型
+     */
+    private static class ForwardCallback<T> implements FutureCallback<T> {
+
+        private final StateFuture<T> target;
+
+        ForwardCallback(StateFuture<T> target) {
+            this.target = target;
+        }
+
+        @Override
+        public void success(T result) {
+            target.done(result);
+        }
+
+        @Override
+        public void failed(Throwable ex) {
+            target.exception(ex);
+        }
+
+        @Override
+        public void cancelled() {
+            target.cancel(false);
+        }
+    }
+
+    /**
+     * 超时控制使用的定时器，首次使用时才会创建
+     */
+    private static class TimerHolder {
+
+        private static final TimingWheelTimer TIMER = new TimingWheelTimer("callback-future-timeout", 1, 64, true);
+
+        static {
+            TIMER.start();
+        }
+    }
+
+}
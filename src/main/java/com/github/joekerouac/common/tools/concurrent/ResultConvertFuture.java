@@ -12,6 +12,7 @@
  */
 package com.github.joekerouac.common.tools.concurrent;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -21,13 +22,15 @@ import java.util.function.Function;
 import com.github.joekerouac.common.tools.util.Assert;
 
 /**
- * 结果转换future适配器
+ * 结果转换future适配器，转换结果（包括转换异常）会被缓存，无论调用多少次get，转换器都只会执行一次；
+ * 
+ * 如果原始future是{@link CallbackFuture}，原始future完成时就会立即转换并触发回调，否则只能在第一次调用get后才会转换并触发回调；
  * 
  * @since 1.0.0
  * @author JoeKerouac
  * @date 2022-10-14 14:37:00
  */
-public class ResultConvertFuture<T, V> implements Future<V> {
+public class ResultConvertFuture<T, V> implements CallbackFuture<V> {
 
     /**
      * 原始future
@@ -39,36 +42,129 @@ public class ResultConvertFuture<T, V> implements Future<V> {
      */
     private final Function<T, V> converter;
 
+    /**
+     * 转换后的结果
+     */
+    private final StateFuture<V> result;
+
+    @SuppressWarnings("unchecked")
     public ResultConvertFuture(Future<T> future, Function<T, V> converter) {
         Assert.argNotNull(future, "future");
         Assert.argNotNull(converter, "converter");
 
         this.future = future;
         this.converter = converter;
+        this.result = new StateFuture<>();
+
+        if (future instanceof CallbackFuture) {
+            ((CallbackFuture<T>)future).addCallback(new FutureCallback<T>() {
+                @Override
+                public void success(T r) {
+                    convert(r);
+                }
+
+                @Override
+                public void failed(Throwable ex) {
+                    result.exception(ex);
+                }
+
+                @Override
+                public void cancelled() {
+                    result.cancel(false);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void addCallback(FutureCallback<V> callback) {
+        result.addCallback(callback);
+    }
+
+    @Override
+    public void removeCallback(FutureCallback<V> callback) {
+        result.removeCallback(callback);
     }
 
     @Override
     public boolean cancel(boolean mayInterruptIfRunning) {
-        return future.cancel(mayInterruptIfRunning);
+        if (!future.cancel(mayInterruptIfRunning)) {
+            return false;
+        }
+
+        result.cancel(false);
+        return true;
     }
 
     @Override
     public boolean isCancelled() {
-        return future.isCancelled();
+        return result.isCancelled() || future.isCancelled();
     }
 
     @Override
     public boolean isDone() {
-        return future.isDone();
+        return result.isDone() || future.isDone();
     }
 
     @Override
     public V get() throws InterruptedException, ExecutionException {
-        return converter.apply(future.get());
+        if (!result.isDone()) {
+            T r;
+            try {
+                r = future.get();
+            } catch (ExecutionException e) {
+                result.exception(e.getCause() == null ? e : e.getCause());
+                return result.get();
+            } catch (CancellationException e) {
+                result.cancel(false);
+                return result.get();
+            }
+            convert(r);
+        }
+
+        return result.get();
     }
 
     @Override
     public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        return converter.apply(future.get(timeout, unit));
+        if (!result.isDone()) {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            T r;
+            try {
+                r = future.get(timeout, unit);
+            } catch (ExecutionException e) {
+                result.exception(e.getCause() == null ? e : e.getCause());
+                return result.get();
+            } catch (CancellationException e) {
+                result.cancel(false);
+                return result.get();
+            }
+            convert(r);
+            // 其他线程可能正在转换，等待剩余时间
+            return result.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        }
+
+        return result.get();
+    }
+
+    /**
+     * 转换结果，多个线程并发调用时只会有一个线程执行转换
+     *
+     * @param r
+     *            原始结果
+     */
+    private void convert(T r) {
+        if (!result.startRun()) {
+            return;
+        }
+
+        V v;
+        try {
+            v = converter.apply(r);
+        } catch (Throwable throwable) {
+            result.exception(throwable);
+            return;
+        }
+        result.done(v);
     }
 }
@@ -12,18 +12,24 @@
  */
 package com.github.joekerouac.common.tools.concurrent;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.*;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-
-import com.github.joekerouac.common.tools.lock.LockTaskUtil;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 import lombok.CustomLog;
 
 /**
- * 状态机future
+ * 状态机future，无锁实现：
+ * 
+ * <li>状态变更全部通过CAS完成；</li>
+ * <li>等待线程和回调都保存在同一个无锁栈（Treiber stack）中，完成时一次性取出整个栈，唤醒等待线程并在锁外执行回调；</li>
+ * <li>已经完成后调用{@link #get()}、{@link #addCallback(FutureCallback)}不会有任何内存分配；</li>
  * 
  * @since 1.0.0
  * @author JoeKerouac
@@ -35,37 +41,40 @@ public class StateFuture<T> implements CallbackFuture<T> {
     /**
      * 初始化状态
      */
-    private static final byte INIT = 0;
+    private static final int INIT = 0;
 
     /**
      * 执行完毕状态，包含成功和异常，不包含CANCEL状态
      */
-    private static final byte COMPLETE = 1;
+    private static final int COMPLETE = 1;
 
     /**
      * 取消状态
      */
-    private static final byte CANCEL = 2;
+    private static final int CANCEL = 2;
 
     /**
      * 执行中状态
      */
-    private static final byte RUNNING = 3;
+    private static final int RUNNING = 3;
 
     /**
-     * 状态变更时加的锁
+     * 完成中状态，此时正在设置结果，是一个非常短暂的中间状态，设置完结果后将会变为COMPLETE
      */
-    private final Lock lock;
+    private static final int COMPLETING = 4;
 
-    /**
-     * 结束条件，执行结束（包含正常结束、执行异常、取消）的时候会发出通知
-     */
-    private final Condition doneCondition;
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<StateFuture> STATUS =
+        AtomicIntegerFieldUpdater.newUpdater(StateFuture.class, "status");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<StateFuture, Node> STACK =
+        AtomicReferenceFieldUpdater.newUpdater(StateFuture.class, Node.class, "stack");
 
     /**
-     * 待执行的回调
+     * 栈已经关闭的标识，future完成后栈顶将会被置为该节点，之后无法再入栈
      */
-    private final List<FutureCallback<T>> callbacks;
+    private static final Node CLOSED = new Node(new Object(), false);
 
     /**
      * 执行结果
@@ -78,14 +87,17 @@ public class StateFuture<T> implements CallbackFuture<T> {
     private volatile Throwable throwable;
 
     /**
-     * 状态，0表示初始，1表示完成，2表示cancel，4表示执行中，不支持cancel
+     * 状态，0表示初始，1表示完成，2表示cancel，3表示执行中，4表示完成中
+     */
+    private volatile int status;
+
+    /**
+     * 等待线程和待执行回调组成的栈，栈顶为{@link #CLOSED}时表示已经完成
      */
-    private volatile byte status = 0;
+    private volatile Node stack;
 
     public StateFuture() {
-        this.lock = new ReentrantLock();
-        this.doneCondition = lock.newCondition();
-        this.callbacks = new CopyOnWriteArrayList<>();
+        this.status = INIT;
     }
 
     @Override
@@ -94,11 +106,10 @@ public class StateFuture<T> implements CallbackFuture<T> {
             return;
         }
 
-        LockTaskUtil.runWithLock(lock, () -> {
-            if (!callback(callback)) {
-                callbacks.add(callback);
-            }
-        });
+        // 入栈失败说明已经完成，直接执行回调即可
+        if (!push(new Node(callback, false))) {
+            callback(callback);
+        }
     }
 
     /**
@@ -109,18 +120,19 @@ public class StateFuture<T> implements CallbackFuture<T> {
      * @return true表示回调执行，false表示当前不是终态，没有执行回调
      */
     private boolean callback(FutureCallback<T> callback) {
-        if (this.status == COMPLETE) {
-            int status;
-            if (this.throwable != null) {
-                status = 1;
+        int status = this.status;
+        if (status == COMPLETE) {
+            Throwable throwable = this.throwable;
+            T obj = this.obj;
+            if (throwable != null) {
                 callback.failed(throwable);
+                callback.complete(obj, throwable, 1);
             } else {
-                status = 0;
                 callback.success(obj);
+                callback.complete(obj, null, 0);
             }
-            callback.complete(obj, throwable, status);
             return true;
-        } else if (this.status == CANCEL) {
+        } else if (status == CANCEL) {
             callback.cancelled();
             callback.complete(obj, throwable, 2);
             return true;
@@ -130,7 +142,13 @@ public class StateFuture<T> implements CallbackFuture<T> {
 
     @Override
     public void removeCallback(FutureCallback<T> callback) {
-        callbacks.remove(callback);
+        for (Node node = stack; node != null && node != CLOSED; node = node.next) {
+            Object item = node.item;
+            if (!node.waiter && item != null && item.equals(callback) && node.clear(item)) {
+                unlinkCleared();
+                return;
+            }
+        }
     }
 
     /**
@@ -139,14 +157,7 @@ public class StateFuture<T> implements CallbackFuture<T> {
      * @return 如果当前future是INIT状态，将会返回true，并将其状态置为完成，否则将什么都不做返回false
      */
     public boolean startRun() {
-        return LockTaskUtil.runWithLock(lock, () -> {
-            if (this.status != INIT) {
-                return false;
-            }
-
-            this.status = RUNNING;
-            return true;
-        });
+        return STATUS.compareAndSet(this, INIT, RUNNING);
     }
 
     /**
@@ -157,23 +168,14 @@ public class StateFuture<T> implements CallbackFuture<T> {
      * @return 如果当前future是RUNNING状态，将会返回true，并将其状态置为完成，否则将什么都不做返回false
      */
     public boolean done(T obj) {
-        return LockTaskUtil.runWithLock(lock, () -> {
-            if (this.status != RUNNING) {
-                return false;
-            }
+        if (!STATUS.compareAndSet(this, RUNNING, COMPLETING)) {
+            return false;
+        }
 
-            this.obj = obj;
-            this.status = COMPLETE;
-            doneCondition.signalAll();
-            for (FutureCallback<T> callback : callbacks) {
-                try {
-                    callback(callback);
-                } catch (Throwable throwable) {
-                    LOGGER.error(throwable, "正常回调 [{}] 执行过程中发生异常", callback);
-                }
-            }
-            return true;
-        });
+        this.obj = obj;
+        this.status = COMPLETE;
+        finish();
+        return true;
     }
 
     /**
@@ -184,46 +186,26 @@ public class StateFuture<T> implements CallbackFuture<T> {
      * @return 如果当前future是RUNNING或者INIT状态，将会返回true，并将其状态置为完成，否则将什么都不做返回false
      */
     public boolean exception(Throwable throwable) {
-        return LockTaskUtil.runWithLock(lock, () -> {
-            // 执行过程中和初始化状态都可能超时异常
-            if (this.status != RUNNING && this.status != INIT) {
-                return false;
-            }
+        // 执行过程中和初始化状态都可能超时异常
+        if (!STATUS.compareAndSet(this, RUNNING, COMPLETING) && !STATUS.compareAndSet(this, INIT, COMPLETING)) {
+            return false;
+        }
 
-            this.throwable = throwable;
-            this.status = COMPLETE;
-            doneCondition.signalAll();
-            for (FutureCallback<T> callback : callbacks) {
-                try {
-                    callback(callback);
-                } catch (Throwable ex) {
-                    LOGGER.error(ex, "异常回调 [{}] 执行过程中发生异常", callback);
-                }
-            }
-            return true;
-        });
+        this.throwable = throwable;
+        this.status = COMPLETE;
+        finish();
+        return true;
     }
 
     @Override
     public boolean cancel(boolean mayInterruptIfRunning) {
-        return LockTaskUtil.runWithLock(lock, () -> {
-            // 已经是结束状态，无法更新为cancel状态
-            if (status == COMPLETE || status == CANCEL) {
-                return false;
-            } else {
-                status = CANCEL;
-                doneCondition.signalAll();
-                for (FutureCallback<T> callback : callbacks) {
-                    try {
-                        callback(callback);
-                    } catch (Throwable throwable) {
-                        LOGGER.error(throwable, "cancel回调 [{}] 执行过程中发生异常", callback);
-                    }
-                }
+        // 已经是结束状态，无法更新为cancel状态
+        if (!STATUS.compareAndSet(this, RUNNING, CANCEL) && !STATUS.compareAndSet(this, INIT, CANCEL)) {
+            return false;
+        }
 
-                return true;
-            }
-        });
+        finish();
+        return true;
     }
 
     @Override
@@ -233,40 +215,26 @@ public class StateFuture<T> implements CallbackFuture<T> {
 
     @Override
     public boolean isDone() {
+        int status = this.status;
         return status == COMPLETE || status == CANCEL;
     }
 
     @Override
     public T get() throws InterruptedException, ExecutionException {
-        lock.lock();
-
-        try {
-            if (!isDone()) {
-                // 理论上这里只要被唤醒，就肯定是结束了
-                doneCondition.await();
-            }
-
-            return getNotWait();
-        } finally {
-            lock.unlock();
+        if (!isDone()) {
+            awaitDone(false, 0);
         }
+
+        return getNotWait();
     }
 
     @Override
     public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        lock.lock();
-
-        try {
-            if (!isDone()) {
-                if (!doneCondition.await(timeout, unit)) {
-                    throw new TimeoutException();
-                }
-            }
-
-            return getNotWait();
-        } finally {
-            lock.unlock();
+        if (!isDone() && !awaitDone(true, unit.toNanos(timeout))) {
+            throw new TimeoutException();
         }
+
+        return getNotWait();
     }
 
     private T getNotWait() throws ExecutionException {
@@ -280,4 +248,191 @@ public class StateFuture<T> implements CallbackFuture<T> {
 
         return obj;
     }
+
+    /**
+     * 等待完成
+     *
+     * @param timed
+     *            是否有超时时间
+     * @param nanos
+     *            超时时间，单位纳秒
+     * @return true表示已经完成，false表示等待超时
+     * @throws InterruptedException
+     *             等待过程中被中断
+     */
+    private boolean awaitDone(boolean timed, long nanos) throws InterruptedException {
+        long deadline = timed ? System.nanoTime() + nanos : 0L;
+        Node node = null;
+        boolean queued = false;
+
+        for (;;) {
+            if (Thread.interrupted()) {
+                if (node != null && node.clear(node.item)) {
+                    unlinkCleared();
+                }
+                throw new InterruptedException();
+            }
+
+            int status = this.status;
+            if (status == COMPLETE || status == CANCEL) {
+                return true;
+            } else if (status == COMPLETING) {
+                // 结果马上就会设置完毕，无需挂起线程
+                Thread.yield();
+            } else if (node == null) {
+                if (timed && nanos <= 0L) {
+                    return false;
+                }
+                node = new Node(Thread.currentThread(), true);
+            } else if (!queued) {
+                // 入栈失败说明已经完成，下次循环就会返回
+                queued = push(node);
+            } else if (timed) {
+                nanos = deadline - System.nanoTime();
+                if (nanos <= 0L) {
+                    if (node.clear(node.item)) {
+                        unlinkCleared();
+                        return false;
+                    }
+                    // 节点已经被完成线程处理，说明已经完成
+                    return true;
+                }
+                LockSupport.parkNanos(this, nanos);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    /**
+     * 入栈
+     *
+     * @param node
+     *            节点
+     * @return true表示入栈成功，false表示已经完成，栈已经关闭
+     */
+    private boolean push(Node node) {
+        for (;;) {
+            Node head = stack;
+            if (head == CLOSED) {
+                return false;
+            }
+
+            node.next = head;
+            if (STACK.compareAndSet(this, head, node)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 将已经被清除的节点从栈中移除，防止超时等待或者删除回调后节点一直堆积
+     */
+    private void unlinkCleared() {
+        retry:
+        for (;;) {
+            Node pred = null;
+            Node node = stack;
+            if (node == CLOSED) {
+                return;
+            }
+
+            while (node != null) {
+                Node next = node.next;
+                if (node.item != null) {
+                    pred = node;
+                } else if (pred != null) {
+                    pred.next = next;
+                    if (pred.item == null) {
+                        continue retry;
+                    }
+                } else if (!STACK.compareAndSet(this, node, next)) {
+                    continue retry;
+                }
+                node = next;
+            }
+            return;
+        }
+    }
+
+    /**
+     * 完成后关闭栈，唤醒所有等待线程，并按照添加顺序执行回调，调用时已经处于终态，所以回调是在锁外执行的
+     */
+    @SuppressWarnings("unchecked")
+    private void finish() {
+        Node node = STACK.getAndSet(this, CLOSED);
+        List<FutureCallback<T>> callbacks = null;
+
+        for (; node != null; node = node.next) {
+            Object item = node.item;
+            // 节点被抢先清除说明等待超时或者回调已经删除
+            if (item == null || !node.clear(item)) {
+                continue;
+            }
+
+            if (node.waiter) {
+                LockSupport.unpark((Thread)item);
+            } else {
+                if (callbacks == null) {
+                    callbacks = new ArrayList<>();
+                }
+                callbacks.add((FutureCallback<T>)item);
+            }
+        }
+
+        if (callbacks == null) {
+            return;
+        }
+
+        // 栈是后进先出的，倒序执行以保证回调按照添加顺序执行
+        for (int i = callbacks.size() - 1; i >= 0; i--) {
+            FutureCallback<T> callback = callbacks.get(i);
+            try {
+                callback(callback);
+            } catch (Throwable ex) {
+                LOGGER.error(ex, "回调 [{}] 执行过程中发生异常", callback);
+            }
+        }
+    }
+
+    /**
+     * 栈节点，等待线程或者回调
+     */
+    private static final class Node {
+
+        private static final AtomicReferenceFieldUpdater<Node, Object> ITEM =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Object.class, "item");
+
+        /**
+         * 等待线程或者回调，为null时表示节点已经被处理或者已经被清除
+         */
+        private volatile Object item;
+
+        /**
+         * true表示item是等待线程，false表示item是回调
+         */
+        private final boolean waiter;
+
+        /**
+         * 下一个节点
+         */
+        private volatile Node next;
+
+        Node(Object item, boolean waiter) {
+            this.item = item;
+            this.waiter = waiter;
+        }
+
+        /**
+         * 清除节点，同一个节点只会有一个线程清除成功
+         *
+         * @param expect
+         *            当前节点内容
+         * @return true表示清除成功
+         */
+        boolean clear(Object expect) {
+            return expect != null && ITEM.compareAndSet(this, expect, null);
+        }
+    }
+
 }
@@ -19,11 +19,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import com.github.joekerouac.common.tools.concurrent.CallbackFuture;
 import com.github.joekerouac.common.tools.concurrent.FutureCallback;
 import com.github.joekerouac.common.tools.constant.Const;
 import com.github.joekerouac.common.tools.net.http.config.IHttpConfig;
@@ -126,8 +126,15 @@ public abstract class AbstractIHttpRequest implements IHttpRequest {
         }
     }
 
+    /**
+     * 异步执行请求
+     * 
+     * @param futureCallback
+     *            请求回调，允许为空
+     * @return 请求异步结果，支持添加回调以及非阻塞组合
+     */
     @Override
-    public Future<IHttpResponse> exec(FutureCallback<IHttpResponse> futureCallback) {
+    public CallbackFuture<IHttpResponse> exec(FutureCallback<IHttpResponse> futureCallback) {
         return client.execute(this, futureCallback);
     }
 
@@ -43,8 +43,11 @@ import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
 import org.apache.hc.core5.http.nio.support.BasicResponseConsumer;
 
 import com.github.joekerouac.common.tools.collection.CollectionUtil;
+import com.github.joekerouac.common.tools.concurrent.CallbackFuture;
+import com.github.joekerouac.common.tools.concurrent.CallbackFutureUtil;
 import com.github.joekerouac.common.tools.concurrent.FutureCallback;
 import com.github.joekerouac.common.tools.concurrent.ResultConvertFuture;
+import com.github.joekerouac.common.tools.concurrent.StateFuture;
 import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
 import com.github.joekerouac.common.tools.io.InMemoryFile;
 import com.github.joekerouac.common.tools.net.http.config.IHttpConfig;
@@ -595,9 +598,40 @@ public class HttpRequestUtil {
      *            请求配置
      * @param futureCallback
      *            回调
-     * @return 结果
+     * @return 结果，需要添加回调或者非阻塞组合时使用{@link #execute}
      */
     public static Future<IHttpResponse> request(@NotNull CloseableHttpAsyncClient client, @NotBlank String url,
+        @NotNull IHttpMethod method, Map<String, String> headers, byte[] body, String charset, List<UploadFile> files,
+        String mimeType, IHttpConfig config, FutureCallback<IHttpResponse> futureCallback) {
+        return execute(client, url, method, headers, body, charset, files, mimeType, config, futureCallback);
+    }
+
+    /**
+     * 发起请求，与对应的request方法一致，只是返回支持添加回调以及非阻塞组合的future
+     * 
+     * @param client
+     *            client
+     * @param url
+     *            url
+     * @param method
+     *            method
+     * @param headers
+     *            headers
+     * @param body
+     *            body
+     * @param charset
+     *            charset
+     * @param files
+     *            files
+     * @param mimeType
+     *            mimeType，参考{@link com.github.joekerouac.common.tools.net.http.ContentType}
+     * @param config
+     *            请求配置
+     * @param futureCallback
+     *            回调
+     * @return 结果，响应只会转换一次，get和回调拿到的都是同一个响应
+     */
+    public static CallbackFuture<IHttpResponse> execute(@NotNull CloseableHttpAsyncClient client, @NotBlank String url,
         @NotNull IHttpMethod method, Map<String, String> headers, byte[] body, String charset, List<UploadFile> files,
         String mimeType, IHttpConfig config, FutureCallback<IHttpResponse> futureCallback) {
         Assert.argNotNull(client, "client");
@@ -622,29 +656,38 @@ public class HttpRequestUtil {
                 httpConfig.getWriteFileOnLarge(), httpConfig.getFilter()));
 
         // 发起请求
-        Future<Message<HttpResponse, InMemoryFile>> future = client.execute(requestProducer, responseConsumer,
-            new org.apache.hc.core5.concurrent.FutureCallback<Message<HttpResponse, InMemoryFile>>() {
-                @Override
-                public void completed(Message<HttpResponse, InMemoryFile> message) {
-                    IHttpResponse response = new IHttpResponse(message);
-                    callback.success(response);
-                    callback.complete(response, null, 0);
-                }
+        StateFuture<Message<HttpResponse, InMemoryFile>> messageFuture = new StateFuture<>();
+        Future<Message<HttpResponse, InMemoryFile>> future =
+            client.execute(requestProducer, responseConsumer, CallbackFutureUtil.toHttpFutureCallback(messageFuture));
 
-                @Override
-                public void failed(Exception ex) {
-                    callback.failed(ex);
-                    callback.complete(null, ex, 1);
-                }
+        return convert(messageFuture, future, callback);
+    }
 
-                @Override
-                public void cancelled() {
-                    callback.cancelled();
-                    callback.complete(null, null, 2);
-                }
-            });
+    /**
+     * 将请求结果转换为{@link IHttpResponse}，响应只会转换一次，get和回调拿到的都是同一个响应
+     *
+     * @param messageFuture
+     *            原始响应future
+     * @param future
+     *            httpclient返回的future，用于取消请求
+     * @param callback
+     *            请求回调
+     * @return 转换后的future
+     */
+    static CallbackFuture<IHttpResponse> convert(StateFuture<Message<HttpResponse, InMemoryFile>> messageFuture,
+        Future<Message<HttpResponse, InMemoryFile>> future, FutureCallback<IHttpResponse> callback) {
+        // 取消时同时取消实际的请求
+        messageFuture.addCallback(new FutureCallback<Message<HttpResponse, InMemoryFile>>() {
+            @Override
+            public void cancelled() {
+                future.cancel(true);
+            }
+        });
 
-        return new ResultConvertFuture<>(future, IHttpResponse::new);
+        ResultConvertFuture<Message<HttpResponse, InMemoryFile>, IHttpResponse> result =
+            new ResultConvertFuture<>(messageFuture, IHttpResponse::new);
+        result.addCallback(callback);
+        return result;
     }
 
     /**
@@ -46,8 +46,10 @@ import org.apache.hc.core5.http.nio.support.BasicResponseConsumer;
 import org.apache.hc.core5.ssl.SSLContexts;
 
 import com.github.joekerouac.common.tools.collection.CollectionUtil;
+import com.github.joekerouac.common.tools.concurrent.CallbackFuture;
+import com.github.joekerouac.common.tools.concurrent.CallbackFutureUtil;
 import com.github.joekerouac.common.tools.concurrent.FutureCallback;
-import com.github.joekerouac.common.tools.concurrent.ResultConvertFuture;
+import com.github.joekerouac.common.tools.concurrent.StateFuture;
 import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
 import com.github.joekerouac.common.tools.io.InMemoryFile;
 import com.github.joekerouac.common.tools.log.Logger;
@@ -162,9 +164,9 @@ public final class IHttpClient implements AutoCloseable {
      *            请求体
      * @param futureCallback
      *            请求回调
-     * @return 请求结果future
+     * @return 请求结果future，响应只会转换一次
      */
-    Future<IHttpResponse> execute(AbstractIHttpRequest request, FutureCallback<IHttpResponse> futureCallback) {
+    CallbackFuture<IHttpResponse> execute(AbstractIHttpRequest request, FutureCallback<IHttpResponse> futureCallback) {
         Assert.argNotNull(request, "request");
         if (LOGGER.isDebugEnabled()) {
             logger.debug("要发送的请求为：[{}]", request);
@@ -179,44 +181,44 @@ public final class IHttpClient implements AutoCloseable {
             new BasicResponseConsumer<>(new StreamAsyncEntityConsumer(config.getInitBufferSize(),
                 config.getWriteFileOnLarge(), config.getFilter()));
         // 发起请求
+        StateFuture<Message<HttpResponse, InMemoryFile>> messageFuture = new StateFuture<>();
         Future<Message<HttpResponse, InMemoryFile>> future = httpClient.execute(requestProducer, responseConsumer,
-            new org.apache.hc.core5.concurrent.FutureCallback<Message<HttpResponse, InMemoryFile>>() {
-                @Override
-                public void completed(Message<HttpResponse, InMemoryFile> message) {
-                    IHttpResponse response = new IHttpResponse(message);
-                    try {
-                        callback.success(response);
-                    } catch (Throwable throwable) {
-                        LOGGER.warn(throwable, "异步回调[success]异常");
-                    }
-
-                    callback.complete(response, null, 0);
+            CallbackFutureUtil.toHttpFutureCallback(messageFuture));
+
+        return HttpRequestUtil.convert(messageFuture, future, new FutureCallback<IHttpResponse>() {
+            @Override
+            public void success(IHttpResponse response) {
+                try {
+                    callback.success(response);
+                } catch (Throwable throwable) {
+                    LOGGER.warn(throwable, "异步回调[success]异常");
                 }
 
-                @Override
-                public void failed(Exception ex) {
-                    try {
-                        callback.failed(ex);
-                    } catch (Throwable throwable) {
-                        LOGGER.warn(throwable, "异步回调[failed]异常");
-                    }
+                callback.complete(response, null, 0);
+            }
 
-                    callback.complete(null, ex, 1);
+            @Override
+            public void failed(Throwable ex) {
+                try {
+                    callback.failed(ex);
+                } catch (Throwable throwable) {
+                    LOGGER.warn(throwable, "异步回调[failed]异常");
                 }
 
-                @Override
-                public void cancelled() {
-                    try {
-                        callback.cancelled();
-                    } catch (Throwable throwable) {
-                        LOGGER.warn(throwable, "异步回调[failed]异常");
-                    }
+                callback.complete(null, ex, 1);
+            }
 
-                    callback.complete(null, null, 2);
+            @Override
+            public void cancelled() {
+                try {
+                    callback.cancelled();
+                } catch (Throwable throwable) {
+                    LOGGER.warn(throwable, "异步回调[failed]异常");
                 }
-            });
 
-        return new ResultConvertFuture<>(future, IHttpResponse::new);
+                callback.complete(null, null, 2);
+            }
+        });
     }
 
     public CookieStore getCookieManager() {
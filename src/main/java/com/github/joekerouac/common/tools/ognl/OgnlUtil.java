@@ -15,14 +15,25 @@ package com.github.joekerouac.common.tools.ognl;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Member;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.github.joekerouac.common.tools.cache.LoadingCache;
+import com.github.joekerouac.common.tools.cache.LoadingCacheConfig;
+import com.github.joekerouac.common.tools.cache.impl.BoundedLoadingCache;
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
 import com.github.joekerouac.common.tools.reflect.AccessorUtil;
 import com.github.joekerouac.common.tools.reflect.ReflectUtil;
+import com.github.joekerouac.common.tools.util.Assert;
 
+import lombok.CustomLog;
 import ognl.ClassResolver;
 import ognl.MemberAccess;
+import ognl.Node;
 import ognl.Ognl;
+import ognl.OgnlContext;
 import ognl.OgnlException;
+import ognl.enhance.ExpressionAccessor;
 
 /**
  * Ognl工具类，Ognl中关键字参考{@link ognl.OgnlParserConstants}，详细的语法可以参考 <a
@@ -32,6 +43,7 @@ import ognl.OgnlException;
  * @date 2022-10-14 14:37:00
  * @since 1.0.0
  */
+@CustomLog
 public class OgnlUtil {
 
     /**
@@ -60,6 +72,33 @@ public class OgnlUtil {
         }
     };
 
+    /**
+     * 表达式字符串缓存的最大数量
+     */
+    private static final int EXPRESSION_CACHE_SIZE = 4096;
+
+    /**
+     * 表达式字符串对应的解析、编译结果
+     */
+    private static final LoadingCache<String, CachedExpression> EXPRESSIONS;
+
+    /**
+     * 线程复用的ognl上下文
+     */
+    private static final ThreadLocal<ReusableContext> CONTEXTS = ThreadLocal.withInitial(ReusableContext::new);
+
+    /**
+     * 编译阈值，同一个表达式字符串执行次数达到该值后尝试编译，小于等于0表示不编译，默认不编译
+     */
+    private static volatile int compileThreshold = 0;
+
+    static {
+        LoadingCacheConfig<String, CachedExpression> config = new LoadingCacheConfig<>();
+        config.setMaximumWeight(EXPRESSION_CACHE_SIZE);
+        config.setLoader(CachedExpression::new);
+        EXPRESSIONS = new BoundedLoadingCache<>(config);
+    }
+
     /**
      * 解析表达式
      *
@@ -104,10 +143,15 @@ public class OgnlUtil {
     }
 
     /**
-     * 执行表达式，目前本地简单测试结果：调用一个简单的public method一秒大概能到160W的QPS
+     * 执行表达式，目前本地简单测试结果：调用一个简单的public method一秒大概能到160W的QPS；
+     *
+     * 表达式是字符串时会使用缓存的解析结果；默认不编译，通过{@link #setCompileThreshold(int)}开启编译后，执行次数达到编译阈值的表达式会尝试编译为
+     * 字节码，详见{@link #setCompileThreshold(int)}；
+     *
+     * 未指定classResolverFunc时会复用当前线程的ognl上下文
      *
      * @param expression
-     *            使用{@link #parseExpression(String)}解析出来的表达式，不允许为空
+     *            表达式字符串或者使用{@link #parseExpression(String)}解析出来的表达式，不允许为空
      * @param context
      *            上下文，可以为null
      * @param root
@@ -116,21 +160,254 @@ public class OgnlUtil {
      *            类型查找函数，允许为空
      * @return 表达式执行结果
      */
-    @SuppressWarnings("unchecked")
     public static Object exec(Object expression, Map<Object, Object> context, Object root,
         ClassResolverFunc classResolverFunc) {
-        ClassResolver classResolver = classResolverFunc == null ? null : (classResolverFunc::findClass);
-        Map<Object, Object> ognlContext = Ognl.createDefaultContext(null, MEMBER_ACCESS, classResolver, null);
+        Assert.notNull(expression, "expression 不能为 null", ExceptionProviderConst.IllegalArgumentExceptionProvider);
 
-        if (context != null) {
-            ognlContext.putAll(context);
+        if (expression instanceof String) {
+            return EXPRESSIONS.get((String)expression).exec(context, root, classResolverFunc);
         }
 
+        OgnlContext ognlContext = acquire(context, classResolverFunc);
         try {
             // 注意，从context中取数据需要使用#{}，从root中取数据直接写字段名（如果是）
             return Ognl.getValue(expression, ognlContext, root);
         } catch (OgnlException e) {
             throw new com.github.joekerouac.common.tools.exception.OgnlException(e);
+        } finally {
+            release(ognlContext);
+        }
+    }
+
+    /**
+     * 设置编译阈值，同一个表达式字符串执行次数达到该值后尝试编译为字节码，默认不编译；
+     *
+     * 表达式按照root类型编译，只有root类型与编译时一致时才使用编译结果，root是map时不编译；编译结果与解释执行结果不一致、编译失败或者编译后的表达式
+     * 执行失败时退回到解释执行；注意，达到阈值的那次执行会对表达式求值多次（编译、执行编译结果、解释执行），编译后的表达式执行失败时也会再解释执行一次，
+     * 所以只有表达式都没有副作用（例如修改集合、给变量赋值、调用有副作用的方法）时才能开启编译
+     *
+     * @param compileThreshold
+     *            编译阈值，小于等于0表示不编译
+     */
+    public static void setCompileThreshold(int compileThreshold) {
+        OgnlUtil.compileThreshold = compileThreshold;
+    }
+
+    /**
+     * 获取ognl上下文，未指定classResolverFunc并且当前线程的上下文没有在使用（嵌套执行表达式时会在使用）时复用当前线程的上下文，否则创建新的上下文
+     *
+     * @param context
+     *            用户上下文，可以为null
+     * @param classResolverFunc
+     *            类型查找函数，允许为空
+     * @return ognl上下文，使用完毕需要调用{@link #release(OgnlContext)}
+     */
+    @SuppressWarnings("unchecked")
+    private static OgnlContext acquire(Map<Object, Object> context, ClassResolverFunc classResolverFunc) {
+        OgnlContext ognlContext = null;
+        if (classResolverFunc == null) {
+            ReusableContext reusable = CONTEXTS.get();
+            if (!reusable.inUse) {
+                reusable.inUse = true;
+                ognlContext = reusable.context;
+            }
+        }
+
+        if (ognlContext == null) {
+            ClassResolver classResolver = classResolverFunc == null ? null : (classResolverFunc::findClass);
+            ognlContext = (OgnlContext)Ognl.createDefaultContext(null, MEMBER_ACCESS, classResolver, null);
+        }
+
+        if (context != null) {
+            ognlContext.putAll(context);
+        }
+        return ognlContext;
+    }
+
+    /**
+     * 释放ognl上下文，如果是当前线程复用的上下文则清空
+     *
+     * @param ognlContext
+     *            ognl上下文
+     */
+    private static void release(OgnlContext ognlContext) {
+        ReusableContext reusable = CONTEXTS.get();
+        if (reusable.context == ognlContext) {
+            reusable.reset();
+            reusable.inUse = false;
+        }
+    }
+
+    /**
+     * 线程复用的ognl上下文
+     */
+    private static class ReusableContext {
+
+        private final OgnlContext context = (OgnlContext)Ognl.createDefaultContext(null, MEMBER_ACCESS, null, null);
+
+        private final boolean traceEvaluations = context.getTraceEvaluations();
+
+        private final boolean keepLastEvaluation = context.getKeepLastEvaluation();
+
+        /**
+         * 是否正在使用
+         */
+        private boolean inUse;
+
+        /**
+         * 清空上下文，还原到刚创建时的状态
+         */
+        void reset() {
+            context.clear();
+            context.setTraceEvaluations(traceEvaluations);
+            context.setKeepLastEvaluation(keepLastEvaluation);
+        }
+    }
+
+    /**
+     * 缓存的表达式
+     */
+    private static class CachedExpression {
+
+        /**
+         * 表达式字符串
+         */
+        private final String expression;
+
+        /**
+         * 解析后的表达式，解释执行
+         */
+        private final Object tree;
+
+        /**
+         * 编译后的表达式，为null表示还未编译
+         */
+        private volatile Compiled compiled;
+
+        /**
+         * 是否不能编译（编译失败或者编译后执行失败）
+         */
+        private volatile boolean uncompilable;
+
+        /**
+         * 是否正在编译，防止多个线程同时编译
+         */
+        private final AtomicBoolean compiling = new AtomicBoolean();
+
+        /**
+         * 执行次数，不需要精确
+         */
+        private int hits;
+
+        CachedExpression(String expression) {
+            this.expression = expression;
+            this.tree = parseExpression(expression);
+        }
+
+        Object exec(Map<Object, Object> context, Object root, ClassResolverFunc classResolverFunc) {
+            OgnlContext ognlContext = acquire(context, classResolverFunc);
+            try {
+                // 编译时使用的是默认的类型查找，指定了类型查找函数时不能使用编译后的表达式；map中value的类型编译时无法确定，编译后的结果可能与解释执行不一致
+                // （例如数字相加变为字符串拼接），所以root是map时也不编译
+                boolean compilable = classResolverFunc == null && root != null && !(root instanceof Map);
+                Compiled compiled = this.compiled;
+                if (compilable && compiled != null && compiled.rootType == root.getClass()) {
+                    try {
+                        return compiled.accessor.get(ognlContext, root);
+                    } catch (RuntimeException | LinkageError e) {
+                        // 编译时的类型与本次执行的类型不一致等，后续都使用解释执行
+                        LOGGER.debug(e, "编译后的表达式 [{}] 执行失败，退回到解释执行", expression);
+                        this.compiled = null;
+                        this.uncompilable = true;
+                        ognlContext = refill(ognlContext, context);
+                    }
+                } else if (compilable && compiled == null && !uncompilable && compileThreshold > 0
+                    && ++hits >= compileThreshold && compiling.compareAndSet(false, true)) {
+                    try {
+                        // 编译后的表达式在编译时的数据上执行结果必须与解释执行一致，否则不使用
+                        Compiled candidate = compile(ognlContext, root);
+                        Object compiledResult = null;
+                        if (candidate != null) {
+                            try {
+                                compiledResult = candidate.accessor.get(refill(ognlContext, context), root);
+                            } catch (RuntimeException | LinkageError e) {
+                                LOGGER.debug(e, "编译后的表达式 [{}] 执行失败，使用解释执行", expression);
+                                candidate = null;
+                            }
+                        }
+
+                        Object result = Ognl.getValue(tree, refill(ognlContext, context), root);
+                        if (candidate != null && Objects.equals(result, compiledResult)) {
+                            this.compiled = candidate;
+                        } else {
+                            this.uncompilable = true;
+                        }
+                        return result;
+                    } finally {
+                        compiling.set(false);
+                    }
+                }
+
+                return Ognl.getValue(tree, ognlContext, root);
+            } catch (OgnlException e) {
+                throw new com.github.joekerouac.common.tools.exception.OgnlException(e);
+            } finally {
+                release(ognlContext);
+            }
+        }
+
+        /**
+         * 编译表达式
+         *
+         * @param ognlContext
+         *            ognl上下文
+         * @param root
+         *            root对象
+         * @return 编译后的表达式，编译失败时返回null
+         */
+        private Compiled compile(OgnlContext ognlContext, Object root) {
+            try {
+                Node node = Ognl.compileExpression(ognlContext, root, expression);
+                return node.getAccessor() == null ? null : new Compiled(root.getClass(), node.getAccessor());
+            } catch (Exception | LinkageError e) {
+                LOGGER.debug(e, "表达式 [{}] 编译失败，使用解释执行", expression);
+                return null;
+            }
+        }
+
+        /**
+         * 编译或者执行失败后ognl上下文中可能残留有数据，这里重新填充
+         *
+         * @param ognlContext
+         *            ognl上下文
+         * @param context
+         *            用户上下文
+         * @return 重新填充后的ognl上下文
+         */
+        private OgnlContext refill(OgnlContext ognlContext, Map<Object, Object> context) {
+            ognlContext.clear();
+            if (context != null) {
+                ognlContext.putAll(context);
+            }
+            return ognlContext;
+        }
+    }
+
+    /**
+     * 编译后的表达式
+     */
+    private static class Compiled {
+
+        /**
+         * 编译时的root类型
+         */
+        private final Class<?> rootType;
+
+        private final ExpressionAccessor accessor;
+
+        Compiled(Class<?> rootType, ExpressionAccessor accessor) {
+            this.rootType = rootType;
+            this.accessor = accessor;
         }
     }
 
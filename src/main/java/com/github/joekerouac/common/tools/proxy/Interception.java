@@ -13,7 +13,6 @@
 package com.github.joekerouac.common.tools.proxy;
 
 import java.lang.reflect.Method;
-import java.util.Objects;
 
 import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
 import com.github.joekerouac.common.tools.util.Assert;
@@ -47,7 +46,7 @@ public interface Interception {
     Object invoke(Object target, Object[] params, Method method, Invoker invoker) throws Throwable;
 
     /**
-     * 拦截方法包装执行
+     * 拦截方法包装执行，实际由方法对应的{@link MethodDispatcher}分派执行
      * 
      * @param interception
      *            拦截的方法的代理，不能为null
@@ -72,38 +71,6 @@ public interface Interception {
         Assert.notNull(interception, "interception 不能为 null", ExceptionProviderConst.IllegalArgumentExceptionProvider);
         Assert.notNull(method, "method 不能为 null", ExceptionProviderConst.IllegalArgumentExceptionProvider);
 
-        Invoker invoker;
-
-        // 先判断对应的方法是不是object自带方法，如果是则特殊处理
-        MethodMetadata methodMetadata = MethodMetadata.build(method);
-        if (MethodMetadata.HASH_CODE_META.equals(methodMetadata)) {
-            invoker = interception::hashCode;
-        } else if (MethodMetadata.TO_STRING_META.equals(methodMetadata)) {
-            invoker = () -> interception + "$$Proxy";
-        } else if (MethodMetadata.EQUALS_META.equals(methodMetadata)) {
-            invoker = () -> {
-                if (params[0] instanceof ProxyParent) {
-                    ProxyParent p = (ProxyParent)params[0];
-                    // 1、如果是对指定对象代理，需要先比较代理对象；
-                    // 2、比较class是否一致；
-                    // 3、比较interception是否一致；
-                    return Objects.equals(target, p.GET_TARGET()) && Objects.equals(proxyClass, p.GET_TARGET_CLASS())
-                        && interception.equals(p.GET_INTERCEPTION());
-                }
-                return false;
-            };
-        } else if (MethodMetadata.isObjectMethod(method)) {
-            invoker = () -> method.invoke(interception, params);
-        } else if (target == null) {
-            // 如果target是null那么说明是对类生成代理，否则说明是要对指定对象进行代理
-            invoker = superCall;
-        } else {
-            // 对指定对象生成的代理，superCall需要调用被代理的对象的方法
-            invoker = () -> method.invoke(target, params);
-        }
-
-        Object invokeObj = target == null ? realTarget : target;
-
-        return interception.invoke(invokeObj, params, method, invoker);
+        return MethodDispatcher.get(method).dispatch(interception, target, realTarget, params, superCall, proxyClass);
     }
 }
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.proxy;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
+import com.github.joekerouac.common.tools.util.Assert;
+
+/**
+ * 拦截链，按顺序执行多个{@link Interception}，可以直接作为{@link Interception}传给任意{@link ProxyClient}；
+ *
+ * 链中每个拦截点收到的invoker只记录下一个拦截点的位置，调用invoker时执行下一个拦截点，最后一个拦截点调用invoker时执行原始的invoker（父类方法或者被代理
+ * 对象的方法），如果原始的invoker为null，那么最后一个拦截点收到的invoker也是null；拦截点可以不调用invoker（短路），也可以多次调用invoker（例如重试），
+ * 还可以在返回后异步调用invoker（例如交给其他线程执行）；
+ *
+ * 一次方法调用只会创建一个调用上下文，每个拦截点的invoker只是一个记录了位置的轻量对象，不会为每个拦截点创建嵌套的代理；链中的拦截链会被展开
+ *
+ * @author JoeKerouac
+ * @date 2026-10-18 14:00:00
+ * @since 2.1.6
+ */
+public final class InterceptionChain implements Interception {
+
+    /**
+     * 拦截点，按顺序执行
+     */
+    private final Interception[] interceptions;
+
+    public InterceptionChain(Interception... interceptions) {
+        this(interceptions == null ? null : Arrays.asList(interceptions));
+    }
+
+    public InterceptionChain(List<? extends Interception> interceptions) {
+        Assert.notNull(interceptions, "interceptions 不能为 null",
+            ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        Assert.assertFalse(interceptions.isEmpty(), "interceptions 不能为空",
+            ExceptionProviderConst.IllegalArgumentExceptionProvider);
+
+        List<Interception> list = new ArrayList<>(interceptions.size());
+        for (Interception interception : interceptions) {
+            Assert.notNull(interception, "interception 不能为 null",
+                ExceptionProviderConst.IllegalArgumentExceptionProvider);
+            if (interception instanceof InterceptionChain) {
+                list.addAll(Arrays.asList(((InterceptionChain)interception).interceptions));
+            } else {
+                list.add(interception);
+            }
+        }
+        this.interceptions = list.toArray(new Interception[0]);
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] params, Method method, Invoker invoker) throws Throwable {
+        return new Invocation(interceptions, target, params, method, invoker).proceed(0);
+    }
+
+    /**
+     * 获取拦截点
+     *
+     * @return 按执行顺序排列的拦截点，不可修改
+     */
+    public List<Interception> getInterceptions() {
+        return Collections.unmodifiableList(Arrays.asList(interceptions));
+    }
+
+    /**
+     * 调用上下文，一次方法调用共享一个
+     */
+    private static final class Invocation {
+
+        private final Interception[] interceptions;
+
+        private final Object target;
+
+        private final Object[] params;
+
+        private final Method method;
+
+        /**
+         * 原始invoker，可能为null
+         */
+        private final Invoker invoker;
+
+        Invocation(Interception[] interceptions, Object target, Object[] params, Method method, Invoker invoker) {
+            this.interceptions = interceptions;
+            this.target = target;
+            this.params = params;
+            this.method = method;
+            this.invoker = invoker;
+        }
+
+        /**
+         * 从指定位置开始执行
+         *
+         * @param index
+         *            要执行的拦截点下标，等于拦截点数量时执行原始invoker
+         * @return 执行结果
+         * @throws Throwable
+         *             异常
+         */
+        Object proceed(int index) throws Throwable {
+            if (index == interceptions.length) {
+                return invoker.call();
+            }
+
+            // 最后一个拦截点并且没有原始invoker时，与单个拦截点的语义保持一致，传入null
+            Invoker next = index + 1 == interceptions.length && invoker == null ? null : new Step(this, index + 1);
+            return interceptions[index].invoke(target, params, method, next);
+        }
+    }
+
+    /**
+     * 拦截点收到的invoker，固定执行其下一个位置，不依赖调用时机，所以可以多次调用、也可以在拦截点返回后调用
+     */
+    private static final class Step implements Invoker {
+
+        private final Invocation invocation;
+
+        /**
+         * 调用时执行的位置
+         */
+        private final int index;
+
+        Step(Invocation invocation, int index) {
+            this.invocation = invocation;
+            this.index = index;
+        }
+
+        @Override
+        public Object call() throws Throwable {
+            return invocation.proceed(index);
+        }
+    }
+
+}
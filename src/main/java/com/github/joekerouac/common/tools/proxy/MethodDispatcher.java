@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
+import com.github.joekerouac.common.tools.reflect.ReflectUtil;
+import com.github.joekerouac.common.tools.reflect.type.JavaTypeUtil;
+import com.github.joekerouac.common.tools.util.Assert;
+
+/**
+ * 代理方法分派描述，每个{@link Method}对应一个实例；
+ *
+ * 方法分类（是否是Object方法、是否是{@link ProxyParent}方法）以及对目标对象调用的{@link MethodHandle}都在构建时预先计算好，调用时不再需要构建
+ * {@link MethodMetadata}比较，也不再需要反射调用；
+ *
+ * 实例按照方法的声明类缓存，生成代理class时会通过{@link #prepare(Class, Class[])}预先构建
+ *
+ * @author JoeKerouac
+ * @date 2026-10-18 10:30:00
+ * @since 2.1.6
+ */
+public final class MethodDispatcher {
+
+    /**
+     * 缓存，key是方法的声明类，value是该类中声明的方法对应的分派描述
+     */
+    private static final ClassValue<ConcurrentMap<Method, MethodDispatcher>> CACHE =
+        new ClassValue<ConcurrentMap<Method, MethodDispatcher>>() {
+            @Override
+            protected ConcurrentMap<Method, MethodDispatcher> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    /**
+     * {@link #handle}的统一类型：(Object target, Object[] params)Object
+     */
+    private static final MethodType INVOKE_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * 方法类型
+     */
+    public enum Kind {
+
+        /**
+         * {@link Object#hashCode()}
+         */
+        HASH_CODE,
+
+        /**
+         * {@link Object#toString()}
+         */
+        TO_STRING,
+
+        /**
+         * {@link Object#equals(Object)}
+         */
+        EQUALS,
+
+        /**
+         * 其他Object方法
+         */
+        OBJECT,
+
+        /**
+         * {@link ProxyParent}中声明的方法
+         */
+        PROXY_PARENT,
+
+        /**
+         * 普通方法
+         */
+        NORMAL
+    }
+
+    /**
+     * 对应的方法
+     */
+    private final Method method;
+
+    /**
+     * 方法类型
+     */
+    private final Kind kind;
+
+    /**
+     * 对目标对象调用该方法的handle，类型为{@link #INVOKE_TYPE}；无法构建时为null，此时使用反射调用
+     */
+    private final MethodHandle handle;
+
+    /**
+     * 方法参数类型，基本类型替换为对应的包装类型，用于调用{@link #handle}前校验参数
+     */
+    private final Class<?>[] argumentTypes;
+
+    /**
+     * 对应位置的参数是否是基本类型
+     */
+    private final boolean[] primitives;
+
+    private MethodDispatcher(Method method) {
+        this.method = method;
+        this.kind = classify(method);
+        this.handle = unreflect(method);
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        this.argumentTypes = new Class<?>[parameterTypes.length];
+        this.primitives = new boolean[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            primitives[i] = parameterTypes[i].isPrimitive();
+            argumentTypes[i] = primitives[i] ? JavaTypeUtil.boxed(parameterTypes[i]) : parameterTypes[i];
+        }
+    }
+
+    /**
+     * 获取方法对应的分派描述
+     *
+     * @param method
+     *            方法，不能为null
+     * @return 分派描述
+     */
+    public static MethodDispatcher get(Method method) {
+        ConcurrentMap<Method, MethodDispatcher> dispatchers = CACHE.get(method.getDeclaringClass());
+        MethodDispatcher dispatcher = dispatchers.get(method);
+        if (dispatcher == null) {
+            dispatcher = dispatchers.computeIfAbsent(method, MethodDispatcher::new);
+        }
+        return dispatcher;
+    }
+
+    /**
+     * 为代理class可能拦截的方法预先构建分派描述
+     *
+     * @param superClass
+     *            代理的父类，可以为null
+     * @param interfaces
+     *            代理实现的接口，可以为null
+     */
+    public static void prepare(Class<?> superClass, Class<?>[] interfaces) {
+        for (Method method : Object.class.getDeclaredMethods()) {
+            prepare(method);
+        }
+
+        for (Method method : ProxyParent.class.getMethods()) {
+            prepare(method);
+        }
+
+        Class<?> clazz = superClass;
+        while (clazz != null && clazz != Object.class) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                prepare(method);
+            }
+            clazz = clazz.getSuperclass();
+        }
+
+        if (interfaces != null) {
+            for (Class<?> anInterface : interfaces) {
+                for (Method method : anInterface.getMethods()) {
+                    prepare(method);
+                }
+            }
+        }
+    }
+
+    private static void prepare(Method method) {
+        int modifiers = method.getModifiers();
+        if (!Modifier.isStatic(modifiers) && !Modifier.isPrivate(modifiers)) {
+            get(method);
+        }
+    }
+
+    /**
+     * 拦截方法分派执行，语义参考{@link Interception#invokeWrap(Interception, Object, Method, Object, Object[], Invoker, Class)}
+     *
+     * @param interception
+     *            拦截的方法的代理，不能为null
+     * @param target
+     *            被代理的对象，只有对指定对象代理时才会有值，其他情况为null
+     * @param realTarget
+     *            代理生成的对象，可以为null（byte Buddy场景下没有）
+     * @param params
+     *            执行方法的参数，可以为null
+     * @param superCall
+     *            父类调用，可以为null
+     * @param proxyClass
+     *            被代理的对象的类型
+     * @return 方法执行结果
+     * @throws Throwable
+     *             Throwable
+     */
+    public Object dispatch(Interception interception, Object target, Object realTarget, Object[] params,
+        Invoker superCall, Class<?> proxyClass) throws Throwable {
+        Assert.notNull(interception, "interception 不能为 null", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+
+        Invoker invoker;
+        switch (kind) {
+            case HASH_CODE:
+                invoker = interception::hashCode;
+                break;
+            case TO_STRING:
+                invoker = () -> interception + "$$Proxy";
+                break;
+            case EQUALS:
+                invoker = () -> {
+                    if (params[0] instanceof ProxyParent) {
+                        ProxyParent p = (ProxyParent)params[0];
+                        // 1、如果是对指定对象代理，需要先比较代理对象；
+                        // 2、比较class是否一致；
+                        // 3、比较interception是否一致；
+                        return Objects.equals(target, p.GET_TARGET())
+                            && Objects.equals(proxyClass, p.GET_TARGET_CLASS())
+                            && interception.equals(p.GET_INTERCEPTION());
+                    }
+                    return false;
+                };
+                break;
+            case OBJECT:
+                invoker = () -> invoke(interception, params);
+                break;
+            default:
+                // 如果target是null那么说明是对类生成代理，否则说明是要对指定对象进行代理，此时superCall需要调用被代理的对象的方法
+                invoker = target == null ? superCall : () -> invoke(target, params);
+        }
+
+        return interception.invoke(target == null ? realTarget : target, params, method, invoker);
+    }
+
+    /**
+     * 使用指定对象和参数执行该方法，与{@link Method#invoke(Object, Object...)}一致，方法本身抛出的异常会包装为 {@link InvocationTargetException}
+     *
+     * @param target
+     *            对象
+     * @param params
+     *            参数，可以为null
+     * @return 执行结果
+     * @throws Throwable
+     *             异常
+     */
+    public Object invoke(Object target, Object[] params) throws Throwable {
+        // target、参数与方法不匹配时（例如target为null、基本类型参数为null、参数类型不匹配、需要基本类型拓宽转换）使用反射调用，由反射抛出与之前
+        // 一致的异常（NullPointerException、IllegalArgumentException）或者完成转换，handle中的异常只能是方法本身抛出的
+        if (handle == null || !accept(target, params)) {
+            return method.invoke(target, params);
+        }
+
+        try {
+            return handle.invokeExact(target, params);
+        } catch (Throwable throwable) {
+            throw new InvocationTargetException(throwable);
+        }
+    }
+
+    /**
+     * 对应的方法
+     *
+     * @return 方法
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * 方法类型
+     *
+     * @return 方法类型
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * 是否是{@link ProxyParent}中声明的方法
+     *
+     * @return true表示是{@link ProxyParent}中声明的方法
+     */
+    public boolean isProxyParentMethod() {
+        return kind == Kind.PROXY_PARENT;
+    }
+
+    /**
+     * 是否是Object的方法
+     *
+     * @return true表示是Object的方法
+     */
+    public boolean isObjectMethod() {
+        return kind == Kind.HASH_CODE || kind == Kind.TO_STRING || kind == Kind.EQUALS || kind == Kind.OBJECT;
+    }
+
+    /**
+     * target、参数是否可以直接调用{@link #handle}
+     *
+     * @param target
+     *            对象
+     * @param params
+     *            参数
+     * @return true表示可以直接调用
+     */
+    private boolean accept(Object target, Object[] params) {
+        if (!Modifier.isStatic(method.getModifiers()) && !method.getDeclaringClass().isInstance(target)) {
+            return false;
+        }
+
+        int length = params == null ? 0 : params.length;
+        if (length != argumentTypes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            Object param = params[i];
+            if (param == null ? primitives[i]
+                : (primitives[i] ? param.getClass() != argumentTypes[i] : !argumentTypes[i].isInstance(param))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static Kind classify(Method method) {
+        MethodMetadata metadata = MethodMetadata.build(method);
+        if (MethodMetadata.HASH_CODE_META.equals(metadata)) {
+            return Kind.HASH_CODE;
+        } else if (MethodMetadata.TO_STRING_META.equals(metadata)) {
+            return Kind.TO_STRING;
+        } else if (MethodMetadata.EQUALS_META.equals(metadata)) {
+            return Kind.EQUALS;
+        } else if (MethodMetadata.OBJECT_METHOD.contains(metadata)) {
+            return Kind.OBJECT;
+        } else if (metadata.equals(ProxyParent.GET_TARGET) || metadata.equals(ProxyParent.GET_TARGET_CLASS)
+            || metadata.equals(ProxyParent.GET_INTERFACES) || metadata.equals(ProxyParent.GET_LINKED_INTERCEPTION)) {
+            return Kind.PROXY_PARENT;
+        } else {
+            return Kind.NORMAL;
+        }
+    }
+
+    /**
+     * 构建对目标对象调用方法的handle
+     *
+     * @param method
+     *            方法
+     * @return handle，类型为{@link #INVOKE_TYPE}，无法构建时返回null
+     */
+    private static MethodHandle unreflect(Method method) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            try {
+                handle = lookup.unreflect(ReflectUtil.allowAccess(method));
+            } catch (IllegalAccessException | RuntimeException ex) {
+                return null;
+            }
+        }
+
+        handle = handle.asFixedArity();
+        if (Modifier.isStatic(method.getModifiers())) {
+            // 与Method#invoke一致，静态方法忽略target
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+
+        return handle.asType(MethodType.genericMethodType(method.getParameterCount() + 1))
+            .asSpreader(Object[].class, method.getParameterCount()).asType(INVOKE_TYPE);
+    }
+}
@@ -176,7 +176,7 @@ public class MethodMetadata {
      * @return 返回true表示是Object类的方法
      */
     public static boolean isObjectMethod(Method method) {
-        return OBJECT_METHOD.stream().filter(meta -> meta.equals(MethodMetadata.build(method))).limit(1).count() > 0;
+        return MethodDispatcher.get(method).isObjectMethod();
     }
 
     /**
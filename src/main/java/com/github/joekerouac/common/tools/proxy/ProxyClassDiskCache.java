@@ -0,0 +1,512 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.proxy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.github.joekerouac.common.tools.codec.HexCodec;
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
+import com.github.joekerouac.common.tools.io.IOUtils;
+import com.github.joekerouac.common.tools.string.StringUtils;
+import com.github.joekerouac.common.tools.util.Assert;
+
+import lombok.CustomLog;
+
+/**
+ * 代理class磁盘缓存，将生成的代理class字节码保存到缓存目录中，后续进程直接从磁盘加载，不再重新生成，用于加快启动速度；
+ *
+ * 缓存文件名由两部分组成：代理class的定义（客户端类型、class名、父类、接口、生成依赖的类名）的hash以及所有相关class（父类、接口以及它们继承的类型、生成依赖）字节码的hash，任何一个
+ * class的字节码发生变化后都会重新生成并替换掉旧的缓存文件；无法获取字节码的class（例如运行时动态生成的class）不会使用磁盘缓存；
+ *
+ * 缓存文件中保存了内容的SHA-256，加载前先校验，同时缓存目录、缓存文件只允许当前用户访问（支持POSIX权限的文件系统），不属于当前用户或者其他用户可写的
+ * 缓存文件不会被加载；注意，这只能防止其他用户篡改，当前用户自己可以修改缓存文件（同样也可以修改classpath中的jar）；
+ *
+ * 通过系统属性{@link #CACHE_DIR_KEY}指定缓存目录即可开启，也可以通过{@link #setDefault(ProxyClassDiskCache)}开启，默认不开启
+ *
+ * @author JoeKerouac
+ * @date 2026-10-18 16:00:00
+ * @since 2.1.6
+ */
+@CustomLog
+public class ProxyClassDiskCache {
+
+    /**
+     * 指定缓存目录的系统属性
+     */
+    public static final String CACHE_DIR_KEY = "common.tools.proxy.cache.dir";
+
+    /**
+     * 缓存文件魔数
+     */
+    private static final int MAGIC = 0x50524F58;
+
+    /**
+     * 缓存文件格式版本，格式变化时需要修改
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * 内容hash（SHA-256）长度
+     */
+    private static final int HASH_LENGTH = 32;
+
+    /**
+     * 缓存目录权限，只允许当前用户访问
+     */
+    private static final Set<PosixFilePermission> DIR_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+
+    /**
+     * 缓存文件权限，只允许当前用户访问
+     */
+    private static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-------");
+
+    /**
+     * 其他用户的写权限，缓存文件有这些权限时不加载
+     */
+    private static final Set<PosixFilePermission> UNSAFE_PERMISSIONS =
+        EnumSet.of(PosixFilePermission.GROUP_WRITE, PosixFilePermission.OTHERS_WRITE);
+
+    /**
+     * 缓存文件后缀
+     */
+    private static final String SUFFIX = ".proxy";
+
+    /**
+     * 默认磁盘缓存，为null表示不开启
+     */
+    private static volatile ProxyClassDiskCache defaultCache;
+
+    static {
+        String dir = System.getProperty(CACHE_DIR_KEY);
+        defaultCache = StringUtils.isBlank(dir) ? null : new ProxyClassDiskCache(new File(dir));
+    }
+
+    /**
+     * 缓存目录
+     */
+    private final File dir;
+
+    public ProxyClassDiskCache(File dir) {
+        Assert.notNull(dir, "缓存目录不能为 null", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        this.dir = dir;
+    }
+
+    /**
+     * 获取默认磁盘缓存
+     *
+     * @return 默认磁盘缓存，为null表示未开启
+     */
+    public static ProxyClassDiskCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * 设置默认磁盘缓存
+     *
+     * @param cache
+     *            磁盘缓存，为null表示关闭
+     */
+    public static void setDefault(ProxyClassDiskCache cache) {
+        defaultCache = cache;
+    }
+
+    /**
+     * 获取缓存目录
+     *
+     * @return 缓存目录
+     */
+    public File getDir() {
+        return dir;
+    }
+
+    /**
+     * 从磁盘加载代理class，磁盘中不存在或者已经失效时使用生成器生成并保存到磁盘
+     *
+     * @param key
+     *            代理class定义
+     * @param loader
+     *            加载代理class的ClassLoader
+     * @param dependencies
+     *            生成代理class依赖的类（例如代理客户端、字节码框架），这些类的字节码变化时缓存也会失效
+     * @param generator
+     *            生成器，生成并加载代理class，同时将所有生成的class的字节码放入参数中（key是class名）；如果生成的class不能直接从字节码加载（例如需要额外初始化），那么不要放入
+     * @return 代理class
+     */
+    public Class<?> load(ProxyClassKey key, ProxyClassLoader loader, Class<?>[] dependencies,
+        Function<Map<String, byte[]>, Class<?>> generator) {
+        String identity = identity(key, dependencies);
+        String digest = digest(identity, key, dependencies);
+        if (digest == null) {
+            return generator.apply(new LinkedHashMap<>());
+        }
+
+        File file = new File(dir, identity + "-" + digest + SUFFIX);
+        if (file.isFile()) {
+            Class<?> clazz = define(file, loader);
+            if (clazz != null) {
+                return clazz;
+            }
+        }
+
+        Map<String, byte[]> types = new LinkedHashMap<>();
+        Class<?> clazz = generator.apply(types);
+        if (types.containsKey(clazz.getName())) {
+            store(file, identity, clazz.getName(), types);
+        }
+        return clazz;
+    }
+
+    /**
+     * 从缓存文件加载代理class；先读取并校验整个文件（格式、内容hash、class是否已经定义），全部通过后才定义class
+     *
+     * @param file
+     *            缓存文件
+     * @param loader
+     *            ClassLoader
+     * @return 代理class，缓存文件无效时返回null
+     */
+    private Class<?> define(File file, ProxyClassLoader loader) {
+        if (!isTrusted(file.toPath())) {
+            LOGGER.warn("代理class缓存文件 [{}] 不属于当前用户或者其他用户可写，忽略该文件", file);
+            return null;
+        }
+
+        String mainName;
+        Map<String, byte[]> types = new LinkedHashMap<>();
+        try {
+            byte[] content = Files.readAllBytes(file.toPath());
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(content));
+            if (content.length < 8 + HASH_LENGTH || input.readInt() != MAGIC || input.readInt() != VERSION) {
+                LOGGER.warn("代理class缓存文件 [{}] 格式不正确，将重新生成", file);
+                return null;
+            }
+
+            byte[] hash = new byte[HASH_LENGTH];
+            input.readFully(hash);
+            MessageDigest digest = newDigest();
+            digest.update(content, 8 + HASH_LENGTH, content.length - 8 - HASH_LENGTH);
+            if (!MessageDigest.isEqual(hash, digest.digest())) {
+                LOGGER.warn("代理class缓存文件 [{}] 内容校验失败，将重新生成", file);
+                return null;
+            }
+
+            mainName = input.readUTF();
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = input.readUTF();
+                byte[] data = new byte[input.readInt()];
+                input.readFully(data);
+                types.put(name, data);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn(e, "代理class缓存文件 [{}] 读取失败，将重新生成", file);
+            return null;
+        }
+
+        if (!types.containsKey(mainName)) {
+            LOGGER.warn("代理class缓存文件 [{}] 中不包含代理class [{}]，将重新生成", file, mainName);
+            return null;
+        }
+
+        for (String name : types.keySet()) {
+            if (loader.isLoaded(name)) {
+                LOGGER.warn("代理class缓存文件 [{}] 中的class [{}] 已经存在，将重新生成", file, name);
+                return null;
+            }
+        }
+
+        Class<?> main = null;
+        int defined = 0;
+        for (Map.Entry<String, byte[]> entry : types.entrySet()) {
+            Class<?> clazz;
+            try {
+                clazz = loader.buildClass(entry.getValue());
+            } catch (LinkageError e) {
+                if (!file.delete()) {
+                    LOGGER.warn("代理class缓存文件 [{}] 删除失败", file);
+                }
+
+                if (defined == 0) {
+                    LOGGER.warn(e, "代理class缓存文件 [{}] 中的class不合法，已删除，将重新生成", file);
+                    return null;
+                }
+                // 已经有class定义到了ClassLoader中，无法再在该ClassLoader中重新生成
+                throw new ProxyException(
+                    StringUtils.format("代理class缓存文件 [{}] 中的class [{}] 不合法，缓存文件已删除", file, entry.getKey()), e);
+            }
+
+            defined++;
+            if (entry.getKey().equals(mainName)) {
+                main = clazz;
+            }
+        }
+        return main;
+    }
+
+    /**
+     * 将生成的代理class保存到缓存文件中，先写入临时文件再替换，防止其他进程读取到不完整的文件；同时删除同一个代理class定义的旧缓存文件
+     *
+     * @param file
+     *            缓存文件
+     * @param identity
+     *            代理class定义的hash
+     * @param mainName
+     *            代理class名
+     * @param types
+     *            所有生成的class的字节码
+     */
+    private void store(File file, String identity, String mainName, Map<String, byte[]> types) {
+        if (!createDir()) {
+            LOGGER.warn("代理class缓存目录 [{}] 创建失败，忽略磁盘缓存", dir);
+            return;
+        }
+
+        Path tmp = null;
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(payload);
+            output.writeUTF(mainName);
+            output.writeInt(types.size());
+            for (Map.Entry<String, byte[]> entry : types.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeInt(entry.getValue().length);
+                output.write(entry.getValue());
+            }
+            output.flush();
+            byte[] data = payload.toByteArray();
+
+            tmp = isPosix()
+                ? Files.createTempFile(dir.toPath(), identity, ".tmp",
+                    PosixFilePermissions.asFileAttribute(FILE_PERMISSIONS))
+                : Files.createTempFile(dir.toPath(), identity, ".tmp");
+            try (OutputStream stream = Files.newOutputStream(tmp);
+                DataOutputStream header = new DataOutputStream(stream)) {
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.write(newDigest().digest(data));
+                header.write(data);
+            }
+
+            try {
+                Files.move(tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.warn(e, "代理class [{}] 写入缓存文件 [{}] 失败", mainName, file);
+            if (tmp != null && !tmp.toFile().delete() && tmp.toFile().exists()) {
+                LOGGER.warn("临时文件 [{}] 删除失败", tmp);
+            }
+            return;
+        }
+
+        // 删除同一个代理class定义的旧缓存文件
+        File[] stales = dir.listFiles(
+            (d, name) -> name.startsWith(identity + "-") && name.endsWith(SUFFIX) && !name.equals(file.getName()));
+        if (stales != null) {
+            for (File stale : stales) {
+                if (!stale.delete()) {
+                    LOGGER.warn("代理class旧缓存文件 [{}] 删除失败", stale);
+                }
+            }
+        }
+    }
+
+    /**
+     * 创建缓存目录，支持POSIX权限时只允许当前用户访问
+     *
+     * @return 缓存目录是否存在
+     */
+    private boolean createDir() {
+        if (dir.isDirectory()) {
+            return true;
+        }
+
+        try {
+            FileAttribute<?>[] attributes =
+                isPosix() ? new FileAttribute<?>[] {PosixFilePermissions.asFileAttribute(DIR_PERMISSIONS)}
+                    : new FileAttribute<?>[0];
+            Files.createDirectories(dir.toPath(), attributes);
+        } catch (IOException e) {
+            LOGGER.debug(e, "代理class缓存目录 [{}] 创建失败", dir);
+        }
+        return dir.isDirectory();
+    }
+
+    /**
+     * 缓存文件是否可信：属于当前用户，并且其他用户不可写（支持POSIX权限时）
+     *
+     * @param path
+     *            缓存文件
+     * @return true表示可信
+     */
+    private static boolean isTrusted(Path path) {
+        try {
+            UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+            if (!owner.getName().equals(System.getProperty("user.name"))) {
+                return false;
+            }
+
+            PosixFileAttributeView view =
+                Files.getFileAttributeView(path, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+            if (view == null) {
+                return true;
+            }
+
+            Set<PosixFilePermission> permissions = view.readAttributes().permissions();
+            return permissions.stream().noneMatch(UNSAFE_PERMISSIONS::contains);
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            LOGGER.debug(e, "代理class缓存文件 [{}] 权限检查失败", path);
+            return false;
+        }
+    }
+
+    private static boolean isPosix() {
+        return FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    }
+
+    /**
+     * 计算代理class定义的hash
+     *
+     * @param key
+     *            代理class定义
+     * @param dependencies
+     *            生成代理class依赖的类
+     * @return 代理class定义的hash
+     */
+    private static String identity(ProxyClassKey key, Class<?>[] dependencies) {
+        MessageDigest digest = newDigest();
+        update(digest, String.valueOf(VERSION));
+        // 不同版本的JVM生成、能加载的字节码版本不同，不共享缓存文件
+        update(digest, System.getProperty("java.specification.version"));
+        update(digest, key.getClientType().name());
+        update(digest, key.getName());
+        update(digest, key.getSuperClass() == null ? null : key.getSuperClass().getName());
+        for (Class<?> type : sort(key.getInterfaces().toArray(new Class<?>[0]))) {
+            update(digest, type.getName());
+        }
+        for (Class<?> type : dependencies) {
+            update(digest, type.getName());
+        }
+        return new String(HexCodec.encodeHex(digest.digest())).substring(0, 32);
+    }
+
+    /**
+     * 计算所有相关class字节码的hash
+     *
+     * @param identity
+     *            代理class定义的hash
+     * @param key
+     *            代理class定义
+     * @param dependencies
+     *            生成代理class依赖的类
+     * @return 字节码hash，有class无法获取字节码时返回null
+     */
+    private static String digest(String identity, ProxyClassKey key, Class<?>[] dependencies) {
+        MessageDigest digest = newDigest();
+        update(digest, identity);
+        for (Class<?> type : types(key, dependencies)) {
+            InputStream stream = type.getResourceAsStream('/' + type.getName().replace('.', '/') + ".class");
+            if (stream == null) {
+                LOGGER.debug("无法获取class [{}] 的字节码，代理class [{}] 不使用磁盘缓存", type, key);
+                return null;
+            }
+            digest.update(IOUtils.read(stream));
+        }
+        return new String(HexCodec.encodeHex(digest.digest()));
+    }
+
+    /**
+     * 所有相关class（父类、接口以及它们继承的所有类型，生成代理class依赖的类），按照固定顺序排列
+     *
+     * @param key
+     *            代理class定义
+     * @param dependencies
+     *            生成代理class依赖的类
+     * @return 所有相关class
+     */
+    private static Set<Class<?>> types(ProxyClassKey key, Class<?>[] dependencies) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        addHierarchy(types, key.getSuperClass());
+        for (Class<?> type : sort(key.getInterfaces().toArray(new Class<?>[0]))) {
+            addHierarchy(types, type);
+        }
+        types.addAll(Arrays.asList(dependencies));
+        return types;
+    }
+
+    private static void addHierarchy(Set<Class<?>> types, Class<?> type) {
+        if (type == null || type == Object.class || !types.add(type)) {
+            return;
+        }
+
+        addHierarchy(types, type.getSuperclass());
+        for (Class<?> anInterface : type.getInterfaces()) {
+            addHierarchy(types, anInterface);
+        }
+    }
+
+    private static Class<?>[] sort(Class<?>[] types) {
+        Arrays.sort(types, Comparator.comparing(Class::getName));
+        return types;
+    }
+
+    /**
+     * 直接使用JDK自带的摘要实现，这里只是计算缓存key，不需要加载BC provider（加载BC需要校验jar签名，耗时比生成代理class还长）
+     *
+     * @return SHA-256摘要
+     */
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ProxyException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        // 分隔符，防止不同的值拼接后相同
+        digest.update((byte)0);
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.proxy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 代理class缓存的key，代理class的结构只与代理客户端类型、父类、接口、class名有关，与{@link Interception}无关（{@link Interception}是绑定到代理实例上的）
+ *
+ * @author JoeKerouac
+ * @date 2026-10-18 10:10:00
+ * @since 2.1.6
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class ProxyClassKey {
+
+    /**
+     * 代理客户端类型
+     */
+    private final ProxyClient.ClientType clientType;
+
+    /**
+     * 父类，可能为空
+     */
+    private final Class<?> superClass;
+
+    /**
+     * 实现的接口，与顺序无关
+     */
+    private final Set<Class<?>> interfaces;
+
+    /**
+     * 生成的class名，可能为空
+     */
+    private final String name;
+
+    public ProxyClassKey(ProxyClient.ClientType clientType, Class<?> superClass, Class<?>[] interfaces, String name) {
+        this.clientType = clientType;
+        this.superClass = superClass;
+        this.interfaces = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(interfaces)));
+        this.name = name;
+    }
+}
@@ -12,14 +12,41 @@
  */
 package com.github.joekerouac.common.tools.proxy;
 
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 /**
- * 代理客户端ClassLoader
+ * 代理客户端ClassLoader，同时缓存该ClassLoader中生成的代理class，ClassLoader被回收时缓存一起回收
  *
  * @author JoeKerouac
  * @since 1.0.0
  */
 public class ProxyClassLoader extends ClassLoader {
 
+    /**
+     * 普通ClassLoader对应的ProxyClassLoader；ProxyClassLoader会强引用其父ClassLoader，所以这里value使用弱引用，防止内存泄漏
+     */
+    private static final Map<ClassLoader, WeakReference<ProxyClassLoader>> LOADERS = new WeakHashMap<>();
+
+    /**
+     * 代理class缓存
+     */
+    private final Map<ProxyClassKey, Object> proxyClassCache = new ConcurrentHashMap<>();
+
+    /**
+     * 指定了class名的代理class，key是class名，value是第一个使用该class名的代理class缓存key
+     */
+    private final Map<String, ProxyClassKey> namedKeys = new ConcurrentHashMap<>();
+
+    /**
+     * class名与{@link #namedKeys}中已有的代理class相同但是缓存key不同时使用的ProxyClassLoader，同一个ClassLoader中不能定义两个同名的class
+     */
+    private final Map<ProxyClassKey, ProxyClassLoader> conflictLoaders = new ConcurrentHashMap<>();
+
     public ProxyClassLoader(ClassLoader parent) {
         super(parent);
     }
@@ -34,4 +61,106 @@ public class ProxyClassLoader extends ClassLoader {
     public Class<?> buildClass(byte[] data) {
         return super.defineClass(null, data, 0, data.length);
     }
+
+    /**
+     * 指定class是否已经被该ClassLoader加载（定义）过
+     *
+     * @param name
+     *            class名
+     * @return true表示已经加载过，此时不能再定义同名class
+     */
+    public boolean isLoaded(String name) {
+        return findLoadedClass(name) != null;
+    }
+
+    /**
+     * 从缓存获取代理class（或者代理class对应的其他数据，例如构造器），不存在时使用生成器生成并缓存
+     *
+     * @param key
+     *            代理class缓存key
+     * @param generator
+     *            生成器，同一个key只会调用一次
+     * @param <T>
+     *            缓存的数据类型
+     * @return 缓存的数据
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(ProxyClassKey key, Function<ProxyClassKey, T> generator) {
+        Object value = proxyClassCache.get(key);
+        if (value == null) {
+            value = proxyClassCache.computeIfAbsent(key, generator);
+        }
+        return (T)value;
+    }
+
+    /**
+     * 获取用于生成指定代理class的ProxyClassLoader；未指定class名或者class名第一次使用时返回当前ProxyClassLoader，class名已经被其他缓存key
+     * 使用时返回一个专用的ProxyClassLoader（父ClassLoader与当前ProxyClassLoader相同，相同的缓存key返回同一个），防止重复定义同名class
+     *
+     * @param key
+     *            代理class缓存key
+     * @return 生成、缓存该代理class使用的ProxyClassLoader
+     */
+    public ProxyClassLoader getLoader(ProxyClassKey key) {
+        String name = key.getName();
+        if (name == null || name.isEmpty()) {
+            return this;
+        }
+
+        ProxyClassKey owner = namedKeys.putIfAbsent(name, key);
+        if (owner == null || owner.equals(key)) {
+            return this;
+        }
+
+        return conflictLoaders.computeIfAbsent(key, k -> new ProxyClassLoader(getParent()));
+    }
+
+    /**
+     * 获取代理class，优先从内存缓存获取，其次从磁盘缓存（{@link ProxyClassDiskCache#getDefault()}，未开启时忽略）加载，都不存在时使用生成器生成
+     *
+     * @param key
+     *            代理class缓存key
+     * @param dependencies
+     *            生成代理class依赖的类，这些类的字节码变化时磁盘缓存失效
+     * @param generator
+     *            生成器，生成并加载代理class，同时将所有生成的class的字节码放入参数中，参考
+     *            {@link ProxyClassDiskCache#load(ProxyClassKey, ProxyClassLoader, Class[], Function)}
+     * @return 代理class
+     */
+    public Class<?> loadProxyClass(ProxyClassKey key, Class<?>[] dependencies,
+        Function<Map<String, byte[]>, Class<?>> generator) {
+        return computeIfAbsent(key, k -> {
+            ProxyClassDiskCache diskCache = ProxyClassDiskCache.getDefault();
+            return diskCache == null ? generator.apply(new HashMap<>())
+                : diskCache.load(k, this, dependencies, generator);
+        });
+    }
+
+    /**
+     * 获取指定ClassLoader对应的ProxyClassLoader，相同的ClassLoader返回同一个ProxyClassLoader（除非已经被回收），这样代理class缓存才能生效；
+     * 
+     * 注意，返回的ProxyClassLoader是共享的，直接在其中定义指定了class名的class时需要先通过{@link #getLoader(ProxyClassKey)}获取实际使用的
+     * ProxyClassLoader，不缓存的场景应该直接创建新的ProxyClassLoader
+     *
+     * @param loader
+     *            ClassLoader，为空时返回{@link ProxyClient#DEFAULT_LOADER}
+     * @return ProxyClassLoader
+     */
+    public static ProxyClassLoader getInstance(ClassLoader loader) {
+        if (loader == null) {
+            return ProxyClient.DEFAULT_LOADER;
+        } else if (loader instanceof ProxyClassLoader) {
+            return (ProxyClassLoader)loader;
+        }
+
+        synchronized (LOADERS) {
+            WeakReference<ProxyClassLoader> reference = LOADERS.get(loader);
+            ProxyClassLoader proxyClassLoader = reference == null ? null : reference.get();
+            if (proxyClassLoader == null) {
+                proxyClassLoader = new ProxyClassLoader(loader);
+                LOADERS.put(loader, new WeakReference<>(proxyClassLoader));
+            }
+            return proxyClassLoader;
+        }
+    }
 }
@@ -13,8 +13,6 @@
 package com.github.joekerouac.common.tools.proxy;
 
 import java.lang.reflect.Method;
-import java.util.Objects;
-import java.util.stream.Stream;
 
 import com.github.joekerouac.common.tools.reflect.ReflectUtil;
 import com.github.joekerouac.common.tools.string.StringUtils;
@@ -96,8 +94,7 @@ public interface ProxyParent {
      * @return true表示可以执行，即可以调用{@link #invoke(Method, ProxyParent)}
      */
     static boolean canInvoke(Method method) {
-        return Stream.of(GET_TARGET, GET_TARGET_CLASS, GET_INTERFACES, GET_LINKED_INTERCEPTION)
-            .filter(m -> Objects.equals(m, MethodMetadata.build(method))).limit(1).count() > 0;
+        return MethodDispatcher.get(method).isProxyParentMethod();
     }
 
     /**
@@ -115,9 +112,9 @@ public interface ProxyParent {
         Assert.argNotNull(method, "method");
         Assert.argNotNull(proxyParent, "proxyParent");
 
-        MethodMetadata metadata = MethodMetadata.build(method);
-        if (canInvoke(method)) {
-            return metadata.invoke(proxyParent);
+        MethodDispatcher dispatcher = MethodDispatcher.get(method);
+        if (dispatcher.isProxyParentMethod()) {
+            return ReflectUtil.invoke(proxyParent, dispatcher.getMethod());
         } else {
             throw new ProxyException(StringUtils.format("方法 [{}] 不是 ProxyParent 中声明的", method));
         }
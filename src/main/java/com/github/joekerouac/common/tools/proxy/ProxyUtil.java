@@ -26,12 +26,6 @@ class ProxyUtil {
      * @return 转换后的classloader
      */
     public static ProxyClassLoader convertClassloader(ClassLoader loader) {
-        if (loader == null) {
-            return ProxyClient.DEFAULT_LOADER;
-        } else if (loader instanceof ProxyClassLoader) {
-            return (ProxyClassLoader)loader;
-        } else {
-            return new ProxyClassLoader(loader);
-        }
+        return ProxyClassLoader.getInstance(loader);
     }
 }
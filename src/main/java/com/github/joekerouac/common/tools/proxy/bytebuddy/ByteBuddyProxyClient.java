@@ -13,25 +13,35 @@
 package com.github.joekerouac.common.tools.proxy.bytebuddy;
 
 import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
 
 import com.github.joekerouac.common.tools.collection.CollectionUtil;
 import com.github.joekerouac.common.tools.collection.Pair;
 import com.github.joekerouac.common.tools.proxy.Interception;
+import com.github.joekerouac.common.tools.proxy.MethodDispatcher;
 import com.github.joekerouac.common.tools.proxy.ParentUtil;
+import com.github.joekerouac.common.tools.proxy.ProxyClassKey;
 import com.github.joekerouac.common.tools.proxy.ProxyClassLoader;
 import com.github.joekerouac.common.tools.proxy.ProxyClient;
-import com.github.joekerouac.common.tools.reflect.ClassUtils;
 import com.github.joekerouac.common.tools.string.StringUtils;
 
 import lombok.extern.slf4j.Slf4j;
 import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.FieldManifestation;
+import net.bytebuddy.description.modifier.Visibility;
 import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.implementation.MethodDelegation;
 import net.bytebuddy.matcher.ElementMatcher;
 
 /**
- * 代理客户端bytebuddy实现
+ * 代理客户端bytebuddy实现；
+ *
+ * {@link #create(Class[], Object, ClassLoader, String, Interception, Class[], Object[])
+ * create}生成的代理class按照{@link ProxyClassKey}缓存，
+ * {@link Interception}绑定在代理实例上，重复创建代理只需要调用构造器；{@link #createClass(Class[], Object, ClassLoader, String, Interception)
+ * createClass}返回的class需要用户自己通过反射实例化，所以{@link Interception}仍然固化在class中，不会缓存
  *
  * @author JoeKerouac
  * @since 1.0.0
@@ -40,6 +50,12 @@ import net.bytebuddy.matcher.ElementMatcher;
 public class ByteBuddyProxyClient implements ProxyClient {
     private static final AnyMethodElementMatcher MATCHER = new AnyMethodElementMatcher();
 
+    /**
+     * 生成代理class依赖的类，这些类变化时磁盘缓存的代理class失效
+     */
+    private static final Class<?>[] DEPENDENCIES =
+        {ByteBuddyProxyClient.class, GeneralInterceptor.class, ByteBuddy.class};
+
     @Override
     public Object create(Class<?>[] parent, Object proxy, ClassLoader loader, String name, Interception interception,
         Class<?>[] paramTypes, Object[] params) {
@@ -47,18 +63,61 @@ public class ByteBuddyProxyClient implements ProxyClient {
             throw new IllegalArgumentException("构造器参数列表paramTypes长度和实际参数params长度不一致");
         }
 
-        return ClassUtils.getInstance(createClass(parent, proxy, loader, name, interception), paramTypes, params);
+        Pair<Class<?>, Class<?>[]> pair = ParentUtil.setInterfaces(parent, proxy);
+        Class<?> superClass = pair.getKey();
+        Class<?>[] interfaces = pair.getValue();
+
+        ProxyClassKey key = new ProxyClassKey(getClientType(), superClass, interfaces, name);
+        ProxyClassLoader realLoader = ProxyClassLoader.getInstance(loader).getLoader(key);
+        Class<?> clazz = realLoader.loadProxyClass(key, DEPENDENCIES,
+            types -> build(superClass, interfaces, name, realLoader,
+                builder -> builder
+                    .defineField(GeneralInterceptor.FIELD_NAME, GeneralInterceptor.class, Visibility.PRIVATE,
+                        FieldManifestation.VOLATILE)
+                    .method(MATCHER).intercept(MethodDelegation.to(GeneralInterceptor.class)),
+                types));
+
+        return GeneralInterceptor.newInstance(clazz,
+            new GeneralInterceptor(interception, proxy, superClass, interfaces), paramTypes, params);
     }
 
     @Override
     public Class<?> createClass(Class<?>[] parent, Object proxy, ClassLoader loader, String name,
         Interception interception) {
-        ByteBuddy byteBuddy = new ByteBuddy();
-
         Pair<Class<?>, Class<?>[]> pair = ParentUtil.setInterfaces(parent, proxy);
         Class<?> superClass = pair.getKey();
         Class<?>[] interfaces = pair.getValue();
 
+        // 不缓存，每次都生成新的class，普通ClassLoader需要使用新的ProxyClassLoader，否则同名class会重复定义
+        ProxyClassLoader realLoader = loader == null || loader instanceof ProxyClassLoader
+            ? ProxyClassLoader.getInstance(loader) : new ProxyClassLoader(loader);
+        return build(superClass, interfaces, name, realLoader,
+            builder -> builder.method(MATCHER)
+                .intercept(MethodDelegation.to(new GeneralInterceptor(interception, proxy, superClass, interfaces))),
+            null);
+    }
+
+    /**
+     * 生成代理class
+     *
+     * @param superClass
+     *            父类，可以为空
+     * @param interfaces
+     *            接口
+     * @param name
+     *            class名，可以为空
+     * @param loader
+     *            加载代理class的ClassLoader
+     * @param interceptor
+     *            配置方法拦截
+     * @param types
+     *            生成的所有class的字节码，可以为空，不为空时会将生成的class字节码放入（生成的class需要额外初始化时不放入）
+     * @return 代理class
+     */
+    private Class<?> build(Class<?> superClass, Class<?>[] interfaces, String name, ProxyClassLoader loader,
+        Function<DynamicType.Builder<?>, DynamicType.Builder<?>> interceptor, Map<String, byte[]> types) {
+        ByteBuddy byteBuddy = new ByteBuddy();
+
         DynamicType.Builder<?> builder;
         if (superClass != null) {
             builder = byteBuddy.subclass(superClass);
@@ -72,18 +131,14 @@ public class ByteBuddyProxyClient implements ProxyClient {
             builder = builder.name(name);
         }
 
-        ClassLoader usedLoader = loader == null ? ProxyClient.DEFAULT_LOADER : loader;
-
-        builder = builder.method(MATCHER)
-            .intercept(MethodDelegation.to(new GeneralInterceptor(interception, proxy, superClass, interfaces)));
-        ProxyClassLoader realLoader;
-        if (usedLoader instanceof ProxyClassLoader) {
-            realLoader = (ProxyClassLoader)usedLoader;
-        } else {
-            realLoader = new ProxyClassLoader(usedLoader);
+        MethodDispatcher.prepare(superClass, interfaces);
+        DynamicType.Unloaded<?> unloaded = interceptor.apply(builder).make();
+        if (types != null && !unloaded.hasAliveLoadedTypeInitializers()) {
+            unloaded.getAllTypes().forEach((type, bytes) -> types.put(type.getName(), bytes));
         }
-        return builder.make()
-            .load(realLoader, (classLoader, types) -> CollectionUtil.convert(types, classLoader::buildClass))
+
+        return unloaded
+            .load(loader, (classLoader, allTypes) -> CollectionUtil.convert(allTypes, classLoader::buildClass))
             .getLoaded();
     }
 
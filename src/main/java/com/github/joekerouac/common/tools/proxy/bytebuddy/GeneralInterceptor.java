@@ -17,22 +17,40 @@ import java.util.concurrent.Callable;
 
 import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
 import com.github.joekerouac.common.tools.proxy.Interception;
+import com.github.joekerouac.common.tools.proxy.MethodDispatcher;
+import com.github.joekerouac.common.tools.proxy.ProxyException;
 import com.github.joekerouac.common.tools.proxy.ProxyParent;
+import com.github.joekerouac.common.tools.reflect.ClassUtils;
+import com.github.joekerouac.common.tools.reflect.ReflectUtil;
 import com.github.joekerouac.common.tools.util.Assert;
 
 import net.bytebuddy.implementation.bind.annotation.AllArguments;
+import net.bytebuddy.implementation.bind.annotation.FieldValue;
 import net.bytebuddy.implementation.bind.annotation.Origin;
 import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 import net.bytebuddy.implementation.bind.annotation.SuperCall;
 
 /**
- * 方法拦截器
+ * 方法拦截器；
+ *
+ * 可以直接作为委托对象生成代理class（此时拦截器固化在class中），也可以通过静态方法{@link #dispatchClass(GeneralInterceptor, Object[], Method, Callable)}、
+ * {@link #dispatchInterface(GeneralInterceptor, Object[], Method)}转发到代理实例字段{@link #FIELD_NAME}中绑定的拦截器，此时代理class与拦截器无关，可以缓存复用
  *
  * @author JoeKerouac
  * @since 1.0.0
  */
 public class GeneralInterceptor {
 
+    /**
+     * 代理实例中绑定拦截器的字段名
+     */
+    public static final String FIELD_NAME = "$$interceptor";
+
+    /**
+     * 构造代理实例期间当前线程绑定的拦截器，构造器中调用的方法执行时代理实例的字段还未赋值，此时使用该拦截器
+     */
+    private static final ThreadLocal<GeneralInterceptor> BINDING = new ThreadLocal<>();
+
     /**
      * 代理方法实现
      */
@@ -70,7 +88,7 @@ public class GeneralInterceptor {
     @RuntimeType
     public Object interceptClass(@AllArguments Object[] params, @Origin Method method,
         @SuperCall Callable<Object> callable) throws Throwable {
-        return Interception.invokeWrap(interception, target, method, null, params, callable::call,
+        return MethodDispatcher.get(method).dispatch(interception, target, null, params, callable::call,
             proxyParent.GET_TARGET_CLASS());
     }
 
@@ -85,12 +103,90 @@ public class GeneralInterceptor {
      */
     @RuntimeType
     public Object interceptInterface(@AllArguments Object[] params, @Origin Method method) throws Throwable {
-        if (ProxyParent.canInvoke(method)) {
-            return Interception.invokeWrap(interception, null, method, null, params,
-                () -> ProxyParent.invoke(method, proxyParent), proxyParent.GET_TARGET_CLASS());
-        } else {
-            return Interception.invokeWrap(interception, target, method, null, params, null,
+        MethodDispatcher dispatcher = MethodDispatcher.get(method);
+        if (dispatcher.isProxyParentMethod()) {
+            return dispatcher.dispatch(interception, null, null, params, () -> dispatcher.invoke(proxyParent, params),
                 proxyParent.GET_TARGET_CLASS());
+        } else {
+            return dispatcher.dispatch(interception, target, null, params, null, proxyParent.GET_TARGET_CLASS());
+        }
+    }
+
+    /**
+     * 拦截有实现的方法，转发到代理实例绑定的拦截器
+     *
+     * @param interceptor
+     *            代理实例绑定的拦截器，代理实例构造期间为null
+     * @param params
+     *            调用方法的参数
+     * @param method
+     *            被拦截的方法
+     * @param callable
+     *            父类调用
+     * @return 执行结果
+     */
+    @RuntimeType
+    public static Object dispatchClass(@FieldValue(FIELD_NAME) GeneralInterceptor interceptor,
+        @AllArguments Object[] params, @Origin Method method, @SuperCall Callable<Object> callable) throws Throwable {
+        return resolve(interceptor).interceptClass(params, method, callable);
+    }
+
+    /**
+     * 拦截抽象方法，转发到代理实例绑定的拦截器
+     *
+     * @param interceptor
+     *            代理实例绑定的拦截器，代理实例构造期间为null
+     * @param params
+     *            调用方法的参数
+     * @param method
+     *            被拦截的方法
+     * @return 执行结果
+     */
+    @RuntimeType
+    public static Object dispatchInterface(@FieldValue(FIELD_NAME) GeneralInterceptor interceptor,
+        @AllArguments Object[] params, @Origin Method method) throws Throwable {
+        return resolve(interceptor).interceptInterface(params, method);
+    }
+
+    /**
+     * 创建代理实例并绑定拦截器
+     *
+     * @param clazz
+     *            代理class，必须是使用静态方法转发生成的
+     * @param interceptor
+     *            要绑定的拦截器
+     * @param paramTypes
+     *            构造器参数类型
+     * @param params
+     *            构造器参数
+     * @return 代理实例
+     */
+    public static Object newInstance(Class<?> clazz, GeneralInterceptor interceptor, Class<?>[] paramTypes,
+        Object[] params) {
+        GeneralInterceptor previous = BINDING.get();
+        BINDING.set(interceptor);
+        try {
+            Object instance = ClassUtils.getInstance(clazz, paramTypes, params);
+            ReflectUtil.setFieldValue(instance, FIELD_NAME, interceptor);
+            return instance;
+        } finally {
+            if (previous == null) {
+                BINDING.remove();
+            } else {
+                BINDING.set(previous);
+            }
+        }
+    }
+
+    private static GeneralInterceptor resolve(GeneralInterceptor interceptor) {
+        if (interceptor != null) {
+            return interceptor;
+        }
+
+        GeneralInterceptor binding = BINDING.get();
+        if (binding == null) {
+            throw new ProxyException("代理实例未绑定拦截器，请通过ProxyClient创建代理实例");
         }
+        return binding;
     }
 }
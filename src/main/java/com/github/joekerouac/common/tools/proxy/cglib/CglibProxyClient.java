@@ -12,23 +12,48 @@
  */
 package com.github.joekerouac.common.tools.proxy.cglib;
 
+import java.lang.reflect.Method;
+
 import com.github.joekerouac.common.tools.collection.CollectionUtil;
 import com.github.joekerouac.common.tools.collection.Pair;
 import com.github.joekerouac.common.tools.proxy.Interception;
+import com.github.joekerouac.common.tools.proxy.MethodDispatcher;
 import com.github.joekerouac.common.tools.proxy.ParentUtil;
+import com.github.joekerouac.common.tools.proxy.ProxyClassKey;
+import com.github.joekerouac.common.tools.proxy.ProxyClassLoader;
 import com.github.joekerouac.common.tools.proxy.ProxyClient;
+import com.github.joekerouac.common.tools.reflect.ClassUtils;
+import com.github.joekerouac.common.tools.reflect.ReflectUtil;
 import com.github.joekerouac.common.tools.string.StringUtils;
 
+import net.sf.cglib.core.ClassGenerator;
+import net.sf.cglib.core.DefaultGeneratorStrategy;
+import net.sf.cglib.proxy.Callback;
 import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.MethodInterceptor;
 
 /**
- * cglib实现的代理客户端
+ * cglib实现的代理客户端；
+ *
+ * {@link #create(Class[], Object, ClassLoader, String, Interception, Class[], Object[])
+ * create}生成的代理class按照{@link ProxyClassKey}缓存， {@link Interception}在构造时通过cglib的线程回调绑定到代理实例上，重复创建代理只需要调用构造器
  *
  * @author JoeKerouac
  * @since 1.0.0
  */
 public class CglibProxyClient implements ProxyClient {
 
+    /**
+     * cglib生成的class中设置线程回调的静态方法，参考{@link Enhancer#registerCallbacks(Class, Callback[])}
+     */
+    private static final String SET_THREAD_CALLBACKS = "CGLIB$SET_THREAD_CALLBACKS";
+
+    /**
+     * 生成代理class依赖的类，这些类变化时磁盘缓存的代理class失效
+     */
+    private static final Class<?>[] DEPENDENCIES =
+        {CglibProxyClient.class, MethodInterceptorAdapter.class, Enhancer.class};
+
     @Override
     public Object create(Class<?>[] parent, Object proxy, ClassLoader loader, String name, Interception interception,
         Class<?>[] paramTypes, Object[] params) {
@@ -36,18 +61,51 @@ public class CglibProxyClient implements ProxyClient {
             throw new IllegalArgumentException("构造器参数列表paramTypes长度和实际参数params长度不一致");
         }
 
-        Enhancer enhancer = createEnhancer(parent, proxy, loader, name, interception);
-        if (CollectionUtil.isEmpty(paramTypes)) {
-            return enhancer.create();
-        } else {
-            return enhancer.create(paramTypes, params);
+        Pair<Class<?>, Class<?>[]> pair = ParentUtil.setInterfaces(parent, proxy);
+        Class<?> superClass = pair.getKey();
+        Class<?>[] interfaces = pair.getValue();
+
+        ProxyClassKey key = new ProxyClassKey(getClientType(), superClass, interfaces, name);
+        ProxyClassLoader realLoader = ProxyClassLoader.getInstance(loader).getLoader(key);
+        Class<?> clazz = realLoader.loadProxyClass(key, DEPENDENCIES, types -> {
+            Enhancer enhancer = new Enhancer();
+            enhancer.setSuperclass(superClass);
+            enhancer.setInterfaces(interfaces);
+            enhancer.setClassLoader(realLoader);
+            enhancer.setCallbackType(MethodInterceptor.class);
+            // 我们自己缓存，不需要cglib再缓存一次
+            enhancer.setUseCache(false);
+            setName(enhancer, name);
+            // 记录生成的字节码，用于磁盘缓存
+            byte[][] bytes = new byte[1][];
+            enhancer.setStrategy(new DefaultGeneratorStrategy() {
+                @Override
+                public byte[] generate(ClassGenerator cg) throws Exception {
+                    bytes[0] = super.generate(cg);
+                    return bytes[0];
+                }
+            });
+            MethodDispatcher.prepare(superClass, interfaces);
+            Class<?> generated = enhancer.createClass();
+            types.put(generated.getName(), bytes[0]);
+            return generated;
+        });
+
+        // 构造期间通过线程回调绑定，构造完成后代理实例持有回调，这里需要清除线程回调
+        Method setThreadCallbacks = ReflectUtil.getMethod(clazz, SET_THREAD_CALLBACKS, Callback[].class);
+        ReflectUtil.invoke(clazz, setThreadCallbacks,
+            (Object)new Callback[] {new MethodInterceptorAdapter(interception, proxy, superClass, interfaces)});
+        try {
+            return ClassUtils.getInstance(clazz, paramTypes, params);
+        } finally {
+            ReflectUtil.invoke(clazz, setThreadCallbacks, (Object)null);
         }
     }
 
     /**
      * 构建指定对象的代理Class，稍后可以通过反射构建该class的实例，对象的类必须是公共的，同时代理方法也必须是公共的
      * <p>
-     * 注意：生成的class通过反射调用构造器创建对象的时候，构造器中调用的方法不会被拦截！！！
+     * 注意：interception会注册为生成的class的静态回调，该class的所有实例共用同一个interception
      * </p>
      *
      * @param parent
@@ -64,11 +122,6 @@ public class CglibProxyClient implements ProxyClient {
      */
     @Override
     public Class<?> createClass(Class<?>[] parent, Object proxy, ClassLoader loader, String name,
-        Interception interception) {
-        return createEnhancer(parent, proxy, loader, name, interception).createClass();
-    }
-
-    private Enhancer createEnhancer(Class<?>[] parent, Object proxy, ClassLoader loader, String name,
         Interception interception) {
         Enhancer enhancer = new Enhancer();
         Pair<Class<?>, Class<?>[]> pair = ParentUtil.setInterfaces(parent, proxy);
@@ -78,11 +131,23 @@ public class CglibProxyClient implements ProxyClient {
         enhancer.setSuperclass(superClass);
         enhancer.setInterfaces(interfaces);
         enhancer.setClassLoader(loader);
-        enhancer.setCallback(new MethodInterceptorAdapter(interception, proxy, superClass, interfaces));
+        enhancer.setCallbackType(MethodInterceptor.class);
+        // class中固化了回调，不能使用cglib的缓存
+        enhancer.setUseCache(false);
+        setName(enhancer, name);
+
+        MethodDispatcher.prepare(superClass, interfaces);
+        // cglib的createClass不接受回调实例，这里将回调注册为静态回调，用户通过反射创建的实例都使用该回调
+        Class<?> clazz = enhancer.createClass();
+        Enhancer.registerStaticCallbacks(clazz,
+            new Callback[] {new MethodInterceptorAdapter(interception, proxy, superClass, interfaces)});
+        return clazz;
+    }
+
+    private void setName(Enhancer enhancer, String name) {
         if (StringUtils.isNotBlank(name)) {
             enhancer.setNamingPolicy((s, s1, o, predicate) -> name);
         }
-        return enhancer;
     }
 
     @Override
@@ -17,6 +17,7 @@ import java.lang.reflect.Method;
 import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
 import com.github.joekerouac.common.tools.proxy.Interception;
 import com.github.joekerouac.common.tools.proxy.Invoker;
+import com.github.joekerouac.common.tools.proxy.MethodDispatcher;
 import com.github.joekerouac.common.tools.proxy.ProxyParent;
 import com.github.joekerouac.common.tools.util.Assert;
 
@@ -56,17 +57,17 @@ public class MethodInterceptorAdapter implements MethodInterceptor {
 
     @Override
     public Object intercept(Object obj, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
-        Invoker supperCall = null;
-        if (superClass != null) {
-            supperCall = () -> methodProxy.invokeSuper(obj, args);
+        MethodDispatcher dispatcher = MethodDispatcher.get(method);
+        if (dispatcher.isProxyParentMethod()) {
+            return dispatcher.dispatch(proxy, null, obj, args, () -> dispatcher.invoke(proxyParent, args),
+                proxyParent.GET_TARGET_CLASS());
         }
 
-        if (ProxyParent.canInvoke(method)) {
-            return Interception.invokeWrap(proxy, null, method, obj, args,
-                () -> ProxyParent.invoke(method, proxyParent), proxyParent.GET_TARGET_CLASS());
-        } else {
-            return Interception.invokeWrap(proxy, target, method, obj, args, supperCall,
-                proxyParent.GET_TARGET_CLASS());
+        // 对指定对象代理时不会使用父类调用，这里就不用构建了
+        Invoker supperCall = null;
+        if (superClass != null && target == null) {
+            supperCall = () -> methodProxy.invokeSuper(obj, args);
         }
+        return dispatcher.dispatch(proxy, target, obj, args, supperCall, proxyParent.GET_TARGET_CLASS());
     }
 }
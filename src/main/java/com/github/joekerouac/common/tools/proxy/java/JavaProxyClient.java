@@ -12,23 +12,38 @@
  */
 package com.github.joekerouac.common.tools.proxy.java;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Proxy;
 
 import com.github.joekerouac.common.tools.collection.CollectionUtil;
 import com.github.joekerouac.common.tools.collection.Pair;
 import com.github.joekerouac.common.tools.proxy.Interception;
+import com.github.joekerouac.common.tools.proxy.MethodDispatcher;
 import com.github.joekerouac.common.tools.proxy.ParentUtil;
+import com.github.joekerouac.common.tools.proxy.ProxyClassKey;
+import com.github.joekerouac.common.tools.proxy.ProxyClassLoader;
 import com.github.joekerouac.common.tools.proxy.ProxyClient;
+import com.github.joekerouac.common.tools.proxy.ProxyException;
+import com.github.joekerouac.common.tools.reflect.ReflectUtil;
 import com.github.joekerouac.common.tools.string.StringUtils;
 
 /**
- * 需要注意的是java原生代理客户端只支持对接口的代理，不支持对普通类或者抽象类代理，同时不支持设置代理生成的类的名字
+ * 需要注意的是java原生代理客户端只支持对接口的代理，不支持对普通类或者抽象类代理，同时不支持设置代理生成的类的名字；
+ *
+ * 代理class的构造器按照{@link ProxyClassKey}缓存，{@link Interception}通过构造器绑定到代理实例上
  *
  * @author JoeKerouac
  * @since 1.0.0
  */
 public class JavaProxyClient implements ProxyClient {
 
+    /**
+     * java代理class的构造器参数
+     */
+    private static final Class<?>[] CONSTRUCTOR_PARAMS = {InvocationHandler.class};
+
     @Override
     public ClientType getClientType() {
         return ClientType.JAVA;
@@ -49,8 +64,21 @@ public class JavaProxyClient implements ProxyClient {
             throw new IllegalArgumentException(StringUtils.format("Java代理实现不允许指定父类: [{}]", superClass));
         }
 
-        return Proxy.newProxyInstance(loader, interfaces,
-            new MethodInterceptorAdapter(proxy, interfaces, interception));
+        ProxyClassLoader realLoader = ProxyClassLoader.getInstance(loader);
+        Constructor<?> constructor =
+            realLoader.computeIfAbsent(new ProxyClassKey(getClientType(), null, interfaces, null), key -> {
+                MethodDispatcher.prepare(null, interfaces);
+                return ReflectUtil.allowAccess(
+                    ReflectUtil.getConstructor(Proxy.getProxyClass(realLoader, interfaces), CONSTRUCTOR_PARAMS));
+            });
+
+        try {
+            return constructor.newInstance(new MethodInterceptorAdapter(proxy, interfaces, interception));
+        } catch (InvocationTargetException e) {
+            throw new ProxyException("代理对象创建失败", e.getTargetException());
+        } catch (ReflectiveOperationException e) {
+            throw new ProxyException("代理对象创建失败", e);
+        }
     }
 
     @Override
@@ -17,6 +17,7 @@ import java.lang.reflect.Method;
 
 import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
 import com.github.joekerouac.common.tools.proxy.Interception;
+import com.github.joekerouac.common.tools.proxy.MethodDispatcher;
 import com.github.joekerouac.common.tools.proxy.ProxyParent;
 import com.github.joekerouac.common.tools.util.Assert;
 
@@ -48,12 +49,12 @@ public class MethodInterceptorAdapter implements InvocationHandler {
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
         // 构建父方法调用
-        if (ProxyParent.canInvoke(method)) {
-            return Interception.invokeWrap(interception, null, method, proxy, args,
-                () -> ProxyParent.invoke(method, proxyParent), proxyParent.GET_TARGET_CLASS());
-        } else {
-            return Interception.invokeWrap(interception, target, method, proxy, args, null,
+        MethodDispatcher dispatcher = MethodDispatcher.get(method);
+        if (dispatcher.isProxyParentMethod()) {
+            return dispatcher.dispatch(interception, null, proxy, args, () -> dispatcher.invoke(proxyParent, args),
                 proxyParent.GET_TARGET_CLASS());
+        } else {
+            return dispatcher.dispatch(interception, target, proxy, args, null, proxyParent.GET_TARGET_CLASS());
         }
     }
 }
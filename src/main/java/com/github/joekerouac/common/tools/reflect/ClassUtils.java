@@ -358,8 +358,11 @@ public class ClassUtils {
                 }
 
             } else if (!AccessorUtil.isAbstract(clazz)) {
-                Constructor<T> constructor = clazz.getConstructor(paramTypes);
-                ReflectUtil.allowAccess(constructor);
+                Constructor<T> constructor = ReflectCache.getConstructor(clazz, paramTypes);
+                if (constructor == null) {
+                    throw new NoSuchMethodException(
+                        StringUtils.format("类[{}]中不存在参数列表为[{}]的public构造器", clazz, Arrays.toString(paramTypes)));
+                }
                 return constructor.newInstance(params);
             }
         } catch (Exception e) {
@@ -0,0 +1,527 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.reflect;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 反射元数据缓存，{@link ReflectUtil}、{@link ClassUtils}中字段、方法、构造器的查找都会使用该缓存；
+ * 
+ * 查找结果（包括查找不到的结果）按照class缓存，重复查找只需要一次hash查找；缓存使用{@link ClassValue}保存，缓存数据挂在class上，不会
+ * 阻止class以及对应的classloader卸载；方法、构造器的参数类型如果来自class的classloader不可见的classloader（例如子classloader），
+ * 该次查找不会缓存，避免class的缓存持有其他classloader中的class；命中、未命中次数每次查找只统计一次；返回的字段、构造器以及方法都已经尝试调用过{@link Field#setAccessible(boolean)}，JDK9及以上版本中
+ * 模块未开放的成员（例如java.*中的私有成员）无法修改访问权限时保持原样；
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 21:30:00
+ * @since 2.1.6
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ReflectCache {
+
+    /**
+     * 元数据缓存
+     */
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata();
+        }
+    };
+
+    /**
+     * 缓存命中次数
+     */
+    private static final LongAdder HIT = new LongAdder();
+
+    /**
+     * 缓存未命中次数
+     */
+    private static final LongAdder MISS = new LongAdder();
+
+    /**
+     * 缓存命中次数
+     * 
+     * @return 缓存命中次数
+     */
+    public static long getHitCount() {
+        return HIT.sum();
+    }
+
+    /**
+     * 缓存未命中次数
+     * 
+     * @return 缓存未命中次数
+     */
+    public static long getMissCount() {
+        return MISS.sum();
+    }
+
+    /**
+     * 获取指定class的所有字段（包含父类声明的字段）
+     * 
+     * @param clazz
+     *            class
+     * @return 所有字段，注意，返回的是缓存的数组，不能修改
+     */
+    static Field[] getAllFields(Class<?> clazz) {
+        ClassMetadata metadata = CACHE.get(clazz);
+        Field[] allFields = metadata.allFields;
+        if (allFields != null) {
+            HIT.increment();
+            return allFields;
+        }
+
+        MISS.increment();
+        return allFields(clazz, metadata);
+    }
+
+    /**
+     * 获取指定class的所有字段（包含父类声明的字段），不统计命中情况
+     * 
+     * @param clazz
+     *            class
+     * @param metadata
+     *            class对应的元数据
+     * @return 所有字段
+     */
+    private static Field[] allFields(Class<?> clazz, ClassMetadata metadata) {
+        Field[] allFields = metadata.allFields;
+        if (allFields != null) {
+            return allFields;
+        }
+
+        Map<String, Field> declaredFields = declaredFieldIndex(clazz, metadata);
+        List<Field> fields = new ArrayList<>(declaredFields.size());
+        for (Field field : declaredFields.values()) {
+            fields.add(tryAllowAccess(field));
+        }
+        Class<?> superClass = clazz.getSuperclass();
+        // 查找是否存在父类，如果存在且不是Object那么查找父类的field
+        if (superClass != null && superClass != Object.class) {
+            fields.addAll(Arrays.asList(allFields(superClass, CACHE.get(superClass))));
+        }
+
+        allFields = fields.toArray(new Field[0]);
+        metadata.allFields = allFields;
+        return allFields;
+    }
+
+    /**
+     * 获取本类声明的所有字段，key是字段名，延迟初始化，不统计命中情况
+     * 
+     * @param clazz
+     *            class
+     * @param metadata
+     *            class对应的元数据
+     * @return 本类声明的所有字段，按照声明顺序排列
+     */
+    private static Map<String, Field> declaredFieldIndex(Class<?> clazz, ClassMetadata metadata) {
+        Map<String, Field> index = metadata.declaredFieldIndex;
+        if (index == null) {
+            index = new LinkedHashMap<>();
+            for (Field field : clazz.getDeclaredFields()) {
+                index.put(field.getName(), field);
+            }
+            metadata.declaredFieldIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * 获取指定字段
+     * 
+     * @param clazz
+     *            class
+     * @param fieldName
+     *            字段名
+     * @param recursive
+     *            当前类查找不到指定字段时是否递归从父类（不包含Object）查找
+     * @return 字段，不存在时返回null
+     */
+    static Field getField(Class<?> clazz, String fieldName, boolean recursive) {
+        ClassMetadata metadata = CACHE.get(clazz);
+        if (!recursive) {
+            if (metadata.declaredFieldIndex != null) {
+                HIT.increment();
+            } else {
+                MISS.increment();
+            }
+
+            Field field = declaredFieldIndex(clazz, metadata).get(fieldName);
+            return field == null ? null : tryAllowAccess(field);
+        }
+
+        return lookup(metadata.fields, fieldName, true, name -> {
+            Class<?> current = clazz;
+            while (true) {
+                Field field = declaredFieldIndex(current, CACHE.get(current)).get(name);
+                if (field != null) {
+                    return tryAllowAccess(field);
+                }
+
+                current = current.getSuperclass();
+                if (current == null || current == Object.class) {
+                    return null;
+                }
+            }
+        });
+    }
+
+    /**
+     * 获取指定方法
+     * 
+     * @param clazz
+     *            class
+     * @param methodName
+     *            方法名
+     * @param recursive
+     *            当前类查找不到指定方法时是否递归从父类、接口查找
+     * @param parameterTypes
+     *            方法参数类型
+     * @return 方法，不存在时返回null
+     */
+    static Method getMethod(Class<?> clazz, String methodName, boolean recursive, Class<?>[] parameterTypes) {
+        return lookup(CACHE.get(clazz).methods, new Signature(methodName, parameterTypes, recursive),
+            isCacheSafe(clazz, parameterTypes),
+            signature -> findMethod(clazz, methodName, recursive, signature.parameterTypes));
+    }
+
+    /**
+     * 获取指定类型和其父类型、接口中声明的所有非抽象方法，规则参照{@link ReflectUtil#getAllMethod(Class)}
+     * 
+     * @param clazz
+     *            class
+     * @return 所有方法，不可修改
+     */
+    static List<Method> getAllMethod(Class<?> clazz) {
+        ClassMetadata metadata = CACHE.get(clazz);
+        List<Method> allMethods = metadata.allMethods;
+        if (allMethods != null) {
+            HIT.increment();
+            return allMethods;
+        }
+
+        MISS.increment();
+        allMethods = Collections.unmodifiableList(new ArrayList<>(findAllMethod(clazz, new HashMap<>()).values()));
+        metadata.allMethods = allMethods;
+        return allMethods;
+    }
+
+    /**
+     * 获取指定public构造器
+     * 
+     * @param clazz
+     *            class
+     * @param parameterTypes
+     *            构造器参数类型
+     * @param <T>
+     *            class实际类型
+     * @return 构造器，不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Constructor<T> getConstructor(Class<T> clazz, Class<?>[] parameterTypes) {
+        return (Constructor<T>)lookup(CACHE.get(clazz).constructors, new Signature(null, parameterTypes, false),
+            isCacheSafe(clazz, parameterTypes), signature -> {
+                try {
+                    return tryAllowAccess(clazz.getConstructor(signature.parameterTypes));
+                } catch (NoSuchMethodException e) {
+                    return null;
+                }
+            });
+    }
+
+    /**
+     * 从缓存中查找，缓存中不存在时计算并放入缓存
+     * 
+     * @param cache
+     *            缓存
+     * @param key
+     *            key
+     * @param cacheable
+     *            key是否可以放入缓存，不可以时直接计算
+     * @param loader
+     *            计算函数，返回null表示不存在
+     * @param <K>
+     *            key类型
+     * @param <V>
+     *            value类型
+     * @return 查找结果，不存在时返回null
+     */
+    private static <K, V> V lookup(Map<K, Optional<V>> cache, K key, boolean cacheable, Function<K, V> loader) {
+        if (!cacheable) {
+            MISS.increment();
+            return loader.apply(key);
+        }
+
+        Optional<V> result = cache.get(key);
+        if (result != null) {
+            HIT.increment();
+            return result.orElse(null);
+        }
+
+        MISS.increment();
+        result = Optional.ofNullable(loader.apply(key));
+        cache.put(key, result);
+        return result.orElse(null);
+    }
+
+    /**
+     * 判断参数类型能否作为指定class缓存的key，参数类型的classloader必须是class的classloader或者其祖先，否则缓存会通过key持有其他
+     * classloader（例如子classloader）中的class，导致其无法卸载
+     * 
+     * @param clazz
+     *            缓存所属class
+     * @param parameterTypes
+     *            参数类型，允许为null
+     * @return true表示可以缓存
+     */
+    private static boolean isCacheSafe(Class<?> clazz, Class<?>[] parameterTypes) {
+        if (parameterTypes == null || parameterTypes.length == 0) {
+            return true;
+        }
+
+        ClassLoader loader = clazz.getClassLoader();
+        for (Class<?> parameterType : parameterTypes) {
+            ClassLoader target = parameterType == null ? null : parameterType.getClassLoader();
+            if (target == null || target == loader) {
+                continue;
+            }
+
+            // class由启动类加载器加载时，只有启动类加载器加载的class是可见的
+            if (loader == null) {
+                return false;
+            }
+
+            ClassLoader current = loader.getParent();
+            while (current != null && current != target) {
+                current = current.getParent();
+            }
+
+            if (current == null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 尝试修改访问权限，无法修改时（例如JDK9及以上版本中模块未开放的成员）保持原样；public成员不修改访问权限也可以访问
+     * 
+     * @param object
+     *            字段、方法或者构造器
+     * @param <T>
+     *            实际类型
+     * @return 传入的对象
+     */
+    @SuppressWarnings("deprecation")
+    private static <T extends AccessibleObject> T tryAllowAccess(T object) {
+        if (!object.isAccessible()) {
+            try {
+                object.setAccessible(true);
+            } catch (RuntimeException e) {
+                // JDK9及以上版本会抛出InaccessibleObjectException，这里忽略
+            }
+        }
+        return object;
+    }
+
+    /**
+     * 查找方法，不使用缓存
+     * 
+     * @param clazz
+     *            类型
+     * @param methodName
+     *            方法名
+     * @param recursive
+     *            是否递归查找父类、接口方法
+     * @param parameterTypes
+     *            方法参数类型
+     * @return 方法，不存在时返回null
+     */
+    private static Method findMethod(Class<?> clazz, String methodName, boolean recursive, Class<?>[] parameterTypes) {
+        // 优先查找本类
+        try {
+            return tryAllowAccess(clazz.getDeclaredMethod(methodName, parameterTypes));
+        } catch (NoSuchMethodException e) {
+            if (!recursive) {
+                return null;
+            }
+        }
+
+        // 本类不存在并且允许递归，递归查找父类
+        Method method = null;
+        if (clazz.getSuperclass() != null) {
+            method = findMethod(clazz.getSuperclass(), methodName, true, parameterTypes);
+        }
+
+        if (method != null) {
+            return method;
+        }
+
+        // 如果父类不存在或者父类中没有该方法，递归查找接口
+        for (Class<?> anInterface : clazz.getInterfaces()) {
+            method = findMethod(anInterface, methodName, true, parameterTypes);
+            if (method != null) {
+                return method;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 获取指定类的所有方法（包含父类方法），不使用缓存
+     *
+     * @param clazz
+     *            Class类型
+     * @param methods
+     *            方法集合
+     * @return 方法集合
+     */
+    private static Map<String, Method> findAllMethod(Class<?> clazz, Map<String, Method> methods) {
+        if (clazz == null) {
+            return methods;
+        }
+
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (AccessorUtil.isPrivate(method) || AccessorUtil.isFinal(method) || AccessorUtil.isStatic(method)) {
+                // 私有方法、final方法、static方法都是子类没办法继承覆写的，所以直接加入就行,同时因为私有方法、静态方法父类与子类可以存在同
+                // 名、同参的方法的情况，所以需要用method.toGenericString()作为key而不是下边那种形式
+                methods.put(method.toGenericString(), method);
+            } else {
+                String key = String.format("%s:%s", method.getName(), Arrays.toString(method.getParameterTypes()));
+
+                // 如果已经存在，那么说明子类对该方法进行了继承覆写，就不用放进去了
+                methods.putIfAbsent(key, method);
+            }
+        }
+
+        for (Class<?> anInterface : clazz.getInterfaces()) {
+            findAllMethod(anInterface, methods);
+        }
+
+        return findAllMethod(clazz.getSuperclass(), methods);
+    }
+
+    /**
+     * 方法、构造器签名，作为缓存key
+     */
+    private static final class Signature {
+
+        private static final Class<?>[] EMPTY = new Class<?>[0];
+
+        /**
+         * 方法名，构造器时为null
+         */
+        private final String name;
+
+        /**
+         * 参数类型
+         */
+        private final Class<?>[] parameterTypes;
+
+        /**
+         * 是否递归查找
+         */
+        private final boolean recursive;
+
+        private final int hash;
+
+        Signature(String name, Class<?>[] parameterTypes, boolean recursive) {
+            this.name = name;
+            // 调用方可能会修改参数数组，这里复制一份
+            this.parameterTypes = parameterTypes == null ? EMPTY : parameterTypes.clone();
+            this.recursive = recursive;
+            int h = name == null ? 0 : name.hashCode();
+            h = 31 * h + Arrays.hashCode(this.parameterTypes);
+            this.hash = 31 * h + (recursive ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Signature)) {
+                return false;
+            }
+
+            Signature other = (Signature)obj;
+            return hash == other.hash && recursive == other.recursive
+                && (name == null ? other.name == null : name.equals(other.name))
+                && Arrays.equals(parameterTypes, other.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 单个class的反射元数据
+     */
+    private static final class ClassMetadata {
+
+        /**
+         * 本类声明的所有字段，key是字段名，按照声明顺序排列，延迟初始化
+         */
+        private volatile Map<String, Field> declaredFieldIndex;
+
+        /**
+         * 递归查找字段的结果
+         */
+        private final Map<String, Optional<Field>> fields = new ConcurrentHashMap<>();
+
+        /**
+         * 方法查找结果
+         */
+        private final Map<Signature, Optional<Method>> methods = new ConcurrentHashMap<>();
+
+        /**
+         * 构造器查找结果
+         */
+        private final Map<Signature, Optional<Constructor<?>>> constructors = new ConcurrentHashMap<>();
+
+        /**
+         * 所有字段（包含父类），延迟初始化
+         */
+        private volatile Field[] allFields;
+
+        /**
+         * 所有方法（包含父类、接口），延迟初始化
+         */
+        private volatile List<Method> allMethods;
+    }
+
+}
@@ -147,41 +147,8 @@ public class ReflectUtil {
      * @return 指定类型和其父类型、接口中声明的所有方法（除了Object中声明的方法）
      */
     public static List<Method> getAllMethod(Class<?> clazz) {
-        Map<String, Method> methodMap = getAllMethod(clazz, new HashMap<>());
-        return new ArrayList<>(methodMap.values());
-    }
-
-    /**
-     * 获取指定类的所有方法（包含父类方法）
-     *
-     * @param clazz
-     *            Class类型
-     * @param methods
-     *            方法集合
-     * @return 方法集合
-     */
-    private static Map<String, Method> getAllMethod(Class<?> clazz, Map<String, Method> methods) {
-        if (clazz == null) {
-            return methods;
-        }
-
-        Arrays.stream(clazz.getDeclaredMethods()).forEach(method -> {
-            if (AccessorUtil.isPrivate(method) || AccessorUtil.isFinal(method) || AccessorUtil.isStatic(method)) {
-                // 私有方法、final方法、static方法都是子类没办法继承覆写的，所以直接加入就行,同时因为私有方法、静态方法父类与子类可以存在同
-                // 名、同参的方法的情况，所以需要用method.toGenericString()作为key而不是下边那种形式
-                methods.put(method.toGenericString(), method);
-            } else {
-                String key = String.format("%s:%s", method.getName(), Arrays.toString(method.getParameterTypes()));
-
-                // 如果已经存在，那么说明子类对该方法进行了继承覆写，就不用放进去了
-                methods.putIfAbsent(key, method);
-            }
-
-        });
-
-        Arrays.stream(clazz.getInterfaces()).forEach(c -> getAllMethod(c, methods));
-
-        return getAllMethod(clazz.getSuperclass(), methods);
+        Assert.argNotNull(clazz, "clazz");
+        return new ArrayList<>(ReflectCache.getAllMethod(clazz));
     }
 
     /**
@@ -402,22 +369,13 @@ public class ReflectUtil {
             clazz = obj.getClass();
         }
 
-        try {
-            return allowAccess(clazz.getDeclaredField(fieldName));
-        } catch (NoSuchFieldException e) {
-            Class<?> superClass = clazz.getSuperclass();
-            // 判断父类是否是Object
-            if (superClass.equals(Object.class) || !isRecursive) {
-                if (throwIfAbsent) {
-                    throw new CommonException(ErrorCodeEnum.REFLECT_SECURE_EXCEPTION,
-                        StringUtils.format("[{}]中不存在字段[{}]", obj, fieldName));
-                } else {
-                    return null;
-                }
-            } else {
-                return getField(superClass, fieldName, isRecursive, throwIfAbsent);
-            }
+        Field field = ReflectCache.getField(clazz, fieldName, isRecursive);
+        if (field == null && throwIfAbsent) {
+            throw new CommonException(ErrorCodeEnum.REFLECT_SECURE_EXCEPTION,
+                StringUtils.format("[{}]中不存在字段[{}]", obj, fieldName));
         }
+
+        return field;
     }
 
     /**
@@ -430,18 +388,8 @@ public class ReflectUtil {
     public static Field[] getAllFields(Class<?> clazz) {
         Assert.argNotNull(clazz, "clazz");
 
-        List<Field> fields = new ArrayList<>(Arrays.asList(clazz.getDeclaredFields()));
-
-        // 查找是否存在父类，如果存在且不是Object那么查找父类的field
-        Class<?> superClass = clazz.getSuperclass();
-
-        // 遍历设置访问权限，同时加入单个field的缓存
-        fields.forEach(ReflectUtil::allowAccess);
-
-        if (superClass != null && superClass != Object.class) {
-            fields.addAll(Arrays.asList(getAllFields(superClass)));
-        }
-        return fields.toArray(new Field[0]);
+        // 缓存的数组不能被外部修改，这里返回副本
+        return ReflectCache.getAllFields(clazz).clone();
     }
 
     /**
@@ -481,37 +429,14 @@ public class ReflectUtil {
         Assert.argNotNull(clazz, "clazz");
         Assert.argNotBlank(methodName, "methodName");
 
-        // 优先查找本类
-        Method method = null;
-        try {
-            return allowAccess(clazz.getDeclaredMethod(methodName, parameterTypes));
-        } catch (NoSuchMethodException e) {
-            // 如果不允许递归，直接抛出异常
-            if (!recursive) {
-                throw new CommonException(ErrorCodeEnum.CODE_ERROR, StringUtils.format("类[{}]中不存在方法名为[{}]、方法列表为[{}]的方法",
-                    clazz, methodName, parameterTypes == null ? StringConst.NULL : Arrays.toString(parameterTypes)), e);
-            }
-        }
-
-        // 本类不存在并且允许递归，递归查找父类
-        if (clazz.getSuperclass() != null) {
-            method = getMethodIfExist(clazz.getSuperclass(), methodName, true, parameterTypes);
-        }
-
-        if (method != null) {
-            return method;
-        }
-
-        // 如果父类不存在或者父类中没有该方法，递归查找接口
-        for (Class<?> anInterface : clazz.getInterfaces()) {
-            method = getMethodIfExist(anInterface, methodName, true, parameterTypes);
-            if (method != null) {
-                return method;
-            }
+        Method method = ReflectCache.getMethod(clazz, methodName, recursive, parameterTypes);
+        // 如果不允许递归，直接抛出异常
+        if (method == null && !recursive) {
+            throw new CommonException(ErrorCodeEnum.CODE_ERROR, StringUtils.format("类[{}]中不存在方法名为[{}]、方法列表为[{}]的方法",
+                clazz, methodName, parameterTypes == null ? StringConst.NULL : Arrays.toString(parameterTypes)));
         }
 
-        // 最后，如果都不存在，返回null
-        return null;
+        return method;
     }
 
 }
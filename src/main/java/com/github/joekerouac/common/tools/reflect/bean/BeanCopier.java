@@ -0,0 +1,377 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.reflect.bean;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.joekerouac.common.tools.reflect.type.JavaTypeUtil;
+import com.github.joekerouac.common.tools.util.Assert;
+
+/**
+ * bean复制器，将源class中的字段复制到目标class的同名字段（或者{@link Alias}指定的字段）中，与 {@link BeanUtils#copyFromObjToObj(Object, Object)}语义一致；
+ * 
+ * 每对（源class，目标class）只会解析一次：字段匹配、{@link Alias}、{@link Ignore}、类型转换器选择都在创建时完成，复制时只需要顺序执行
+ * 预先生成的字段复制计划，字段读写使用{@link LambdaPropertyEditor}，原生类型字段之间复制时不会装箱；
+ * 
+ * 缓存的两层key都使用{@link ClassValue}，源class、目标class都不会被对方的缓存强引用；{@link TypeConverterRegistry}变更后会整体替换缓存， 旧的复制器不会继续留在缓存中
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 20:30:00
+ * @since 2.1.6
+ */
+public final class BeanCopier {
+
+    /**
+     * 复制器缓存，{@link TypeConverterRegistry}变更后替换
+     */
+    private static volatile CopierCache cache = new CopierCache(TypeConverterRegistry.getVersion());
+
+    /**
+     * 源class
+     */
+    private final Class<?> sourceClass;
+
+    /**
+     * 目标class
+     */
+    private final Class<?> destClass;
+
+    /**
+     * 字段复制计划
+     */
+    private final FieldCopier[] fieldCopiers;
+
+    private BeanCopier(Class<?> sourceClass, Class<?> destClass) {
+        this.sourceClass = sourceClass;
+        this.destClass = destClass;
+
+        BeanMetadata destMetadata = BeanMetadata.of(destClass);
+        List<FieldCopier> copiers = new ArrayList<>();
+
+        for (BeanMetadata.Property srcProperty : BeanMetadata.of(sourceClass).getProperties()) {
+            if (srcProperty.isIgnore()) {
+                continue;
+            }
+
+            PropertyEditor writer = destMetadata.getPropertyEditor(srcProperty.getName());
+            if (writer == null && srcProperty.getAlias() != null) {
+                writer = destMetadata.getPropertyEditor(srcProperty.getAlias().value());
+            }
+
+            // 目标字段不存在
+            if (writer == null) {
+                continue;
+            }
+
+            FieldCopier fieldCopier = FieldCopier.build(srcProperty, writer);
+            if (fieldCopier != null) {
+                copiers.add(fieldCopier);
+            }
+        }
+
+        this.fieldCopiers = copiers.toArray(new FieldCopier[0]);
+    }
+
+    /**
+     * 获取指定源class到目标class的复制器，复制器会被缓存
+     * 
+     * @param sourceClass
+     *            源class
+     * @param destClass
+     *            目标class
+     * @return 复制器
+     */
+    public static BeanCopier of(Class<?> sourceClass, Class<?> destClass) {
+        Assert.argNotNull(sourceClass, "sourceClass");
+        Assert.argNotNull(destClass, "destClass");
+
+        // 注意，版本号要在创建复制器（选择转换器）之前获取，这样并发变更时缓存只会过期不会漏掉变更
+        int version = TypeConverterRegistry.getVersion();
+        CopierCache current = cache;
+        if (current.converterVersion != version) {
+            current = new CopierCache(version);
+            cache = current;
+        }
+        return current.copiers.get(sourceClass).get(destClass);
+    }
+
+    /**
+     * 将source中的字段复制到dest中，source中为null的字段不会复制，目标字段写入异常时会忽略该字段
+     * 
+     * @param source
+     *            源对象，class必须是{@link #getSourceClass()}
+     * @param dest
+     *            目标对象，class必须是{@link #getDestClass()}
+     * @param <E>
+     *            目标对象实际类型
+     * @return 目标对象
+     */
+    public <E> E copy(Object source, E dest) {
+        Assert.argNotNull(source, "source");
+        Assert.argNotNull(dest, "dest");
+
+        for (FieldCopier fieldCopier : fieldCopiers) {
+            fieldCopier.copy(source, dest);
+        }
+
+        return dest;
+    }
+
+    /**
+     * 源class
+     * 
+     * @return 源class
+     */
+    public Class<?> getSourceClass() {
+        return sourceClass;
+    }
+
+    /**
+     * 目标class
+     * 
+     * @return 目标class
+     */
+    public Class<?> getDestClass() {
+        return destClass;
+    }
+
+    /**
+     * 复制模式
+     */
+    private enum CopyMode {
+
+        /**
+         * 直接复制，源字段类型是目标字段类型的子类或者目标字段是原生类型
+         */
+        COPY,
+
+        /**
+         * 源字段的实际类型是确定的（原生类型或者final类），使用预先选择好的转换器转换后复制
+         */
+        CONVERT,
+
+        /**
+         * 源字段的实际类型不确定，复制时根据实际类型判断是否需要转换
+         */
+        DYNAMIC,
+
+        /**
+         * int字段复制到int字段
+         */
+        INT,
+
+        /**
+         * long字段复制到long字段
+         */
+        LONG,
+
+        /**
+         * double字段复制到double字段
+         */
+        DOUBLE,;
+    }
+
+    /**
+     * 单个字段的复制计划
+     */
+    private static final class FieldCopier {
+
+        /**
+         * 源字段读取器，直接读取字段，不使用get方法
+         */
+        private final PropertyEditor reader;
+
+        /**
+         * 目标字段写入器，优先使用set方法
+         */
+        private final PropertyEditor writer;
+
+        /**
+         * 目标字段类型
+         */
+        private final Class<?> targetType;
+
+        /**
+         * 源字段上的注解，转换时使用
+         */
+        private final Annotation[] annotations;
+
+        /**
+         * 复制模式
+         */
+        private final CopyMode mode;
+
+        /**
+         * {@link CopyMode#CONVERT}模式下使用的转换器
+         */
+        private final TypeConverter converter;
+
+        private FieldCopier(PropertyEditor reader, PropertyEditor writer, Annotation[] annotations, CopyMode mode,
+            TypeConverter converter) {
+            this.reader = reader;
+            this.writer = writer;
+            this.targetType = writer.type();
+            this.annotations = annotations;
+            this.mode = mode;
+            this.converter = converter;
+        }
+
+        /**
+         * 构建字段复制计划
+         * 
+         * @param srcProperty
+         *            源字段
+         * @param writer
+         *            目标字段写入器
+         * @return 复制计划，如果源字段一定无法复制到目标字段（没有合适的转换器）则返回null
+         */
+        static FieldCopier build(BeanMetadata.Property srcProperty, PropertyEditor writer) {
+            PropertyEditor reader = srcProperty.getFieldEditor();
+            Field srcField = srcProperty.getField();
+            Annotation[] annotations = srcField.getAnnotations();
+
+            Class<?> srcType = srcField.getType();
+            Class<?> targetType = writer.type();
+
+            if (srcType == targetType && srcType == int.class) {
+                return new FieldCopier(reader, writer, annotations, CopyMode.INT, null);
+            } else if (srcType == targetType && srcType == long.class) {
+                return new FieldCopier(reader, writer, annotations, CopyMode.LONG, null);
+            } else if (srcType == targetType && srcType == double.class) {
+                return new FieldCopier(reader, writer, annotations, CopyMode.DOUBLE, null);
+            }
+
+            Class<?> valueType = srcType.isPrimitive() ? JavaTypeUtil.boxed(srcType) : srcType;
+
+            // 目标是原始类型时不转换（装箱拆箱太麻烦，这里不处理），直接尝试写入
+            if (JavaTypeUtil.isGeneralType(targetType) || targetType.isAssignableFrom(valueType)) {
+                return new FieldCopier(reader, writer, annotations, CopyMode.COPY, null);
+            }
+
+            // 源字段的实际类型可以确定，直接选择转换器，找不到转换器时该字段无法复制
+            if (srcType.isPrimitive() || (!srcType.isArray() && Modifier.isFinal(srcType.getModifiers()))) {
+                TypeConverter converter = TypeConverterRegistry.findConverter(valueType, targetType);
+                return converter == null ? null
+                    : new FieldCopier(reader, writer, annotations, CopyMode.CONVERT, converter);
+            }
+
+            return new FieldCopier(reader, writer, annotations, CopyMode.DYNAMIC, null);
+        }
+
+        /**
+         * 复制字段
+         * 
+         * @param source
+         *            源对象
+         * @param dest
+         *            目标对象
+         */
+        void copy(Object source, Object dest) {
+            switch (mode) {
+                case INT:
+                    int intValue = reader.readInt(source);
+                    try {
+                        writer.writeInt(dest, intValue);
+                    } catch (Throwable throwable) {
+                        // 忽略异常
+                    }
+                    return;
+                case LONG:
+                    long longValue = reader.readLong(source);
+                    try {
+                        writer.writeLong(dest, longValue);
+                    } catch (Throwable throwable) {
+                        // 忽略异常
+                    }
+                    return;
+                case DOUBLE:
+                    double doubleValue = reader.readDouble(source);
+                    try {
+                        writer.writeDouble(dest, doubleValue);
+                    } catch (Throwable throwable) {
+                        // 忽略异常
+                    }
+                    return;
+                default:
+                    break;
+            }
+
+            Object value = reader.read(source);
+            if (value == null) {
+                return;
+            }
+
+            if (mode == CopyMode.CONVERT) {
+                value = converter.convert(value, annotations, targetType);
+            } else if (mode == CopyMode.DYNAMIC && !targetType.isAssignableFrom(value.getClass())) {
+                TypeConverter use = TypeConverterRegistry.findConverter(value.getClass(), targetType);
+                // 找不到转换器，该字段无法注入
+                if (use == null) {
+                    return;
+                }
+                value = use.convert(value, annotations, targetType);
+            }
+
+            try {
+                // 这里使用PropertyEditor的方式写入字段值，也就是优先调用set方法
+                writer.write(dest, value);
+            } catch (Throwable throwable) {
+                // 忽略异常
+            }
+        }
+    }
+
+    /**
+     * 复制器缓存，第一层key是源class，第二层key是目标class
+     */
+    private static final class CopierCache {
+
+        /**
+         * 创建缓存时{@link TypeConverterRegistry}的版本
+         */
+        private final int converterVersion;
+
+        private final ClassValue<DestCopiers> copiers = new ClassValue<DestCopiers>() {
+            @Override
+            protected DestCopiers computeValue(Class<?> sourceClass) {
+                return new DestCopiers(sourceClass);
+            }
+        };
+
+        CopierCache(int converterVersion) {
+            this.converterVersion = converterVersion;
+        }
+    }
+
+    /**
+     * 指定源class到各个目标class的复制器缓存，注意不能是匿名类，否则会引用外层的缓存，导致缓存替换后旧缓存仍然被源class引用
+     */
+    private static final class DestCopiers extends ClassValue<BeanCopier> {
+
+        private final Class<?> sourceClass;
+
+        DestCopiers(Class<?> sourceClass) {
+            this.sourceClass = sourceClass;
+        }
+
+        @Override
+        protected BeanCopier computeValue(Class<?> destClass) {
+            return new BeanCopier(sourceClass, destClass);
+        }
+    }
+
+}
@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.reflect.bean;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.joekerouac.common.tools.reflect.AccessorUtil;
+import com.github.joekerouac.common.tools.reflect.ReflectUtil;
+import com.github.joekerouac.common.tools.string.StringUtils;
+import com.github.joekerouac.common.tools.util.Assert;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * bean元数据，包含class的所有字段编辑器、字段注解以及字段名索引；
+ * 
+ * 元数据是不可变的，每个class只会解析一次，使用{@link ClassValue}缓存，不会阻止class（以及对应的classloader）卸载；
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 18:00:00
+ * @since 2.1.6
+ */
+public final class BeanMetadata {
+
+    /**
+     * 元数据缓存
+     */
+    private static final ClassValue<BeanMetadata> CACHE = new ClassValue<BeanMetadata>() {
+        @Override
+        protected BeanMetadata computeValue(Class<?> type) {
+            return new BeanMetadata(type);
+        }
+    };
+
+    /**
+     * 元数据对应的class
+     */
+    private final Class<?> type;
+
+    /**
+     * 所有字段编辑器，顺序与{@link ReflectUtil#getAllFields(Class)}一致
+     */
+    private final PropertyEditor[] propertyEditors;
+
+    /**
+     * 所有字段元数据，顺序与{@link #propertyEditors}一致
+     */
+    private final List<Property> properties;
+
+    /**
+     * 字段名索引，如果子类和父类有同名字段，以子类为准
+     */
+    private final Map<String, Property> nameIndex;
+
+    /**
+     * 别名索引，key是{@link Alias}注解的值，如果多个字段别名相同，以第一个为准
+     */
+    private final Map<String, Property> aliasIndex;
+
+    private BeanMetadata(Class<?> type) {
+        this.type = type;
+
+        Field[] fields = ReflectUtil.getAllFields(type);
+        PropertyEditor[] propertyEditors = new PropertyEditor[fields.length];
+        List<Property> properties = new ArrayList<>(fields.length);
+        Map<String, Property> nameIndex = new HashMap<>();
+        Map<String, Property> aliasIndex = new HashMap<>();
+
+        for (int i = 0; i < fields.length; i++) {
+            PropertyEditor propertyEditor = BeanUtils.createPropertyEditor(fields[i], type);
+            Property property = new Property(propertyEditor, type);
+
+            propertyEditors[i] = propertyEditor;
+            properties.add(property);
+            nameIndex.putIfAbsent(property.getName(), property);
+            if (property.getAlias() != null) {
+                aliasIndex.putIfAbsent(property.getAlias().value(), property);
+            }
+        }
+
+        this.propertyEditors = propertyEditors;
+        this.properties = Collections.unmodifiableList(properties);
+        this.nameIndex = nameIndex;
+        this.aliasIndex = aliasIndex;
+    }
+
+    /**
+     * 获取指定class的元数据
+     *
+     * @param type
+     *            class，不能为null
+     * @return 元数据
+     */
+    public static BeanMetadata of(Class<?> type) {
+        Assert.argNotNull(type, "type");
+        return CACHE.get(type);
+    }
+
+    /**
+     * 元数据对应的class
+     *
+     * @return class
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * 获取所有字段编辑器
+     *
+     * @return 所有字段编辑器的副本，调用方可以随意修改
+     */
+    public PropertyEditor[] getPropertyEditors() {
+        return propertyEditors.clone();
+    }
+
+    /**
+     * 获取所有字段元数据
+     *
+     * @return 所有字段元数据，不可修改
+     */
+    public List<Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * 根据字段名获取字段编辑器
+     *
+     * @param name
+     *            字段名
+     * @return 字段编辑器，不存在时返回null
+     */
+    public PropertyEditor getPropertyEditor(String name) {
+        Property property = nameIndex.get(name);
+        return property == null ? null : property.getPropertyEditor();
+    }
+
+    /**
+     * 根据字段名获取字段元数据
+     *
+     * @param name
+     *            字段名
+     * @return 字段元数据，不存在时返回null
+     */
+    public Property getProperty(String name) {
+        return nameIndex.get(name);
+    }
+
+    /**
+     * 根据{@link Alias}注解的值获取字段元数据
+     *
+     * @param alias
+     *            别名
+     * @return 字段元数据，不存在时返回null
+     */
+    public Property getPropertyByAlias(String alias) {
+        return aliasIndex.get(alias);
+    }
+
+    /**
+     * 字段元数据
+     */
+    @Getter
+    public static final class Property {
+
+        /**
+         * 字段编辑器
+         */
+        private final PropertyEditor propertyEditor;
+
+        /**
+         * 字段上的{@link Alias}注解
+         */
+        private final Alias alias;
+
+        /**
+         * 字段是否有{@link Ignore}注解
+         */
+        private final boolean ignore;
+
+        /**
+         * 字段是否是静态字段
+         */
+        private final boolean staticField;
+
+        /**
+         * 字段是否是transient字段
+         */
+        private final boolean transientField;
+
+        /**
+         * 字段映射名，存在{@link Alias}注解并且注解值不为空时使用注解值，否则使用字段名
+         */
+        private final String mappedName;
+
+        /**
+         * 字段所属class
+         */
+        @Getter(AccessLevel.NONE)
+        private final Class<?> owner;
+
+        /**
+         * 直接读写字段（不使用get、set方法）的字段编辑器，首次使用时创建
+         */
+        @Getter(AccessLevel.NONE)
+        private volatile PropertyEditor fieldEditor;
+
+        private Property(PropertyEditor propertyEditor, Class<?> owner) {
+            Field field = propertyEditor.original();
+
+            this.propertyEditor = propertyEditor;
+            this.owner = owner;
+            this.alias = field.getAnnotation(Alias.class);
+            this.ignore = field.getAnnotation(Ignore.class) != null;
+            this.staticField = AccessorUtil.isStatic(field);
+            this.transientField = AccessorUtil.isTransient(field);
+            this.mappedName =
+                (alias == null || StringUtils.isBlank(alias.value())) ? propertyEditor.name() : alias.value();
+        }
+
+        /**
+         * 获取原始字段
+         *
+         * @return 原始字段
+         */
+        public Field getField() {
+            return propertyEditor.original();
+        }
+
+        /**
+         * 获取字段名
+         *
+         * @return 字段名
+         */
+        public String getName() {
+            return propertyEditor.name();
+        }
+
+        /**
+         * 获取直接读写字段（不使用get、set方法）的字段编辑器，字段没有get、set方法时就是{@link #getPropertyEditor()}
+         *
+         * @return 字段编辑器
+         */
+        PropertyEditor getFieldEditor() {
+            PropertyEditor editor = fieldEditor;
+            if (editor == null) {
+                editor = propertyEditor.hasReadMethod() || propertyEditor.hasWriteMethod()
+                    ? new LambdaPropertyEditor(propertyEditor.original(), owner, null, null) : propertyEditor;
+                fieldEditor = editor;
+            }
+            return editor;
+        }
+    }
+
+}
@@ -33,7 +33,6 @@ import com.github.joekerouac.common.tools.constant.StringConst;
 import com.github.joekerouac.common.tools.date.DateUtil;
 import com.github.joekerouac.common.tools.enums.ErrorCodeEnum;
 import com.github.joekerouac.common.tools.exception.CommonException;
-import com.github.joekerouac.common.tools.reflect.AccessorUtil;
 import com.github.joekerouac.common.tools.reflect.ReflectUtil;
 import com.github.joekerouac.common.tools.reflect.type.JavaTypeUtil;
 import com.github.joekerouac.common.tools.string.StringUtils;
@@ -161,26 +160,17 @@ public class BeanUtils {
 
             // 防止递归
             if (set.add(pojo)) {
-                PropertyEditor[] propertyDescriptors = getPropertyDescriptors(pojoClass);
-                for (PropertyEditor propertyDescriptor : propertyDescriptors) {
-                    // 跳过静态字段和transient字段
-                    Field original = propertyDescriptor.original();
-                    if (AccessorUtil.isStatic(original) || AccessorUtil.isTransient(original)) {
+                for (BeanMetadata.Property property : BeanMetadata.of(pojoClass).getProperties()) {
+                    // 跳过静态字段、transient字段以及忽略的字段
+                    if (property.isStaticField() || property.isTransientField() || property.isIgnore()) {
                         continue;
                     }
 
-                    Ignore ignore = propertyDescriptor.getAnnotation(Ignore.class);
-                    if (ignore != null) {
-                        continue;
-                    }
-
-                    Alias alias = propertyDescriptor.getAnnotation(Alias.class);
                     String name = null;
                     try {
-                        Object value = propertyDescriptor.read(pojo);
+                        Object value = property.getPropertyEditor().read(pojo);
 
-                        name = (alias == null || StringUtils.isBlank(alias.value())) ? propertyDescriptor.name()
-                            : alias.value();
+                        name = property.getMappedName();
                         name = StringUtils.isBlank(prefix) ? name : prefix + StringConst.DOT + name;
 
                         convertToPlaceholder(value, name, resultMap, hasNull, set);
@@ -225,24 +215,21 @@ public class BeanUtils {
         LOGGER.debug("获取[{}]的字段映射", pojo);
         Assert.argNotNull(pojo, "pojo");
 
-        Field[] fields = getAllFields(pojo.getClass());
+        List<BeanMetadata.Property> properties = BeanMetadata.of(pojo.getClass()).getProperties();
         Map<String, T> map = new HashMap<>();
-        if (fields.length == 0) {
+        if (properties.isEmpty()) {
             return Collections.emptyMap();
         }
-        for (Field field : fields) {
-            LOGGER.debug("获取字段[{}]的值", field);
-            Ignore ignore = field.getAnnotation(Ignore.class);
-            if (ignore != null) {
+        for (BeanMetadata.Property property : properties) {
+            LOGGER.debug("获取字段[{}]的值", property.getField());
+            if (property.isIgnore()) {
                 continue;
             }
 
-            Alias alias = field.getDeclaredAnnotation(Alias.class);
-
-            String name = (alias == null || StringUtils.isBlank(alias.value())) ? field.getName() : alias.value();
+            String name = property.getMappedName();
 
             try {
-                Object value = getFieldValue(pojo, field.getName());
+                Object value = getFieldValue(pojo, property.getField());
                 if (value == null && !hasNull) {
                     LOGGER.debug("字段[{}]值为null，当前不包含null值，忽略字段[{}]", name, name);
                     continue;
@@ -268,14 +255,11 @@ public class BeanUtils {
      */
     public static boolean setProperty(Object obj, String propName, Object value) {
         try {
-            Field field = getField(obj, propName, true);
-            if (field == null) {
+            PropertyEditor propertyEditor = BeanMetadata.of(typeOf(obj)).getPropertyEditor(propName);
+            if (propertyEditor == null) {
                 return false;
             }
 
-            PropertyEditor propertyEditor =
-                buildPropertyEditor(field, obj instanceof Class ? (Class<?>)obj : obj.getClass());
-
             propertyEditor.write(obj, value);
             return true;
         } catch (Throwable e) {
@@ -296,10 +280,14 @@ public class BeanUtils {
      */
 
     public static <T> T getProperty(Object obj, String propName) {
-        Field field = getField(obj, propName, true);
+        Assert.argNotNull(obj, "obj");
+        Assert.argNotNull(propName, "propName");
 
-        PropertyEditor propertyEditor =
-            buildPropertyEditor(field, obj instanceof Class ? (Class<?>)obj : obj.getClass());
+        PropertyEditor propertyEditor = BeanMetadata.of(typeOf(obj)).getPropertyEditor(propName);
+        if (propertyEditor == null) {
+            throw new CommonException(ErrorCodeEnum.REFLECT_SECURE_EXCEPTION,
+                StringUtils.format("[{}]中不存在字段[{}]", obj, propName));
+        }
 
         return propertyEditor.read(obj);
     }
@@ -320,16 +308,27 @@ public class BeanUtils {
         if (source == null || targetClass == null) {
             return null;
         }
-        E target;
+
+        return copyFromObjToObj(newInstance(targetClass), source);
+    }
+
+    /**
+     * 使用无参构造器实例化指定class
+     *
+     * @param targetClass
+     *            class
+     * @param <E>
+     *            实际类型
+     * @return 实例
+     */
+    private static <E> E newInstance(Class<E> targetClass) {
         try {
             // 没有权限访问该类或者该类（为接口、抽象类）不能实例化时将抛出异常
-            target = targetClass.newInstance();
+            return targetClass.newInstance();
         } catch (InstantiationException | IllegalAccessException e) {
             throw new CommonException(ErrorCodeEnum.REFLECT_SECURE_EXCEPTION,
                 StringUtils.format("target[{}]生成失败，请检查代码", targetClass), e);
         }
-
-        return copyFromObjToObj(target, source);
     }
 
     /**
@@ -378,30 +377,37 @@ public class BeanUtils {
             return dest;
         }
 
+        BeanMetadata destMetadata = BeanMetadata.of(typeOf(dest));
+
         if (source instanceof Map) {
             ((Map<?, ?>)source).forEach((key, value) -> {
                 if (key instanceof String && value != null) {
                     try {
-                        Field field = ReflectUtil.getField(dest, (String)key);
+                        PropertyEditor propertyEditor = destMetadata.getPropertyEditor((String)key);
+                        // 字段不存在
+                        if (propertyEditor == null) {
+                            return;
+                        }
+
+                        Class<?> fieldType = propertyEditor.type();
                         // 如果value是字段类型的子类型或者跟字段类型相同，那么设置为字段值
                         Object injectValue = value;
 
                         // 如果字段类型和注入值类型不一致，则尝试转换
-                        if (!field.getType().isAssignableFrom(injectValue.getClass())) {
-                            TypeConverter use = TypeConverterRegistry.findConverter(value.getClass(), field.getType());
+                        if (!fieldType.isAssignableFrom(injectValue.getClass())) {
+                            TypeConverter use = TypeConverterRegistry.findConverter(value.getClass(), fieldType);
 
                             if (use != null) {
-                                injectValue = use.convert(value, field.getType());
+                                injectValue = use.convert(value, fieldType);
                             }
                         }
 
                         // 如果此时仍然类型不一致，则停止该字段的注入
-                        if (!field.getType().isAssignableFrom(injectValue.getClass())) {
+                        if (!fieldType.isAssignableFrom(injectValue.getClass())) {
                             return;
                         }
 
                         // 这里要使用字段属性访问器去写入，优先调用set方法，不存在set方法再直接反射注入
-                        PropertyEditor propertyEditor = buildPropertyEditor(field, dest.getClass());
                         propertyEditor.write(dest, injectValue);
                     } catch (Throwable throwable) {
                         // 字段不存在或者其他异常，应该无法注入了，忽略
@@ -412,66 +418,8 @@ public class BeanUtils {
             return dest;
         }
 
-        Class<?> sourceClass = source.getClass();
-        String sourceName = sourceClass.getName();
-
-        Field[] srcFields = getAllFields(sourceClass);
-
-        if (srcFields.length == 0) {
-            LOGGER.debug("源{}中不存在已经声明的字段", sourceName);
-            return dest;
-        }
-
-        for (Field srcField : srcFields) {
-            Ignore ignore = srcField.getAnnotation(Ignore.class);
-            if (ignore != null) {
-                continue;
-            }
-
-            String fieldName = srcField.getName();
-
-            // 要注入的数据
-            Object srcData = getFieldValue(source, srcField);
-            if (srcData == null) {
-                continue;
-            }
-
-            Field targetField = getField(dest, fieldName, true, false);
-            Alias alias;
-            if (targetField == null && (alias = srcField.getAnnotation(Alias.class)) != null) {
-                targetField = getField(dest, alias.value(), true, false);
-            }
-
-            // 目标字段不存在
-            if (targetField == null) {
-                continue;
-            }
-
-            Class<?> targetType = targetField.getType();
-
-            // 如果源数据不是目标字段的字类，并且目标数据类型不是原始类型（装箱拆箱太麻烦，这里不处理），则尝试转换；
-            if (!targetType.isAssignableFrom(srcData.getClass()) && !JavaTypeUtil.isGeneralType(targetType)) {
-                TypeConverter converter = TypeConverterRegistry.findConverter(srcData.getClass(), targetType);
-                // 找不到转换器，该字段无法注入
-                if (converter == null) {
-                    continue;
-                }
-                // 将源数据转换为目标数据类型
-                srcData = converter.convert(srcData, srcField.getAnnotations(), targetType);
-            }
-
-            try {
-                // 这里使用PropertyEditor的方式写入字段值，也就是优先调用set方法
-                PropertyEditor propertyEditor =
-                    buildPropertyEditor(targetField, dest instanceof Class ? (Class<?>)dest : dest.getClass());
-                propertyEditor.write(dest, srcData);
-            } catch (Throwable throwable) {
-                // 忽略异常
-            }
-
-        }
-
-        return dest;
+        // 对象之间的复制使用缓存的复制器，字段匹配、别名、转换器选择只会解析一次
+        return BeanCopier.of(source.getClass(), typeOf(dest)).copy(source, dest);
     }
 
     /**
@@ -492,12 +440,28 @@ public class BeanUtils {
             return Collections.emptyList();
         }
         List<E> list = new ArrayList<>(sourceList.size());
+        if (targetClass == null) {
+            return list;
+        }
 
+        // 列表中的对象通常是同一个class，这里复用同一个复制器
+        BeanCopier copier = null;
         for (S source : sourceList) {
-            E e = copyFromObjToClass(targetClass, source);
-            if (e != null) {
-                list.add(e);
+            if (source == null) {
+                continue;
             }
+
+            E target = newInstance(targetClass);
+            if (source instanceof Map) {
+                copyFromObjToObj(target, source);
+            } else {
+                if (copier == null || copier.getSourceClass() != source.getClass()) {
+                    copier = BeanCopier.of(source.getClass(), targetClass);
+                }
+                copier.copy(source, target);
+            }
+
+            list.add(target);
         }
         return list;
     }
@@ -514,32 +478,37 @@ public class BeanUtils {
             throw new CommonException(ErrorCodeEnum.CODE_ERROR, "clazz为null");
         }
 
-        Field[] fields = getAllFields(clazz);
-        PropertyEditor[] descriptors = new PropertyEditor[fields.length];
-
-        if (fields.length == 0) {
-            return descriptors;
-        }
+        return BeanMetadata.of(clazz).getPropertyEditors();
+    }
 
-        int j = 0;
-        for (Field field : fields) {
-            PropertyEditor descriptor = buildPropertyEditor(field, clazz);
-            descriptors[j++] = descriptor;
+    /**
+     * 构建字段编辑器，如果字段属于clazz（包括父类），将会直接返回{@link BeanMetadata}中缓存的编辑器
+     * 
+     * @param field
+     *            字段
+     * @param clazz
+     *            字段所属class
+     * @return 字段编辑器
+     */
+    public static PropertyEditor buildPropertyEditor(Field field, Class<?> clazz) {
+        PropertyEditor propertyEditor = BeanMetadata.of(clazz).getPropertyEditor(field.getName());
+        if (propertyEditor != null && propertyEditor.original().equals(field)) {
+            return propertyEditor;
         }
 
-        return descriptors;
+        return createPropertyEditor(field, clazz);
     }
 
     /**
-     * 构建字段编辑器
-     * 
+     * 创建字段编辑器，不使用缓存
+     *
      * @param field
      *            字段
      * @param clazz
      *            字段所属class
      * @return 字段编辑器
      */
-    public static PropertyEditor buildPropertyEditor(Field field, Class<?> clazz) {
+    static PropertyEditor createPropertyEditor(Field field, Class<?> clazz) {
         String fieldName = field.getName();
 
         // 首字母大写
@@ -560,7 +529,18 @@ public class BeanUtils {
             writeMethod = getMethod("set" + fieldName.substring(2), clazz, field.getType());
         }
 
-        return new SimplePropertyEditor(field, clazz, readMethod, writeMethod);
+        return new LambdaPropertyEditor(field, clazz, readMethod, writeMethod);
+    }
+
+    /**
+     * 获取对象对应的class，如果对象本身就是class则返回对象本身
+     *
+     * @param obj
+     *            对象
+     * @return class
+     */
+    private static Class<?> typeOf(Object obj) {
+        return obj instanceof Class ? (Class<?>)obj : obj.getClass();
     }
 
     /**
@@ -584,6 +564,11 @@ public class BeanUtils {
         return method;
     }
 
+    /**
+     * 基于反射的字段编辑器，每次读写都通过{@link Method#invoke(Object, Object...)}或者{@link Field#get(Object)}完成；
+     * 
+     * 注意：{@link BeanUtils}默认使用的是性能更好的{@link LambdaPropertyEditor}
+     */
     public final static class SimplePropertyEditor implements PropertyEditor {
 
         /**
@@ -606,7 +591,7 @@ public class BeanUtils {
          */
         private final Method writeMethod;
 
-        private SimplePropertyEditor(Field field, Class<?> owner, Method readMethod, Method writeMethod) {
+        SimplePropertyEditor(Field field, Class<?> owner, Method readMethod, Method writeMethod) {
             Assert.argNotNull(field, "field");
             Assert.argNotNull(owner, "owner");
 
@@ -0,0 +1,700 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.reflect.bean;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.github.joekerouac.common.tools.enums.EnumInterface;
+import com.github.joekerouac.common.tools.enums.ErrorCodeEnum;
+import com.github.joekerouac.common.tools.exception.BaseException;
+import com.github.joekerouac.common.tools.exception.CommonException;
+import com.github.joekerouac.common.tools.reflect.ReflectUtil;
+import com.github.joekerouac.common.tools.string.StringUtils;
+import com.github.joekerouac.common.tools.util.Assert;
+
+import lombok.CustomLog;
+
+/**
+ * 基于{@link LambdaMetafactory}的字段编辑器，创建时将读写方法绑定为函数式接口实例，后续读写等同于普通的接口调用，可以被JIT内联；
+ * 
+ * 绑定优先级如下：
+ * <ul>
+ * <li>读写方法、方法所属类、方法签名中的类型都是public并且对当前类加载器可见时，使用{@link LambdaMetafactory}绑定；</li>
+ * <li>否则（例如私有内部类、没有读写方法直接访问字段、静态方法等）使用{@link MethodHandle}绑定；</li>
+ * <li>{@link MethodHandle}也无法绑定时（例如static final字段的写入）使用反射；</li>
+ * </ul>
+ * 
+ * 对于int、long、double、boolean类型的字段，{@link #readInt(Object)}、{@link #writeInt(Object, int)}等方法会使用原生类型专用的函数式接口，
+ * 读写过程中没有装箱、拆箱；
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 19:30:00
+ * @since 2.1.6
+ */
+@CustomLog
+public final class LambdaPropertyEditor implements PropertyEditor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * 原始字段
+     */
+    private final Field field;
+
+    /**
+     * 字段所属类
+     */
+    private final Class<?> owner;
+
+    /**
+     * 读取方法
+     */
+    private final Method readMethod;
+
+    /**
+     * 写入方法
+     */
+    private final Method writeMethod;
+
+    /**
+     * 读取函数
+     */
+    private final Function<Object, Object> getter;
+
+    /**
+     * 写入函数
+     */
+    private final BiConsumer<Object, Object> setter;
+
+    /**
+     * int类型读取函数，字段不是int类型时为null
+     */
+    private final ToIntFunction<Object> intGetter;
+
+    /**
+     * int类型写入函数，字段不是int类型时为null
+     */
+    private final ObjIntConsumer<Object> intSetter;
+
+    /**
+     * long类型读取函数，字段不是long类型时为null
+     */
+    private final ToLongFunction<Object> longGetter;
+
+    /**
+     * long类型写入函数，字段不是long类型时为null
+     */
+    private final ObjLongConsumer<Object> longSetter;
+
+    /**
+     * double类型读取函数，字段不是double类型时为null
+     */
+    private final ToDoubleFunction<Object> doubleGetter;
+
+    /**
+     * double类型写入函数，字段不是double类型时为null
+     */
+    private final ObjDoubleConsumer<Object> doubleSetter;
+
+    /**
+     * boolean类型读取函数，字段不是boolean类型时为null
+     */
+    private final Predicate<Object> booleanGetter;
+
+    /**
+     * 构造器
+     * 
+     * @param field
+     *            字段
+     * @param owner
+     *            字段所属类
+     * @param readMethod
+     *            读取方法，允许为null，为null时直接读取字段
+     * @param writeMethod
+     *            写入方法，允许为null，为null时直接写入字段
+     */
+    LambdaPropertyEditor(Field field, Class<?> owner, Method readMethod, Method writeMethod) {
+        Assert.argNotNull(field, "field");
+        Assert.argNotNull(owner, "owner");
+
+        this.field = field;
+        this.owner = owner;
+        this.readMethod = readMethod;
+        this.writeMethod = writeMethod;
+
+        ReflectUtil.allowAccess(field);
+
+        if (readMethod != null) {
+            ReflectUtil.allowAccess(readMethod);
+        }
+
+        if (writeMethod != null) {
+            ReflectUtil.allowAccess(writeMethod);
+        }
+
+        MethodHandle readHandle = readHandle();
+        boolean readLambda = readMethod != null && canUseLambda(readMethod);
+        Class<?> readType = readHandle == null ? null : readHandle.type().returnType();
+
+        if (readHandle == null) {
+            this.getter = readMethod != null ? target -> ReflectUtil.invoke(target, readMethod)
+                : target -> ReflectUtil.getFieldValue(target, field);
+        } else {
+            this.getter = buildGetter(readHandle, readLambda);
+        }
+
+        this.intGetter = readType == int.class ? buildIntGetter(readHandle, readLambda) : null;
+        this.longGetter = readType == long.class ? buildLongGetter(readHandle, readLambda) : null;
+        this.doubleGetter = readType == double.class ? buildDoubleGetter(readHandle, readLambda) : null;
+        this.booleanGetter = readType == boolean.class ? buildBooleanGetter(readHandle, readLambda) : null;
+
+        MethodHandle writeHandle = writeHandle();
+        boolean writeLambda = writeMethod != null && canUseLambda(writeMethod);
+        Class<?> writeType = writeHandle == null ? null : writeHandle.type().parameterType(1);
+
+        if (writeHandle == null) {
+            this.setter = writeMethod != null ? (target, value) -> ReflectUtil.invoke(target, writeMethod, value)
+                : (target, value) -> ReflectUtil.setFieldValue(target, field, value);
+        } else {
+            this.setter = buildSetter(writeHandle, writeLambda);
+        }
+
+        this.intSetter = writeType == int.class ? buildIntSetter(writeHandle, writeLambda) : null;
+        this.longSetter = writeType == long.class ? buildLongSetter(writeHandle, writeLambda) : null;
+        this.doubleSetter = writeType == double.class ? buildDoubleSetter(writeHandle, writeLambda) : null;
+    }
+
+    @Override
+    public boolean hasWriteMethod() {
+        return writeMethod != null;
+    }
+
+    @Override
+    public boolean hasReadMethod() {
+        return readMethod != null;
+    }
+
+    @Override
+    public Field original() {
+        return field;
+    }
+
+    @Override
+    public String name() {
+        return field.getName();
+    }
+
+    @Override
+    public Class<?> type() {
+        return field.getType();
+    }
+
+    @Override
+    public Type getGenericType() {
+        return field.getGenericType();
+    }
+
+    @Override
+    public Class<?> owner() {
+        return owner;
+    }
+
+    @Override
+    public void write(Object target, Object value) {
+        try {
+            setter.accept(target, value);
+        } catch (Throwable e) {
+            throw fail("写入", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T read(Object target) {
+        try {
+            return (T)getter.apply(target);
+        } catch (Throwable e) {
+            throw fail("读取", e);
+        }
+    }
+
+    @Override
+    public int readInt(Object target) {
+        if (intGetter == null) {
+            return PropertyEditor.super.readInt(target);
+        }
+
+        try {
+            return intGetter.applyAsInt(target);
+        } catch (Throwable e) {
+            throw fail("读取", e);
+        }
+    }
+
+    @Override
+    public long readLong(Object target) {
+        if (longGetter == null) {
+            return PropertyEditor.super.readLong(target);
+        }
+
+        try {
+            return longGetter.applyAsLong(target);
+        } catch (Throwable e) {
+            throw fail("读取", e);
+        }
+    }
+
+    @Override
+    public double readDouble(Object target) {
+        if (doubleGetter == null) {
+            return PropertyEditor.super.readDouble(target);
+        }
+
+        try {
+            return doubleGetter.applyAsDouble(target);
+        } catch (Throwable e) {
+            throw fail("读取", e);
+        }
+    }
+
+    @Override
+    public boolean readBoolean(Object target) {
+        if (booleanGetter == null) {
+            return PropertyEditor.super.readBoolean(target);
+        }
+
+        try {
+            return booleanGetter.test(target);
+        } catch (Throwable e) {
+            throw fail("读取", e);
+        }
+    }
+
+    @Override
+    public void writeInt(Object target, int value) {
+        if (intSetter == null) {
+            PropertyEditor.super.writeInt(target, value);
+            return;
+        }
+
+        try {
+            intSetter.accept(target, value);
+        } catch (Throwable e) {
+            throw fail("写入", e);
+        }
+    }
+
+    @Override
+    public void writeLong(Object target, long value) {
+        if (longSetter == null) {
+            PropertyEditor.super.writeLong(target, value);
+            return;
+        }
+
+        try {
+            longSetter.accept(target, value);
+        } catch (Throwable e) {
+            throw fail("写入", e);
+        }
+    }
+
+    @Override
+    public void writeDouble(Object target, double value) {
+        if (doubleSetter == null) {
+            PropertyEditor.super.writeDouble(target, value);
+            return;
+        }
+
+        try {
+            doubleSetter.accept(target, value);
+        } catch (Throwable e) {
+            throw fail("写入", e);
+        }
+    }
+
+    @Override
+    public <T extends Annotation> T getAnnotation(Class<T> annotationClass) {
+        return field.getAnnotation(annotationClass);
+    }
+
+    /**
+     * 读写异常统一包装为{@link CommonException}
+     * 
+     * @param action
+     *            读取/写入
+     * @param e
+     *            异常
+     * @return 包装后的异常
+     */
+    private CommonException fail(String action, Throwable e) {
+        if (e instanceof CommonException) {
+            return (CommonException)e;
+        }
+
+        Throwable cause = e instanceof UndeclaredThrowableException ? e.getCause() : e;
+        EnumInterface code = ErrorCodeEnum.UNKNOWN_EXCEPTION;
+        if (cause instanceof BaseException) {
+            code = ((BaseException)cause).getErrCode();
+        }
+
+        return new CommonException(code,
+            StringUtils.format("字段[{}]{}异常，字段所属class：[{}]", field.getName(), action, owner), cause);
+    }
+
+    /**
+     * 获取读取句柄，句柄类型统一为(target)value，静态方法/字段会忽略target参数
+     * 
+     * @return 读取句柄，无法获取时返回null
+     */
+    private MethodHandle readHandle() {
+        try {
+            if (readMethod != null) {
+                MethodHandle handle = LOOKUP.unreflect(readMethod);
+                return Modifier.isStatic(readMethod.getModifiers())
+                    ? MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+            } else {
+                MethodHandle handle = LOOKUP.unreflectGetter(field);
+                return Modifier.isStatic(field.getModifiers()) ? MethodHandles.dropArguments(handle, 0, Object.class)
+                    : handle;
+            }
+        } catch (IllegalAccessException e) {
+            LOGGER.debug(e, "字段[{}:{}]无法获取读取句柄，将使用反射读取", owner, field.getName());
+            return null;
+        }
+    }
+
+    /**
+     * 获取写入句柄，句柄类型统一为(target, value)void，静态方法/字段会忽略target参数
+     * 
+     * @return 写入句柄，无法获取时（例如static final字段）返回null
+     */
+    private MethodHandle writeHandle() {
+        try {
+            MethodHandle handle;
+            boolean isStatic;
+            if (writeMethod != null) {
+                handle = LOOKUP.unreflect(writeMethod);
+                isStatic = Modifier.isStatic(writeMethod.getModifiers());
+            } else {
+                isStatic = Modifier.isStatic(field.getModifiers());
+                // 注意：JDK8中setAccessible后可以通过MethodHandle修改static final字段，这里与反射保持一致，不允许修改
+                if (isStatic && Modifier.isFinal(field.getModifiers())) {
+                    return null;
+                }
+                handle = LOOKUP.unreflectSetter(field);
+            }
+
+            return isStatic ? MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+        } catch (IllegalAccessException e) {
+            LOGGER.debug(e, "字段[{}:{}]无法获取写入句柄，将使用反射写入", owner, field.getName());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> buildGetter(MethodHandle handle, boolean useLambda) {
+        MethodType type = handle.type();
+        Function<Object, Object> getter =
+            useLambda ? lambda(Function.class, "apply", MethodType.methodType(Object.class, Object.class), handle,
+                type.changeReturnType(wrap(type.returnType()))) : null;
+        if (getter != null) {
+            return getter;
+        }
+
+        MethodHandle invoker = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return target -> {
+            try {
+                return (Object)invoker.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ToIntFunction<Object> buildIntGetter(MethodHandle handle, boolean useLambda) {
+        ToIntFunction<Object> getter = useLambda ? lambda(ToIntFunction.class, "applyAsInt",
+            MethodType.methodType(int.class, Object.class), handle, handle.type()) : null;
+        if (getter != null) {
+            return getter;
+        }
+
+        MethodHandle invoker = handle.asType(MethodType.methodType(int.class, Object.class));
+        return target -> {
+            try {
+                return (int)invoker.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ToLongFunction<Object> buildLongGetter(MethodHandle handle, boolean useLambda) {
+        ToLongFunction<Object> getter = useLambda ? lambda(ToLongFunction.class, "applyAsLong",
+            MethodType.methodType(long.class, Object.class), handle, handle.type()) : null;
+        if (getter != null) {
+            return getter;
+        }
+
+        MethodHandle invoker = handle.asType(MethodType.methodType(long.class, Object.class));
+        return target -> {
+            try {
+                return (long)invoker.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ToDoubleFunction<Object> buildDoubleGetter(MethodHandle handle, boolean useLambda) {
+        ToDoubleFunction<Object> getter = useLambda ? lambda(ToDoubleFunction.class, "applyAsDouble",
+            MethodType.methodType(double.class, Object.class), handle, handle.type()) : null;
+        if (getter != null) {
+            return getter;
+        }
+
+        MethodHandle invoker = handle.asType(MethodType.methodType(double.class, Object.class));
+        return target -> {
+            try {
+                return (double)invoker.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<Object> buildBooleanGetter(MethodHandle handle, boolean useLambda) {
+        Predicate<Object> getter = useLambda
+            ? lambda(Predicate.class, "test", MethodType.methodType(boolean.class, Object.class), handle, handle.type())
+            : null;
+        if (getter != null) {
+            return getter;
+        }
+
+        MethodHandle invoker = handle.asType(MethodType.methodType(boolean.class, Object.class));
+        return target -> {
+            try {
+                return (boolean)invoker.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> buildSetter(MethodHandle handle, boolean useLambda) {
+        MethodType type = handle.type();
+        BiConsumer<Object,
+            Object> setter = useLambda
+                ? lambda(BiConsumer.class, "accept", MethodType.methodType(void.class, Object.class, Object.class),
+                    handle, MethodType.methodType(void.class, type.parameterType(0), wrap(type.parameterType(1))))
+                : null;
+        if (setter != null) {
+            return setter;
+        }
+
+        MethodHandle invoker = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (target, value) -> {
+            try {
+                invoker.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjIntConsumer<Object> buildIntSetter(MethodHandle handle, boolean useLambda) {
+        ObjIntConsumer<Object> setter = useLambda
+            ? lambda(ObjIntConsumer.class, "accept", MethodType.methodType(void.class, Object.class, int.class), handle,
+                handle.type().changeReturnType(void.class))
+            : null;
+        if (setter != null) {
+            return setter;
+        }
+
+        MethodHandle invoker = handle.asType(MethodType.methodType(void.class, Object.class, int.class));
+        return (target, value) -> {
+            try {
+                invoker.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjLongConsumer<Object> buildLongSetter(MethodHandle handle, boolean useLambda) {
+        ObjLongConsumer<Object> setter = useLambda
+            ? lambda(ObjLongConsumer.class, "accept", MethodType.methodType(void.class, Object.class, long.class),
+                handle, handle.type().changeReturnType(void.class))
+            : null;
+        if (setter != null) {
+            return setter;
+        }
+
+        MethodHandle invoker = handle.asType(MethodType.methodType(void.class, Object.class, long.class));
+        return (target, value) -> {
+            try {
+                invoker.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjDoubleConsumer<Object> buildDoubleSetter(MethodHandle handle, boolean useLambda) {
+        ObjDoubleConsumer<Object> setter = useLambda
+            ? lambda(ObjDoubleConsumer.class, "accept", MethodType.methodType(void.class, Object.class, double.class),
+                handle, handle.type().changeReturnType(void.class))
+            : null;
+        if (setter != null) {
+            return setter;
+        }
+
+        MethodHandle invoker = handle.asType(MethodType.methodType(void.class, Object.class, double.class));
+        return (target, value) -> {
+            try {
+                invoker.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    /**
+     * 使用{@link LambdaMetafactory}将方法句柄绑定为函数式接口实例
+     * 
+     * @param samType
+     *            函数式接口
+     * @param samName
+     *            函数式接口的方法名
+     * @param samMethodType
+     *            函数式接口的方法签名（擦除后的）
+     * @param impl
+     *            实现方法句柄，必须是直接方法句柄
+     * @param instantiatedMethodType
+     *            实际的方法签名
+     * @param <T>
+     *            函数式接口实际类型
+     * @return 函数式接口实例，绑定失败时返回null
+     */
+    private static <T> T lambda(Class<T> samType, String samName, MethodType samMethodType, MethodHandle impl,
+        MethodType instantiatedMethodType) {
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, samName, MethodType.methodType(samType),
+                samMethodType, impl, instantiatedMethodType);
+            return samType.cast(callSite.getTarget().invoke());
+        } catch (Throwable e) {
+            LOGGER.debug(e, "方法[{}]无法使用LambdaMetafactory绑定，将使用MethodHandle调用", impl);
+            return null;
+        }
+    }
+
+    /**
+     * 判断方法是否可以使用{@link LambdaMetafactory}绑定；生成的lambda类定义在当前类所在的类加载器中，所以方法所属类以及方法签名中的 所有类型都必须是public并且对当前类加载器可见
+     * 
+     * @param method
+     *            方法
+     * @return true表示可以使用{@link LambdaMetafactory}绑定
+     */
+    private static boolean canUseLambda(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())
+            || !isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+            return false;
+        }
+
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isVisible(parameterType)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 判断类型对当前类是否可见
+     * 
+     * @param type
+     *            类型
+     * @return true表示类型是public并且可以被当前类的类加载器加载到
+     */
+    private static boolean isVisible(Class<?> type) {
+        if (type.isPrimitive()) {
+            return true;
+        } else if (type.isArray()) {
+            return isVisible(type.getComponentType());
+        } else if (!Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+
+        try {
+            return Class.forName(type.getName(), false, LambdaPropertyEditor.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 获取原生类型对应的包装类型
+     * 
+     * @param type
+     *            类型
+     * @return 如果是原生类型则返回对应的包装类型，否则返回原类型
+     */
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * 方法句柄调用异常时将受检异常包装为{@link UndeclaredThrowableException}，非受检异常原样抛出
+     * 
+     * @param e
+     *            异常
+     * @return 非受检异常
+     */
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException)e;
+        } else if (e instanceof Error) {
+            throw (Error)e;
+        }
+
+        return new UndeclaredThrowableException(e);
+    }
+
+}
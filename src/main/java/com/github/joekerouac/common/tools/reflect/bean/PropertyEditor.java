@@ -60,6 +60,90 @@ public interface PropertyEditor {
      */
     <T> T read(Object target);
 
+    /**
+     * 读取int类型字段值，字段类型必须是int，默认通过{@link #read(Object)}读取后拆箱，实现类可以重写以避免装箱
+     *
+     * @param target
+     *            指定对象
+     * @return 字段值
+     */
+    default int readInt(Object target) {
+        Integer value = read(target);
+        return value;
+    }
+
+    /**
+     * 读取long类型字段值，字段类型必须是long，默认通过{@link #read(Object)}读取后拆箱，实现类可以重写以避免装箱
+     *
+     * @param target
+     *            指定对象
+     * @return 字段值
+     */
+    default long readLong(Object target) {
+        Long value = read(target);
+        return value;
+    }
+
+    /**
+     * 读取double类型字段值，字段类型必须是double，默认通过{@link #read(Object)}读取后拆箱，实现类可以重写以避免装箱
+     *
+     * @param target
+     *            指定对象
+     * @return 字段值
+     */
+    default double readDouble(Object target) {
+        Double value = read(target);
+        return value;
+    }
+
+    /**
+     * 读取boolean类型字段值，字段类型必须是boolean，默认通过{@link #read(Object)}读取后拆箱，实现类可以重写以避免装箱
+     *
+     * @param target
+     *            指定对象
+     * @return 字段值
+     */
+    default boolean readBoolean(Object target) {
+        Boolean value = read(target);
+        return value;
+    }
+
+    /**
+     * 写入int类型字段值，字段类型必须是int，默认装箱后通过{@link #write(Object, Object)}写入，实现类可以重写以避免装箱
+     *
+     * @param target
+     *            指定对象
+     * @param value
+     *            要写入的值
+     */
+    default void writeInt(Object target, int value) {
+        write(target, value);
+    }
+
+    /**
+     * 写入long类型字段值，字段类型必须是long，默认装箱后通过{@link #write(Object, Object)}写入，实现类可以重写以避免装箱
+     *
+     * @param target
+     *            指定对象
+     * @param value
+     *            要写入的值
+     */
+    default void writeLong(Object target, long value) {
+        write(target, value);
+    }
+
+    /**
+     * 写入double类型字段值，字段类型必须是double，默认装箱后通过{@link #write(Object, Object)}写入，实现类可以重写以避免装箱
+     *
+     * @param target
+     *            指定对象
+     * @param value
+     *            要写入的值
+     */
+    default void writeDouble(Object target, double value) {
+        write(target, value);
+    }
+
     /**
      * 原始字段
      * 
@@ -14,14 +14,19 @@ package com.github.joekerouac.common.tools.reflect.bean;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.github.joekerouac.common.tools.reflect.bean.converter.*;
+import com.github.joekerouac.common.tools.util.Assert;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 /**
- * 类型转换器注册表
+ * 类型转换器注册表；
+ * 
+ * 查找转换器时按照注册表顺序返回第一个能够转换的转换器，查找结果（包括找不到转换器的结果）会按照（源类型，目标类型）缓存，注册、删除 转换器时缓存将会失效；
  *
  * @since 1.0.0
  * @author JoeKerouac
@@ -30,7 +35,22 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class TypeConverterRegistry {
 
-    private static final List<TypeConverter> TYPE_CONVERTER_LIST = new ArrayList<>();
+    private static final List<TypeConverter> TYPE_CONVERTER_LIST = new CopyOnWriteArrayList<>();
+
+    /**
+     * 注册、删除转换器时使用的锁
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * 转换器查找结果缓存，注册表变更时整体替换
+     */
+    private static volatile ConverterCache cache = new ConverterCache();
+
+    /**
+     * 注册表版本号，每次变更都会增加
+     */
+    private static volatile int version;
 
     static {
         TYPE_CONVERTER_LIST.add(new ClassHierarchicalTypeConverter());
@@ -49,6 +69,41 @@ public class TypeConverterRegistry {
         return new ArrayList<>(TYPE_CONVERTER_LIST);
     }
 
+    /**
+     * 注册类型转换器，后注册的转换器优先级高于先注册的转换器（包括内置转换器），如果转换器已经注册则只会调整其优先级
+     * 
+     * @param converter
+     *            类型转换器
+     */
+    public static void register(TypeConverter converter) {
+        Assert.argNotNull(converter, "converter");
+
+        synchronized (LOCK) {
+            TYPE_CONVERTER_LIST.remove(converter);
+            TYPE_CONVERTER_LIST.add(0, converter);
+            invalidate();
+        }
+    }
+
+    /**
+     * 删除类型转换器
+     * 
+     * @param converter
+     *            类型转换器
+     * @return 如果转换器已经注册则返回true
+     */
+    public static boolean unregister(TypeConverter converter) {
+        Assert.argNotNull(converter, "converter");
+
+        synchronized (LOCK) {
+            boolean removed = TYPE_CONVERTER_LIST.remove(converter);
+            if (removed) {
+                invalidate();
+            }
+            return removed;
+        }
+    }
+
     /**
      * 根据源类型以及目标类型查找转换器
      * 
@@ -59,6 +114,31 @@ public class TypeConverterRegistry {
      * @return 转换器
      */
     public static TypeConverter findConverter(Class<?> srcType, Class<?> targetType) {
+        Assert.argNotNull(srcType, "srcType");
+        Assert.argNotNull(targetType, "targetType");
+
+        return cache.converters.get(srcType).get(targetType).orElse(null);
+    }
+
+    /**
+     * 当前注册表版本，注册表每次变更版本号都会增加，缓存了转换器的地方可以根据版本判断缓存是否失效
+     * 
+     * @return 注册表版本
+     */
+    static int getVersion() {
+        return version;
+    }
+
+    /**
+     * 遍历注册表查找转换器
+     * 
+     * @param srcType
+     *            原类型
+     * @param targetType
+     *            目标类型
+     * @return 转换器，找不到时返回null
+     */
+    private static TypeConverter lookup(Class<?> srcType, Class<?> targetType) {
         for (TypeConverter converter : TYPE_CONVERTER_LIST) {
             if (converter.test(srcType, targetType)) {
                 return converter;
@@ -67,4 +147,44 @@ public class TypeConverterRegistry {
         return null;
     }
 
+    /**
+     * 使缓存失效，需要在锁内调用，注意要先变更注册表再替换缓存
+     */
+    private static void invalidate() {
+        cache = new ConverterCache();
+        version++;
+    }
+
+    /**
+     * 转换器查找结果缓存，第一层key是源类型，第二层key是目标类型，找不到转换器时value是{@link Optional#empty()}；
+     * 
+     * 两层都使用{@link ClassValue}，源类型、目标类型都不会被对方的缓存强引用，例如源类型是String这种JDK类型时，也不会导致目标类型的ClassLoader无法卸载
+     */
+    private static final class ConverterCache {
+
+        private final ClassValue<TargetConverters> converters = new ClassValue<TargetConverters>() {
+            @Override
+            protected TargetConverters computeValue(Class<?> srcType) {
+                return new TargetConverters(srcType);
+            }
+        };
+    }
+
+    /**
+     * 指定源类型到各个目标类型的转换器缓存，注意不能是匿名类，否则会引用外层的缓存，导致缓存失效后旧缓存仍然被源类型引用
+     */
+    private static final class TargetConverters extends ClassValue<Optional<TypeConverter>> {
+
+        private final Class<?> srcType;
+
+        TargetConverters(Class<?> srcType) {
+            this.srcType = srcType;
+        }
+
+        @Override
+        protected Optional<TypeConverter> computeValue(Class<?> targetType) {
+            return Optional.ofNullable(lookup(srcType, targetType));
+        }
+    }
+
 }
@@ -36,8 +36,9 @@ public abstract class AbstractTypeConverter implements TypeConverter {
         }
 
         Class<S> srcType = (Class<S>)src.getClass();
+        // 错误信息延迟生成，避免每次转换都格式化字符串
         Assert.assertTrue(test(srcType, targetType),
-            StringUtils.format("类型[{}]不能使用类型转换器[{}]转换为[{}]", srcType, this.getClass(), targetType),
+            () -> StringUtils.format("类型[{}]不能使用类型转换器[{}]转换为[{}]", srcType, this.getClass(), targetType),
             ExceptionProviderConst.IllegalStateExceptionProvider);
         return convert(srcType, targetType, src, annotations);
     }
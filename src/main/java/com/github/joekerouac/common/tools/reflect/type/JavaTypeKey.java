@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.reflect.type;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link JavaTypeUtil#createJavaType(Type, java.util.LinkedHashMap)}的缓存key，由类型本身以及类型中引用到的泛型变量在上下文中的
+ * 绑定组成，类型中没有引用的泛型变量不会影响解析结果，所以不在key中；泛型变量的绑定使用{@link JavaType#equals(Object)}比较；
+ * 
+ * 构建key时同时会找出类型（包括绑定）中引用到的所有class中classloader层级最深的class作为缓存载体，缓存挂在该class上，这样缓存中引用
+ * 的所有class都对该class可见，不会阻止任何classloader卸载；如果引用的class的classloader之间没有父子关系，则无法确定载体，此时不缓存；
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 22:30:00
+ * @since 2.1.6
+ */
+final class JavaTypeKey {
+
+    private static final JavaType[] EMPTY = new JavaType[0];
+
+    /**
+     * 要解析的类型
+     */
+    private final Type type;
+
+    /**
+     * 类型中引用的泛型变量在上下文中的绑定（按照遍历顺序），不存在时为null
+     */
+    private final JavaType[] bindings;
+
+    /**
+     * hash，注意，{@link JavaType#hashCode()}依赖的rawClass是延迟计算的，所以这里只使用绑定的name计算hash
+     */
+    private final int hash;
+
+    /**
+     * 缓存载体，不参与比较
+     */
+    private final Class<?> carrier;
+
+    private JavaTypeKey(Type type, JavaType[] bindings, Class<?> carrier) {
+        this.type = type;
+        this.bindings = bindings;
+        this.carrier = carrier;
+
+        int h = type.hashCode();
+        for (JavaType binding : bindings) {
+            h = 31 * h + (binding == null ? 0 : Objects.hashCode(binding.getName()));
+        }
+        this.hash = h;
+    }
+
+    /**
+     * 构建缓存key
+     * 
+     * @param type
+     *            要解析的类型
+     * @param resolved
+     *            上下文中已经解析的泛型
+     * @return 缓存key，无法缓存时返回null
+     */
+    static JavaTypeKey build(Type type, Map<String, JavaType> resolved) {
+        Builder builder = new Builder(resolved);
+        builder.walk(type, true);
+
+        if (builder.failed) {
+            return null;
+        }
+
+        JavaType[] bindings = builder.bindings.isEmpty() ? EMPTY : builder.bindings.toArray(EMPTY);
+        return new JavaTypeKey(type, bindings, builder.carrier == null ? Object.class : builder.carrier);
+    }
+
+    /**
+     * 缓存载体
+     * 
+     * @return 缓存载体
+     */
+    Class<?> getCarrier() {
+        return carrier;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof JavaTypeKey)) {
+            return false;
+        }
+
+        JavaTypeKey other = (JavaTypeKey)obj;
+        if (hash != other.hash || bindings.length != other.bindings.length || !type.equals(other.type)) {
+            return false;
+        }
+
+        for (int i = 0; i < bindings.length; i++) {
+            JavaType binding = bindings[i];
+            JavaType otherBinding = other.bindings[i];
+            if (binding != otherBinding && (binding == null || !binding.equals(otherBinding))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * key构建器，遍历类型，收集泛型变量绑定以及缓存载体
+     */
+    private static final class Builder {
+
+        /**
+         * 上下文中已经解析的泛型
+         */
+        private final Map<String, JavaType> resolved;
+
+        /**
+         * 类型中引用的泛型变量名
+         */
+        private final List<String> names = new ArrayList<>();
+
+        /**
+         * 泛型变量名对应的绑定
+         */
+        private final List<JavaType> bindings = new ArrayList<>();
+
+        /**
+         * 已经遍历过的泛型变量以及JavaType，防止循环引用
+         */
+        private final Map<Object, Boolean> visited = new IdentityHashMap<>();
+
+        /**
+         * 缓存载体
+         */
+        private Class<?> carrier;
+
+        /**
+         * 是否无法缓存
+         */
+        private boolean failed;
+
+        Builder(Map<String, JavaType> resolved) {
+            this.resolved = resolved;
+        }
+
+        /**
+         * 遍历类型
+         * 
+         * @param type
+         *            类型
+         * @param collect
+         *            是否收集泛型变量绑定，遍历绑定本身时不需要收集
+         */
+        void walk(Type type, boolean collect) {
+            if (failed || type == null) {
+                return;
+            }
+
+            if (type instanceof Class) {
+                accept((Class<?>)type);
+            } else if (type instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType)type;
+                walk(parameterizedType.getRawType(), collect);
+                walk(parameterizedType.getOwnerType(), collect);
+                for (Type argument : parameterizedType.getActualTypeArguments()) {
+                    walk(argument, collect);
+                }
+            } else if (type instanceof GenericArrayType) {
+                walk(((GenericArrayType)type).getGenericComponentType(), collect);
+            } else if (type instanceof WildcardType) {
+                WildcardType wildcardType = (WildcardType)type;
+                for (Type bound : wildcardType.getLowerBounds()) {
+                    walk(bound, collect);
+                }
+                for (Type bound : wildcardType.getUpperBounds()) {
+                    walk(bound, collect);
+                }
+            } else if (type instanceof TypeVariable) {
+                walkTypeVariable((TypeVariable<?>)type, collect);
+            } else if (type instanceof JavaType) {
+                walkJavaType((JavaType)type);
+            } else {
+                // 未知的Type实现，不缓存
+                failed = true;
+            }
+        }
+
+        private void walkTypeVariable(TypeVariable<?> variable, boolean collect) {
+            if (visited.put(variable, Boolean.TRUE) != null) {
+                return;
+            }
+
+            GenericDeclaration declaration = variable.getGenericDeclaration();
+            if (declaration instanceof Class) {
+                accept((Class<?>)declaration);
+            } else if (declaration instanceof Executable) {
+                accept(((Executable)declaration).getDeclaringClass());
+            } else {
+                failed = true;
+                return;
+            }
+
+            if (collect) {
+                String name = variable.getName();
+                if (!names.contains(name)) {
+                    JavaType binding = resolved.get(name);
+                    names.add(name);
+                    bindings.add(binding);
+
+                    // 上下文中已经有绑定时解析结果就是该绑定，不会再解析泛型的上界
+                    if (binding != null) {
+                        // 还未解析完成的泛型占位，无法比较，不缓存
+                        if (binding.rawClass == null && binding.rawType == null) {
+                            failed = true;
+                            return;
+                        }
+
+                        walkJavaType(binding);
+                        return;
+                    }
+                }
+            }
+
+            for (Type bound : variable.getBounds()) {
+                walk(bound, collect);
+            }
+        }
+
+        private void walkJavaType(JavaType javaType) {
+            if (failed || javaType == null || visited.put(javaType, Boolean.TRUE) != null) {
+                return;
+            }
+
+            if (javaType.rawClass != null) {
+                accept(javaType.rawClass);
+            }
+            walk(javaType.origin, false);
+            walkJavaType(javaType.rawType);
+
+            if (javaType instanceof SimpleType) {
+                SimpleType simpleType = (SimpleType)javaType;
+                walkJavaType(simpleType.getParent());
+                if (simpleType.getInterfaces() != null) {
+                    for (JavaType anInterface : simpleType.getInterfaces()) {
+                        walkJavaType(anInterface);
+                    }
+                }
+            } else if (javaType instanceof GenericType) {
+                walkJavaType(((GenericType)javaType).getParent());
+                walkJavaType(((GenericType)javaType).getChild());
+            } else if (javaType instanceof CustomParameterizedType) {
+                CustomParameterizedType parameterizedType = (CustomParameterizedType)javaType;
+                walkJavaType(parameterizedType.getOwnerType());
+                if (parameterizedType.getBindings() != null) {
+                    parameterizedType.getBindings().values().forEach(this::walkJavaType);
+                }
+            } else if (javaType instanceof CustomGenericArrayType) {
+                CustomGenericArrayType arrayType = (CustomGenericArrayType)javaType;
+                walkJavaType(arrayType.getComponentType());
+                if (arrayType.getBindings() != null) {
+                    arrayType.getBindings().values().forEach(this::walkJavaType);
+                }
+            }
+        }
+
+        /**
+         * 更新缓存载体，载体是classloader层级最深的class
+         * 
+         * @param clazz
+         *            类型中引用的class
+         */
+        private void accept(Class<?> clazz) {
+            while (clazz.isArray()) {
+                clazz = clazz.getComponentType();
+            }
+
+            if (clazz.isPrimitive()) {
+                return;
+            }
+
+            if (carrier == null) {
+                carrier = clazz;
+                return;
+            }
+
+            ClassLoader current = carrier.getClassLoader();
+            ClassLoader loader = clazz.getClassLoader();
+            if (current == loader || isAncestor(loader, current)) {
+                return;
+            }
+
+            if (isAncestor(current, loader)) {
+                carrier = clazz;
+            } else {
+                failed = true;
+            }
+        }
+
+        /**
+         * 判断parent是否是child的祖先classloader
+         * 
+         * @param parent
+         *            parent，null表示bootstrap classloader
+         * @param child
+         *            child
+         * @return true表示parent是child的祖先classloader
+         */
+        private static boolean isAncestor(ClassLoader parent, ClassLoader child) {
+            if (parent == null) {
+                return true;
+            }
+
+            for (ClassLoader loader = child; loader != null; loader = loader.getParent()) {
+                if (loader == parent) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+}
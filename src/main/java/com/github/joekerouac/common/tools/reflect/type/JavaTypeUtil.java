@@ -27,6 +27,7 @@ import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -64,6 +65,16 @@ public class JavaTypeUtil {
      */
     private static final Pattern EXTENDS_PATTERN = Pattern.compile("(.*) extends.*");
 
+    /**
+     * 类型解析缓存，挂在类型引用的classloader层级最深的class上，不会阻止classloader卸载
+     */
+    private static final ClassValue<Map<JavaTypeKey, JavaType>> CACHE = new ClassValue<Map<JavaTypeKey, JavaType>>() {
+        @Override
+        protected Map<JavaTypeKey, JavaType> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     /**
      * 将指定类型转换为Class，例如如果类型是带泛型的Map，则将泛型信息擦除，返回Map的class对象；
      * 
@@ -260,7 +271,9 @@ public class JavaTypeUtil {
     }
 
     /**
-     * 根据java系统类型得出自定义类型
+     * 根据java系统类型得出自定义类型；
+     * 
+     * 解析结果会被缓存，相同的类型在相同的泛型上下文（只考虑类型中引用到的泛型）中解析将返回同一个实例，所以调用方不能修改返回的结果
      *
      * @param type
      *            java反射取得的类型
@@ -273,6 +286,48 @@ public class JavaTypeUtil {
             return null;
         }
 
+        if (type instanceof JavaType) {
+            return (JavaType)type;
+        }
+
+        if (type instanceof TypeVariable) {
+            JavaType cache = resolved.get(((TypeVariable<?>)type).getName());
+            if (cache != null) {
+                return cache;
+            }
+        }
+
+        JavaTypeKey key = JavaTypeKey.build(type, resolved);
+        if (key == null) {
+            return doCreateJavaType(type, resolved);
+        }
+
+        Map<JavaTypeKey, JavaType> cache = CACHE.get(key.getCarrier());
+        JavaType javaType = cache.get(key);
+        if (javaType == null) {
+            // 解析过程中不能持有锁（解析可能递归触发其他类型的解析），并发时以先放入的为准，保证返回的实例唯一
+            javaType = doCreateJavaType(type, resolved);
+            JavaType old = cache.putIfAbsent(key, javaType);
+            javaType = old == null ? javaType : old;
+        }
+
+        return javaType;
+    }
+
+    /**
+     * 根据java系统类型得出自定义类型，不使用缓存，解析过程中的递归调用都走这里，因为此时上下文中可能存在还未解析完成的泛型占位，不能 缓存
+     *
+     * @param type
+     *            java反射取得的类型
+     * @param resolved
+     *            当前已经解析过的类型
+     * @return 自定义java类型说明
+     */
+    private static JavaType doCreateJavaType(Type type, LinkedHashMap<String, JavaType> resolved) {
+        if (type == null) {
+            return null;
+        }
+
         // type的来源：1、从方法参数上获取；2、从字段上获取；3、从类上获取；4、从继承上获取
         if (type instanceof JavaType) {
             return (JavaType)type;
@@ -296,10 +351,10 @@ public class JavaTypeUtil {
             // T super String，那么就会有一个默认的parent，值是Object
             JavaType rawType;
             if (child.length > 0) {
-                rawType = createJavaType(child[0], context);
+                rawType = doCreateJavaType(child[0], context);
                 genericType.setChild(rawType);
             } else {
-                rawType = createJavaType(parent[0], context);
+                rawType = doCreateJavaType(parent[0], context);
                 genericType.setParent(rawType);
             }
 
@@ -326,7 +381,7 @@ public class JavaTypeUtil {
 
                 // 指定名字的泛型只能继承，不能使用关键字super，所以getBounds该方法得出的是泛型的父类型，getBounds肯定有一个值，如果
                 // 用户没有指定就是Object
-                rawType = createJavaType(typeVariableImpl.getBounds()[0], context);
+                rawType = doCreateJavaType(typeVariableImpl.getBounds()[0], context);
             }
             genericType.setParent(rawType);
             genericType.setRawType(rawType);
@@ -336,12 +391,12 @@ public class JavaTypeUtil {
             ParameterizedType parameterizedTypeImpl = (ParameterizedType)type;
             Type[] types = parameterizedTypeImpl.getActualTypeArguments();
 
-            JavaType rawType = createJavaType(parameterizedTypeImpl.getRawType(), context);
+            JavaType rawType = doCreateJavaType(parameterizedTypeImpl.getRawType(), context);
 
             LinkedHashMap<String, JavaType> currentBindings = new LinkedHashMap<>();
             for (int i = 0; i < types.length; i++) {
                 Type nowType = types[i];
-                JavaType bindingType = createJavaType(nowType, context);
+                JavaType bindingType = doCreateJavaType(nowType, context);
                 String bindingName = bindingType.getName();
                 currentBindings.put(bindingName, bindingType);
                 context.put(bindingName, bindingType);
@@ -353,7 +408,7 @@ public class JavaTypeUtil {
             customParameterizedType.setBindings(currentBindings);
             Type ownerType = parameterizedTypeImpl.getOwnerType();
             if (ownerType != null) {
-                customParameterizedType.setOwnerType(createJavaType(ownerType, context));
+                customParameterizedType.setOwnerType(doCreateJavaType(ownerType, context));
             }
             javaType = customParameterizedType;
         } else if (type instanceof GenericArrayType) {
@@ -414,7 +469,9 @@ public class JavaTypeUtil {
             JavaType javaType;
             if (actualTypeArgument instanceof GenericArrayType) {
                 javaType = getArrayDesc(actualTypeArgument, currentBindings);
+                javaType.setOrigin(actualTypeArgument);
             } else {
+                // 注意，这里拿到的可能是共享的实例，不能修改
                 String name = dealName(actualTypeArgument.getTypeName());
                 javaType = currentBindings.get(name);
             }
@@ -423,7 +480,6 @@ public class JavaTypeUtil {
                 javaType = createJavaType(actualTypeArgument, resolved);
             }
 
-            javaType.setOrigin(actualTypeArgument);
             bindings.put(dealName(typeParameters[i].getTypeName()), javaType);
             resolved.put(dealName(typeParameters[i].getTypeName()), javaType);
         }
@@ -480,7 +536,7 @@ public class JavaTypeUtil {
             return getArrayDesc(((GenericArrayType)type).getGenericComponentType(), now + 1, resolved);
         }
 
-        JavaType componentType = createJavaType(type, resolved);
+        JavaType componentType = doCreateJavaType(type, resolved);
         LinkedHashMap<String, JavaType> bindings = getBindings(componentType);
         CustomGenericArrayType arrayDesc = new CustomGenericArrayType();
         arrayDesc.setName(type.getTypeName());
@@ -16,7 +16,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -38,6 +37,7 @@ import lombok.CustomLog;
  * <li>任务可以被连续唤醒，但是单个任务的唤醒调用并发不高；</li>
  * <li>同一时间不会有太多任务并发执行，或者同一时间有较多任务并发执行，但是对任务的时效性要求不高</li>
  * 
+ * 任务到期唤醒基于分层时间轮{@link TimingWheelTimer}实现，注册任务、任务执行完毕后重新计时都是O(1)的，调度线程只会在有任务到期时被唤醒，并且 只处理到期的任务，与任务总量无关；
  *
  * @author JoeKerouac
  * @date 2022-10-14 14:37:00
@@ -59,9 +59,9 @@ public class SchedulerSystemImpl implements SchedulerSystem {
     private final boolean mergeScheduler;
 
     /**
-     * 调度线程
+     * 定时器，负责任务到期唤醒
      */
-    private final Thread schedulerThread;
+    private final TimingWheelTimer timer;
 
     /**
      * 当前调度器是否启动，true表示已经启动
@@ -73,16 +73,6 @@ public class SchedulerSystemImpl implements SchedulerSystem {
      */
     private final Map<String, InternalTaskDescriptor> tasks;
 
-    /**
-     * 调度线程使用信号量
-     */
-    private Semaphore semaphore;
-
-    /**
-     * 调度线程下次唤醒时间
-     */
-    private final AtomicLong nextSchedulerTime;
-
     /**
      * 默认构造器
      * 
@@ -101,45 +91,9 @@ public class SchedulerSystemImpl implements SchedulerSystem {
         this.mergeScheduler = mergeScheduler;
 
         this.tasks = new ConcurrentHashMap<>();
-        this.semaphore = new Semaphore(0);
-        this.nextSchedulerTime = new AtomicLong(0);
         this.start = false;
-
-        // 调度线程，主要就是负责任务到期唤醒
-        this.schedulerThread = new Thread(() -> {
-            while (start) {
-                long waitTime = nextSchedulerTime.get() - System.currentTimeMillis();
-
-                // 开始等待调度
-                if (waitTime > 0) {
-                    tryAcquire(waitTime);
-                }
-
-                LockTaskUtil.runWithLock(statusLock.readLock(), () -> {
-                    // 因为上边的tryAcquire执行时间可能很长，所以执行完毕后重新判断一次当前是否还运行
-                    if (!start) {
-                        return;
-                    }
-
-                    // 当前时间
-                    long now = System.currentTimeMillis();
-                    // 下次调度时间
-                    nextSchedulerTime.set(Long.MAX_VALUE);
-
-                    // 开始唤醒任务，并确定下次调度时间
-                    for (final InternalTaskDescriptor task : tasks.values()) {
-                        try {
-                            check(task, now);
-                        } catch (Throwable throwable) {
-                            LOGGER.warn(throwable, "[{}] 调度线程调度任务 [{}] 时发生异常，异常将被忽略，同时该任务本次调度也将被忽略", name, task.id);
-                        }
-
-                    }
-                });
-            }
-        }, name);
-
-        schedulerThread.setDaemon(false);
+        // 定时器，主要就是负责任务到期唤醒
+        this.timer = new TimingWheelTimer(name);
     }
 
     @Override
@@ -150,7 +104,7 @@ public class SchedulerSystemImpl implements SchedulerSystem {
                 return;
             }
             start = true;
-            schedulerThread.start();
+            timer.start();
         });
     }
 
@@ -161,13 +115,10 @@ public class SchedulerSystemImpl implements SchedulerSystem {
                 LOGGER.warn("当前调度系统已经关闭，请勿重复关闭");
             }
             start = false;
-            // 中断线程
-            schedulerThread.interrupt();
-            // 重置semaphore
-            semaphore = new Semaphore(0);
-            // 重置下次调度时间
-            nextSchedulerTime.set(0);
+            // 停止定时器
+            timer.stop();
             // 清空任务
+            tasks.values().forEach(this::cancelTimeout);
             tasks.clear();
         });
     }
@@ -181,10 +132,13 @@ public class SchedulerSystemImpl implements SchedulerSystem {
             Boolean mergeScheduler = taskDescriptor.getMergeScheduler();
             mergeScheduler = mergeScheduler == null ? this.mergeScheduler : mergeScheduler;
 
-            InternalTaskDescriptor old =
-                tasks.putIfAbsent(taskDescriptor.getId(), new InternalTaskDescriptor(taskDescriptor.getId(),
-                    taskDescriptor.getExecuteInterval(), taskDescriptor.getTask(), mergeScheduler));
-            semaphore.release();
+            InternalTaskDescriptor task = new InternalTaskDescriptor(taskDescriptor.getId(),
+                taskDescriptor.getExecuteInterval(), taskDescriptor.getTask(), mergeScheduler);
+            InternalTaskDescriptor old = tasks.putIfAbsent(taskDescriptor.getId(), task);
+            if (old == null) {
+                // 注册成功，开始计时
+                LockTaskUtil.runWithLock(task.statusMutex.writeLock(), () -> scheduleTimeout(task));
+            }
             return old == null ? null : new TaskDescriptor(old.id, old.executeInterval, old.task);
         });
     }
@@ -196,7 +150,12 @@ public class SchedulerSystemImpl implements SchedulerSystem {
             checkStart();
 
             InternalTaskDescriptor old = tasks.remove(id);
-            return old == null ? null : new TaskDescriptor(old.id, old.executeInterval, old.task);
+            if (old == null) {
+                return null;
+            }
+
+            cancelTimeout(old);
+            return new TaskDescriptor(old.id, old.executeInterval, old.task);
         });
     }
 
@@ -233,68 +192,63 @@ public class SchedulerSystemImpl implements SchedulerSystem {
     }
 
     /**
-     * 检查任务在指定时间是否该执行了，如果该执行了就执行
+     * 为任务设置到期唤醒定时器，如果任务之前已经有定时器则将其取消，调用方需要持有任务的写锁
      *
      * @param task
-     *            要检查的任务
-     * @param now
-     *            指定时间
+     *            任务
      */
-    private void check(InternalTaskDescriptor task, long now) {
-        Boolean wakeUp = LockTaskUtil.runWithLock(task.statusMutex.readLock(), () -> {
-            if (task.status == TaskStatus.IDLE) {
-                // 如果任务当前还未到期并且任务到期时间小于当前最早到期任务的到期时间，那么更新
-                if (task.nextExecuteTime > now) {
-                    while (true) {
-                        long currentNextScheduler = nextSchedulerTime.get();
-                        // 注意，这里因为对任务加了锁，所以任务的状态和下次执行时间是肯定不会变的，所以不需要考虑其他线程修改下次执行时间或者状态导致的程序问题
-                        if (task.nextExecuteTime < currentNextScheduler
-                            && !nextSchedulerTime.compareAndSet(currentNextScheduler, task.nextExecuteTime)) {
-                            // 因为其他线程也可能修改这个值，所以cas可能更新失败，如果更新失败就继续判断
-                            continue;
-                        }
-
-                        break;
-                    }
+    private void scheduleTimeout(InternalTaskDescriptor task) {
+        if (task.timeout != null) {
+            task.timeout.cancel();
+        }
 
-                    return false;
-                } else {
-                    return true;
-                }
-            } else {
-                return false;
+        long delay = task.nextExecuteTime - System.currentTimeMillis();
+        // 已经到期时直接唤醒任务（调用方已经持有写锁），定时器对到期任务也是在当前线程同步执行，没有必要再经过定时器以及check的重复判断
+        if (delay <= 0) {
+            task.timeout = null;
+            wakeUpTaskWithLock(task);
+        } else {
+            task.timeout = timer.schedule(() -> check(task), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 取消任务的到期唤醒定时器
+     *
+     * @param task
+     *            任务
+     */
+    private void cancelTimeout(InternalTaskDescriptor task) {
+        LockTaskUtil.runWithLock(task.statusMutex.writeLock(), () -> {
+            if (task.timeout != null) {
+                task.timeout.cancel();
+                task.timeout = null;
             }
         });
-
-        // 调度任务
-        if (wakeUp) {
-            wakeUpTask(task);
-        }
     }
 
     /**
-     * 主调度等待；
-     * 
-     * @param time
-     *            等待超时时间，单位毫秒
+     * 任务到期唤醒定时器回调，检查任务是否该执行了，如果该执行了就执行
+     *
+     * @param task
+     *            要检查的任务
      */
-    private void tryAcquire(long time) {
-        long start = System.currentTimeMillis();
-        while (System.currentTimeMillis() - start <= time) {
-            try {
-                // 注意，tryAcquire不会并发调用，所以这里的两次semaphore.availablePermits()调用不存在并发问题
-                if (semaphore.tryAcquire(time - (System.currentTimeMillis() - start), TimeUnit.MILLISECONDS)
-                    && semaphore.availablePermits() > 0) {
-                    // 合并调度，将所有的semaphore消耗完毕
-                    semaphore.acquire(semaphore.availablePermits());
-                }
-                break;
-            } catch (InterruptedException e) {
-                // 如果当前任务已经结束则返回，否则忽略异常
-                if (!this.start) {
-                    return;
-                }
+    private void check(InternalTaskDescriptor task) {
+        try {
+            // 任务可能已经被移除了
+            if (!start || tasks.get(task.id) != task) {
+                return;
+            }
+
+            Boolean wakeUp = LockTaskUtil.runWithLock(task.statusMutex.readLock(),
+                () -> task.status == TaskStatus.IDLE && task.nextExecuteTime <= System.currentTimeMillis());
+
+            // 调度任务
+            if (wakeUp) {
+                wakeUpTask(task);
             }
+        } catch (Throwable throwable) {
+            LOGGER.warn(throwable, "调度线程调度任务 [{}] 时发生异常，异常将被忽略，同时该任务本次调度也将被忽略", task.id);
         }
     }
 
@@ -305,37 +259,45 @@ public class SchedulerSystemImpl implements SchedulerSystem {
      *            任务描述
      */
     private void wakeUpTask(InternalTaskDescriptor taskDescriptor) {
+        // 修改任务状态
+        LockTaskUtil.runWithLock(taskDescriptor.statusMutex.writeLock(), () -> wakeUpTaskWithLock(taskDescriptor));
+    }
+
+    /**
+     * 唤醒指定任务，调用方需要持有任务的写锁
+     *
+     * @param taskDescriptor
+     *            任务描述
+     */
+    private void wakeUpTaskWithLock(InternalTaskDescriptor taskDescriptor) {
         // 先将任务计数加1
         taskDescriptor.counter.incrementAndGet();
 
-        // 修改任务状态
-        LockTaskUtil.runWithLock(taskDescriptor.statusMutex.writeLock(), () -> {
-            switch (taskDescriptor.status) {
-                case IDLE:
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("任务 [{}] 当前是idle状态，将其加入线程池", taskDescriptor.id);
-                    }
+        switch (taskDescriptor.status) {
+            case IDLE:
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("任务 [{}] 当前是idle状态，将其加入线程池", taskDescriptor.id);
+                }
 
-                    taskDescriptor.status = TaskStatus.RUNNING;
-                    executorService.submit(build(taskDescriptor));
-                    break;
-                case RUNNING:
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("任务 [{}] 当前是running状态，继续添加一个任务到线程池", taskDescriptor.id);
-                    }
+                taskDescriptor.status = TaskStatus.RUNNING;
+                executorService.submit(build(taskDescriptor));
+                break;
+            case RUNNING:
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("任务 [{}] 当前是running状态，继续添加一个任务到线程池", taskDescriptor.id);
+                }
 
-                    taskDescriptor.status = TaskStatus.QUEUE;
-                    break;
-                case QUEUE:
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("任务 [{}] 当前是queue状态，无需重复添加任务，只需要增加计数器即可", taskDescriptor.id);
-                    }
+                taskDescriptor.status = TaskStatus.QUEUE;
+                break;
+            case QUEUE:
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("任务 [{}] 当前是queue状态，无需重复添加任务，只需要增加计数器即可", taskDescriptor.id);
+                }
 
-                    break;
-                default:
-                    throw new IllegalStateException(StringUtils.format("不支持的任务描述状态： [{}]", taskDescriptor.status));
-            }
-        });
+                break;
+            default:
+                throw new IllegalStateException(StringUtils.format("不支持的任务描述状态： [{}]", taskDescriptor.status));
+        }
     }
 
     /**
@@ -389,8 +351,10 @@ public class SchedulerSystemImpl implements SchedulerSystem {
                             // 更新下次执行时间，因为下次执行时间只有在IDLE状态才会消费，所以只有状态更新为IDLE时才更新；
                             taskDescriptor.nextExecuteTime =
                                 System.currentTimeMillis() + taskDescriptor.executeInterval;
-                            // 任务的下次执行时间修改了，需要重新调度计算下次执行时间；
-                            semaphore.release();
+                            // 任务的下次执行时间修改了，需要重新设置到期唤醒定时器；如果任务已经被移除了则无需再设置
+                            if (start && tasks.get(taskDescriptor.id) == taskDescriptor) {
+                                scheduleTimeout(taskDescriptor);
+                            }
                             return false;
                         case QUEUE:
                             // 修改任务状态，继续循环
@@ -448,6 +412,11 @@ public class SchedulerSystemImpl implements SchedulerSystem {
          */
         private boolean mergeScheduler;
 
+        /**
+         * 当前的到期唤醒定时器，读写都需要持有任务写锁
+         */
+        private TimingWheelTimer.Timeout timeout;
+
         public InternalTaskDescriptor(final String id, long executeInterval, final Runnable task,
             final boolean mergeScheduler) {
             this.statusMutex = new ReentrantReadWriteLock();
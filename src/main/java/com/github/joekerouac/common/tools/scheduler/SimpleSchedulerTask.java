@@ -23,6 +23,8 @@ import com.github.joekerouac.common.tools.util.Assert;
 import lombok.CustomLog;
 
 /**
+ * 简单调度任务，每个任务独占一个线程，两次执行之间该线程阻塞等待；如果任务数量较多，建议使用{@link TimerSchedulerTask}，多个任务共享同一个定时器线程， 只在执行时占用线程
+ *
  * @author JoeKerouac
  * @date 2022-10-14 14:37:00
  * @since 1.0.0
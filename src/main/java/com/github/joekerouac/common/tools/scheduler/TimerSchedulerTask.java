@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.scheduler;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
+import com.github.joekerouac.common.tools.string.StringUtils;
+import com.github.joekerouac.common.tools.util.Assert;
+
+import lombok.CustomLog;
+
+/**
+ * 基于共享定时器的调度任务，与{@link SimpleSchedulerTask}语义一致（包括{@link #scheduler()}唤醒和合并调度），区别在于：
+ * 
+ * <li>{@link SimpleSchedulerTask}每个任务都会独占一个线程，两次执行之间该线程阻塞等待；</li>
+ * <li>本任务等待期间只在共享的{@link TimingWheelTimer}中注册一个定时器，不占用任何线程，只有真正执行时才会从线程池借用一个线程，执行完毕立即归还；</li>
+ * 
+ * 适用于大量低频定时任务的场景，多个任务可以共享同一个定时器和线程池，定时器的生命周期由调用方管理；
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 15:00:00
+ * @since 2.1.6
+ */
+@CustomLog
+public class TimerSchedulerTask implements SchedulerTask {
+
+    private final Object mutex = new Object();
+
+    /**
+     * 共享定时器
+     */
+    private final TimingWheelTimer timer;
+
+    /**
+     * 实际执行任务的线程池
+     */
+    private final Executor executor;
+
+    /**
+     * 任务名
+     */
+    private final String taskName;
+
+    /**
+     * 真正执行的任务，注意，该任务中不要做while true之类的逻辑，调度任务会自动定义执行该任务
+     */
+    private final Runnable task;
+
+    /**
+     * 是否合并调度，true表示合并调度，即如果有多个主动调度{@link #scheduler()}同时过来或者多个调度堆积，此时只会触发一次调度
+     */
+    private final boolean mergeScheduler;
+
+    /**
+     * 启动标识
+     */
+    private volatile boolean start;
+
+    /**
+     * 任务调度间隔（上次任务结束到下次任务开始）
+     */
+    private volatile long fixedDelay;
+
+    /**
+     * 初始延迟时间
+     */
+    private volatile long initialDelay;
+
+    /**
+     * 堆积的主动调度次数，需要持有{@link #mutex}
+     */
+    private long permits;
+
+    /**
+     * 任务状态，需要持有{@link #mutex}
+     */
+    private TaskStatus status;
+
+    /**
+     * 当前等待中的定时器，需要持有{@link #mutex}
+     */
+    private TimingWheelTimer.Timeout timeout;
+
+    /**
+     * 定时器版本，每次设置定时器都会加1，用于忽略已经过期的定时器回调，需要持有{@link #mutex}
+     */
+    private long timeoutVersion;
+
+    /**
+     * 默认构造器
+     *
+     * @param task
+     *            要执行的任务
+     * @param taskName
+     *            任务名
+     * @param mergeScheduler
+     *            是否合并调度
+     * @param timer
+     *            共享定时器，需要调用方启动
+     * @param executor
+     *            实际执行任务的线程池
+     */
+    public TimerSchedulerTask(Runnable task, String taskName, boolean mergeScheduler, TimingWheelTimer timer,
+        Executor executor) {
+        Assert.notNull(task, "任务不能为空", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        Assert.notBlank(taskName, "任务名不能为空", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        Assert.notNull(timer, "定时器不能为空", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        Assert.notNull(executor, "任务执行线程池不能为空", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+
+        this.task = task;
+        this.taskName = taskName;
+        this.mergeScheduler = mergeScheduler;
+        this.timer = timer;
+        this.executor = executor;
+        this.start = false;
+        this.fixedDelay = 0;
+        this.initialDelay = 0;
+        this.permits = 0;
+        this.status = TaskStatus.STOPPED;
+    }
+
+    @Override
+    public void start() {
+        synchronized (mutex) {
+            if (start) {
+                LOGGER.warn("当前任务 [{}] 已经启动，无需重复启动", taskName);
+                return;
+            }
+
+            Assert.assertTrue(fixedDelay > 0, StringUtils.format("当前任务 [{}] fixedDelay还未初始化，请初始化后启动", taskName),
+                ExceptionProviderConst.IllegalStateExceptionProvider);
+
+            start = true;
+            // 如果上一轮的执行还未结束，那么等待执行结束后自动进入下一轮等待即可
+            if (status != TaskStatus.STOPPED) {
+                return;
+            }
+
+            if (initialDelay > 0) {
+                await(initialDelay);
+            } else {
+                submit();
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (mutex) {
+            if (!start) {
+                return;
+            }
+
+            start = false;
+            cancelTimeout();
+            // 执行中的任务会在执行完毕后将状态置为STOPPED
+            if (status == TaskStatus.WAITING) {
+                status = TaskStatus.STOPPED;
+            }
+        }
+    }
+
+    @Override
+    public void scheduler() {
+        synchronized (mutex) {
+            permits++;
+            // 等待中的任务立即唤醒，执行中或者未启动的任务只累加调度次数，执行完毕（启动）后会消费
+            if (start && status == TaskStatus.WAITING) {
+                cancelTimeout();
+                consumePermits();
+                submit();
+            }
+        }
+    }
+
+    @Override
+    public long fixedDelay() {
+        return fixedDelay;
+    }
+
+    @Override
+    public void setFixedDelay(final long fixedDelay) {
+        this.fixedDelay = fixedDelay;
+    }
+
+    @Override
+    public long initialDelay() {
+        return initialDelay;
+    }
+
+    @Override
+    public void setInitialDelay(final long initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    /**
+     * 等待指定时间后执行任务，如果已经有堆积的主动调度则立即执行，需要持有{@link #mutex}
+     *
+     * @param delay
+     *            等待时间，单位毫秒
+     */
+    private void await(long delay) {
+        if (permits > 0) {
+            consumePermits();
+            submit();
+            return;
+        }
+
+        schedule(delay);
+    }
+
+    /**
+     * 启动定时器，等待指定时间后执行任务，需要持有{@link #mutex}
+     *
+     * @param delay
+     *            等待时间，单位毫秒
+     */
+    private void schedule(long delay) {
+        status = TaskStatus.WAITING;
+        long version = ++timeoutVersion;
+        timeout = timer.schedule(() -> onTimeout(version), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 定时器到期回调
+     *
+     * @param version
+     *            定时器版本
+     */
+    private void onTimeout(long version) {
+        synchronized (mutex) {
+            // 定时器已经被取消或者已经被新的定时器替代
+            if (!start || status != TaskStatus.WAITING || version != timeoutVersion) {
+                return;
+            }
+
+            timeout = null;
+            submit();
+        }
+    }
+
+    /**
+     * 取消当前等待中的定时器，需要持有{@link #mutex}
+     */
+    private void cancelTimeout() {
+        timeoutVersion++;
+        if (timeout != null) {
+            timeout.cancel();
+            timeout = null;
+        }
+    }
+
+    /**
+     * 消费堆积的主动调度，合并调度时全部消费，否则消费一次，需要持有{@link #mutex}
+     */
+    private void consumePermits() {
+        permits = mergeScheduler ? 0 : permits - 1;
+    }
+
+    /**
+     * 将任务提交到线程池执行，需要持有{@link #mutex}；线程池拒绝时直接进入下一轮等待，堆积的主动调度留到下次执行时消费，这里不能调用 {@link #await(long)}，否则堆积的主动调度会导致递归提交
+     */
+    private void submit() {
+        status = TaskStatus.RUNNING;
+        try {
+            executor.execute(this::execute);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn(e, "定时任务 [{}] 提交到线程池失败，本轮执行将被忽略", taskName);
+            schedule(fixedDelay);
+        }
+    }
+
+    /**
+     * 在线程池中执行任务，执行完毕后如果有堆积的主动调度则继续执行，否则进入下一轮等待
+     */
+    private void execute() {
+        boolean exec = true;
+        while (exec) {
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                LOGGER.warn(throwable, "定时任务 [{}] 本轮执行失败（不影响后续执行）", taskName);
+            }
+
+            synchronized (mutex) {
+                if (!start) {
+                    status = TaskStatus.STOPPED;
+                    exec = false;
+                } else if (permits > 0) {
+                    consumePermits();
+                } else {
+                    await(fixedDelay);
+                    exec = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * 任务状态
+     */
+    private enum TaskStatus {
+
+        /**
+         * 任务未启动
+         */
+        STOPPED,
+
+        /**
+         * 任务等待定时器到期或者主动调度，此时不占用任何线程
+         */
+        WAITING,
+
+        /**
+         * 任务已经提交到线程池，执行中
+         */
+        RUNNING
+    }
+
+}
@@ -0,0 +1,517 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.github.joekerouac.common.tools.constant.ExceptionProviderConst;
+import com.github.joekerouac.common.tools.lock.LockTaskUtil;
+import com.github.joekerouac.common.tools.util.Assert;
+
+import lombok.CustomLog;
+
+/**
+ * 基于分层时间轮的定时器，添加、取消定时任务的时间复杂度都是O(1)；
+ *
+ * 时间轮的每个槽位是一个任务链表，只有非空的槽位才会放入{@link DelayQueue}，定时器线程只会在最早的非空槽位到期时才会被唤醒，然后将该槽位中的任务
+ * 降级到更精细的时间轮或者执行，所以唤醒的开销只与到期的任务有关，与定时器中的任务总量无关；超出当前时间轮范围的任务会放入上层时间轮（上层时间轮按需 创建，每层的tick是下层的整个时间跨度）；
+ *
+ * 注意：到期的任务是在定时器线程中执行的（如果添加任务时任务已经到期，则直接在添加任务的线程中执行），所以任务应该尽快执行完毕，例如将实际的任务提交 到线程池中执行；
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 14:10:00
+ * @since 2.1.6
+ */
+@CustomLog
+public class TimingWheelTimer {
+
+    /**
+     * 默认tick，单位毫秒
+     */
+    private static final long DEFAULT_TICK_MS = 1;
+
+    /**
+     * 默认每层时间轮的槽位数
+     */
+    private static final int DEFAULT_WHEEL_SIZE = 64;
+
+    /**
+     * 所有非空槽位
+     */
+    private final DelayQueue<TimerTaskList> delayQueue;
+
+    /**
+     * 时间轮锁，添加、取消任务以及推进时间轮的时候都需要加锁
+     */
+    private final Lock lock;
+
+    /**
+     * 最底层时间轮
+     */
+    private final TimingWheel timingWheel;
+
+    /**
+     * 定时器线程
+     */
+    private final Thread timerThread;
+
+    /**
+     * 当前定时器是否启动
+     */
+    private volatile boolean start;
+
+    public TimingWheelTimer(String name) {
+        this(name, DEFAULT_TICK_MS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * 构造器
+     *
+     * @param name
+     *            定时器名，同时也是定时器线程的名字
+     * @param tickMs
+     *            最底层时间轮的tick，也就是定时器的精度，单位毫秒
+     * @param wheelSize
+     *            每层时间轮的槽位数
+     */
+    public TimingWheelTimer(String name, long tickMs, int wheelSize) {
+        this(name, tickMs, wheelSize, false);
+    }
+
+    /**
+     * 构造器
+     *
+     * @param name
+     *            定时器名，同时也是定时器线程的名字
+     * @param tickMs
+     *            最底层时间轮的tick，也就是定时器的精度，单位毫秒
+     * @param wheelSize
+     *            每层时间轮的槽位数
+     * @param daemon
+     *            定时器线程是否是守护线程
+     */
+    public TimingWheelTimer(String name, long tickMs, int wheelSize, boolean daemon) {
+        Assert.notBlank(name, "定时器名称不能为空", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        Assert.assertTrue(tickMs > 0, "tickMs必须大于0", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+        Assert.assertTrue(wheelSize > 1, "wheelSize必须大于1", ExceptionProviderConst.IllegalArgumentExceptionProvider);
+
+        this.delayQueue = new DelayQueue<>();
+        this.lock = new ReentrantLock();
+        this.timingWheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis(), delayQueue);
+        this.timerThread = new Thread(this::run, name);
+        this.timerThread.setDaemon(daemon);
+        this.start = false;
+    }
+
+    /**
+     * 启动定时器
+     */
+    public synchronized void start() {
+        if (start) {
+            LOGGER.warn("当前定时器已经启动，请勿重复启动");
+            return;
+        }
+
+        start = true;
+        timerThread.start();
+    }
+
+    /**
+     * 停止定时器，停止后所有未到期的任务都不会再执行
+     */
+    public synchronized void stop() {
+        if (!start) {
+            LOGGER.warn("当前定时器已经关闭，请勿重复关闭");
+            return;
+        }
+
+        start = false;
+        timerThread.interrupt();
+    }
+
+    /**
+     * 添加定时任务
+     *
+     * @param task
+     *            任务，到期后在定时器线程中执行，应该尽快执行完毕
+     * @param delay
+     *            延迟时间，小于等于0时立即在当前线程执行
+     * @param unit
+     *            时间单位
+     * @return 定时任务句柄，可以用于取消任务
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Assert.argNotNull(task, "task");
+        Assert.argNotNull(unit, "unit");
+
+        TimerTaskEntry entry = new TimerTaskEntry(task, System.currentTimeMillis() + unit.toMillis(delay));
+        boolean added = LockTaskUtil.runWithLock(lock, () -> timingWheel.add(entry));
+        if (!added) {
+            // 已经到期了，直接执行
+            entry.run();
+        }
+        return entry;
+    }
+
+    /**
+     * 定时器线程主循环
+     */
+    private void run() {
+        List<TimerTaskEntry> expired = new ArrayList<>();
+
+        while (start) {
+            TimerTaskList bucket;
+            try {
+                bucket = delayQueue.take();
+            } catch (InterruptedException e) {
+                // 如果当前定时器已经停止则退出，否则忽略异常
+                continue;
+            }
+
+            lock.lock();
+            try {
+                while (bucket != null) {
+                    timingWheel.advanceClock(bucket.getExpiration());
+                    // 将槽位中的任务重新添加，未到期的会降级到更精细的时间轮中，到期的收集起来执行
+                    bucket.flush(entry -> {
+                        if (!timingWheel.add(entry)) {
+                            expired.add(entry);
+                        }
+                    });
+                    bucket = delayQueue.poll();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // 在锁外执行任务
+            for (TimerTaskEntry entry : expired) {
+                entry.run();
+            }
+            expired.clear();
+        }
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public interface Timeout {
+
+        /**
+         * 取消定时任务
+         *
+         * @return 返回true表示取消成功，返回false表示任务已经执行或者已经被取消
+         */
+        boolean cancel();
+
+        /**
+         * 定时任务是否已经被取消
+         *
+         * @return true表示已经被取消
+         */
+        boolean isCancelled();
+
+    }
+
+    /**
+     * 定时任务节点
+     */
+    private class TimerTaskEntry implements Timeout {
+
+        /**
+         * 实际任务
+         */
+        private final Runnable task;
+
+        /**
+         * 到期时间戳
+         */
+        private final long expirationMs;
+
+        /**
+         * 任务状态，0表示等待执行，1表示已经执行，2表示已经取消
+         */
+        private volatile int state;
+
+        /**
+         * 当前所在的槽位，需要持有{@link #lock}
+         */
+        private TimerTaskList list;
+
+        /**
+         * 前一个节点，需要持有{@link #lock}
+         */
+        private TimerTaskEntry prev;
+
+        /**
+         * 后一个节点，需要持有{@link #lock}
+         */
+        private TimerTaskEntry next;
+
+        TimerTaskEntry(Runnable task, long expirationMs) {
+            this.task = task;
+            this.expirationMs = expirationMs;
+            this.state = 0;
+        }
+
+        @Override
+        public boolean cancel() {
+            return LockTaskUtil.runWithLock(lock, () -> {
+                if (state != 0) {
+                    return false;
+                }
+
+                state = 2;
+                if (list != null) {
+                    list.remove(this);
+                }
+                return true;
+            });
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == 2;
+        }
+
+        /**
+         * 执行任务
+         */
+        void run() {
+            boolean run = LockTaskUtil.runWithLock(lock, () -> {
+                if (state != 0) {
+                    return false;
+                }
+                state = 1;
+                return true;
+            });
+
+            if (!run) {
+                return;
+            }
+
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                LOGGER.warn(throwable, "定时任务执行过程中发生异常，异常将被忽略");
+            }
+        }
+    }
+
+    /**
+     * 时间轮槽位，一个双向链表
+     */
+    private class TimerTaskList implements Delayed {
+
+        /**
+         * 哨兵节点
+         */
+        private final TimerTaskEntry root;
+
+        /**
+         * 槽位到期时间，-1表示当前槽位不在延迟队列中
+         */
+        private final AtomicLong expiration;
+
+        TimerTaskList() {
+            this.root = new TimerTaskEntry(null, -1);
+            this.root.prev = root;
+            this.root.next = root;
+            this.expiration = new AtomicLong(-1);
+        }
+
+        /**
+         * 设置槽位到期时间
+         *
+         * @param expirationMs
+         *            到期时间
+         * @return 返回true表示到期时间发生了变化，此时需要将槽位重新放入延迟队列
+         */
+        boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        long getExpiration() {
+            return expiration.get();
+        }
+
+        /**
+         * 添加任务，需要持有{@link #lock}
+         *
+         * @param entry
+         *            任务
+         */
+        void add(TimerTaskEntry entry) {
+            TimerTaskEntry tail = root.prev;
+            entry.next = root;
+            entry.prev = tail;
+            entry.list = this;
+            tail.next = entry;
+            root.prev = entry;
+        }
+
+        /**
+         * 删除任务，需要持有{@link #lock}
+         *
+         * @param entry
+         *            任务
+         */
+        void remove(TimerTaskEntry entry) {
+            if (entry.list != this) {
+                return;
+            }
+
+            entry.next.prev = entry.prev;
+            entry.prev.next = entry.next;
+            entry.next = null;
+            entry.prev = null;
+            entry.list = null;
+        }
+
+        /**
+         * 取出所有任务并交给指定处理器，同时重置槽位到期时间，需要持有{@link #lock}
+         *
+         * @param consumer
+         *            处理器
+         */
+        void flush(Consumer<TimerTaskEntry> consumer) {
+            TimerTaskEntry head = root.next;
+            while (head != root) {
+                remove(head);
+                consumer.accept(head);
+                head = root.next;
+            }
+            expiration.set(-1);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(getExpiration(), ((TimerTaskList)o).getExpiration());
+        }
+    }
+
+    /**
+     * 单层时间轮，所有方法都需要持有{@link #lock}
+     */
+    private class TimingWheel {
+
+        /**
+         * 当前层的tick，单位毫秒
+         */
+        private final long tickMs;
+
+        /**
+         * 槽位数
+         */
+        private final int wheelSize;
+
+        /**
+         * 当前层的时间跨度
+         */
+        private final long interval;
+
+        /**
+         * 所有槽位
+         */
+        private final TimerTaskList[] buckets;
+
+        /**
+         * 延迟队列
+         */
+        private final DelayQueue<TimerTaskList> queue;
+
+        /**
+         * 当前时间，tickMs的整数倍
+         */
+        private long currentTime;
+
+        /**
+         * 上层时间轮，按需创建
+         */
+        private TimingWheel overflowWheel;
+
+        TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerTaskList> queue) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.queue = queue;
+            this.currentTime = startMs - (startMs % tickMs);
+            this.buckets = new TimerTaskList[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new TimerTaskList();
+            }
+        }
+
+        /**
+         * 添加任务
+         *
+         * @param entry
+         *            任务
+         * @return 返回false表示任务已经到期（或者已经被取消），需要立即执行
+         */
+        boolean add(TimerTaskEntry entry) {
+            long expiration = entry.expirationMs;
+
+            if (entry.state != 0) {
+                return false;
+            } else if (expiration < currentTime + tickMs) {
+                // 已经到期
+                return false;
+            } else if (expiration < currentTime + interval) {
+                long virtualId = expiration / tickMs;
+                TimerTaskList bucket = buckets[(int)(virtualId % wheelSize)];
+                bucket.add(entry);
+
+                // 槽位到期时间变化说明槽位是新启用的，需要放入延迟队列
+                if (bucket.setExpiration(virtualId * tickMs)) {
+                    queue.offer(bucket);
+                }
+                return true;
+            } else {
+                if (overflowWheel == null) {
+                    overflowWheel = new TimingWheel(interval, wheelSize, currentTime, queue);
+                }
+                return overflowWheel.add(entry);
+            }
+        }
+
+        /**
+         * 推进时间轮
+         *
+         * @param timeMs
+         *            当前时间
+         */
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - (timeMs % tickMs);
+                if (overflowWheel != null) {
+                    overflowWheel.advanceClock(currentTime);
+                }
+            }
+        }
+    }
+
+}
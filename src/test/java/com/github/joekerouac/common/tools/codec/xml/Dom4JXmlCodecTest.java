@@ -12,6 +12,7 @@
  */
 package com.github.joekerouac.common.tools.codec.xml;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
@@ -19,16 +20,25 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.dom4j.io.SAXContentHandler;
+import org.dom4j.io.SAXReader;
 import org.testng.Assert;
 import org.testng.annotations.Test;
+import org.xml.sax.XMLReader;
 
 import com.github.joekerouac.common.tools.codec.json.annotations.DateTimeFormat;
+import com.github.joekerouac.common.tools.reflect.ReflectUtil;
 import com.github.joekerouac.common.tools.string.StringUtils;
 
 import lombok.Data;
@@ -154,6 +164,125 @@ public class Dom4JXmlCodecTest {
         Assert.assertEquals(expect, read);
     }
 
+    @Test
+    public void testNested() {
+        String xml =
+            "<root ID=\"1\"><Name>n1</Name><child><Name>n2</Name><child><Name>n3</Name></child></child></root>";
+        Node node = PARSER.read(xml.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, Node.class);
+        Assert.assertEquals(node.getName(), "n1");
+        Assert.assertEquals(node.getId(), "1");
+        Assert.assertEquals(node.getChild().getName(), "n2");
+        Assert.assertEquals(node.getChild().getChild().getName(), "n3");
+        Assert.assertNull(node.getChild().getChild().getChild());
+    }
+
+    @Test
+    public void testWrite() {
+        User user = build();
+
+        // 流式写出的结果与构建文档后写出的结果一致
+        String expect = PARSER.toXml(user, StandardCharsets.UTF_8, null, false, true).replaceAll(">\\s+<", "><").trim();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PARSER.write(user, StandardCharsets.UTF_8, outputStream);
+        Assert.assertEquals(new String(outputStream.toByteArray(), StandardCharsets.UTF_8), expect);
+        Assert.assertEquals(PARSER.write(user, StandardCharsets.UTF_8), outputStream.toByteArray());
+        Assert.assertEquals(PARSER.read(outputStream.toByteArray(), StandardCharsets.UTF_8, User.class), user);
+
+        // 属性、简单类型集合、CDATA
+        XmlObj obj = new XmlObj();
+        obj.setList(Arrays.asList("list1", "list2"));
+        obj.setMap(Collections.singletonMap("key", "value"));
+        String xml = new String(PARSER.write(obj, StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        Assert.assertEquals(xml,
+            "<root port=\"8080\" key=\"value\"><name>123</name><list>list1</list><list>list2</list></root>");
+
+        // 集合中的null元素，忽略null时跳过，否则输出空节点，构建文档与流式写出一致
+        obj.setList(Arrays.asList("list1", null, "list2"));
+        xml = new String(PARSER.write(obj, StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        Assert.assertEquals(xml,
+            "<root port=\"8080\" key=\"value\"><name>123</name><list>list1</list><list>list2</list></root>");
+        Assert.assertEquals(PARSER.toXmlElement(obj, null, false).asXML(), xml);
+        xml = PARSER.toXml(obj, StandardCharsets.UTF_8, null, true, false);
+        Assert.assertEquals(xml,
+            "<root port=\"8080\" key=\"value\"><name>123</name><list>list1</list><list/><list>list2</list></root>");
+        Assert.assertEquals(PARSER.toXmlElement(obj, null, true).asXML(), xml);
+
+        Dom4JXmlCodec codec = new Dom4JXmlCodec(true);
+        xml = new String(codec.write(Collections.singletonMap("data", "<a&b>]]>"), StandardCharsets.UTF_8),
+            StandardCharsets.UTF_8);
+        Assert.assertEquals(xml,
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<root><data>&lt;a&amp;b&gt;]]&gt;</data></root>");
+        Assert.assertEquals(codec.parseToMap(xml, Map.class).get("data"), "<a&b>]]>");
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        byte[] xml = NOTHASNULL.getBytes(StandardCharsets.UTF_8);
+        User user = build();
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    int success = 0;
+                    for (int j = 0; j < 2000; j++) {
+                        User read = PARSER.read(xml, StandardCharsets.UTF_8, User.class);
+                        if (read.getAge() == user.getAge() && read.getName().equals(user.getName())) {
+                            success++;
+                        }
+                    }
+                    return success;
+                }));
+            }
+
+            for (Future<Integer> future : futures) {
+                Assert.assertEquals(future.get().intValue(), 2000);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReaderRelease() throws Exception {
+        Dom4JXmlCodec codec = new Dom4JXmlCodec();
+        Assert.assertEquals(codec.parseToMap("<root><name>joe</name></root>", Map.class).get("name"), "joe");
+
+        // 归还到池中的reader不能再持有上次解析的文档
+        Object pool = ReflectUtil.getFieldValue(codec, "readerPool");
+        Collection<SAXReader> idle = ReflectUtil.getFieldValue(pool, "idle");
+        Assert.assertFalse(idle.isEmpty());
+        for (SAXReader reader : idle) {
+            XMLReader xmlReader = reader.getXMLReader();
+            Assert.assertFalse(xmlReader.getContentHandler() instanceof SAXContentHandler);
+            Assert.assertFalse(xmlReader.getErrorHandler() instanceof SAXContentHandler);
+            Assert.assertFalse(
+                xmlReader.getProperty("http://xml.org/sax/properties/lexical-handler") instanceof SAXContentHandler);
+            Assert.assertFalse(xmlReader
+                .getProperty("http://xml.org/sax/properties/declaration-handler") instanceof SAXContentHandler);
+        }
+
+        // 归还后的reader可以继续使用
+        Assert.assertEquals(codec.parseToMap("<root><name>kerouac</name></root>", Map.class).get("name"), "kerouac");
+    }
+
+    @Test
+    public void testXXE() {
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE root [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>"
+            + "<root><name>&xxe;</name></root>";
+        Dom4JXmlCodec codec = new Dom4JXmlCodec();
+        Assert.assertNull(codec.parseToMap(xml, Map.class));
+
+        // 修改feature后新借用的reader使用新配置
+        codec.setFeature("http://apache.org/xml/features/disallow-doctype-decl", false);
+        codec.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        Map<String, Object> map = codec.parseToMap(xml, Map.class);
+        Assert.assertNotNull(map);
+        Assert.assertTrue(StringUtils.isBlank((String)map.get("name")));
+    }
+
     @Test
     public void testDate() {
         String data = "<root>\n" + "    <localDateTime>2023-06-02 17:00:00</localDateTime>\n"
@@ -220,6 +349,17 @@ public class Dom4JXmlCodecTest {
         private Set<User> userSet;
     }
 
+    @Data
+    static class Node {
+
+        @XmlNode(isAttribute = true, attributeName = "ID")
+        private String id;
+
+        private String name;
+
+        private Node child;
+    }
+
     @Data
     static class DateObj {
 
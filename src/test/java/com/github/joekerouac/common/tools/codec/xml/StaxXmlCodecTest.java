@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.codec.xml;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dom4j.Element;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.github.joekerouac.common.tools.codec.exception.SerializeException;
+import com.github.joekerouac.common.tools.codec.xml.deserializer.IntDeserializer;
+
+import lombok.Data;
+
+/**
+ * @author JoeKerouac
+ * @date 2026-10-17 23:10:00
+ * @since 2.1.6
+ */
+public class StaxXmlCodecTest {
+
+    private static final Dom4JXmlCodec DOM4J = new Dom4JXmlCodec();
+
+    private static final StaxXmlCodec STAX = new StaxXmlCodec();
+
+    private static final String USER_XML = "<USER><users2><user><ALIAS>u1</ALIAS><age>0</age><NAME>u1</NAME></user"
+        + "></users2><users1><ALIAS>u1</ALIAS><age>0</age><NAME>u1</NAME></users1><ALIAS>qiao</ALIAS><userSet"
+        + "><ALIAS>u2</ALIAS><age>0</age><NAME>u2</NAME></userSet><age>18</age><NAME>joe</NAME></USER>";
+
+    @Test
+    public void testRead() {
+        // 解析结果应该与dom4j一致
+        Assert.assertEquals(read(USER_XML, Dom4JXmlCodecTest.User.class),
+            DOM4J.read(USER_XML, Dom4JXmlCodecTest.User.class));
+
+        String xml = "<root ID=\"1\"><Name>n1</Name><child><Name>n2</Name><child><name>n3</name><Name>N3</Name>"
+            + "</child></child></root>";
+        Dom4JXmlCodecTest.Node node = read(xml, Dom4JXmlCodecTest.Node.class);
+        Assert.assertEquals(node, DOM4J.read(xml, Dom4JXmlCodecTest.Node.class));
+        Assert.assertEquals(node.getId(), "1");
+        Assert.assertEquals(node.getChild().getName(), "n2");
+        // 名字完全一致的节点优先
+        Assert.assertEquals(node.getChild().getChild().getName(), "n3");
+
+        String date = "<root><localDateTime>2023-06-02 17:00:00</localDateTime>"
+            + "<localDateTime1>20230602170000</localDateTime1><localDate>20230602</localDate>"
+            + "<localDate1>2023-06-02</localDate1><localTime>170000</localTime><localTime1>17:00:00</localTime1></root>";
+        Assert.assertEquals(read(date, Dom4JXmlCodecTest.DateObj.class),
+            DOM4J.read(date, Dom4JXmlCodecTest.DateObj.class));
+    }
+
+    @Test
+    public void testAttr() {
+        String xml = "<root port=\"8080\" host=\"localhost\"><server name=\"s1\">text</server><list>a</list><items>"
+            + "<item>1</item><other>x</other><item>2</item></items><list>b</list></root>";
+        AttrObj attrObj = read(xml, AttrObj.class);
+        Assert.assertEquals(attrObj, DOM4J.read(xml, AttrObj.class));
+
+        Assert.assertEquals(attrObj.getPort(), 8080);
+        Assert.assertEquals(attrObj.getAttrs().get("host"), "localhost");
+        Assert.assertEquals(attrObj.getServerName(), "s1");
+        Assert.assertEquals(attrObj.getServer(), "text");
+        Assert.assertEquals(attrObj.getList(), Arrays.asList("a", "b"));
+        Assert.assertEquals(attrObj.getItems(), Arrays.asList(1, 2));
+    }
+
+    @Test
+    public void testMap() {
+        String xml = "<root><name>123</name><list>list1</list><list>list2</list><user><name>u</name></user></root>";
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = read(xml, Map.class);
+        Assert.assertEquals(map, DOM4J.parseToMap(xml, Map.class));
+
+        Map<String, Object> expect = new HashMap<>();
+        expect.put("name", "123");
+        expect.put("list", Arrays.asList("list1", "list2"));
+        expect.put("user", new HashMap<>(Collections.singletonMap("name", "u")));
+        Assert.assertEquals(map, expect);
+
+        Assert.assertEquals(read("<root>text</root>", HashMap.class), Collections.singletonMap("root", "text"));
+    }
+
+    @Test
+    public void testCustomDeserializer() {
+        StaxXmlCodec codec = new StaxXmlCodec();
+        // 非流式的反序列化器会收到只包含当前节点的dom4j节点
+        codec.addDeserializer(Dom4JXmlCodecTest.Node.class, new XmlDeserializer<Dom4JXmlCodecTest.Node>() {
+            @Override
+            public Dom4JXmlCodecTest.Node read(Element element, String attrName) {
+                Dom4JXmlCodecTest.Node node = new Dom4JXmlCodecTest.Node();
+                node.setName(element.elementText("Name") + "-" + element.elements().size());
+                return node;
+            }
+        });
+
+        String xml = "<root><Name>n1</Name><child><Name>n2</Name><child><Name>n3</Name></child></child></root>";
+        Dom4JXmlCodecTest.Node node = codec.read(xml, Dom4JXmlCodecTest.Node.class);
+        Assert.assertEquals(node.getName(), "n1-2");
+    }
+
+    @Test
+    public void testLarge() {
+        StringBuilder sb = new StringBuilder("<root>");
+        List<Integer> expect = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("<list><value>").append(i).append("</value><ignore><a>1</a><b>2</b></ignore></list>");
+            expect.add(i);
+        }
+        sb.append("</root>");
+
+        LargeObj obj = read(sb.toString(), LargeObj.class);
+        Assert.assertEquals(obj.getList().size(), expect.size());
+        for (int i = 0; i < expect.size(); i++) {
+            Assert.assertEquals(obj.getList().get(i).getValue(), expect.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testXXE() {
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE root [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>"
+            + "<root><Name>&xxe;</Name></root>";
+        try {
+            Dom4JXmlCodecTest.Node node = read(xml, Dom4JXmlCodecTest.Node.class);
+            Assert.assertTrue(node.getName() == null || !node.getName().contains("root:"));
+        } catch (SerializeException e) {
+            // 不支持DTD时解析失败也是预期内的
+        }
+    }
+
+    private static <T> T read(String xml, Class<T> clazz) {
+        return STAX.read(xml.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, clazz);
+    }
+
+    @Data
+    static class AttrObj {
+
+        @XmlNode(isAttribute = true)
+        private int port;
+
+        @XmlNode(isAttribute = true)
+        private Map<String, String> attrs;
+
+        @XmlNode(name = "server", isAttribute = true, attributeName = "name")
+        private String serverName;
+
+        private String server;
+
+        private List<String> list;
+
+        @XmlNode(arrayRoot = "item", deserializer = IntDeserializer.class)
+        private List<Integer> items;
+    }
+
+    @Data
+    static class LargeObj {
+
+        @XmlNode(general = Item.class)
+        private List<Item> list;
+    }
+
+    @Data
+    static class Item {
+
+        private int value;
+    }
+
+}
@@ -12,11 +12,17 @@
  */
 package com.github.joekerouac.common.tools.collection;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import com.github.joekerouac.common.tools.reflect.ReflectUtil;
+
 /**
  * @author JoeKerouac
  * @date 2022-10-14 14:37:00
@@ -49,4 +55,319 @@ public class MultiChannelQueueTest {
         queue.consumed(id);
         Assert.assertNotNull(queue.take(1, TimeUnit.MILLISECONDS));
     }
+
+    @Test
+    public void testFifo() throws Exception {
+        MultiChannelQueue<String, String> queue = new MultiChannelQueueImpl<>(10);
+        Assert.assertTrue(queue.addChannel("a", 10, 1));
+        Assert.assertTrue(queue.addChannel("b", 10, 2));
+
+        queue.add("a", "a1");
+        queue.add("b", "b1");
+        queue.add("a", "a2");
+        queue.add("b", "b2");
+        queue.add("b", "b3");
+
+        // 按照放入顺序获取，通道a并发为1，所以a2要等a1消费完毕才能获取
+        Assert.assertEquals(queue.take().getValue(), "a1");
+        Assert.assertEquals(queue.take().getValue(), "b1");
+        Assert.assertEquals(queue.take().getValue(), "b2");
+        Assert.assertNull(queue.take(1, TimeUnit.MILLISECONDS));
+
+        queue.consumed("b");
+        queue.consumed("a");
+        Assert.assertEquals(queue.take().getValue(), "a2");
+        Assert.assertEquals(queue.take().getValue(), "b3");
+
+        // 删除数据
+        queue.add("a", "a3");
+        queue.add("a", "a4");
+        Assert.assertTrue(queue.remove("a", "a3"));
+        Assert.assertFalse(queue.remove("a", "a3"));
+        queue.consumed("a");
+        Assert.assertEquals(queue.take().getValue(), "a4");
+
+        queue.add("b", "b4");
+        Assert.assertEquals(queue.removeChannel("b").size(), 1);
+        Assert.assertTrue(queue.removeChannel("b").isEmpty());
+    }
+
+    @Test
+    public void testDuplicate() throws Exception {
+        // 同一个通道中允许放入相同的数据，删除时删除最早放入的那个
+        MultiChannelQueue<String, String> queue = new MultiChannelQueueImpl<>(10);
+        Assert.assertTrue(queue.addChannel("a", 10, 10));
+        queue.add("a", "x");
+        queue.add("a", "y");
+        queue.add("a", "x");
+        queue.add("a", "z");
+        queue.add("a", "x");
+
+        Assert.assertTrue(queue.remove("a", "x"));
+        Assert.assertEquals(queue.take().getValue(), "y");
+        Assert.assertEquals(queue.take().getValue(), "x");
+        Assert.assertTrue(queue.remove("a", "x"));
+        Assert.assertFalse(queue.remove("a", "x"));
+        Assert.assertEquals(queue.take().getValue(), "z");
+        Assert.assertNull(queue.take(1, TimeUnit.MILLISECONDS));
+
+        queue.add("a", "x");
+        queue.add("a", "x");
+        List<String> remain = queue.removeChannel("a");
+        Assert.assertEquals(remain.size(), 2);
+        Assert.assertEquals(remain.get(0), "x");
+        Assert.assertEquals(remain.get(1), "x");
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        MultiChannelQueue<String, String> queue = new MultiChannelQueueImpl<>(5);
+        Assert.assertTrue(queue.addChannel("a", 10, 2));
+        Assert.assertTrue(queue.addChannel("b", 10, 10));
+
+        Assert.assertTrue(queue.takeBatch(10, 1, TimeUnit.MILLISECONDS).isEmpty());
+
+        for (int i = 0; i < 5; i++) {
+            queue.add("a", "a" + i);
+            queue.add("b", "b" + i);
+        }
+
+        // 通道a并发为2，全局并发为5
+        List<Pair<String, String>> batch = queue.takeBatch(10, 1, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(batch.size(), 5);
+        Assert.assertEquals(batch.get(0).getValue(), "a0");
+        Assert.assertEquals(batch.get(1).getValue(), "b0");
+        Assert.assertEquals(batch.get(2).getValue(), "a1");
+        Assert.assertEquals(batch.get(3).getValue(), "b1");
+        Assert.assertEquals(batch.get(4).getValue(), "b2");
+
+        // 全局令牌已经用完
+        List<Pair<String, String>> list = new ArrayList<>();
+        Assert.assertEquals(queue.drainTo(list, 10), 0);
+
+        // 批量释放令牌
+        queue.consumed("b", 3);
+        Assert.assertEquals(queue.drainTo(list, 10), 2);
+        Assert.assertEquals(list.get(0).getValue(), "b3");
+        Assert.assertEquals(list.get(1).getValue(), "b4");
+
+        queue.consumed("a", 2);
+        queue.consumed("b", 2);
+        Assert.assertEquals(queue.drainTo(list, 1), 1);
+        Assert.assertEquals(list.get(2).getValue(), "a2");
+    }
+
+    @Test
+    public void testDefaultBatch() throws Exception {
+        // 只实现了基础方法的实现类，批量API使用接口的默认实现
+        MultiChannelQueue<String, String> queue = new LegacyQueue<>(new MultiChannelQueueImpl<>(5));
+        Assert.assertTrue(queue.addChannel("a", 10, 2));
+        // 默认实现忽略权重
+        Assert.assertTrue(queue.addChannel("b", 10, 10, 3));
+        Assert.assertFalse(queue.addChannel("b", 10, 10, 3));
+
+        Assert.assertTrue(queue.takeBatch(10, 1, TimeUnit.MILLISECONDS).isEmpty());
+
+        for (int i = 0; i < 5; i++) {
+            queue.add("a", "a" + i);
+            queue.add("b", "b" + i);
+        }
+
+        List<Pair<String, String>> batch = queue.takeBatch(10, 1, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(batch.size(), 5);
+        Assert.assertEquals(batch.get(0).getValue(), "a0");
+        Assert.assertEquals(batch.get(4).getValue(), "b2");
+
+        List<Pair<String, String>> list = new ArrayList<>();
+        Assert.assertEquals(queue.drainTo(list, 10), 0);
+
+        queue.consumed("b", 3);
+        Assert.assertEquals(queue.drainTo(list, 10), 2);
+        Assert.assertEquals(list.get(0).getValue(), "b3");
+        Assert.assertEquals(list.get(1).getValue(), "b4");
+
+        queue.consumed("a", 2);
+        queue.consumed("b", 2);
+        Assert.assertEquals(queue.drainTo(list, 1), 1);
+        Assert.assertEquals(list.get(2).getValue(), "a2");
+    }
+
+    @Test
+    public void testBatchWaiting() throws Exception {
+        MultiChannelQueue<String, String> queue = new MultiChannelQueueImpl<>(2);
+        Assert.assertTrue(queue.addChannel("a", 10, 10));
+        Assert.assertTrue(queue.addChannel("b", 10, 10));
+
+        // 阻塞等待中的批量获取只占用一个全局令牌，不会导致其他消费者拿不到令牌
+        List<Pair<String, String>> batch = new ArrayList<>();
+        Thread batchTaker = new Thread(() -> {
+            try {
+                batch.addAll(queue.takeBatch(2, 5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        batchTaker.start();
+        Thread.sleep(100);
+
+        List<Pair<String, String>> single = new ArrayList<>();
+        Thread taker = new Thread(() -> {
+            try {
+                single.add(queue.take(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        taker.start();
+        Thread.sleep(100);
+
+        // 持有队列锁同时放入两条数据，保证两个消费者被唤醒时两条数据都已经就绪
+        Lock lock = ReflectUtil.getFieldValue(queue, "lock");
+        lock.lock();
+        try {
+            queue.add("a", "a0");
+            queue.add("b", "b0");
+        } finally {
+            lock.unlock();
+        }
+        batchTaker.join();
+        taker.join();
+
+        Assert.assertEquals(batch.size(), 1);
+        Assert.assertEquals(single.size(), 1);
+        Assert.assertNotNull(single.get(0));
+    }
+
+    @Test
+    public void testWeightedRoundRobin() throws Exception {
+        MultiChannelQueue<String, String> queue =
+            new MultiChannelQueueImpl<>(100, MultiChannelQueueImpl.SchedulingPolicy.WEIGHTED_ROUND_ROBIN);
+        Assert.assertTrue(queue.addChannel("a", 100, 100, 2));
+        Assert.assertTrue(queue.addChannel("b", 100, 100));
+        Assert.assertTrue(queue.addChannel("c", 100, 1));
+
+        // 通道a先放入大量数据
+        for (int i = 0; i < 10; i++) {
+            queue.add("a", "a" + i);
+        }
+        queue.add("b", "b0");
+        queue.add("b", "b1");
+        queue.add("c", "c0");
+        queue.add("c", "c1");
+
+        // 通道a权重为2，通道b、c权重为1，通道c并发为1
+        StringBuilder sb = new StringBuilder();
+        Pair<String, String> pair;
+        while ((pair = queue.take(1, TimeUnit.MILLISECONDS)) != null) {
+            sb.append(pair.getValue()).append(",");
+        }
+        Assert.assertEquals(sb.toString(), "a0,a1,b0,c0,a2,a3,b1,a4,a5,a6,a7,a8,a9,");
+
+        queue.consumed("c");
+        Assert.assertEquals(queue.take().getValue(), "c1");
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        int channels = 100;
+        int count = 100;
+        MultiChannelQueue<Integer, Integer> queue = new MultiChannelQueueImpl<>(20);
+        for (int i = 0; i < channels; i++) {
+            Assert.assertTrue(queue.addChannel(i, 10, 2));
+        }
+
+        Thread producer = new Thread(() -> {
+            try {
+                for (int j = 0; j < count; j++) {
+                    for (int i = 0; i < channels; i++) {
+                        queue.add(i, j);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        AtomicInteger consumed = new AtomicInteger();
+        Thread[] consumers = new Thread[4];
+        for (int k = 0; k < consumers.length; k++) {
+            consumers[k] = new Thread(() -> {
+                try {
+                    Pair<Integer, Integer> pair;
+                    while ((pair = queue.take(100, TimeUnit.MILLISECONDS)) != null) {
+                        consumed.incrementAndGet();
+                        queue.consumed(pair.getKey());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            consumers[k].start();
+        }
+
+        producer.join();
+        for (Thread consumer : consumers) {
+            consumer.join();
+        }
+
+        Assert.assertEquals(consumed.get(), channels * count);
+    }
+
+    /**
+     * 只实现基础方法的队列，用于测试接口的默认实现
+     */
+    private static class LegacyQueue<ID, T> implements MultiChannelQueue<ID, T> {
+
+        private final MultiChannelQueue<ID, T> delegate;
+
+        LegacyQueue(MultiChannelQueue<ID, T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean addChannel(ID id, int size, int maxConcurrency) {
+            return delegate.addChannel(id, size, maxConcurrency);
+        }
+
+        @Override
+        public List<T> removeChannel(ID id) {
+            return delegate.removeChannel(id);
+        }
+
+        @Override
+        public Pair<ID, T> take() throws InterruptedException {
+            return delegate.take();
+        }
+
+        @Override
+        public Pair<ID, T> take(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.take(timeout, unit);
+        }
+
+        @Override
+        public void add(ID id, T data) throws InterruptedException {
+            delegate.add(id, data);
+        }
+
+        @Override
+        public boolean add(ID id, T data, long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.add(id, data, timeout, unit);
+        }
+
+        @Override
+        public boolean remove(ID id, T data) {
+            return delegate.remove(id, data);
+        }
+
+        @Override
+        public void consumed(ID id) {
+            delegate.consumed(id);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+    }
 }
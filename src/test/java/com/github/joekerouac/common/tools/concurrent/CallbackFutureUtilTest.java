@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.concurrent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author JoeKerouac
+ * @date 2026-10-17 16:00:00
+ * @since 2.1.6
+ */
+public class CallbackFutureUtilTest {
+
+    @Test
+    public void testMapAndFlatMap() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            StateFuture<Integer> source = new StateFuture<>();
+            source.startRun();
+
+            CallbackFuture<String> mapped = source.map(i -> i * 2).map(String::valueOf, executorService);
+            CallbackFuture<Integer> flatMapped = source.flatMap(i -> CallbackFutureUtil.completed(i + 1));
+            CallbackFuture<Integer> failed = source.map(i -> {
+                throw new IllegalStateException("map failed");
+            });
+            Assert.assertFalse(mapped.isDone());
+
+            source.done(10);
+            Assert.assertEquals(mapped.get(1, TimeUnit.SECONDS), "20");
+            Assert.assertEquals(flatMapped.get(1, TimeUnit.SECONDS).intValue(), 11);
+            ExecutionException exception =
+                Assert.expectThrows(ExecutionException.class, () -> failed.get(1, TimeUnit.SECONDS));
+            Assert.assertTrue(exception.getCause() instanceof IllegalStateException);
+
+            // 上游失败、取消时下游同样失败、取消
+            CallbackFuture<Integer> error = CallbackFutureUtil.failed(new RuntimeException("error"));
+            Assert.assertThrows(ExecutionException.class, () -> error.map(i -> i + 1).get());
+            StateFuture<Integer> cancelled = new StateFuture<>();
+            CallbackFuture<Integer> cancelledMapped = cancelled.map(i -> i + 1);
+            cancelled.cancel(false);
+            Assert.assertTrue(cancelledMapped.isCancelled());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRecoverAndTimeout() throws Exception {
+        CallbackFuture<Integer> error = CallbackFutureUtil.failed(new RuntimeException("error"));
+        Assert.assertEquals(error.recover(ex -> -1).get().intValue(), -1);
+        Assert.assertEquals(CallbackFutureUtil.completed(1).recover(ex -> -1).get().intValue(), 1);
+
+        StateFuture<Integer> source = new StateFuture<>();
+        source.startRun();
+        CallbackFuture<Integer> timeout = source.timeout(50, TimeUnit.MILLISECONDS);
+        ExecutionException exception = Assert.expectThrows(ExecutionException.class, timeout::get);
+        Assert.assertTrue(exception.getCause() instanceof TimeoutException);
+        // 超时不会影响上游
+        Assert.assertFalse(source.isDone());
+
+        StateFuture<Integer> fast = new StateFuture<>();
+        fast.startRun();
+        CallbackFuture<Integer> notTimeout = fast.timeout(1, TimeUnit.SECONDS);
+        fast.done(1);
+        Assert.assertEquals(notTimeout.get(10, TimeUnit.MILLISECONDS).intValue(), 1);
+    }
+
+    @Test
+    public void testCancelUpstream() {
+        // 下游被取消时取消上游
+        StateFuture<Integer> mapSource = new StateFuture<>();
+        mapSource.map(i -> i + 1).cancel(false);
+        Assert.assertTrue(mapSource.isCancelled());
+
+        StateFuture<Integer> recoverSource = new StateFuture<>();
+        recoverSource.recover(ex -> -1).cancel(false);
+        Assert.assertTrue(recoverSource.isCancelled());
+
+        StateFuture<Integer> timeoutSource = new StateFuture<>();
+        timeoutSource.timeout(1, TimeUnit.MINUTES).cancel(false);
+        Assert.assertTrue(timeoutSource.isCancelled());
+
+        StateFuture<Integer> flatMapSource = new StateFuture<>();
+        flatMapSource.flatMap(CallbackFutureUtil::completed).cancel(false);
+        Assert.assertTrue(flatMapSource.isCancelled());
+
+        // 上游已经完成时取消mapper生成的future
+        StateFuture<Integer> next = new StateFuture<>();
+        CallbackFuture<Integer> flatMapped = CallbackFutureUtil.completed(1).flatMap(i -> next);
+        flatMapped.cancel(false);
+        Assert.assertTrue(next.isCancelled());
+
+        // 上游已经完成时取消下游不影响上游
+        CallbackFuture<Integer> completed = CallbackFutureUtil.completed(1);
+        completed.map(i -> i + 1, Runnable::run).cancel(false);
+        Assert.assertFalse(completed.isCancelled());
+    }
+
+    @Test
+    public void testAllOfAndAnyOf() throws Exception {
+        StateFuture<Integer> f1 = new StateFuture<>();
+        StateFuture<Integer> f2 = new StateFuture<>();
+        f1.startRun();
+        f2.startRun();
+
+        CallbackFuture<List<Integer>> all = CallbackFutureUtil.allOf(Arrays.asList(f1, f2));
+        CallbackFuture<Integer> any = CallbackFutureUtil.anyOf(Arrays.asList(f1, f2));
+
+        f2.done(2);
+        Assert.assertFalse(all.isDone());
+        Assert.assertEquals(any.get().intValue(), 2);
+        f1.done(1);
+        // 结果按照入参顺序排列
+        Assert.assertEquals(all.get(), Arrays.asList(1, 2));
+
+        // 任意一个失败则整体失败
+        StateFuture<Integer> f3 = new StateFuture<>();
+        f3.startRun();
+        CallbackFuture<List<Integer>> failed =
+            CallbackFutureUtil.allOf(Arrays.asList(f3, CallbackFutureUtil.failed(new RuntimeException())));
+        Assert.assertThrows(ExecutionException.class, failed::get);
+
+        Assert.assertEquals(CallbackFutureUtil.allOf(Arrays.<CallbackFuture<Integer>>asList()).get().size(), 0);
+    }
+
+    @Test
+    public void testCompletableFuture() throws Exception {
+        // CallbackFuture -> CompletableFuture
+        StateFuture<Integer> source = new StateFuture<>();
+        source.startRun();
+        CompletableFuture<Integer> completableFuture = source.toCompletableFuture();
+        source.done(1);
+        Assert.assertEquals(completableFuture.get().intValue(), 1);
+
+        StateFuture<Integer> cancelSource = new StateFuture<>();
+        cancelSource.toCompletableFuture().cancel(false);
+        Assert.assertTrue(cancelSource.isCancelled());
+
+        // CompletableFuture -> CallbackFuture
+        CompletableFuture<Integer> cf = new CompletableFuture<>();
+        CallbackFuture<Integer> callbackFuture = CallbackFutureUtil.fromCompletableFuture(cf);
+        cf.complete(2);
+        Assert.assertEquals(callbackFuture.get().intValue(), 2);
+
+        CompletableFuture<Integer> failedCf = new CompletableFuture<>();
+        CallbackFuture<Integer> failed = CallbackFutureUtil.fromCompletableFuture(failedCf.thenApply(i -> i + 1));
+        failedCf.completeExceptionally(new IllegalArgumentException());
+        ExecutionException exception = Assert.expectThrows(ExecutionException.class, failed::get);
+        Assert.assertTrue(exception.getCause() instanceof IllegalArgumentException);
+
+        CompletableFuture<Integer> cancelCf = new CompletableFuture<>();
+        CallbackFutureUtil.fromCompletableFuture(cancelCf).cancel(false);
+        Assert.assertTrue(cancelCf.isCancelled());
+        Assert.assertThrows(CancellationException.class, cancelCf::get);
+    }
+
+    @Test
+    public void testHttpFutureCallback() throws Exception {
+        StateFuture<String> target = new StateFuture<>();
+        org.apache.hc.core5.concurrent.FutureCallback<String> httpCallback =
+            CallbackFutureUtil.toHttpFutureCallback(target);
+        httpCallback.completed("ok");
+        Assert.assertEquals(target.get(), "ok");
+
+        StringBuilder sb = new StringBuilder();
+        CallbackFutureUtil.<String>failed(new RuntimeException("error")).addCallback(
+            CallbackFutureUtil.fromHttpFutureCallback(new org.apache.hc.core5.concurrent.FutureCallback<String>() {
+                @Override
+                public void completed(String result) {
+                    sb.append(result);
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    sb.append(ex.getMessage());
+                }
+
+                @Override
+                public void cancelled() {
+                    sb.append("cancelled");
+                }
+            }));
+        Assert.assertEquals(sb.toString(), "error");
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.concurrent;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author JoeKerouac
+ * @date 2026-10-17 17:00:00
+ * @since 2.1.6
+ */
+public class ResultConvertFutureTest {
+
+    @Test
+    public void testCallbackFuture() throws Exception {
+        AtomicInteger convertCounter = new AtomicInteger();
+        AtomicInteger callbackCounter = new AtomicInteger();
+        StateFuture<Integer> source = new StateFuture<>();
+        source.startRun();
+
+        ResultConvertFuture<Integer, Object> future = new ResultConvertFuture<>(source, i -> {
+            convertCounter.incrementAndGet();
+            return new Object();
+        });
+        future.addCallback(new FutureCallback<Object>() {
+            @Override
+            public void success(Object result) {
+                callbackCounter.incrementAndGet();
+            }
+        });
+
+        // 原始future完成时立即转换并触发回调
+        source.done(1);
+        Assert.assertEquals(callbackCounter.get(), 1);
+        Assert.assertEquals(convertCounter.get(), 1);
+
+        // 多次get返回的是同一个对象，并且不会重复转换
+        Object result = future.get();
+        Assert.assertSame(future.get(), result);
+        Assert.assertSame(future.get(1, TimeUnit.MILLISECONDS), result);
+        Assert.assertEquals(convertCounter.get(), 1);
+    }
+
+    @Test
+    public void testPlainFuture() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            AtomicInteger convertCounter = new AtomicInteger();
+            Future<Integer> source = executorService.submit(() -> 1);
+            ResultConvertFuture<Integer, String> future = new ResultConvertFuture<>(source, i -> {
+                convertCounter.incrementAndGet();
+                return String.valueOf(i);
+            });
+
+            Assert.assertEquals(future.get(), "1");
+            Assert.assertEquals(future.get(), "1");
+            Assert.assertEquals(convertCounter.get(), 1);
+
+            // 转换异常同样会被缓存
+            AtomicInteger errorCounter = new AtomicInteger();
+            ResultConvertFuture<Integer, String> error =
+                new ResultConvertFuture<>(executorService.submit(() -> 1), i -> {
+                    errorCounter.incrementAndGet();
+                    throw new IllegalStateException();
+                });
+            for (int i = 0; i < 3; i++) {
+                ExecutionException exception = Assert.expectThrows(ExecutionException.class, error::get);
+                Assert.assertTrue(exception.getCause() instanceof IllegalStateException);
+            }
+            Assert.assertEquals(errorCounter.get(), 1);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+}
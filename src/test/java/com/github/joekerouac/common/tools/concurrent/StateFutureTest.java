@@ -16,6 +16,7 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -197,4 +198,86 @@ public class StateFutureTest {
         Assert.assertTrue(done.get());
     }
 
+    @Test
+    public void testTimeoutAndRemove() throws Exception {
+        StateFuture<Object> stateFuture = new StateFuture<>();
+        stateFuture.startRun();
+
+        // 超时等待
+        for (int i = 0; i < 100; i++) {
+            Assert.assertThrows(TimeoutException.class, () -> stateFuture.get(1, TimeUnit.MICROSECONDS));
+        }
+
+        AtomicInteger counter = new AtomicInteger(0);
+        FutureCallback<Object> removed = new FutureCallback<Object>() {
+            @Override
+            public void complete(Object result, Throwable ex, int status) {
+                counter.incrementAndGet();
+            }
+        };
+        FutureCallback<Object> retained = new FutureCallback<Object>() {
+            @Override
+            public void complete(Object result, Throwable ex, int status) {
+                counter.addAndGet(10);
+            }
+        };
+
+        stateFuture.addCallback(removed);
+        stateFuture.addCallback(retained);
+        stateFuture.removeCallback(removed);
+        Assert.assertTrue(stateFuture.done("result"));
+        // 已经完成，状态无法再变更
+        Assert.assertFalse(stateFuture.exception(new RuntimeException()));
+        Assert.assertFalse(stateFuture.cancel(true));
+
+        // 删除的回调不会执行
+        Assert.assertEquals(counter.get(), 10);
+        Assert.assertEquals(stateFuture.get(1, TimeUnit.MICROSECONDS), "result");
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        // 并发添加回调、等待的同时完成，所有回调都必须执行且只执行一次，所有等待线程都必须被唤醒
+        int threads = 8;
+        for (int round = 0; round < 200; round++) {
+            StateFuture<Object> stateFuture = new StateFuture<>();
+            stateFuture.startRun();
+
+            AtomicInteger callbackCounter = new AtomicInteger(0);
+            AtomicInteger getCounter = new AtomicInteger(0);
+            CountDownLatch startLatch = new CountDownLatch(1);
+            CountDownLatch doneLatch = new CountDownLatch(threads);
+
+            for (int i = 0; i < threads; i++) {
+                new Thread(() -> {
+                    try {
+                        startLatch.await();
+                        for (int j = 0; j < 10; j++) {
+                            stateFuture.addCallback(new FutureCallback<Object>() {
+                                @Override
+                                public void success(Object result) {
+                                    callbackCounter.incrementAndGet();
+                                }
+                            });
+                        }
+                        if (stateFuture.get() != null) {
+                            getCounter.incrementAndGet();
+                        }
+                    } catch (Throwable throwable) {
+                        // 忽略
+                    } finally {
+                        doneLatch.countDown();
+                    }
+                }).start();
+            }
+
+            startLatch.countDown();
+            stateFuture.done(new Object());
+
+            Assert.assertTrue(doneLatch.await(1000, TimeUnit.MILLISECONDS));
+            Assert.assertEquals(callbackCounter.get(), threads * 10);
+            Assert.assertEquals(getCounter.get(), threads);
+        }
+    }
+
 }
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.github.joekerouac.common.tools.cache.LoadingCache;
+import com.github.joekerouac.common.tools.cache.LoadingCacheConfig;
+import com.github.joekerouac.common.tools.cache.impl.BoundedLoadingCache;
+import com.github.joekerouac.common.tools.thread.ThreadUtil;
+
+/**
+ * @author JoeKerouac
+ * @date 2026-10-17 10:20:00
+ * @since 2.1.6
+ */
+public class BoundedLoadingCacheTest {
+
+    @Test
+    public void baseTest() {
+        AtomicInteger loadCount = new AtomicInteger();
+        LoadingCacheConfig<Integer, String> config = new LoadingCacheConfig<>();
+        config.setLoader(key -> {
+            loadCount.incrementAndGet();
+            return key % 10 == 0 ? null : String.valueOf(key);
+        });
+        LoadingCache<Integer, String> cache = new BoundedLoadingCache<>(config);
+
+        Assert.assertNull(cache.getIfPresent(1));
+        Assert.assertEquals(cache.get(1), "1");
+        Assert.assertEquals(cache.get(1), "1");
+        Assert.assertEquals(cache.getIfPresent(1), "1");
+        Assert.assertEquals(loadCount.get(), 1);
+
+        // 加载器返回null时不缓存
+        Assert.assertNull(cache.get(10));
+        Assert.assertNull(cache.get(10));
+        Assert.assertEquals(loadCount.get(), 3);
+
+        cache.put(1, "one");
+        Assert.assertEquals(cache.get(1), "one");
+
+        cache.invalidate(1);
+        Assert.assertNull(cache.getIfPresent(1));
+        Assert.assertEquals(cache.get(1), "1");
+
+        cache.invalidateAll();
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testEviction() {
+        LoadingCacheConfig<Integer, Integer> config = new LoadingCacheConfig<>();
+        config.setMaximumWeight(100);
+        config.setLoader(key -> key);
+        LoadingCache<Integer, Integer> cache = new BoundedLoadingCache<>(config);
+
+        // 热点数据，频繁访问
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 50; j++) {
+                cache.get(j);
+            }
+        }
+
+        // 大量只访问一次的数据
+        for (int i = 1000; i < 10000; i++) {
+            cache.get(i);
+        }
+        cache.cleanUp();
+
+        Assert.assertTrue(cache.size() <= 100, "当前缓存数量：" + cache.size());
+
+        // 热点数据应该大部分都还在
+        int hit = 0;
+        for (int j = 0; j < 50; j++) {
+            if (cache.getIfPresent(j) != null) {
+                hit++;
+            }
+        }
+        Assert.assertTrue(hit >= 40, "热点数据命中数：" + hit);
+    }
+
+    @Test
+    public void testLargeMaximum() {
+        // 上限很大时不能在构造时就分配上限大小的计数器表
+        LoadingCacheConfig<Integer, Integer> config = new LoadingCacheConfig<>();
+        config.setMaximumWeight(Long.MAX_VALUE);
+        config.setLoader(key -> key);
+        LoadingCache<Integer, Integer> cache = new BoundedLoadingCache<>(config);
+
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertEquals(cache.get(i).intValue(), i);
+        }
+        Assert.assertEquals(cache.size(), 10000);
+    }
+
+    @Test
+    public void testWeight() {
+        LoadingCacheConfig<Integer, String> config = new LoadingCacheConfig<>();
+        config.setMaximumWeight(100);
+        config.setWeigher((key, value) -> value.length());
+        config.setLoader(key -> new String(new char[key]));
+        LoadingCache<Integer, String> cache = new BoundedLoadingCache<>(config);
+
+        for (int i = 1; i <= 50; i++) {
+            cache.get(i);
+        }
+        cache.cleanUp();
+
+        int weight = 0;
+        for (int i = 1; i <= 50; i++) {
+            String value = cache.getIfPresent(i);
+            weight += value == null ? 0 : value.length();
+        }
+        Assert.assertTrue(weight <= 100, "当前缓存权重：" + weight);
+    }
+
+    @Test
+    public void testExpire() {
+        AtomicInteger loadCount = new AtomicInteger();
+        LoadingCacheConfig<Integer, Integer> config = new LoadingCacheConfig<>();
+        config.setExpireAfterWrite(200);
+        config.setLoader(key -> loadCount.incrementAndGet());
+        LoadingCache<Integer, Integer> cache = new BoundedLoadingCache<>(config);
+
+        Assert.assertEquals(cache.get(1).intValue(), 1);
+        Assert.assertEquals(cache.get(1).intValue(), 1);
+        ThreadUtil.sleep(250, TimeUnit.MILLISECONDS);
+        Assert.assertNull(cache.getIfPresent(1));
+        Assert.assertEquals(cache.get(1).intValue(), 2);
+
+        config = new LoadingCacheConfig<>();
+        config.setExpireAfterAccess(200);
+        config.setLoader(key -> loadCount.incrementAndGet());
+        cache = new BoundedLoadingCache<>(config);
+
+        int value = cache.get(1);
+        for (int i = 0; i < 4; i++) {
+            ThreadUtil.sleep(100, TimeUnit.MILLISECONDS);
+            // 一直有访问，不会失效
+            Assert.assertEquals(cache.get(1).intValue(), value);
+        }
+        ThreadUtil.sleep(250, TimeUnit.MILLISECONDS);
+        cache.cleanUp();
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testConcurrentLoad() throws Exception {
+        AtomicInteger loadCount = new AtomicInteger();
+        LoadingCacheConfig<Integer, Integer> config = new LoadingCacheConfig<>();
+        config.setMaximumWeight(1000);
+        config.setLoader(key -> {
+            loadCount.incrementAndGet();
+            ThreadUtil.sleep(50, TimeUnit.MILLISECONDS);
+            return key;
+        });
+        LoadingCache<Integer, Integer> cache = new BoundedLoadingCache<>(config);
+
+        int threads = 10;
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    Assert.assertEquals(cache.get(1).intValue(), 1);
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+
+        // 同一个key同时只有一个线程加载
+        Assert.assertEquals(loadCount.get(), 1);
+    }
+
+}
@@ -12,6 +12,9 @@
  */
 package com.github.joekerouac.common.tools.impl;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -43,4 +46,51 @@ public class FixedTimeoutCacheTest {
         Assert.assertEquals(fixedTimeoutCache.refresh().intValue(), 2);
     }
 
+    @Test
+    public void testSingleFlight() throws Exception {
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+        FixedTimeoutCache<Integer> fixedTimeoutCache = new FixedTimeoutCache<>(500, () -> {
+            ThreadUtil.sleep(50, TimeUnit.MILLISECONDS);
+            return atomicInteger.getAndIncrement();
+        });
+
+        int threads = 10;
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    fixedTimeoutCache.getTarget();
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+
+        // 并发获取时只应该加载一次
+        Assert.assertEquals(atomicInteger.get(), 1);
+        Assert.assertEquals(fixedTimeoutCache.getTarget().intValue(), 0);
+    }
+
+    @Test
+    public void testRefreshAhead() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicInteger atomicInteger = new AtomicInteger(0);
+            FixedTimeoutCache<Integer> fixedTimeoutCache =
+                new FixedTimeoutCache<>(500, atomicInteger::getAndIncrement, 0.5, executor);
+
+            Assert.assertEquals(fixedTimeoutCache.getTarget().intValue(), 0);
+            ThreadUtil.sleep(300, TimeUnit.MILLISECONDS);
+            // 超过提前刷新时间，触发后台刷新，但是仍然返回旧值
+            Assert.assertEquals(fixedTimeoutCache.getTarget().intValue(), 0);
+            ThreadUtil.sleep(100, TimeUnit.MILLISECONDS);
+            // 后台刷新完成，返回新值
+            Assert.assertEquals(fixedTimeoutCache.getTarget().intValue(), 1);
+            Assert.assertEquals(atomicInteger.get(), 2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
 }
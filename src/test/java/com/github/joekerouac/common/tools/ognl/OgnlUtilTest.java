@@ -58,6 +58,60 @@ public class OgnlUtilTest {
         Assert.assertEquals(exec, expectResult);
     }
 
+    @Test(dataProvider = "datasource")
+    public void compileTest(String expressionStr, Object expectResult, Map<Object, Object> context, Object root) {
+        // 直接使用表达式字符串执行，多次执行后会编译，编译前后的执行结果必须一致
+        OgnlUtil.setCompileThreshold(3);
+        try {
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(OgnlUtil.exec(expressionStr, context, root), expectResult);
+            }
+        } finally {
+            OgnlUtil.setCompileThreshold(0);
+        }
+    }
+
+    @Test
+    public void contextTest() {
+        OgnlUtil.setCompileThreshold(3);
+        try {
+            // 上下文中的数据不会残留到下一次执行
+            Assert.assertEquals(OgnlUtil.exec("#a", Collections.singletonMap("a", 1), this), 1);
+            Assert.assertNull(OgnlUtil.exec("#a", null, this));
+
+            // 嵌套执行
+            Map<Object, Object> context = new HashMap<>();
+            context.put("a", 1);
+            context.put("b", 2);
+            Object result = OgnlUtil.exec("@" + OgnlUtilTest.class.getName() + "@nested(#a, #b) + #a", context, this);
+            Assert.assertEquals(result, 4);
+
+            // 编译后上下文中数据类型变化时退回到解释执行
+            Map<Object, Object> user = Collections.singletonMap("user", new User("JoeKerouac", 20));
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(OgnlUtil.exec("#user.name", user, this), "JoeKerouac");
+            }
+            Assert.assertEquals(OgnlUtil.exec("#user.length()", Collections.singletonMap("user", "abc"), this), 3);
+            Assert.assertNull(OgnlUtil.exec("#user.name", Collections.singletonMap("user", new HashMap<>()), this));
+        } finally {
+            OgnlUtil.setCompileThreshold(0);
+        }
+    }
+
+    @Test
+    public void sideEffectTest() {
+        // 默认不编译，有副作用的表达式每次只执行一次
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            OgnlUtil.exec("add(#v)", Collections.singletonMap("v", "v"), list);
+        }
+        Assert.assertEquals(list.size(), 200);
+    }
+
+    public static int nested(int a, int b) {
+        return (Integer)OgnlUtil.exec("#a + b", Collections.singletonMap("a", a), Collections.singletonMap("b", b));
+    }
+
     @DataProvider
     public Object[][] datasource() {
         // #root固定引用root对象（不是context的root）
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.proxy;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import com.github.joekerouac.common.tools.file.FileUtils;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+
+/**
+ * @author JoeKerouac
+ * @date 2026-10-18 16:30:00
+ * @since 2.1.6
+ */
+public class ProxyClassDiskCacheTest {
+
+    private static final String DYNAMIC_NAME = "com.github.joekerouac.common.tools.proxy.test.Dynamic";
+
+    @Test
+    public void testLoad() throws Exception {
+        doTest(ProxyClient.ClientType.BYTE_BUDDY);
+    }
+
+    @Test
+    public void testCglibLoad() throws Exception {
+        // 高版本JDK上cglib默认无法初始化（需要--add-opens），此时跳过
+        try {
+            Class.forName("net.sf.cglib.proxy.Enhancer", true, ProxyClassDiskCacheTest.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new SkipException("cglib无法初始化，跳过", e);
+        }
+        doTest(ProxyClient.ClientType.CGLIB);
+    }
+
+    private void doTest(ProxyClient.ClientType type) throws Exception {
+        ProxyClient client = ProxyClient.getInstance(type);
+        File dir = Files.createTempDirectory("proxy-cache").toFile();
+        ProxyClassDiskCache.setDefault(new ProxyClassDiskCache(dir));
+        try {
+            Interception interception = (target, params, method, invoker) -> method.getName().equals("say")
+                ? "proxy:" + params[0] : invoker.call();
+
+            // 第一次生成并写入磁盘
+            ProxyClientTestHelper.Say say1 =
+                client.create(ProxyClientTestHelper.SayDefault.class, newLoader(), interception);
+            Assert.assertEquals(say1.say("1"), "proxy:1");
+            Assert.assertEquals(listCacheFiles(dir).size(), 1);
+
+            // 其他ClassLoader（相当于新进程）直接从磁盘加载，class名与第一次生成的一致
+            ProxyClientTestHelper.Say say2 =
+                client.create(ProxyClientTestHelper.SayDefault.class, newLoader(), interception);
+            Assert.assertEquals(say2.say("2"), "proxy:2");
+            Assert.assertNotSame(say2.getClass(), say1.getClass());
+            Assert.assertEquals(say2.getClass().getName(), say1.getClass().getName());
+            Assert.assertEquals(listCacheFiles(dir).size(), 1);
+
+            // 缓存文件被篡改或者其他用户可写时不加载，重新生成并覆盖
+            Path file = dir.toPath().resolve(listCacheFiles(dir).get(0));
+            boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+            if (posix) {
+                Assert.assertEquals(Files.getPosixFilePermissions(file), PosixFilePermissions.fromString("rw-------"));
+            }
+            byte[] tampered = Files.readAllBytes(file);
+            tampered[tampered.length - 1] ^= 1;
+            Files.write(file, tampered);
+            Assert.assertEquals(
+                client.create(ProxyClientTestHelper.SayDefault.class, newLoader(), interception).say("3"), "proxy:3");
+            Assert.assertNotEquals(Files.readAllBytes(file), tampered);
+
+            if (posix) {
+                Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-rw-rw-"));
+                Assert.assertEquals(
+                    client.create(ProxyClientTestHelper.SayDefault.class, newLoader(), interception).say("4"),
+                    "proxy:4");
+                Assert.assertEquals(Files.getPosixFilePermissions(file), PosixFilePermissions.fromString("rw-------"));
+            }
+
+            // 父类字节码变化后缓存失效，旧的缓存文件被替换
+            Class<?> dynamic1 = loadDynamic("v1");
+            Object proxy1 = client.create(new Class<?>[] {dynamic1}, dynamic1.getClassLoader(), interception);
+            Assert.assertTrue(dynamic1.isInstance(proxy1));
+            List<String> files = listCacheFiles(dir);
+            Assert.assertEquals(files.size(), 2);
+
+            Class<?> dynamic2 = loadDynamic("v2");
+            Object proxy2 = client.create(new Class<?>[] {dynamic2}, dynamic2.getClassLoader(), interception);
+            Assert.assertTrue(dynamic2.isInstance(proxy2));
+            List<String> newFiles = listCacheFiles(dir);
+            Assert.assertEquals(newFiles.size(), 2);
+            Assert.assertNotEquals(newFiles, files);
+        } finally {
+            ProxyClassDiskCache.setDefault(null);
+            FileUtils.deleteFile(dir);
+        }
+    }
+
+    private static List<String> listCacheFiles(File dir) {
+        String[] files = dir.list((d, name) -> name.endsWith(".proxy"));
+        Assert.assertNotNull(files);
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    private static ClassLoader newLoader() {
+        return new ClassLoader(ProxyClassDiskCacheTest.class.getClassLoader()) {};
+    }
+
+    /**
+     * 加载同名但是字节码不同的接口
+     *
+     * @param method
+     *            接口中声明的方法名
+     * @return 接口
+     */
+    private static Class<?> loadDynamic(String method) throws ClassNotFoundException {
+        byte[] bytes = new ByteBuddy().makeInterface().name(DYNAMIC_NAME)
+            .defineMethod(method, String.class, Visibility.PUBLIC).withoutCode().make().getBytes();
+        return new BytesClassLoader(DYNAMIC_NAME, bytes).loadClass(DYNAMIC_NAME);
+    }
+
+    /**
+     * 从字节码加载指定class，同时可以通过{@link #getResourceAsStream(String)}获取字节码
+     */
+    private static class BytesClassLoader extends ClassLoader {
+
+        private final String name;
+
+        private final byte[] bytes;
+
+        BytesClassLoader(String name, byte[] bytes) {
+            super(ProxyClassDiskCacheTest.class.getClassLoader());
+            this.name = name;
+            this.bytes = bytes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            if (this.name.equals(name)) {
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+            return super.findClass(name);
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            if (name.equals(this.name.replace('.', '/') + ".class")) {
+                return new ByteArrayInputStream(bytes);
+            }
+            return super.getResourceAsStream(name);
+        }
+    }
+
+}
@@ -12,8 +12,17 @@
  */
 package com.github.joekerouac.common.tools.proxy;
 
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.testng.Assert;
 
+import com.github.joekerouac.common.tools.reflect.ReflectUtil;
+
 /**
  * @author JoeKerouac
  * @date 2022-10-14 14:37:00
@@ -36,6 +45,218 @@ public class ProxyClientTestHelper {
         doObjectMethodTest(client);
         doProxyParentMethodTest(client);
         doMultiProxy(client);
+        doCacheTest(client);
+        doDispatchTest(client);
+        doChainTest(client);
+        doNamedTest(client);
+    }
+
+    /**
+     * 测试指定class名时使用普通ClassLoader多次生成代理class，不能重复定义同名class
+     *
+     * @param client
+     *            代理客户端
+     */
+    public static void doNamedTest(ProxyClient client) {
+        if (client.getClientType() == ProxyClient.ClientType.JAVA) {
+            return;
+        }
+
+        ClassLoader loader = new ClassLoader(ProxyClientTestHelper.class.getClassLoader()) {};
+        String name = ProxyClientTestHelper.class.getName() + "$$Named" + client.getClientType();
+
+        // createClass不缓存，同名class多次生成；cglib的createClass直接在传入的ClassLoader中定义class，不支持
+        if (client.getClientType() == ProxyClient.ClientType.BYTE_BUDDY) {
+            Class<?> class1 = client.createClass(new Class[] {Say.class}, null, loader, name,
+                (target, params, method, invoker) -> "1");
+            Class<?> class2 = client.createClass(new Class[] {Say.class}, null, loader, name,
+                (target, params, method, invoker) -> "2");
+            Assert.assertEquals(class1.getName(), name);
+            Assert.assertEquals(class2.getName(), name);
+            Assert.assertNotSame(class1, class2);
+        }
+
+        // 同名但是父类不同
+        String createName = name + "$$Create";
+        Say say = client.create(Say.class, loader, createName, (target, params, method, invoker) -> "say");
+        SayDefault sayDefault =
+            client.create(SayDefault.class, loader, createName, (target, params, method, invoker) -> "sayDefault");
+        Assert.assertEquals(say.getClass().getName(), createName);
+        Assert.assertEquals(sayDefault.getClass().getName(), createName);
+        Assert.assertNotSame(say.getClass(), sayDefault.getClass());
+        Assert.assertEquals(say.say("123"), "say");
+        Assert.assertEquals(sayDefault.say("123"), "sayDefault");
+        // 两个都能命中缓存
+        Assert.assertSame(
+            client.create(Say.class, loader, createName, (target, params, method, invoker) -> "").getClass(),
+            say.getClass());
+        Assert.assertSame(
+            client.create(SayDefault.class, loader, createName, (target, params, method, invoker) -> "").getClass(),
+            sayDefault.getClass());
+    }
+
+    /**
+     * 测试拦截链：执行顺序、短路、重试以及没有原始invoker时的行为
+     *
+     * @param client
+     *            代理客户端
+     */
+    public static void doChainTest(ProxyClient client) {
+        List<String> trace = new ArrayList<>();
+        Interception first = (target, params, method, invoker) -> {
+            trace.add("first");
+            return "first:" + invoker.call();
+        };
+        Interception retry = (target, params, method, invoker) -> {
+            trace.add("retry");
+            try {
+                return invoker.call();
+            } catch (IllegalStateException e) {
+                return invoker.call();
+            }
+        };
+        AtomicInteger failTimes = new AtomicInteger(1);
+        Interception last = (target, params, method, invoker) -> {
+            trace.add("last");
+            if (!method.getName().equals("say")) {
+                return invoker == null ? null : invoker.call();
+            }
+            if (failTimes.getAndDecrement() > 0) {
+                throw new IllegalStateException();
+            }
+            return invoker == null ? "none" : invoker.call();
+        };
+
+        // 对指定对象代理，最后调用被代理对象
+        Say say = client.create(Say.class, new SayDefault(), new InterceptionChain(first, retry, last));
+        Assert.assertEquals(say.say("123"), "first:default");
+        Assert.assertEquals(trace, Arrays.asList("first", "retry", "last", "last"));
+
+        // 嵌套的拦截链会被展开
+        trace.clear();
+        InterceptionChain chain = new InterceptionChain(new InterceptionChain(first, retry), last);
+        Assert.assertEquals(chain.getInterceptions(), Arrays.asList(first, retry, last));
+        say = client.create(Say.class, chain);
+        // 接口没有实现，最后一个拦截点收到的invoker为null
+        Assert.assertEquals(say.say("123"), "first:none");
+        Assert.assertEquals(trace, Arrays.asList("first", "retry", "last"));
+
+        // 短路，后续拦截点不会执行
+        trace.clear();
+        say = client.create(Say.class, new SayDefault(),
+            new InterceptionChain((target, params, method, invoker) -> "short", last));
+        Assert.assertEquals(say.say("123"), "short");
+        Assert.assertTrue(trace.isEmpty());
+
+        // 拦截点返回后再调用invoker（例如异步执行），仍然执行下一个拦截点，不会重新进入自身
+        trace.clear();
+        failTimes.set(0);
+        AtomicReference<Invoker> later = new AtomicReference<>();
+        Interception async = (target, params, method, invoker) -> {
+            trace.add("async");
+            later.set(invoker);
+            return "async";
+        };
+        say = client.create(Say.class, new SayDefault(), new InterceptionChain(async, last));
+        Assert.assertEquals(say.say("123"), "async");
+        try {
+            Assert.assertEquals(later.get().call(), "default");
+            Assert.assertEquals(later.get().call(), "default");
+        } catch (Throwable throwable) {
+            throw new AssertionError(throwable);
+        }
+        Assert.assertEquals(trace, Arrays.asList("async", "last", "last"));
+    }
+
+    /**
+     * 测试对指定对象代理时对目标对象的方法调用（基本类型、void、可变参数、异常）
+     *
+     * @param client
+     *            代理客户端
+     */
+    public static void doDispatchTest(ProxyClient client) {
+        Calc calc = client.create(Calc.class, new CalcImpl(), (target, params, method, invoker) -> {
+            if (method.getName().equals("fail")) {
+                try {
+                    return invoker.call();
+                } catch (InvocationTargetException e) {
+                    // 与反射调用一致，目标方法抛出的异常包装为InvocationTargetException
+                    throw e.getTargetException();
+                }
+            }
+            return invoker.call();
+        });
+
+        Assert.assertEquals(calc.add(1, 2), 3);
+        Assert.assertEquals(calc.sum(1, 2, 3), 6L);
+        Assert.assertEquals(calc.sum(), 0L);
+        calc.clear();
+        Assert.assertThrows(UnsupportedOperationException.class, calc::fail);
+        Assert.assertEquals(((ProxyParent)calc).GET_TARGET_CLASS(), CalcImpl.class);
+
+        Assert.assertTrue(MethodMetadata.isObjectMethod(ReflectUtil.getMethod(Object.class, "toString")));
+        Assert.assertTrue(ProxyParent.canInvoke(ReflectUtil.getMethod(ProxyParent.class, "GET_TARGET")));
+        Assert.assertFalse(MethodMetadata.isObjectMethod(ReflectUtil.getMethod(Calc.class, "clear")));
+
+        // 只有目标方法本身抛出的异常才包装为InvocationTargetException，参数、target不匹配时与反射调用抛出的异常一致
+        MethodDispatcher add = MethodDispatcher.get(ReflectUtil.getMethod(Calc.class, "add", int.class, int.class));
+        CalcImpl impl = new CalcImpl();
+        try {
+            Assert.assertEquals(add.invoke(impl, new Object[] {1, 2}), 3);
+            Assert.assertThrows(NullPointerException.class, () -> add.invoke(null, new Object[] {1, 2}));
+            Assert.assertThrows(IllegalArgumentException.class, () -> add.invoke(new Object(), new Object[] {1, 2}));
+            Assert.assertThrows(IllegalArgumentException.class, () -> add.invoke(impl, new Object[] {null, 2}));
+            Assert.assertThrows(IllegalArgumentException.class, () -> add.invoke(impl, new Object[] {"1", 2}));
+            Assert.assertThrows(IllegalArgumentException.class, () -> add.invoke(impl, new Object[] {1}));
+            // 基本类型拓宽转换
+            Assert.assertEquals(add.invoke(impl, new Object[] {(short)1, 'a'}), 98);
+            Assert.assertThrows(InvocationTargetException.class,
+                () -> MethodDispatcher.get(ReflectUtil.getMethod(Calc.class, "fail")).invoke(impl, null));
+        } catch (Throwable throwable) {
+            throw new AssertionError(throwable);
+        }
+    }
+
+    /**
+     * 测试代理class缓存，相同父类、接口生成的代理class相同，但是Interception绑定在代理实例上
+     *
+     * @param client
+     *            代理客户端
+     */
+    public static void doCacheTest(ProxyClient client) {
+        Say say1 = client.create(Say.class, (target, params, method, invoker) -> method.getName().equals("say")
+            ? "1:" + params[0] : invoker == null ? null : invoker.call());
+        Say say2 = client.create(Say.class, (target, params, method, invoker) -> method.getName().equals("say")
+            ? "2:" + params[0] : invoker == null ? null : invoker.call());
+
+        Assert.assertSame(say1.getClass(), say2.getClass());
+        Assert.assertEquals(say1.say("123"), "1:123");
+        Assert.assertEquals(say2.say("123"), "2:123");
+
+        // 使用同一个普通ClassLoader时也要能命中缓存
+        ClassLoader loader = new ClassLoader(ProxyClientTestHelper.class.getClassLoader()) {};
+        Say say3 = client.create(Say.class, loader, (target, params, method, invoker) -> "3");
+        Say say4 = client.create(Say.class, loader, (target, params, method, invoker) -> "4");
+        Assert.assertSame(say3.getClass(), say4.getClass());
+        Assert.assertNotSame(say3.getClass(), say1.getClass());
+        Assert.assertEquals(say3.say("123"), "3");
+        Assert.assertEquals(say4.say("123"), "4");
+
+        if (client.getClientType() != ProxyClient.ClientType.JAVA) {
+            // 指定class名时也可以多次创建
+            String name = ProxyClientTestHelper.class.getName() + "$$Cached" + client.getClientType();
+            Say say5 = client.create(Say.class, name, (target, params, method, invoker) -> "5");
+            Say say6 = client.create(Say.class, name, (target, params, method, invoker) -> "6");
+            Assert.assertEquals(say5.getClass().getName(), name);
+            Assert.assertSame(say5.getClass(), say6.getClass());
+            Assert.assertEquals(say5.say("123"), "5");
+            Assert.assertEquals(say6.say("123"), "6");
+
+            // 构造器中调用的方法也能被拦截
+            Init init = client.create(Init.class,
+                (target, params, method, invoker) -> method.getName().equals("init") ? "proxy" : invoker.call());
+            Assert.assertEquals(init.value, "proxy");
+        }
     }
 
     /**
@@ -207,6 +428,55 @@ public class ProxyClientTestHelper {
         }
     }
 
+    public static class Init {
+
+        String value;
+
+        public Init() {
+            value = init();
+        }
+
+        public String init() {
+            return "init";
+        }
+    }
+
+    public interface Calc {
+
+        int add(int a, int b);
+
+        long sum(int... values);
+
+        void clear();
+
+        void fail();
+    }
+
+    public static class CalcImpl implements Calc {
+
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        @Override
+        public long sum(int... values) {
+            long sum = 0;
+            for (int value : values) {
+                sum += value;
+            }
+            return sum;
+        }
+
+        @Override
+        public void clear() {}
+
+        @Override
+        public void fail() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     public interface Convert {
 
         String convert1(String content);
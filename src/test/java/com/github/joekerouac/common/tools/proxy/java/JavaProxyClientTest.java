@@ -46,6 +46,9 @@ public class JavaProxyClientTest {
         ProxyClientTestHelper.doObjectMethodTest(client);
         ProxyClientTestHelper.doProxyParentMethodTest(client);
         ProxyClientTestHelper.doMultiProxy(client);
+        ProxyClientTestHelper.doCacheTest(client);
+        ProxyClientTestHelper.doDispatchTest(client);
+        ProxyClientTestHelper.doChainTest(client);
     }
 
     public interface Say {
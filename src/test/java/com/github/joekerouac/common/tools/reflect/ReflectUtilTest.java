@@ -12,7 +12,14 @@
  */
 package com.github.joekerouac.common.tools.reflect;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.validation.constraints.NotNull;
 
@@ -62,8 +69,122 @@ public class ReflectUtilTest {
         Assert.assertTrue(ReflectUtil.getAllFields(Pojo.class).length > 0);
     }
 
+    @Test
+    public void testCache() {
+        // 预热
+        ReflectUtil.getField(Pojo.class, "name");
+        ReflectUtil.getField(Pojo.class, "notExist", true, false);
+        ReflectUtil.getMethod(Pojo.class, "getName", true);
+        ReflectUtil.getAllFields(Pojo.class);
+        ReflectUtil.getAllMethod(Pojo.class);
+
+        long hit = ReflectCache.getHitCount();
+        long miss = ReflectCache.getMissCount();
+
+        // 父类中的字段
+        Field field = ReflectUtil.getField(Pojo.class, "name");
+        Assert.assertSame(ReflectUtil.getField(new Pojo(), "name"), field);
+        Assert.assertEquals(field.getDeclaringClass(), AbstractPojo.class);
+        // 不存在的字段
+        Assert.assertNull(ReflectUtil.getField(Pojo.class, "notExist", true, false));
+        Assert.assertThrows(RuntimeException.class, () -> ReflectUtil.getField(Pojo.class, "notExist"));
+        // 父类中的方法
+        Method method = ReflectUtil.getMethod(Pojo.class, "getName", true);
+        Assert.assertSame(ReflectUtil.getMethod(Pojo.class, "getName", true), method);
+        // 返回的是副本，修改不影响缓存
+        Field[] fields = ReflectUtil.getAllFields(Pojo.class);
+        fields[0] = null;
+        Assert.assertNotNull(ReflectUtil.getAllFields(Pojo.class)[0]);
+        List<Method> methods = ReflectUtil.getAllMethod(Pojo.class);
+        methods.clear();
+        Assert.assertFalse(ReflectUtil.getAllMethod(Pojo.class).isEmpty());
+
+        Assert.assertEquals(ReflectCache.getMissCount(), miss);
+        Assert.assertTrue(ReflectCache.getHitCount() >= hit + 10);
+
+        // 构造器缓存
+        Assert.assertTrue(ClassUtils.getInstance(Pojo.class) instanceof Pojo);
+        Assert.assertTrue(ClassUtils.getInstance(Map.class) instanceof HashMap);
+        Assert.assertTrue(ClassUtils.getInstance(List.class) instanceof ArrayList);
+        miss = ReflectCache.getMissCount();
+        Assert.assertTrue(ClassUtils.getInstance(Pojo.class) instanceof Pojo);
+        // 不存在的构造器
+        Assert.assertThrows(RuntimeException.class,
+            () -> ClassUtils.getInstance(Pojo.class, new Class[] {Integer.class}, new Object[] {1}));
+        Assert.assertThrows(RuntimeException.class,
+            () -> ClassUtils.getInstance(Pojo.class, new Class[] {Integer.class}, new Object[] {1}));
+        Assert.assertEquals(ReflectCache.getMissCount(), miss + 1);
+    }
+
+    @Test
+    public void testJdkClass() {
+        // JDK9及以上版本java.*中的私有成员无法修改访问权限，查找其他成员不应该受影响
+        Assert.assertTrue(ClassUtils.getInstance(HashMap.class) instanceof HashMap);
+        Method method = ReflectUtil.getMethod(Boolean.class, "parseBoolean", String.class);
+        Assert.assertEquals(ReflectUtil.execMethod(method, null, "true"), Boolean.TRUE);
+        Assert.assertNotNull(ReflectUtil.getField(HashMap.class, "table"));
+        Assert.assertTrue(ReflectUtil.getAllFields(HashMap.class).length > 0);
+        Assert.assertNotNull(ReflectUtil.getField(Integer.class, "MAX_VALUE"));
+    }
+
+    @Test
+    public void testStatistics() {
+        // 每次查找只统计一次，冷启动时统计为未命中
+        long hit = ReflectCache.getHitCount();
+        long miss = ReflectCache.getMissCount();
+        Assert.assertNotNull(ReflectCache.getField(StatPojo.class, "value", false));
+        Assert.assertEquals(ReflectCache.getHitCount(), hit);
+        Assert.assertEquals(ReflectCache.getMissCount(), miss + 1);
+
+        // 存在的字段、不存在的字段都是命中
+        Assert.assertNotNull(ReflectCache.getField(StatPojo.class, "value", false));
+        Assert.assertNull(ReflectCache.getField(StatPojo.class, "notExist", false));
+        Assert.assertEquals(ReflectCache.getHitCount(), hit + 2);
+        Assert.assertEquals(ReflectCache.getMissCount(), miss + 1);
+
+        // 递归查找父类的字段也只统计一次
+        Assert.assertTrue(ReflectCache.getAllFields(StatPojo.class).length > 1);
+        Assert.assertEquals(ReflectCache.getMissCount(), miss + 2);
+        Assert.assertEquals(ReflectCache.getHitCount(), hit + 2);
+    }
+
+    @Test
+    public void testForeignParameterType() throws Exception {
+        // 子classloader（这里是一个不相关的classloader）中的class作为参数类型时不缓存，否则Pojo的缓存会持有该classloader
+        URL location = Pojo.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {location}, null)) {
+            Class<?> foreign = loader.loadClass(Pojo.class.getName());
+            Assert.assertNotSame(foreign, Pojo.class);
+
+            long hit = ReflectCache.getHitCount();
+            long miss = ReflectCache.getMissCount();
+            for (int i = 0; i < 2; i++) {
+                Assert.assertNull(ReflectCache.getMethod(Pojo.class, "appendName", false, new Class[] {foreign}));
+                Assert.assertNull(ReflectCache.getConstructor(Pojo.class, new Class[] {foreign}));
+            }
+            Assert.assertEquals(ReflectCache.getHitCount(), hit);
+            Assert.assertEquals(ReflectCache.getMissCount(), miss + 4);
+        }
+
+        // 父classloader中的class可以缓存
+        long hit = ReflectCache.getHitCount();
+        for (int i = 0; i < 2; i++) {
+            Assert.assertNotNull(ReflectCache.getMethod(Pojo.class, "appendName", false, new Class[] {String.class}));
+        }
+        Assert.assertTrue(ReflectCache.getHitCount() > hit);
+    }
+
     public interface PojoInterface {}
 
+    public static class StatPojo extends AbstractPojo {
+
+        private int value;
+
+        StatPojo() {
+            super("stat");
+        }
+    }
+
     public static class AbstractPojo implements PojoInterface {
 
         protected String name;
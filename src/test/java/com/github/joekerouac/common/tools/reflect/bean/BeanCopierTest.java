@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.reflect.bean;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import lombok.Data;
+
+/**
+ * BeanCopier测试用例
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 20:30:00
+ * @since 2.1.6
+ */
+public class BeanCopierTest {
+
+    @Test
+    public void testCopy() {
+        BeanCopier copier = BeanCopier.of(Source.class, Target.class);
+        // 复制器是缓存的
+        Assert.assertSame(BeanCopier.of(Source.class, Target.class), copier);
+        Assert.assertNotSame(BeanCopier.of(Target.class, Source.class), copier);
+
+        Source source = new Source();
+        Target target = new Target();
+        Assert.assertSame(copier.copy(source, target), target);
+
+        Assert.assertEquals(target.getName(), "alias");
+        Assert.assertEquals(target.getAge(), 18);
+        Assert.assertEquals(target.getId(), 100L);
+        Assert.assertEquals(target.getScore(), 1.5D);
+        Assert.assertEquals(target.getBoxedAge(), Integer.valueOf(20));
+        Assert.assertEquals(target.getNum(), Integer.valueOf(123));
+        Assert.assertEquals(target.getCode(), "10");
+        Assert.assertEquals(target.getDyn(), "dyn");
+        Assert.assertEquals(target.getObj(), "456");
+        // 被忽略的字段、源字段为null的字段、无法转换的字段不会复制
+        Assert.assertNull(target.getIgnored());
+        Assert.assertEquals(target.getNullField(), "default");
+        Assert.assertNull(target.getUnsupported());
+
+        // 与BeanUtils的结果一致
+        Target other = BeanUtils.copyFromObjToObj(new Target(), source);
+        Assert.assertEquals(other, target);
+    }
+
+    @Test
+    public void testCopyList() {
+        List<Object> sources = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Source source = new Source();
+            source.setAge(i);
+            sources.add(source);
+        }
+        sources.add(null);
+        sources.add(new BeanUtilsTest.Age(100));
+
+        List<Target> targets = BeanUtils.copyFromMultiObjToClass(Target.class, sources);
+        Assert.assertEquals(targets.size(), 11);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(targets.get(i).getAge(), i);
+            Assert.assertEquals(targets.get(i).getName(), "alias");
+        }
+        Assert.assertEquals(targets.get(10).getAge(), 100);
+        Assert.assertNull(targets.get(10).getName());
+    }
+
+    @Test
+    public void testConverterChange() {
+        BeanCopier copier = BeanCopier.of(Source.class, Target.class);
+
+        TypeConverter converter = new TypeConverter() {
+            @Override
+            public boolean test(Class<?> srcType, Class<?> targetType, Annotation[] annotations) {
+                return false;
+            }
+
+            @Override
+            public <S, T> T convert(S src, Annotation[] annotations, Class<T> targetType) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        TypeConverterRegistry.register(converter);
+        try {
+            // 转换器注册表变更后缓存整体替换
+            BeanCopier newCopier = BeanCopier.of(Source.class, Target.class);
+            Assert.assertNotSame(newCopier, copier);
+            Assert.assertSame(BeanCopier.of(Source.class, Target.class), newCopier);
+        } finally {
+            Assert.assertTrue(TypeConverterRegistry.unregister(converter));
+        }
+
+        Assert.assertNotSame(BeanCopier.of(Source.class, Target.class), copier);
+    }
+
+    @Test
+    public void testFieldEditor() {
+        // 没有get、set方法的字段直接复用BeanMetadata中的字段编辑器，有get、set方法的字段只会创建一次直接读写字段的编辑器
+        BeanMetadata.Property property = BeanMetadata.of(NoAccessor.class).getProperty("value");
+        Assert.assertSame(property.getFieldEditor(), property.getPropertyEditor());
+
+        property = BeanMetadata.of(Source.class).getProperty("age");
+        Assert.assertNotSame(property.getFieldEditor(), property.getPropertyEditor());
+        Assert.assertSame(property.getFieldEditor(), property.getFieldEditor());
+        Assert.assertFalse(property.getFieldEditor().hasReadMethod());
+    }
+
+    @Data
+    public static class Source {
+
+        @Alias("name")
+        private String alias = "alias";
+
+        private int age = 18;
+
+        private long id = 100L;
+
+        private double score = 1.5D;
+
+        private int boxedAge = 20;
+
+        private String num = "123";
+
+        private int code = 10;
+
+        private Object dyn = "dyn";
+
+        private Object obj = 456;
+
+        @Ignore
+        private String ignored = "ignored";
+
+        private String nullField;
+
+        private Source unsupported;
+    }
+
+    @Data
+    public static class Target {
+
+        private String name;
+
+        private int age;
+
+        private long id;
+
+        private double score;
+
+        private Integer boxedAge;
+
+        private Integer num;
+
+        private String code;
+
+        private String dyn;
+
+        private String obj;
+
+        private String ignored;
+
+        private String nullField = "default";
+
+        private BeanUtilsTest.Age unsupported;
+    }
+
+    public static class NoAccessor {
+
+        private int value;
+    }
+}
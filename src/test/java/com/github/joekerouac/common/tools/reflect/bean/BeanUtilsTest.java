@@ -101,6 +101,30 @@ public class BeanUtilsTest {
         Assert.assertTrue(BeanUtils.getPropertyDescriptors(BeanA.class).length > 0);
     }
 
+    @Test
+    public void testMetadata() throws Exception {
+        BeanMetadata metadata = BeanMetadata.of(User.class);
+        // 元数据只会解析一次
+        Assert.assertSame(BeanMetadata.of(User.class), metadata);
+        Assert.assertEquals(metadata.getProperties().size(), 6);
+
+        // 名称索引和别名索引
+        Assert.assertEquals(metadata.getProperty("nameAlias").getMappedName(), "name");
+        Assert.assertSame(metadata.getPropertyByAlias("name"), metadata.getProperty("nameAlias"));
+        Assert.assertNull(metadata.getPropertyEditor("notExist"));
+
+        // 编辑器是缓存的，但是返回的数组是副本
+        PropertyEditor[] editors = BeanUtils.getPropertyDescriptors(User.class);
+        Assert.assertSame(editors[0], BeanUtils.getPropertyDescriptors(User.class)[0]);
+        editors[0] = null;
+        Assert.assertNotNull(BeanUtils.getPropertyDescriptors(User.class)[0]);
+        Assert.assertSame(BeanUtils.buildPropertyEditor(User.class.getDeclaredField("age"), User.class),
+            metadata.getPropertyEditor("age"));
+
+        Assert.assertThrows(RuntimeException.class, () -> BeanUtils.getProperty(new User(), "notExist"));
+        Assert.assertFalse(BeanUtils.setProperty(new User(), "notExist", 1));
+    }
+
     @Data
     public static class User {
 
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.reflect.bean;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.github.joekerouac.common.tools.exception.CommonException;
+
+import lombok.Data;
+
+/**
+ * LambdaPropertyEditor测试用例
+ *
+ * @author JoeKerouac
+ * @date 2026-10-17 19:30:00
+ * @since 2.1.6
+ */
+public class LambdaPropertyEditorTest {
+
+    @Test
+    public void testLambda() {
+        PublicBean bean = new PublicBean();
+        BeanMetadata metadata = BeanMetadata.of(PublicBean.class);
+        for (PropertyEditor editor : metadata.getPropertyEditors()) {
+            Assert.assertTrue(editor instanceof LambdaPropertyEditor, editor.name());
+        }
+
+        PropertyEditor name = metadata.getPropertyEditor("name");
+        PropertyEditor age = metadata.getPropertyEditor("age");
+        PropertyEditor id = metadata.getPropertyEditor("id");
+        PropertyEditor score = metadata.getPropertyEditor("score");
+        PropertyEditor enable = metadata.getPropertyEditor("enable");
+
+        name.write(bean, "joe");
+        age.write(bean, 18);
+        id.write(bean, 100L);
+        score.write(bean, 1.5D);
+        enable.write(bean, true);
+
+        Assert.assertEquals(bean.getName(), "joe");
+        Assert.assertEquals((int)age.read(bean), 18);
+        Assert.assertEquals((long)id.read(bean), 100L);
+        Assert.assertEquals((double)score.read(bean), 1.5D);
+        Assert.assertTrue(enable.read(bean));
+
+        age.writeInt(bean, 20);
+        id.writeLong(bean, 200L);
+        score.writeDouble(bean, 2.5D);
+        Assert.assertEquals(age.readInt(bean), 20);
+        Assert.assertEquals(id.readLong(bean), 200L);
+        Assert.assertEquals(score.readDouble(bean), 2.5D);
+        Assert.assertTrue(enable.readBoolean(bean));
+
+        // 非原生类型字段使用原生类型读写时走默认的装箱、拆箱逻辑
+        PropertyEditor count = metadata.getPropertyEditor("count");
+        count.writeInt(bean, 3);
+        Assert.assertEquals(count.readInt(bean), 3);
+
+        // 写入null到原生类型字段
+        Assert.assertThrows(CommonException.class, () -> age.write(bean, null));
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        // 私有类无法使用LambdaMetafactory绑定，将会使用MethodHandle
+        PrivateBean bean = new PrivateBean();
+        BeanMetadata metadata = BeanMetadata.of(PrivateBean.class);
+
+        PropertyEditor value = metadata.getPropertyEditor("value");
+        value.writeInt(bean, 10);
+        Assert.assertEquals(bean.value, 10);
+        Assert.assertEquals(value.readInt(bean), 10);
+        value.write(bean, 11);
+        Assert.assertEquals((int)value.read(bean), 11);
+
+        // 没有读写方法的字段
+        PropertyEditor field = metadata.getPropertyEditor("field");
+        field.write(bean, "field");
+        Assert.assertEquals(bean.field, "field");
+        Assert.assertEquals(field.read(bean), "field");
+
+        // 静态字段
+        PropertyEditor staticField = metadata.getPropertyEditor("staticField");
+        staticField.write(PrivateBean.class, "static");
+        Assert.assertEquals(staticField.read(PrivateBean.class), "static");
+        Assert.assertEquals(staticField.read(bean), "static");
+
+        // static final字段无法写入
+        PropertyEditor constant = metadata.getPropertyEditor("CONSTANT");
+        Assert.assertEquals(constant.read(bean), "constant");
+        Assert.assertThrows(CommonException.class, () -> constant.write(bean, "new"));
+
+        // 读写方法异常
+        PropertyEditor error = metadata.getPropertyEditor("error");
+        CommonException exception = Assert.expectThrows(CommonException.class, () -> error.read(bean));
+        Assert.assertTrue(exception.getCause() instanceof IllegalStateException);
+        exception = Assert.expectThrows(CommonException.class, () -> error.write(bean, "error"));
+        Assert.assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    @Data
+    public static class PublicBean {
+
+        private String name;
+
+        private int age;
+
+        private long id;
+
+        private double score;
+
+        private boolean enable;
+
+        private Integer count;
+    }
+
+    private static class PrivateBean {
+
+        private static final String CONSTANT = "constant";
+
+        private static String staticField;
+
+        private int value;
+
+        private String field;
+
+        private String error;
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(int value) {
+            this.value = value;
+        }
+
+        public String getError() {
+            throw new IllegalStateException("read");
+        }
+
+        public void setError(String error) {
+            throw new IllegalStateException("write");
+        }
+    }
+}
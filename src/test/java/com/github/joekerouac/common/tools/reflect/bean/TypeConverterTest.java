@@ -13,6 +13,7 @@
 package com.github.joekerouac.common.tools.reflect.bean;
 
 import java.io.File;
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,6 +23,10 @@ import org.testng.annotations.Test;
 
 import com.github.joekerouac.common.tools.enums.YesOrNoEnum;
 
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
 /**
  * @author JoeKerouac
  * @date 2022-10-14 14:37:00
@@ -42,6 +47,34 @@ public class TypeConverterTest {
         Assert.assertNotNull(converter.convert(src, targetType));
     }
 
+    @Test
+    public void testRegister() {
+        // 内置转换器的查找结果会被缓存
+        Assert.assertSame(TypeConverterRegistry.findConverter(String.class, Integer.class),
+            TypeConverterRegistry.findConverter(String.class, Integer.class));
+        // 找不到转换器
+        Assert.assertNull(TypeConverterRegistry.findConverter(Id.class, Long.class));
+        Assert.assertNull(TypeConverterRegistry.findConverter(Id.class, Long.class));
+
+        IdSource source = new IdSource(new Id(10));
+        Assert.assertNull(BeanUtils.copyFromObjToClass(IdTarget.class, source).getId());
+
+        TypeConverter converter = new IdConverter();
+        TypeConverterRegistry.register(converter);
+        try {
+            // 注册后缓存失效
+            Assert.assertSame(TypeConverterRegistry.findConverter(Id.class, Long.class), converter);
+            Assert.assertEquals(TypeConverterRegistry.getAllTypeConverter().get(0), converter);
+            Assert.assertEquals(BeanUtils.copyFromObjToClass(IdTarget.class, source).getId(), Long.valueOf(10));
+        } finally {
+            Assert.assertTrue(TypeConverterRegistry.unregister(converter));
+        }
+
+        Assert.assertFalse(TypeConverterRegistry.unregister(converter));
+        Assert.assertNull(TypeConverterRegistry.findConverter(Id.class, Long.class));
+        Assert.assertNull(BeanUtils.copyFromObjToClass(IdTarget.class, source).getId());
+    }
+
     @DataProvider(name = "dataProvider")
     public Object[][] dataProvider() {
         List<Object[]> list = new ArrayList<>();
@@ -78,4 +111,35 @@ public class TypeConverterTest {
 
         return list.toArray(new Object[0][]);
     }
+
+    @Data
+    @AllArgsConstructor
+    public static final class Id {
+        private long value;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IdSource {
+        private Id id;
+    }
+
+    @Data
+    public static class IdTarget {
+        private Long id;
+    }
+
+    private static class IdConverter implements TypeConverter {
+
+        @Override
+        public boolean test(Class<?> srcType, Class<?> targetType, Annotation[] annotations) {
+            return Id.class.equals(srcType) && Long.class.equals(targetType);
+        }
+
+        @Override
+        public <S, T> T convert(S src, Annotation[] annotations, Class<T> targetType) {
+            return targetType.cast(((Id)src).getValue());
+        }
+    }
 }
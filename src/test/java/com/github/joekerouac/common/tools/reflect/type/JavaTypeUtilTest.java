@@ -20,6 +20,7 @@ import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -139,6 +140,41 @@ public class JavaTypeUtilTest {
 
     }
 
+    @Test
+    public void testCache() throws Exception {
+        Field field = this.getClass().getDeclaredField("map");
+        JavaType javaType = JavaTypeUtil.createJavaType(field.getGenericType());
+        // 相同类型多次解析返回同一个实例
+        Assert.assertSame(JavaTypeUtil.createJavaType(field.getGenericType()), javaType);
+        Assert.assertSame(JavaTypeUtil.createJavaType(new AbstractTypeReference<Map<String, List<String>>>() {}),
+            javaType);
+
+        // 泛型变量的解析结果依赖上下文，上下文不同解析结果不同
+        Type typeVariable = A.class.getTypeParameters()[0];
+        LinkedHashMap<String, JavaType> bindings = new LinkedHashMap<>();
+        bindings.put("K", JavaTypeUtil.createJavaType(String.class));
+        Type listType = new AbstractTypeReference<List<String>>() {}.getType();
+        ParameterizedType parameterizedType = (ParameterizedType)listType;
+        Assert.assertSame(JavaTypeUtil.createJavaType(typeVariable, bindings), bindings.get("K"));
+        Assert.assertEquals(JavaTypeUtil.createJavaType(typeVariable).getRawClass(), Object.class);
+        // F extends List<K>，F本身不在上下文中，但是解析结果依赖K的绑定
+        Type f = B.class.getTypeParameters()[2];
+        JavaType withBinding = JavaTypeUtil.createJavaType(f, bindings);
+        JavaType withoutBinding = JavaTypeUtil.createJavaType(f);
+        Assert.assertNotSame(withBinding, withoutBinding);
+        Assert.assertSame(JavaTypeUtil.createJavaType(f, new LinkedHashMap<>(bindings)), withBinding);
+        Assert.assertSame(JavaTypeUtil.createJavaType(f), withoutBinding);
+        JavaType bound =
+            ((CustomParameterizedType)((GenericType)withBinding).getParent()).getBindings().values().iterator().next();
+        Assert.assertEquals(bound.getRawClass(), String.class);
+
+        // 上下文中与类型无关的泛型不影响缓存
+        LinkedHashMap<String, JavaType> other = new LinkedHashMap<>();
+        other.put("M", JavaTypeUtil.createJavaType(Integer.class));
+        Assert.assertSame(JavaTypeUtil.createJavaType(parameterizedType, other),
+            JavaTypeUtil.createJavaType(parameterizedType));
+    }
+
     @Test
     public void testGetDeclareGenerics() {
         List<JavaType> list = JavaTypeUtil.getDeclareGenerics(A.class);
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.scheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.github.joekerouac.common.tools.thread.ThreadUtil;
+
+/**
+ * @author JoeKerouac
+ * @date 2026-10-17 14:00:00
+ * @since 2.1.6
+ */
+public class SchedulerSystemTest {
+
+    @Test
+    public void baseTest() {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        SchedulerSystem schedulerSystem = new SchedulerSystemImpl("base-test", executorService, true);
+        schedulerSystem.start();
+        try {
+            AtomicInteger timed = new AtomicInteger();
+            AtomicInteger manual = new AtomicInteger();
+            Assert.assertNull(schedulerSystem.registerTask(new TaskDescriptor("timed", 50, timed::incrementAndGet)));
+            Assert.assertNotNull(schedulerSystem.registerTask(new TaskDescriptor("timed", 50, timed::incrementAndGet)));
+            Assert.assertNull(
+                schedulerSystem.registerTask(new TaskDescriptor("manual", 1000 * 60, manual::incrementAndGet)));
+
+            // 定时任务到期自动执行，并且执行完毕后会重新计时
+            ThreadUtil.sleep(500, TimeUnit.MILLISECONDS);
+            Assert.assertTrue(timed.get() >= 3, String.valueOf(timed.get()));
+            Assert.assertEquals(manual.get(), 0);
+
+            // 手动唤醒
+            schedulerSystem.scheduler("manual");
+            ThreadUtil.sleep(100, TimeUnit.MILLISECONDS);
+            Assert.assertEquals(manual.get(), 1);
+
+            // 移除后不再执行
+            Assert.assertNotNull(schedulerSystem.removeTask("timed"));
+            ThreadUtil.sleep(100, TimeUnit.MILLISECONDS);
+            int count = timed.get();
+            ThreadUtil.sleep(200, TimeUnit.MILLISECONDS);
+            Assert.assertEquals(timed.get(), count);
+            Assert.assertEquals(schedulerSystem.getAll().size(), 1);
+        } finally {
+            schedulerSystem.stop();
+            executorService.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.github.joekerouac.common.tools.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.github.joekerouac.common.tools.thread.ThreadUtil;
+
+/**
+ * @author JoeKerouac
+ * @date 2026-10-17 15:00:00
+ * @since 2.1.6
+ */
+public class TimerSchedulerTaskTest {
+
+    private TimingWheelTimer timer;
+
+    private ExecutorService executorService;
+
+    @BeforeClass
+    public void init() {
+        timer = new TimingWheelTimer("timer-scheduler-task-test");
+        timer.start();
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterClass
+    public void destroy() {
+        timer.stop();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testFixedDelay() {
+        AtomicInteger counter = new AtomicInteger();
+        SchedulerTask task =
+            new TimerSchedulerTask(counter::incrementAndGet, "fixed-delay", true, timer, executorService);
+        task.setFixedDelay(50);
+        task.setInitialDelay(100);
+        task.start();
+
+        ThreadUtil.sleep(50, TimeUnit.MILLISECONDS);
+        // 初始延迟还未到
+        Assert.assertEquals(counter.get(), 0);
+        ThreadUtil.sleep(500, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(counter.get() >= 3, String.valueOf(counter.get()));
+
+        task.stop();
+        ThreadUtil.sleep(50, TimeUnit.MILLISECONDS);
+        int count = counter.get();
+        ThreadUtil.sleep(200, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(counter.get(), count);
+    }
+
+    @Test
+    public void testScheduler() throws Exception {
+        // 不合并调度，任务执行期间的每次主动调度都需要执行一次
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger counter = new AtomicInteger();
+        SchedulerTask task = new TimerSchedulerTask(() -> {
+            if (counter.incrementAndGet() == 2) {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "scheduler", false, timer, executorService);
+        task.setFixedDelay(1000 * 60);
+        task.start();
+
+        ThreadUtil.sleep(100, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(counter.get(), 1);
+        // 等待中主动调度会立即执行
+        task.scheduler();
+        Assert.assertTrue(running.await(1, TimeUnit.SECONDS));
+        task.scheduler();
+        task.scheduler();
+        task.scheduler();
+        release.countDown();
+        ThreadUtil.sleep(100, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(counter.get(), 5);
+        task.stop();
+    }
+
+    @Test
+    public void testMergeScheduler() throws Exception {
+        // 合并调度，任务执行期间的多次主动调度只会执行一次
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger counter = new AtomicInteger();
+        SchedulerTask task = new TimerSchedulerTask(() -> {
+            if (counter.incrementAndGet() == 1) {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "merge-scheduler", true, timer, executorService);
+        task.setFixedDelay(1000 * 60);
+        task.start();
+
+        Assert.assertTrue(running.await(1, TimeUnit.SECONDS));
+        task.scheduler();
+        task.scheduler();
+        task.scheduler();
+        release.countDown();
+        ThreadUtil.sleep(100, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(counter.get(), 2);
+        task.stop();
+    }
+
+    @Test
+    public void testRejected() {
+        // 线程池拒绝时只提交一次，堆积的主动调度不会导致递归提交，等线程池恢复后再执行
+        AtomicBoolean reject = new AtomicBoolean(true);
+        AtomicInteger submitted = new AtomicInteger();
+        AtomicInteger counter = new AtomicInteger();
+        SchedulerTask task = new TimerSchedulerTask(counter::incrementAndGet, "rejected", false, timer, command -> {
+            submitted.incrementAndGet();
+            if (reject.get()) {
+                throw new RejectedExecutionException("rejected");
+            }
+            executorService.execute(command);
+        });
+        task.setFixedDelay(100);
+        task.setInitialDelay(1);
+
+        for (int i = 0; i < 10; i++) {
+            task.scheduler();
+        }
+        task.start();
+        ThreadUtil.sleep(50, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(submitted.get(), 1);
+        Assert.assertEquals(counter.get(), 0);
+
+        reject.set(false);
+        ThreadUtil.sleep(200, TimeUnit.MILLISECONDS);
+        // 一次定时执行消费掉剩余的9次主动调度
+        Assert.assertTrue(counter.get() >= 10, String.valueOf(counter.get()));
+        task.stop();
+    }
+
+    @Test
+    public void testShareTimer() {
+        // 大量任务共享同一个定时器和少量线程
+        int taskCount = 500;
+        AtomicInteger counter = new AtomicInteger();
+        List<SchedulerTask> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            SchedulerTask task =
+                new TimerSchedulerTask(counter::incrementAndGet, "share-" + i, true, timer, executorService);
+            task.setFixedDelay(100);
+            task.start();
+            tasks.add(task);
+        }
+
+        ThreadUtil.sleep(350, TimeUnit.MILLISECONDS);
+        tasks.forEach(SchedulerTask::stop);
+        // 每个任务至少执行了初次执行以及之后的两次定时执行
+        Assert.assertTrue(counter.get() >= taskCount * 3, String.valueOf(counter.get()));
+    }
+
+}
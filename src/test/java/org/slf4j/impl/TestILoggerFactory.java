@@ -43,6 +43,11 @@ public class TestILoggerFactory implements ILoggerFactory {
      */
     private static final Map<String, LogLevel> LEVEL_MAP = new HashMap<>();
 
+    /**
+     * 没有单独指定级别的日志的默认级别，可以通过系统属性test.log.level指定，例如基准测试中关闭调试日志
+     */
+    private static final LogLevel DEFAULT_LEVEL = LogLevel.valueOf(System.getProperty("test.log.level", "TRACE"));
+
     private final Map<String, SystemPrintLogger> loggers = new ConcurrentHashMap<>();
 
     static {
@@ -79,7 +84,7 @@ public class TestILoggerFactory implements ILoggerFactory {
             }
 
             if (minLevel == null) {
-                minLevel = LogLevel.TRACE;
+                minLevel = DEFAULT_LEVEL;
             }
         }
 